@@ -0,0 +1,52 @@
+package com.invoicingsystem.api.application.command;
+
+import com.invoicingsystem.api.domain.model.RecurringInvoiceTemplate;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreateRecurringInvoiceCommand {
+
+    @NotBlank(message = "Name is required")
+    private String name;
+
+    @NotBlank(message = "Client ID is required")
+    private String clientId;
+
+    @NotNull(message = "Frequency is required")
+    private RecurringInvoiceTemplate.Frequency frequency;
+
+    @NotNull(message = "Start date is required")
+    private LocalDate startDate;
+
+    private LocalDate endDate;
+
+    @NotNull(message = "Due in days is required")
+    @Min(value = 0, message = "Due in days cannot be negative")
+    private Integer dueInDays;
+
+    // DRAFT when omitted
+    private String status;
+
+    private BigDecimal taxRate;
+
+    private String notes;
+
+    @NotEmpty(message = "At least one item is required")
+    @Valid
+    private List<CreateInvoiceCommand.InvoiceItemDto> items;
+}
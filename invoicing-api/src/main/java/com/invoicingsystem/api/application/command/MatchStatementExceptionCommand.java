@@ -0,0 +1,16 @@
+package com.invoicingsystem.api.application.command;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.NotBlank;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MatchStatementExceptionCommand {
+
+    @NotBlank(message = "Invoice ID is required")
+    private String invoiceId;
+}
@@ -0,0 +1,18 @@
+package com.invoicingsystem.api.application.command;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.NotBlank;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RefreshTokenCommand {
+
+    @NotBlank(message = "Refresh token is required")
+    private String refreshToken;
+}
@@ -0,0 +1,40 @@
+package com.invoicingsystem.api.application.command;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.AssertTrue;
+import javax.validation.constraints.Positive;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A processor's confirmation that a pending payment has settled. The payment is named by its id
+ * or by the reference it was recorded with.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SettlePaymentCommand {
+
+    private String paymentId;
+
+    private String reference;
+
+    // When given it must equal the payment's amount
+    @Positive(message = "Settled amount must be positive")
+    private BigDecimal amount;
+
+    // When the processor settled the payment; reported as settlement delay
+    private LocalDateTime settledAt;
+
+    @JsonIgnore
+    @AssertTrue(message = "Payment ID or reference is required")
+    public boolean isIdentified() {
+        return paymentId != null || reference != null;
+    }
+}
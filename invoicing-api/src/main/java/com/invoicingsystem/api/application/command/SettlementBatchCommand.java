@@ -0,0 +1,18 @@
+package com.invoicingsystem.api.application.command;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SettlementBatchCommand {
+
+    @NotEmpty(message = "At least one confirmation is required")
+    private List<@Valid SettlePaymentCommand> confirmations;
+}
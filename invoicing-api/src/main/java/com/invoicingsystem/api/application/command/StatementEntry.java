@@ -0,0 +1,54 @@
+package com.invoicingsystem.api.application.command;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * A bank statement credit with the payment it was matched to, or why it was not.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatementEntry {
+
+    private long lineNumber;
+
+    private LocalDate bookingDate;
+
+    // Null when the amount could not be read
+    private BigDecimal amount;
+
+    /**
+     * The bank's reference for the line, or one derived from its content when the statement has
+     * none; becomes the payment reference, so re-imported lines are recognised as duplicates.
+     */
+    private String reference;
+
+    private String memo;
+
+    private String counterparty;
+
+    // Null when unmatched
+    private MatchType matchType;
+
+    private String invoiceId;
+
+    // The pending payment confirmed by a PENDING_PAYMENT match
+    private String paymentId;
+
+    private Reason unmatchedReason;
+
+    public enum MatchType {
+        PENDING_PAYMENT, INVOICE_NUMBER, CLIENT_AMOUNT
+    }
+
+    public enum Reason {
+        NO_MATCH, AMBIGUOUS_MATCH, INVALID_AMOUNT, INVOICE_NOT_OPEN, EXCEEDS_BALANCE, AMOUNT_MISMATCH
+    }
+}
@@ -40,6 +40,8 @@ public interface InvoiceMapper {
     @Mapping(target = "createdBy", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "recurringTemplateId", ignore = true)
+    @Mapping(target = "recurringPeriod", ignore = true)
     Invoice createInvoiceCommandToInvoice(CreateInvoiceCommand command);
 
     @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
@@ -52,6 +54,8 @@ public interface InvoiceMapper {
     @Mapping(target = "createdBy", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "recurringTemplateId", ignore = true)
+    @Mapping(target = "recurringPeriod", ignore = true)
     void updateInvoiceFromCommand(UpdateInvoiceCommand command, @MappingTarget Invoice invoice);
 
     @Mapping(target = "id", ignore = true)
@@ -0,0 +1,23 @@
+package com.invoicingsystem.api.application.mapper;
+
+import com.invoicingsystem.api.application.command.CreateInvoiceCommand;
+import com.invoicingsystem.api.application.query.RecurringInvoiceTemplateDto;
+import com.invoicingsystem.api.domain.model.RecurringInvoiceTemplate;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+import java.util.List;
+
+@Mapper(componentModel = "spring")
+public interface RecurringInvoiceMapper {
+
+    @Mapping(target = "clientId", source = "client.id")
+    @Mapping(target = "clientName", source = "client.name")
+    RecurringInvoiceTemplateDto templateToDto(RecurringInvoiceTemplate template);
+
+    List<RecurringInvoiceTemplateDto> templatesToDtos(List<RecurringInvoiceTemplate> templates);
+
+    RecurringInvoiceTemplateDto.Item itemToDto(RecurringInvoiceTemplate.Item item);
+
+    RecurringInvoiceTemplate.Item itemDtoToItem(CreateInvoiceCommand.InvoiceItemDto itemDto);
+}
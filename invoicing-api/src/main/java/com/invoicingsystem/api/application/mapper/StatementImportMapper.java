@@ -0,0 +1,21 @@
+package com.invoicingsystem.api.application.mapper;
+
+import com.invoicingsystem.api.application.query.StatementExceptionDto;
+import com.invoicingsystem.api.application.query.StatementImportDto;
+import com.invoicingsystem.api.domain.model.StatementException;
+import com.invoicingsystem.api.domain.model.StatementImport;
+import org.mapstruct.Mapper;
+
+import java.util.List;
+
+@Mapper(componentModel = "spring")
+public interface StatementImportMapper {
+
+    StatementImportDto importToDto(StatementImport statementImport);
+
+    List<StatementImportDto> importsToDtos(List<StatementImport> statementImports);
+
+    StatementExceptionDto exceptionToDto(StatementException exception);
+
+    List<StatementExceptionDto> exceptionsToDtos(List<StatementException> exceptions);
+}
@@ -26,5 +26,7 @@ public interface UserMapper {
     User createUserCommandToUser(CreateUserCommand command);
 
     @Mapping(target = "role", source = "user.role")
+    @Mapping(target = "refreshToken", ignore = true)
+    @Mapping(target = "expiresIn", ignore = true)
     JwtResponse userToJwtResponse(User user, String token);
 }
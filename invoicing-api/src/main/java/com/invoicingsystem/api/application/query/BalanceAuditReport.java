@@ -0,0 +1,21 @@
+package com.invoicingsystem.api.application.query;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class BalanceAuditReport {
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private boolean repair;
+    private long invoices;
+    private int ranges;
+    private int failedRanges;
+    private int discrepancies;
+    private int repaired;
+    // The first discrepancies found, up to app.balance-audit.max-reported
+    private List<BalanceDiscrepancyDto> reported = new ArrayList<>();
+}
@@ -0,0 +1,35 @@
+package com.invoicingsystem.api.application.query;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * An invoice whose stored balance or ledger disagrees with its payments. Completed payments are
+ * what was paid; the ledger entries recorded for them should sum to the same, and the invoice
+ * row should carry the whole ledger, opening adjustments included. A ledger above the invoice
+ * total is reported even when all three agree.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceDiscrepancyDto {
+    private String invoiceId;
+    private BigDecimal total;
+    private BigDecimal storedAmountPaid;
+    private BigDecimal storedBalance;
+    private BigDecimal ledgerAmountPaid;
+    private BigDecimal completedPayments;
+    private BigDecimal ledgerPayments;
+    // The invoice row disagrees with the ledger
+    private boolean storedDrift;
+    // Completed payments disagree with the ledger entries recorded for them
+    private boolean paymentDrift;
+    // The ledger exceeds the invoice total; repair cannot fix this, it needs a refund or correction
+    private boolean overpaid;
+    private boolean repaired;
+}
@@ -0,0 +1,23 @@
+package com.invoicingsystem.api.application.query;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeDto {
+    private long sequence;
+    private String entityType;
+    private String entityId;
+    private String operation;
+    @JsonRawValue
+    private String delta;
+    private LocalDateTime recordedAt;
+}
@@ -0,0 +1,20 @@
+package com.invoicingsystem.api.application.query;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeFeedDto {
+    @Builder.Default
+    private List<ChangeDto> changes = new ArrayList<>();
+    private String nextCursor;
+    private boolean hasMore;
+}
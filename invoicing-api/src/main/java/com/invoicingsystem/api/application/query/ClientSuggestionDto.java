@@ -0,0 +1,16 @@
+package com.invoicingsystem.api.application.query;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClientSuggestionDto {
+    private String id;
+    private String name;
+    private String email;
+}
@@ -0,0 +1,129 @@
+package com.invoicingsystem.api.application.query;
+
+import com.invoicingsystem.api.domain.exception.BadRequestException;
+
+import javax.persistence.Tuple;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Whitelist of the scalar fields a list endpoint can return as a sparse fieldset
+ * ({@code ?fields=number,status,total}) or as the predefined {@code ?view=summary}.
+ * Each field maps to the entity attribute path that is selected in the database,
+ * so a projection never loads more than the requested columns.
+ */
+public final class FieldSet {
+
+    public static final String VIEW_SUMMARY = "summary";
+    public static final String VIEW_FULL = "full";
+    private static final String ID = "id";
+
+    private final Map<String, String> attributePaths;
+    private final List<String> summary;
+    private final Map<String, Function<Object, Object>> converters = new HashMap<>();
+
+    public FieldSet(Map<String, String> attributePaths, List<String> summary) {
+        this.attributePaths = Collections.unmodifiableMap(new LinkedHashMap<>(attributePaths));
+        this.summary = List.copyOf(summary);
+        if (!this.attributePaths.containsKey(ID) || !this.attributePaths.keySet().containsAll(this.summary)) {
+            throw new IllegalArgumentException("Field set must contain id and every summary field");
+        }
+    }
+
+    /**
+     * Registers a conversion applied to a field's value, used to keep the JSON
+     * representation identical to the full DTO (e.g. amounts serialized as strings).
+     */
+    public FieldSet convert(String field, Function<Object, Object> converter) {
+        converters.put(field, converter);
+        return this;
+    }
+
+    /**
+     * Whether the request asks for a projection rather than full DTOs.
+     */
+    public static boolean isRequested(String fields, String view) {
+        return hasText(fields) || (hasText(view) && !VIEW_FULL.equalsIgnoreCase(view.trim()));
+    }
+
+    /**
+     * Resolves the requested field names, in request order, with {@code id} always first.
+     */
+    public List<String> resolve(String fields, String view) {
+        boolean hasFields = hasText(fields);
+        if (hasFields && hasText(view)) {
+            throw new BadRequestException("Use either fields or view, not both");
+        }
+        if (!hasFields) {
+            if (!hasText(view) || !VIEW_SUMMARY.equalsIgnoreCase(view.trim())) {
+                throw new BadRequestException("Unknown view '" + view + "'; expected summary or full");
+            }
+            return summary;
+        }
+
+        Set<String> names = new LinkedHashSet<>();
+        names.add(ID);
+        List<String> unknown = new ArrayList<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (attributePaths.containsKey(name)) {
+                names.add(name);
+            } else {
+                unknown.add(name);
+            }
+        }
+        if (!unknown.isEmpty()) {
+            throw new BadRequestException("Unknown fields " + unknown + "; allowed: " + attributePaths.keySet());
+        }
+        return List.copyOf(names);
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+
+    public List<String> attributePathsOf(List<String> names) {
+        return names.stream().map(attributePaths::get).collect(Collectors.toList());
+    }
+
+    /**
+     * Maps projected rows, whose columns are in the order of {@code names}, to JSON-ready maps.
+     */
+    public List<Map<String, Object>> toMaps(List<String> names, List<Tuple> rows) {
+        List<Map<String, Object>> result = new ArrayList<>(rows.size());
+        for (Tuple row : rows) {
+            Map<String, Object> map = new LinkedHashMap<>();
+            for (int i = 0; i < names.size(); i++) {
+                String name = names.get(i);
+                Object value = row.get(i);
+                Function<Object, Object> converter = converters.get(name);
+                map.put(name, value != null && converter != null ? converter.apply(value) : value);
+            }
+            result.add(map);
+        }
+        return result;
+    }
+
+    public static Map<String, String> fields(String... nameAndPathPairs) {
+        if (nameAndPathPairs.length % 2 != 0) {
+            throw new IllegalArgumentException("Expected name/path pairs: " + Arrays.toString(nameAndPathPairs));
+        }
+        Map<String, String> map = new LinkedHashMap<>();
+        for (int i = 0; i < nameAndPathPairs.length; i += 2) {
+            map.put(nameAndPathPairs[i], nameAndPathPairs[i + 1]);
+        }
+        return map;
+    }
+}
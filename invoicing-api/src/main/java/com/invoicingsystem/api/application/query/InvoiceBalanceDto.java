@@ -0,0 +1,21 @@
+package com.invoicingsystem.api.application.query;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InvoiceBalanceDto {
+    private String invoiceId;
+    private BigDecimal total;
+    private BigDecimal amountPaid;
+    private BigDecimal balance;
+    private Long snapshotThroughEntry;
+    private long tailEntries;
+}
@@ -0,0 +1,26 @@
+package com.invoicingsystem.api.application.query;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InvoiceDetailDto {
+    private InvoiceDto invoice;
+    private ClientDto client;
+
+    @Builder.Default
+    private List<PaymentDto> payments = new ArrayList<>();
+
+    // Sent as the ETag header rather than in the body
+    @JsonIgnore
+    private String etag;
+}
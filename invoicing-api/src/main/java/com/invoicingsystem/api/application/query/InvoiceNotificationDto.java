@@ -0,0 +1,26 @@
+package com.invoicingsystem.api.application.query;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class InvoiceNotificationDto {
+    private String type;
+    private String invoiceId;
+    private String paymentId;
+    private String status;
+    private String previousStatus;
+    private BigDecimal amount;
+    private String method;
+    private LocalDateTime occurredAt;
+}
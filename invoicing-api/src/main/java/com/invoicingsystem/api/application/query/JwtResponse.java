@@ -11,6 +11,8 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class JwtResponse {
     private String token;
+    private String refreshToken;
+    private long expiresIn;
     private String id;
     private String name;
     private String email;
@@ -0,0 +1,27 @@
+package com.invoicingsystem.api.application.query;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Amount paid on an invoice three ways: summed over the whole ledger, read from the snapshot plus
+ * its tail, and as projected onto the invoice row. They agree unless something has drifted.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LedgerAuditDto {
+    private String invoiceId;
+    private long entryCount;
+    private BigDecimal ledgerAmountPaid;
+    private BigDecimal snapshotAmountPaid;
+    private BigDecimal invoiceAmountPaid;
+    private boolean consistent;
+    // The ledger exceeds the invoice total; consistent or not, someone has to refund or correct it
+    private boolean overpaid;
+}
@@ -0,0 +1,22 @@
+package com.invoicingsystem.api.application.query;
+
+import com.invoicingsystem.api.domain.model.LedgerEntry.EntryType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LedgerEntryDto {
+    private long sequence;
+    private EntryType type;
+    private String paymentId;
+    private BigDecimal amount;
+    private LocalDateTime recordedAt;
+}
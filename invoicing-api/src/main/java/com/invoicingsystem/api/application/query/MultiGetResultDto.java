@@ -0,0 +1,24 @@
+package com.invoicingsystem.api.application.query;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MultiGetResultDto<T> {
+
+    // Found entities, in the order their ids were requested
+    @Builder.Default
+    private List<T> items = new ArrayList<>();
+
+    // Requested ids that do not exist
+    @Builder.Default
+    private List<String> missingIds = new ArrayList<>();
+}
@@ -0,0 +1,49 @@
+package com.invoicingsystem.api.application.query;
+
+import com.invoicingsystem.api.domain.model.Invoice.InvoiceStatus;
+import com.invoicingsystem.api.domain.model.RecurringInvoiceTemplate.Frequency;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecurringInvoiceTemplateDto {
+    private String id;
+    private String name;
+    private String clientId;
+    private String clientName;
+    private Frequency frequency;
+    private LocalDate nextIssueDate;
+    private LocalDate endDate;
+    private int dueInDays;
+    private InvoiceStatus invoiceStatus;
+    private BigDecimal taxRate;
+    private String notes;
+    private boolean active;
+
+    @Builder.Default
+    private List<Item> items = new ArrayList<>();
+
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+        private String description;
+        private Integer quantity;
+        private BigDecimal unitPrice;
+    }
+}
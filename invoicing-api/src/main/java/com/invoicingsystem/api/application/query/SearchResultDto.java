@@ -0,0 +1,23 @@
+package com.invoicingsystem.api.application.query;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchResultDto {
+    private String query;
+    private int page;
+    private int size;
+    private long totalHits;
+    private long tookMs;
+    @Builder.Default
+    private List<SearchHitDto> hits = new ArrayList<>();
+}
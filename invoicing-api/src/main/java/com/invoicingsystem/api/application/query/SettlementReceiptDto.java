@@ -0,0 +1,14 @@
+package com.invoicingsystem.api.application.query;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SettlementReceiptDto {
+    private int accepted;
+    // Confirmations waiting on this instance, these included
+    private int backlog;
+}
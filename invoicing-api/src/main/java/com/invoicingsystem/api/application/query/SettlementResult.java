@@ -0,0 +1,24 @@
+package com.invoicingsystem.api.application.query;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SettlementResult {
+
+    public enum Rejection { UNKNOWN_PAYMENT, NOT_PENDING, AMOUNT_MISMATCH, EXCEEDS_BALANCE }
+
+    private int settled;
+    private int duplicates;
+    private Map<Rejection, Integer> rejected = new EnumMap<>(Rejection.class);
+    // How long each settled payment was pending, from when it was received
+    private List<Duration> pendingTimes;
+}
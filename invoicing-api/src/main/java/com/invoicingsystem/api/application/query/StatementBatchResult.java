@@ -0,0 +1,14 @@
+package com.invoicingsystem.api.application.query;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatementBatchResult {
+    private int matched;
+    private int duplicates;
+    private int exceptions;
+}
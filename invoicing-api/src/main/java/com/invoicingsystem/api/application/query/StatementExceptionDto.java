@@ -0,0 +1,32 @@
+package com.invoicingsystem.api.application.query;
+
+import com.invoicingsystem.api.domain.model.StatementException.Status;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatementExceptionDto {
+    private String id;
+    private String importId;
+    private long lineNumber;
+    private LocalDate bookingDate;
+    private BigDecimal amount;
+    private String reference;
+    private String memo;
+    private String counterparty;
+    private String reason;
+    private String suggestedInvoiceId;
+    private Status status;
+    private String paymentId;
+    private LocalDateTime createdAt;
+    private LocalDateTime resolvedAt;
+}
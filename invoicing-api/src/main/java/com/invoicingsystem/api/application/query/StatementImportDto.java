@@ -0,0 +1,28 @@
+package com.invoicingsystem.api.application.query;
+
+import com.invoicingsystem.api.domain.model.StatementImport.Status;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatementImportDto {
+    private String id;
+    private String filename;
+    private Status status;
+    private String startedBy;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private long lineCount;
+    private long matchedCount;
+    private long duplicateCount;
+    private long exceptionCount;
+    private long ignoredCount;
+    private String error;
+}
@@ -2,6 +2,7 @@ package com.invoicingsystem.api.application.service;
 
 import com.invoicingsystem.api.application.command.CreateUserCommand;
 import com.invoicingsystem.api.application.command.LoginCommand;
+import com.invoicingsystem.api.application.command.RefreshTokenCommand;
 import com.invoicingsystem.api.application.query.JwtResponse;
 import com.invoicingsystem.api.application.query.UserDto;
 
@@ -10,4 +11,8 @@ public interface AuthService {
     JwtResponse login(LoginCommand command);
 
     UserDto register(CreateUserCommand command);
+
+    JwtResponse refresh(RefreshTokenCommand command);
+
+    void logout(RefreshTokenCommand command);
 }
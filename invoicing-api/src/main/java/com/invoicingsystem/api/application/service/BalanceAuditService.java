@@ -0,0 +1,35 @@
+package com.invoicingsystem.api.application.service;
+
+import com.invoicingsystem.api.application.query.BalanceDiscrepancyDto;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Checks stored invoice balances against the ledger and the ledger against completed payments.
+ */
+public interface BalanceAuditService {
+
+    /**
+     * Invoice ids in id order, one page after {@code afterId}.
+     */
+    List<String> findInvoiceIdsAfter(String afterId, int limit);
+
+    /**
+     * Compares the invoices with ids between {@code fromId} and {@code toId}, inclusive, using one
+     * grouped query per table. Results are candidates: a payment committing during the scan can
+     * show up as drift until its ledger projection runs, so confirm them with {@link #check}.
+     */
+    List<BalanceDiscrepancyDto> auditRange(String fromId, String toId);
+
+    /**
+     * Compares one invoice; empty when it is consistent or gone.
+     */
+    Optional<BalanceDiscrepancyDto> check(String invoiceId);
+
+    /**
+     * Brings the ledger in line with the invoice's payments, one correcting entry per payment that
+     * is off, then rebuilds its snapshot and projection. The caller holds the invoice's lane.
+     */
+    BalanceDiscrepancyDto repair(String invoiceId);
+}
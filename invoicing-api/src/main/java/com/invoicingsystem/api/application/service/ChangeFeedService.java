@@ -0,0 +1,16 @@
+package com.invoicingsystem.api.application.service;
+
+import com.invoicingsystem.api.application.query.ChangeFeedDto;
+
+public interface ChangeFeedService {
+
+    /**
+     * Returns changes after {@code cursor}. Without a cursor, returns no changes and the cursor of
+     * the current head: take it before downloading the full lists, then poll from it.
+     */
+    ChangeFeedDto getChanges(String cursor, String entityType, Integer limit);
+
+    int purgeExpired();
+
+    int compact();
+}
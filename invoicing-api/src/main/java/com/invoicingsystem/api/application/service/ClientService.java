@@ -3,6 +3,8 @@ package com.invoicingsystem.api.application.service;
 import com.invoicingsystem.api.application.command.CreateClientCommand;
 import com.invoicingsystem.api.application.command.UpdateClientCommand;
 import com.invoicingsystem.api.application.query.ClientDto;
+import com.invoicingsystem.api.application.query.ClientSuggestionDto;
+import com.invoicingsystem.api.application.query.MultiGetResultDto;
 
 import java.util.List;
 
@@ -12,8 +14,12 @@ public interface ClientService {
 
     ClientDto getClientById(String id);
 
+    MultiGetResultDto<ClientDto> getClientsByIds(List<String> ids);
+
     List<ClientDto> searchClientsByName(String name);
 
+    List<ClientSuggestionDto> autocompleteClients(String query, int limit);
+
     ClientDto createClient(CreateClientCommand command);
 
     ClientDto updateClient(UpdateClientCommand command);
@@ -3,10 +3,14 @@ package com.invoicingsystem.api.application.service;
 import com.invoicingsystem.api.application.command.CreateInvoiceCommand;
 import com.invoicingsystem.api.application.command.UpdateInvoiceCommand;
 import com.invoicingsystem.api.application.command.UpdateInvoiceStatusCommand;
+import com.invoicingsystem.api.application.query.InvoiceDetailDto;
 import com.invoicingsystem.api.application.query.InvoiceDto;
+import com.invoicingsystem.api.application.query.MultiGetResultDto;
 import com.invoicingsystem.api.domain.model.Invoice.InvoiceStatus;
+import com.invoicingsystem.api.domain.repository.InvoiceListFilter;
 
 import java.util.List;
+import java.util.Map;
 
 public interface InvoiceService {
 
@@ -14,6 +18,18 @@ public interface InvoiceService {
 
     InvoiceDto getInvoiceById(String id);
 
+    MultiGetResultDto<InvoiceDto> getInvoicesByIds(List<String> ids);
+
+    /**
+     * Invoice with its items, client and payments, loaded in one transaction.
+     */
+    InvoiceDetailDto getInvoiceDetail(String id);
+
+    /**
+     * ETag of {@link #getInvoiceDetail}, computed without loading the invoice.
+     */
+    String getInvoiceDetailEtag(String id);
+
     InvoiceDto getInvoiceByNumber(String number);
 
     List<InvoiceDto> getInvoicesByClientId(String clientId);
@@ -22,6 +38,12 @@ public interface InvoiceService {
 
     List<InvoiceDto> getOverdueInvoices();
 
+    /**
+     * List projection for {@code ?fields=} / {@code ?view=summary}: only the requested
+     * columns are selected and items are never loaded.
+     */
+    List<Map<String, Object>> getInvoiceFields(InvoiceListFilter filter, String fields, String view);
+
     InvoiceDto createInvoice(CreateInvoiceCommand command, String userId);
 
     InvoiceDto updateInvoice(UpdateInvoiceCommand command);
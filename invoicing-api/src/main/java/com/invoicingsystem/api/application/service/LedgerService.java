@@ -0,0 +1,76 @@
+package com.invoicingsystem.api.application.service;
+
+import com.invoicingsystem.api.application.query.InvoiceBalanceDto;
+import com.invoicingsystem.api.application.query.LedgerAuditDto;
+import com.invoicingsystem.api.application.query.LedgerEntryDto;
+import com.invoicingsystem.api.domain.model.LedgerEntry;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Append-only payment ledger. The ledger is the source of truth for what has been paid on an
+ * invoice; the invoice's {@code amountPaid}, {@code balance} and payment statuses are a projection
+ * of it, refreshed by {@link #project} after each ledger write commits.
+ */
+public interface LedgerService {
+
+    /**
+     * Appends an entry in the caller's transaction. Never reads or writes the invoice row.
+     */
+    void record(LedgerEntry entry);
+
+    /**
+     * Appends entries in the caller's transaction, as one batch of inserts.
+     */
+    void recordAll(Collection<LedgerEntry> entries);
+
+    /**
+     * Latest snapshot plus the entries after it.
+     */
+    BigDecimal getAmountPaid(String invoiceId);
+
+    /**
+     * {@link #getAmountPaid} for several invoices in one query, keyed by invoice id.
+     */
+    Map<String, BigDecimal> getAmountsPaid(Collection<String> invoiceIds);
+
+    InvoiceBalanceDto getBalance(String invoiceId);
+
+    List<LedgerEntryDto> getEntries(String invoiceId);
+
+    /**
+     * Copies the ledger balance onto the invoice row in a transaction of its own.
+     */
+    void project(String invoiceId);
+
+    /**
+     * Like {@link #project}, for several invoices in one transaction.
+     */
+    void projectAll(Collection<String> invoiceIds);
+
+    /**
+     * Invoices whose settled entries have not yet been folded into a snapshot.
+     */
+    List<String> findCompactionCandidates();
+
+    /**
+     * Folds the settled entries after the invoice's snapshot into it. Returns whether it moved.
+     */
+    boolean compact(String invoiceId);
+
+    LedgerAuditDto audit(String invoiceId);
+
+    /**
+     * Discards the snapshot, refolds it from the full ledger and reprojects the invoice.
+     */
+    LedgerAuditDto rebuild(String invoiceId);
+
+    /**
+     * Records an opening adjustment for invoices that were paid before the ledger existed. Safe to
+     * run on several nodes at once: an invoice has at most one opening entry.
+     */
+    int openBalances();
+}
@@ -1,10 +1,12 @@
 package com.invoicingsystem.api.application.service;
 
 import com.invoicingsystem.api.application.command.RecordPaymentCommand;
+import com.invoicingsystem.api.application.query.MultiGetResultDto;
 import com.invoicingsystem.api.application.query.PaymentDto;
 import com.invoicingsystem.api.domain.model.Payment;
 
 import java.util.List;
+import java.util.Map;
 
 public interface PaymentService {
 
@@ -12,8 +14,15 @@ public interface PaymentService {
 
     List<PaymentDto> getPaymentsByInvoiceId(String invoiceId);
 
+    /**
+     * List projection for {@code ?fields=} / {@code ?view=summary}; {@code invoiceId} may be null.
+     */
+    List<Map<String, Object>> getPaymentFields(String invoiceId, String fields, String view);
+
     PaymentDto getPaymentById(String id);
 
+    MultiGetResultDto<PaymentDto> getPaymentsByIds(List<String> ids);
+
     PaymentDto recordPayment(RecordPaymentCommand command);
 
     PaymentDto updatePaymentStatus(String paymentId, Payment.PaymentStatus status);
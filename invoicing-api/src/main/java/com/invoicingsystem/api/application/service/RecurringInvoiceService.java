@@ -0,0 +1,38 @@
+package com.invoicingsystem.api.application.service;
+
+import com.invoicingsystem.api.application.command.CreateRecurringInvoiceCommand;
+import com.invoicingsystem.api.application.query.RecurringInvoiceTemplateDto;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public interface RecurringInvoiceService {
+
+    List<RecurringInvoiceTemplateDto> getTemplates();
+
+    RecurringInvoiceTemplateDto getTemplate(String id);
+
+    RecurringInvoiceTemplateDto createTemplate(CreateRecurringInvoiceCommand command, String userId);
+
+    void deactivateTemplate(String id);
+
+    /**
+     * Ids of templates with a period due on or before {@code today}, in id order after {@code afterId}.
+     */
+    List<String> findDueTemplateIds(LocalDate today, String afterId, int limit);
+
+    /**
+     * How many invoices {@link #generate} would create for these templates; the numbers to pass it.
+     */
+    int countDueInvoices(Collection<String> templateIds, LocalDate today);
+
+    /**
+     * Creates the invoices due for these templates and moves them to their next period, in one
+     * transaction. Periods already invoiced are skipped, so a chunk can be retried after a crash.
+     * Uses the given pre-allocated numbers in order and stops when they run out.
+     *
+     * @return the number of invoices created
+     */
+    int generate(Collection<String> templateIds, LocalDate today, List<String> numbers);
+}
@@ -0,0 +1,10 @@
+package com.invoicingsystem.api.application.service;
+
+import com.invoicingsystem.api.application.query.SearchResultDto;
+
+public interface SearchService {
+
+    SearchResultDto search(String query, String type, int page, int size);
+
+    boolean reindex();
+}
@@ -0,0 +1,22 @@
+package com.invoicingsystem.api.application.service;
+
+import com.invoicingsystem.api.application.query.JwtResponse;
+import com.invoicingsystem.api.domain.model.User;
+
+public interface SessionService {
+
+    /**
+     * Starts a session: a short-lived access token plus a refresh token.
+     */
+    JwtResponse open(User user);
+
+    /**
+     * Exchanges a refresh token for a new pair. A token that was already exchanged revokes its
+     * whole session, since one of the two holders must have stolen it.
+     */
+    JwtResponse refresh(String refreshToken);
+
+    void close(String refreshToken);
+
+    int closeAll(String userId);
+}
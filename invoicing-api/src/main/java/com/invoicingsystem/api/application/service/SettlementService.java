@@ -0,0 +1,28 @@
+package com.invoicingsystem.api.application.service;
+
+import com.invoicingsystem.api.application.command.SettlePaymentCommand;
+import com.invoicingsystem.api.application.query.SettlementResult;
+import com.invoicingsystem.api.domain.repository.SettlementTarget;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Completes pending payments once their processor confirms settlement.
+ */
+public interface SettlementService {
+
+    /**
+     * Payments named by confirmations, looked up by id and by reference, with their invoices.
+     */
+    List<SettlementTarget> findTargets(Collection<String> paymentIds, Collection<String> references);
+
+    /**
+     * Applies confirmations, grouped by invoice id with their payment ids resolved, in one
+     * transaction. Pending payments become completed and are recorded in the ledger; confirmations
+     * of completed payments are duplicates; the rest are rejected. The caller holds the lanes of
+     * the invoices; with the database guard on, the invoices are also locked in id order.
+     */
+    SettlementResult settle(Map<String, List<SettlePaymentCommand>> confirmationsByInvoice);
+}
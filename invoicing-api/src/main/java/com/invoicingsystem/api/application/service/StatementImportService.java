@@ -0,0 +1,58 @@
+package com.invoicingsystem.api.application.service;
+
+import com.invoicingsystem.api.application.command.StatementEntry;
+import com.invoicingsystem.api.application.query.StatementBatchResult;
+import com.invoicingsystem.api.application.query.StatementExceptionDto;
+import com.invoicingsystem.api.application.query.StatementImportDto;
+import com.invoicingsystem.api.domain.repository.OpenInvoiceBalance;
+import com.invoicingsystem.api.domain.repository.PendingPaymentReference;
+
+import java.util.List;
+
+/**
+ * Bookkeeping side of bank statement imports: applies matched statement lines as payments in
+ * batches and keeps the queue of lines left for reconciliation by hand.
+ */
+public interface StatementImportService {
+
+    StatementImportDto startImport(String filename, String startedBy);
+
+    /**
+     * Invoices that can take a statement payment, for building the matching indexes.
+     */
+    List<OpenInvoiceBalance> findOpenInvoices();
+
+    List<PendingPaymentReference> findPendingReferences();
+
+    /**
+     * Applies one batch of lines in one transaction: confirms matched pending payments, records
+     * the other matches as completed bank transfers and queues the rest as exceptions. Lines whose
+     * reference was already recorded, as a payment or an exception, are skipped as duplicates;
+     * matches that would overpay the invoice become exceptions. Callers hold the invoice lane of
+     * the matched lines; with the lane db-guard on, their invoice rows are locked as well.
+     *
+     * @param ignored lines of the batch left out as debits or zero amounts, for the import's counts
+     */
+    StatementBatchResult applyBatch(String importId, List<StatementEntry> entries, long ignored);
+
+    /**
+     * Marks the import completed, or failed with the error when it is not null.
+     */
+    StatementImportDto finishImport(String importId, String error);
+
+    StatementImportDto getImport(String id);
+
+    List<StatementImportDto> getImports(int page, int size);
+
+    /**
+     * Open exceptions in line order, of one import or of all of them when {@code importId} is null.
+     */
+    List<StatementExceptionDto> getExceptions(String importId, int page, int size);
+
+    /**
+     * Records the line as a completed bank transfer on the given invoice.
+     */
+    StatementExceptionDto matchException(String exceptionId, String invoiceId);
+
+    StatementExceptionDto dismissException(String exceptionId);
+}
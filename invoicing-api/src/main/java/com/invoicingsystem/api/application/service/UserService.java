@@ -13,4 +13,9 @@ public interface UserService {
     UserDto getUserByEmail(String email);
 
     void deleteUser(String id);
+
+    /**
+     * Revokes every session of the user; their access tokens stop working within seconds.
+     */
+    int revokeSessions(String id);
 }
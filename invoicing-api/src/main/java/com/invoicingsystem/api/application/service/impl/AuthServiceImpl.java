@@ -2,50 +2,76 @@ package com.invoicingsystem.api.application.service.impl;
 
 import com.invoicingsystem.api.application.command.CreateUserCommand;
 import com.invoicingsystem.api.application.command.LoginCommand;
+import com.invoicingsystem.api.application.command.RefreshTokenCommand;
 import com.invoicingsystem.api.application.mapper.UserMapper;
 import com.invoicingsystem.api.application.query.JwtResponse;
 import com.invoicingsystem.api.application.query.UserDto;
 import com.invoicingsystem.api.application.service.AuthService;
+import com.invoicingsystem.api.application.service.SessionService;
 import com.invoicingsystem.api.domain.exception.BadRequestException;
 import com.invoicingsystem.api.domain.exception.DuplicateResourceException;
-import com.invoicingsystem.api.domain.exception.ResourceNotFoundException;
+import com.invoicingsystem.api.domain.exception.ServiceUnavailableException;
+import com.invoicingsystem.api.domain.exception.UnauthorizedException;
 import com.invoicingsystem.api.domain.model.User;
 import com.invoicingsystem.api.domain.repository.UserRepository;
-import com.invoicingsystem.api.infrastructure.security.JwtUtils;
+import com.invoicingsystem.api.infrastructure.security.PasswordHasher;
+import com.invoicingsystem.api.infrastructure.security.PasswordHashingProperties;
+import com.invoicingsystem.api.infrastructure.security.UserDetailsServiceImpl;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.authentication.AuthenticationManager;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class AuthServiceImpl implements AuthService {
 
-    private final AuthenticationManager authenticationManager;
+    private static final String INVALID_CREDENTIALS = "Invalid email or password";
+
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
-    private final JwtUtils jwtUtils;
+    private final PasswordHasher passwordHasher;
+    private final PasswordHashingProperties passwordHashingProperties;
+    private final SessionService sessionService;
     private final UserMapper userMapper;
 
+    /**
+     * Loads the user once and verifies the password on the hashing pool. Stored hashes made with
+     * an outdated BCrypt cost are re-encoded with the configured one after a successful check.
+     */
     @Override
+    @Timed(value = "auth.login", histogram = true)
     public JwtResponse login(LoginCommand command) {
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(command.getEmail(), command.getPassword()));
+        User user = userRepository.findByEmail(command.getEmail()).orElse(null);
+        if (user == null) {
+            passwordHasher.matchesDecoy(command.getPassword());
+            throw new UnauthorizedException(INVALID_CREDENTIALS);
+        }
+        if (!passwordHasher.matches(command.getPassword(), user.getPassword())) {
+            throw new UnauthorizedException(INVALID_CREDENTIALS);
+        }
+        rehashIfNeeded(user, command.getPassword());
 
-        SecurityContextHolder.getContext().setAuthentication(authentication);
-        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-        String jwt = jwtUtils.generateToken(userDetails);
+        UserDetails userDetails = UserDetailsServiceImpl.principalOf(user);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                userDetails, null, userDetails.getAuthorities()));
 
-        User user = userRepository.findByEmail(userDetails.getUsername())
-                .orElseThrow(() -> new ResourceNotFoundException("User", "email", userDetails.getUsername()));
+        return sessionService.open(user);
+    }
+
+    @Override
+    public JwtResponse refresh(RefreshTokenCommand command) {
+        return sessionService.refresh(command.getRefreshToken());
+    }
 
-        return userMapper.userToJwtResponse(user, jwt);
+    @Override
+    public void logout(RefreshTokenCommand command) {
+        sessionService.close(command.getRefreshToken());
     }
 
     @Override
@@ -55,11 +81,25 @@ public class AuthServiceImpl implements AuthService {
         }
 
         User user = userMapper.createUserCommandToUser(command);
-        user.setPassword(passwordEncoder.encode(command.getPassword()));
+        user.setPassword(passwordHasher.encode(command.getPassword()));
         user.setCreatedAt(LocalDateTime.now());
         user.setUpdatedAt(LocalDateTime.now());
 
         User savedUser = userRepository.save(user);
         return userMapper.userToUserDto(savedUser);
     }
+
+    private void rehashIfNeeded(User user, String rawPassword) {
+        if (!passwordHashingProperties.isRehashOnLogin() || !passwordHasher.needsRehash(user.getPassword())) {
+            return;
+        }
+        try {
+            user.setPassword(passwordHasher.encode(rawPassword));
+            user.setUpdatedAt(LocalDateTime.now());
+            userRepository.save(user);
+        } catch (ServiceUnavailableException e) {
+            // The login already succeeded; the hash is upgraded on a quieter login
+            log.debug("Skipped password rehash for {}: {}", user.getEmail(), e.getMessage());
+        }
+    }
 }
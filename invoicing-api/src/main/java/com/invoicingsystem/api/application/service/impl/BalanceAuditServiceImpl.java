@@ -0,0 +1,155 @@
+package com.invoicingsystem.api.application.service.impl;
+
+import com.invoicingsystem.api.application.query.BalanceDiscrepancyDto;
+import com.invoicingsystem.api.application.service.BalanceAuditService;
+import com.invoicingsystem.api.application.service.LedgerService;
+import com.invoicingsystem.api.domain.exception.ResourceNotFoundException;
+import com.invoicingsystem.api.domain.model.Invoice;
+import com.invoicingsystem.api.domain.model.LedgerEntry;
+import com.invoicingsystem.api.domain.model.Payment;
+import com.invoicingsystem.api.domain.repository.GroupedAmount;
+import com.invoicingsystem.api.domain.repository.InvoiceRepository;
+import com.invoicingsystem.api.domain.repository.LedgerEntryRepository;
+import com.invoicingsystem.api.domain.repository.LedgerSums;
+import com.invoicingsystem.api.domain.repository.PaymentRepository;
+import com.invoicingsystem.api.domain.repository.StoredBalance;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Timed("invoicing.service")
+public class BalanceAuditServiceImpl implements BalanceAuditService {
+
+    private final InvoiceRepository invoiceRepository;
+    private final PaymentRepository paymentRepository;
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final LedgerService ledgerService;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<String> findInvoiceIdsAfter(String afterId, int limit) {
+        return invoiceRepository.findIdsAfter(afterId, PageRequest.of(0, limit));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BalanceDiscrepancyDto> auditRange(String fromId, String toId) {
+        Map<String, LedgerSums> ledger = ledgerEntryRepository.sumByInvoiceBetween(fromId, toId).stream()
+                .collect(Collectors.toMap(LedgerSums::getInvoiceId, Function.identity()));
+        Map<String, BigDecimal> completed = paymentRepository.sumCompletedByInvoiceBetween(fromId, toId).stream()
+                .collect(Collectors.toMap(GroupedAmount::getId, GroupedAmount::getAmount));
+
+        List<BalanceDiscrepancyDto> discrepancies = new ArrayList<>();
+        for (StoredBalance stored : invoiceRepository.findStoredBalances(fromId, toId)) {
+            LedgerSums sums = ledger.get(stored.getInvoiceId());
+            compare(stored.getInvoiceId(), stored.getTotal(), stored.getAmountPaid(), stored.getBalance(),
+                    sums != null ? sums.getAmount() : null,
+                    sums != null ? sums.getPaymentAmount() : null,
+                    completed.get(stored.getInvoiceId()))
+                    .ifPresent(discrepancies::add);
+        }
+        return discrepancies;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<BalanceDiscrepancyDto> check(String invoiceId) {
+        return invoiceRepository.findById(invoiceId).flatMap(this::check);
+    }
+
+    @Override
+    @Transactional
+    public BalanceDiscrepancyDto repair(String invoiceId) {
+        Invoice invoice = invoiceRepository.findByIdForUpdate(invoiceId)
+                .orElseThrow(() -> new ResourceNotFoundException("Invoice", "id", invoiceId));
+        Map<String, BigDecimal> recorded = new HashMap<>();
+        for (GroupedAmount entry : ledgerEntryRepository.sumByPayment(invoiceId)) {
+            recorded.put(entry.getId(), entry.getAmount());
+        }
+        // What each payment should have in the ledger: its amount once completed, nothing otherwise
+        Map<String, BigDecimal> expected = new HashMap<>();
+        for (Payment payment : paymentRepository.findByInvoiceId(invoiceId)) {
+            expected.put(payment.getId(), payment.getStatus() == Payment.PaymentStatus.COMPLETED
+                    ? payment.getAmount() : BigDecimal.ZERO);
+        }
+        // Entries of deleted payments should net to nothing
+        recorded.keySet().forEach(paymentId -> expected.putIfAbsent(paymentId, BigDecimal.ZERO));
+
+        expected.forEach((paymentId, amount) -> {
+            BigDecimal delta = amount.subtract(recorded.getOrDefault(paymentId, BigDecimal.ZERO));
+            if (delta.signum() > 0) {
+                ledgerService.record(LedgerEntry.applied(invoiceId, paymentId, delta));
+            } else if (delta.signum() < 0) {
+                ledgerService.record(LedgerEntry.reversed(invoiceId, paymentId, delta.negate()));
+            }
+        });
+        ledgerService.rebuild(invoiceId);
+
+        BalanceDiscrepancyDto after = check(invoice).orElseGet(() -> BalanceDiscrepancyDto.builder()
+                .invoiceId(invoiceId)
+                .total(invoice.getTotal())
+                .storedAmountPaid(invoice.getAmountPaid())
+                .storedBalance(invoice.getBalance())
+                .build());
+        after.setRepaired(!after.isStoredDrift() && !after.isPaymentDrift() && !after.isOverpaid());
+        return after;
+    }
+
+    private Optional<BalanceDiscrepancyDto> check(Invoice invoice) {
+        String invoiceId = invoice.getId();
+        BigDecimal ledgerPayments = ledgerEntryRepository.sumByPayment(invoiceId).stream()
+                .map(GroupedAmount::getAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return compare(invoiceId, invoice.getTotal(), invoice.getAmountPaid(), invoice.getBalance(),
+                ledgerEntryRepository.sumAfter(invoiceId, 0L).getAmount(), ledgerPayments,
+                paymentRepository.getTotalPaidAmountByInvoiceId(invoiceId));
+    }
+
+    private static Optional<BalanceDiscrepancyDto> compare(String invoiceId, BigDecimal total,
+                                                           BigDecimal storedAmountPaid, BigDecimal storedBalance,
+                                                           BigDecimal ledgerAmountPaid, BigDecimal ledgerPayments,
+                                                           BigDecimal completedPayments) {
+        BigDecimal paid = scaled(storedAmountPaid);
+        BigDecimal ledger = scaled(ledgerAmountPaid);
+        BigDecimal payments = scaled(completedPayments);
+        BigDecimal recorded = scaled(ledgerPayments);
+        boolean storedDrift = paid.compareTo(ledger) != 0
+                || storedBalance == null
+                || storedBalance.compareTo(scaled(total).subtract(paid)) != 0;
+        boolean paymentDrift = payments.compareTo(recorded) != 0;
+        boolean overpaid = ledger.compareTo(scaled(total)) > 0;
+        if (!storedDrift && !paymentDrift && !overpaid) {
+            return Optional.empty();
+        }
+        return Optional.of(BalanceDiscrepancyDto.builder()
+                .invoiceId(invoiceId)
+                .total(total)
+                .storedAmountPaid(storedAmountPaid)
+                .storedBalance(storedBalance)
+                .ledgerAmountPaid(ledger)
+                .completedPayments(payments)
+                .ledgerPayments(recorded)
+                .storedDrift(storedDrift)
+                .paymentDrift(paymentDrift)
+                .overpaid(overpaid)
+                .build());
+    }
+
+    private static BigDecimal scaled(BigDecimal amount) {
+        return (amount != null ? amount : BigDecimal.ZERO).setScale(2, RoundingMode.HALF_UP);
+    }
+}
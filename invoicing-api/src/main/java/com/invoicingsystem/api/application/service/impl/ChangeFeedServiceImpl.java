@@ -0,0 +1,138 @@
+package com.invoicingsystem.api.application.service.impl;
+
+import com.invoicingsystem.api.application.query.ChangeDto;
+import com.invoicingsystem.api.application.query.ChangeFeedDto;
+import com.invoicingsystem.api.application.service.ChangeFeedService;
+import com.invoicingsystem.api.domain.exception.BadRequestException;
+import com.invoicingsystem.api.domain.exception.ResourceGoneException;
+import com.invoicingsystem.api.domain.model.ChangeLogEntry;
+import com.invoicingsystem.api.domain.repository.ChangeLogRepository;
+import com.invoicingsystem.api.infrastructure.changefeed.ChangeFeedProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+
+@Service
+@RequiredArgsConstructor
+public class ChangeFeedServiceImpl implements ChangeFeedService {
+
+    private final ChangeLogRepository changeLogRepository;
+    private final ChangeFeedProperties properties;
+
+    @Override
+    @Transactional(readOnly = true)
+    public ChangeFeedDto getChanges(String cursor, String entityType, Integer limit) {
+        LocalDateTime visibleBefore = LocalDateTime.now().minus(properties.getVisibilityLag());
+        if (cursor == null || cursor.isBlank()) {
+            long head = changeLogRepository.findTopByRecordedAtLessThanEqualOrderByIdDesc(visibleBefore)
+                    .map(ChangeLogEntry::getId)
+                    .orElse(0L);
+            return ChangeFeedDto.builder()
+                    .nextCursor(encode(head, visibleBefore))
+                    .hasMore(false)
+                    .build();
+        }
+
+        Cursor since = decode(cursor);
+        if (since.position.isBefore(LocalDateTime.now().minus(properties.getRetention()))) {
+            throw new ResourceGoneException("Cursor is older than the change log retention; resynchronize from the full lists");
+        }
+
+        int pageSize = limit != null ? Math.max(1, Math.min(limit, properties.getMaxLimit())) : properties.getDefaultLimit();
+        PageRequest page = PageRequest.of(0, pageSize + 1);
+        List<ChangeLogEntry> entries = entityType == null
+                ? changeLogRepository.findByIdGreaterThanAndRecordedAtLessThanEqualOrderByIdAsc(
+                        since.id, visibleBefore, page)
+                : changeLogRepository.findByIdGreaterThanAndRecordedAtLessThanEqualAndEntityTypeOrderByIdAsc(
+                        since.id, visibleBefore, parseEntityType(entityType), page);
+
+        boolean hasMore = entries.size() > pageSize;
+        List<ChangeDto> changes = new ArrayList<>();
+        for (ChangeLogEntry entry : hasMore ? entries.subList(0, pageSize) : entries) {
+            changes.add(toDto(entry));
+        }
+
+        // A drained feed has seen everything up to visibleBefore, which keeps idle cursors fresh
+        String nextCursor;
+        if (changes.isEmpty()) {
+            nextCursor = encode(since.id, visibleBefore);
+        } else {
+            ChangeDto last = changes.get(changes.size() - 1);
+            nextCursor = encode(last.getSequence(), hasMore ? last.getRecordedAt() : visibleBefore);
+        }
+        return ChangeFeedDto.builder()
+                .changes(changes)
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    @Override
+    @Transactional
+    public int purgeExpired() {
+        return changeLogRepository.deleteRecordedBefore(LocalDateTime.now().minus(properties.getRetention()));
+    }
+
+    @Override
+    @Transactional
+    public int compact() {
+        return changeLogRepository.deleteSupersededBefore(LocalDateTime.now().minus(properties.getCompactAfter()));
+    }
+
+    private static ChangeDto toDto(ChangeLogEntry entry) {
+        return ChangeDto.builder()
+                .sequence(entry.getId())
+                .entityType(entry.getEntityType().name().toLowerCase(Locale.ROOT))
+                .entityId(entry.getEntityId())
+                .operation(entry.getOperation().name())
+                .delta(entry.getDelta())
+                .recordedAt(entry.getRecordedAt())
+                .build();
+    }
+
+    private static ChangeLogEntry.EntityType parseEntityType(String entityType) {
+        try {
+            return ChangeLogEntry.EntityType.valueOf(entityType.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Unknown entity type: " + entityType);
+        }
+    }
+
+    // Cursors are opaque to clients: "<sequence>:<epoch millis of the position>", base64url encoded
+    static String encode(long id, LocalDateTime position) {
+        long millis = position.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((id + ":" + millis).getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Cursor decode(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+            LocalDateTime position = LocalDateTime.ofInstant(
+                    Instant.ofEpochMilli(Long.parseLong(parts[1])), ZoneId.systemDefault());
+            return new Cursor(Long.parseLong(parts[0]), position);
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid change feed cursor");
+        }
+    }
+
+    static final class Cursor {
+        private final long id;
+        private final LocalDateTime position;
+
+        private Cursor(long id, LocalDateTime position) {
+            this.id = id;
+            this.position = position;
+        }
+    }
+}
@@ -4,12 +4,18 @@ import com.invoicingsystem.api.application.command.CreateClientCommand;
 import com.invoicingsystem.api.application.command.UpdateClientCommand;
 import com.invoicingsystem.api.application.mapper.ClientMapper;
 import com.invoicingsystem.api.application.query.ClientDto;
+import com.invoicingsystem.api.application.query.ClientSuggestionDto;
+import com.invoicingsystem.api.application.query.MultiGetResultDto;
 import com.invoicingsystem.api.application.service.ClientService;
+import com.invoicingsystem.api.domain.event.ClientChangedEvent;
 import com.invoicingsystem.api.domain.exception.DuplicateResourceException;
 import com.invoicingsystem.api.domain.exception.ResourceNotFoundException;
 import com.invoicingsystem.api.domain.model.Client;
 import com.invoicingsystem.api.domain.repository.ClientRepository;
+import com.invoicingsystem.api.infrastructure.coalescing.Coalesce;
+import com.invoicingsystem.api.infrastructure.search.ClientPrefixIndex;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -22,8 +28,11 @@ public class ClientServiceImpl implements ClientService {
 
     private final ClientRepository clientRepository;
     private final ClientMapper clientMapper;
+    private final ClientPrefixIndex clientPrefixIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
+    @Coalesce
     @Transactional(readOnly = true)
     public List<ClientDto> getAllClients() {
         return clientMapper.clientsToClientDtos(clientRepository.findAll());
@@ -37,12 +46,25 @@ public class ClientServiceImpl implements ClientService {
                 .orElseThrow(() -> new ResourceNotFoundException("Client", "id", id));
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public MultiGetResultDto<ClientDto> getClientsByIds(List<String> ids) {
+        List<String> distinctIds = MultiGetSupport.distinctIds(ids);
+        return MultiGetSupport.assemble(distinctIds, clientRepository.findAllById(distinctIds),
+                Client::getId, clientMapper::clientToClientDto);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<ClientDto> searchClientsByName(String name) {
         return clientMapper.clientsToClientDtos(clientRepository.findByNameContainingIgnoreCase(name));
     }
 
+    @Override
+    public List<ClientSuggestionDto> autocompleteClients(String query, int limit) {
+        return clientPrefixIndex.complete(query, limit);
+    }
+
     @Override
     @Transactional
     public ClientDto createClient(CreateClientCommand command) {
@@ -54,7 +76,9 @@ public class ClientServiceImpl implements ClientService {
         client.setCreatedAt(LocalDateTime.now());
         client.setUpdatedAt(LocalDateTime.now());
 
-        return clientMapper.clientToClientDto(clientRepository.save(client));
+        Client savedClient = clientRepository.save(client);
+        publish(savedClient, ClientChangedEvent.ChangeType.CREATED);
+        return clientMapper.clientToClientDto(savedClient);
     }
 
     @Override
@@ -72,7 +96,9 @@ public class ClientServiceImpl implements ClientService {
         clientMapper.updateClientFromCommand(command, client);
         client.setUpdatedAt(LocalDateTime.now());
 
-        return clientMapper.clientToClientDto(clientRepository.save(client));
+        Client savedClient = clientRepository.save(client);
+        publish(savedClient, ClientChangedEvent.ChangeType.UPDATED);
+        return clientMapper.clientToClientDto(savedClient);
     }
 
     @Override
@@ -83,5 +109,24 @@ public class ClientServiceImpl implements ClientService {
         }
 
         clientRepository.deleteById(id);
+
+        // Publish domain event (guarded for tests without eventPublisher mock)
+        if (eventPublisher != null) {
+            eventPublisher.publishEvent(new ClientChangedEvent(
+                    id, ClientChangedEvent.ChangeType.DELETED, null, null, null));
+        }
+    }
+
+    private void publish(Client client, ClientChangedEvent.ChangeType changeType) {
+        // Guarded for tests without eventPublisher mock
+        if (eventPublisher != null && client != null) {
+            eventPublisher.publishEvent(new ClientChangedEvent(
+                    client.getId(),
+                    changeType,
+                    client.getName(),
+                    client.getEmail(),
+                    client.getUpdatedAt()
+            ));
+        }
     }
 }
@@ -0,0 +1,98 @@
+package com.invoicingsystem.api.application.service.impl;
+
+import com.invoicingsystem.api.domain.model.InvoiceNumberSequence;
+import com.invoicingsystem.api.domain.repository.InvoiceNumberSequenceRepository;
+import com.invoicingsystem.api.domain.repository.InvoiceRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Hands out invoice numbers of the form {@code INV-<year>-<n>} from a per-year sequence row.
+ * Called inside a transaction, the numbers are reserved until it ends, so a rolled-back
+ * invoice leaves no gap. Called outside one, a block of numbers is reserved and committed at
+ * once, which lets bulk generators take their numbers without holding the row lock.
+ */
+@Component
+public class InvoiceNumberAllocator {
+
+    private final InvoiceNumberSequenceRepository sequenceRepository;
+    private final InvoiceRepository invoiceRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public InvoiceNumberAllocator(InvoiceNumberSequenceRepository sequenceRepository,
+                                  InvoiceRepository invoiceRepository,
+                                  PlatformTransactionManager transactionManager) {
+        this.sequenceRepository = sequenceRepository;
+        this.invoiceRepository = invoiceRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public String next(LocalDate issueDate) {
+        return allocate(issueDate, 1).get(0);
+    }
+
+    public List<String> allocate(LocalDate issueDate, int count) {
+        if (count <= 0) {
+            return Collections.emptyList();
+        }
+        int year = issueDate.getYear();
+        boolean joined = TransactionSynchronizationManager.isActualTransactionActive();
+        Long first;
+        try {
+            first = transactionTemplate.execute(status -> reserve(year, count));
+        } catch (DataIntegrityViolationException e) {
+            if (joined) {
+                throw e;
+            }
+            // Another caller created the year's sequence first; take the next block from it
+            first = transactionTemplate.execute(status -> reserve(year, count));
+        }
+
+        List<String> numbers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            numbers.add(format(year, first + i));
+        }
+        return numbers;
+    }
+
+    private long reserve(int year, int count) {
+        InvoiceNumberSequence sequence = sequenceRepository.findByYearForUpdate(year)
+                .orElseGet(() -> sequenceRepository.saveAndFlush(InvoiceNumberSequence.builder()
+                        .year(year)
+                        .nextValue(highestIssued(year) + 1)
+                        .build()));
+        long first = sequence.getNextValue();
+        sequence.setNextValue(first + count);
+        return first;
+    }
+
+    // Continues after numbers issued before the sequence existed
+    private long highestIssued(int year) {
+        String prefix = prefix(year);
+        long highest = 0;
+        for (String number : invoiceRepository.findNumbersStartingWith(prefix)) {
+            try {
+                highest = Math.max(highest, Long.parseLong(number.substring(prefix.length())));
+            } catch (NumberFormatException ignored) {
+                // Not a generated number
+            }
+        }
+        return highest;
+    }
+
+    private static String format(int year, long value) {
+        return prefix(year) + String.format("%04d", value);
+    }
+
+    private static String prefix(int year) {
+        return "INV-" + year + "-";
+    }
+}
@@ -3,44 +3,95 @@ package com.invoicingsystem.api.application.service.impl;
 import com.invoicingsystem.api.application.command.CreateInvoiceCommand;
 import com.invoicingsystem.api.application.command.UpdateInvoiceCommand;
 import com.invoicingsystem.api.application.command.UpdateInvoiceStatusCommand;
+import com.invoicingsystem.api.application.mapper.ClientMapper;
 import com.invoicingsystem.api.application.mapper.InvoiceMapper;
+import com.invoicingsystem.api.application.mapper.PaymentMapper;
+import com.invoicingsystem.api.application.query.FieldSet;
+import com.invoicingsystem.api.application.query.InvoiceDetailDto;
 import com.invoicingsystem.api.application.query.InvoiceDto;
+import com.invoicingsystem.api.application.query.MultiGetResultDto;
 import com.invoicingsystem.api.application.service.InvoiceService;
+import com.invoicingsystem.api.domain.event.InvoiceChangedEvent;
+import com.invoicingsystem.api.domain.event.InvoiceCreatedEvent;
 import com.invoicingsystem.api.domain.exception.BadRequestException;
 import com.invoicingsystem.api.domain.exception.DuplicateResourceException;
 import com.invoicingsystem.api.domain.exception.ResourceNotFoundException;
 import com.invoicingsystem.api.domain.model.Client;
 import com.invoicingsystem.api.domain.model.Invoice;
 import com.invoicingsystem.api.domain.model.InvoiceItem;
+import com.invoicingsystem.api.domain.model.Payment;
 import com.invoicingsystem.api.domain.model.User;
 import com.invoicingsystem.api.domain.repository.ClientRepository;
+import com.invoicingsystem.api.domain.repository.InvoiceDetailVersion;
 import com.invoicingsystem.api.domain.repository.InvoiceItemRepository;
+import com.invoicingsystem.api.domain.repository.InvoiceListFilter;
 import com.invoicingsystem.api.domain.repository.InvoiceRepository;
+import com.invoicingsystem.api.domain.repository.PaymentRepository;
 import com.invoicingsystem.api.domain.repository.UserRepository;
+import com.invoicingsystem.api.infrastructure.bulkhead.Workload;
+import com.invoicingsystem.api.infrastructure.bulkhead.WorkloadClass;
+import com.invoicingsystem.api.infrastructure.lanes.InvoiceLane;
+import com.invoicingsystem.api.infrastructure.coalescing.Coalesce;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.DigestUtils;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
+@Timed("invoicing.service")
 public class InvoiceServiceImpl implements InvoiceService {
 
+    static final FieldSet INVOICE_FIELDS = new FieldSet(FieldSet.fields(
+            "id", "id",
+            "number", "number",
+            "clientId", "client.id",
+            "clientName", "client.name",
+            "clientEmail", "client.email",
+            "issueDate", "issueDate",
+            "dueDate", "dueDate",
+            "status", "status",
+            "subtotal", "subtotal",
+            "taxRate", "taxRate",
+            "taxAmount", "taxAmount",
+            "total", "total",
+            "amountPaid", "amountPaid",
+            "balance", "balance",
+            "notes", "notes",
+            "createdById", "createdBy.id",
+            "createdByName", "createdBy.name",
+            "createdAt", "createdAt",
+            "updatedAt", "updatedAt"),
+            List.of("id", "number", "clientId", "clientName", "status", "dueDate", "total", "balance"))
+            // InvoiceDto serializes the balance as a string
+            .convert("balance", Object::toString);
+
     private final InvoiceRepository invoiceRepository;
     private final InvoiceItemRepository invoiceItemRepository;
     private final ClientRepository clientRepository;
     private final UserRepository userRepository;
     private final InvoiceMapper invoiceMapper;
+    private final PaymentRepository paymentRepository;
+    private final PaymentMapper paymentMapper;
+    private final ClientMapper clientMapper;
     private final ApplicationEventPublisher eventPublisher;
+    private final InvoiceNumberAllocator invoiceNumberAllocator;
 
     @Override
+    @Workload(WorkloadClass.REPORTING)
     @Transactional(readOnly = true)
     public List<InvoiceDto> getAllInvoices() {
         return invoiceMapper.invoicesToInvoiceDtos(invoiceRepository.findAll());
@@ -54,6 +105,64 @@ public class InvoiceServiceImpl implements InvoiceService {
                 .orElseThrow(() -> new ResourceNotFoundException("Invoice", "id", id));
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public MultiGetResultDto<InvoiceDto> getInvoicesByIds(List<String> ids) {
+        List<String> distinctIds = MultiGetSupport.distinctIds(ids);
+        return MultiGetSupport.assemble(distinctIds,
+                invoiceRepository.findAllWithDetailsByIdIn(distinctIds),
+                Invoice::getId, invoiceMapper::invoiceToInvoiceDto);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public InvoiceDetailDto getInvoiceDetail(String id) {
+        Invoice invoice = invoiceRepository.findWithDetailsById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Invoice", "id", id));
+        // Payment.invoice resolves to the invoice already in the persistence context
+        List<Payment> payments = paymentRepository.findByInvoiceIdOrderByReceivedAtAsc(id);
+
+        return InvoiceDetailDto.builder()
+                .invoice(invoiceMapper.invoiceToInvoiceDto(invoice))
+                .client(clientMapper.clientToClientDto(invoice.getClient()))
+                .payments(paymentMapper.paymentsToPaymentDtos(payments))
+                .etag(detailEtag(id,
+                        invoice.getUpdatedAt(),
+                        invoice.getClient().getUpdatedAt(),
+                        invoice.getItems().size(),
+                        latest(invoice.getItems().stream().map(InvoiceItem::getUpdatedAt)),
+                        payments.size(),
+                        latest(payments.stream().map(Payment::getUpdatedAt))))
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String getInvoiceDetailEtag(String id) {
+        InvoiceDetailVersion version = invoiceRepository.findDetailVersionById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Invoice", "id", id));
+        return detailEtag(id,
+                version.getInvoiceUpdatedAt(),
+                version.getClientUpdatedAt(),
+                version.getItemCount(),
+                version.getItemsUpdatedAt(),
+                version.getPaymentCount(),
+                version.getPaymentsUpdatedAt());
+    }
+
+    // Both paths must feed the same stamps in the same order
+    private static String detailEtag(String id, Object... stamps) {
+        StringBuilder source = new StringBuilder(id);
+        for (Object stamp : stamps) {
+            source.append('|').append(stamp);
+        }
+        return "W/\"" + DigestUtils.md5DigestAsHex(source.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    private static LocalDateTime latest(Stream<LocalDateTime> timestamps) {
+        return timestamps.filter(Objects::nonNull).max(Comparator.naturalOrder()).orElse(null);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public InvoiceDto getInvoiceByNumber(String number) {
@@ -73,18 +182,31 @@ public class InvoiceServiceImpl implements InvoiceService {
     }
 
     @Override
+    @Coalesce
     @Transactional(readOnly = true)
     public List<InvoiceDto> getInvoicesByStatus(Invoice.InvoiceStatus status) {
         return invoiceMapper.invoicesToInvoiceDtos(invoiceRepository.findByStatus(status));
     }
 
     @Override
+    @Coalesce
     @Transactional(readOnly = true)
     public List<InvoiceDto> getOverdueInvoices() {
         return invoiceMapper.invoicesToInvoiceDtos(
                 invoiceRepository.findOverdueInvoices(LocalDate.now()));
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getInvoiceFields(InvoiceListFilter filter, String fields, String view) {
+        List<String> names = INVOICE_FIELDS.resolve(fields, view);
+        if (filter.getClientId() != null && !clientRepository.existsById(filter.getClientId())) {
+            throw new ResourceNotFoundException("Client", "id", filter.getClientId());
+        }
+        return INVOICE_FIELDS.toMaps(names,
+                invoiceRepository.findColumns(INVOICE_FIELDS.attributePathsOf(names), filter));
+    }
+
     @Override
     @Transactional
     public InvoiceDto createInvoice(CreateInvoiceCommand command, String userId) {
@@ -146,10 +268,22 @@ public class InvoiceServiceImpl implements InvoiceService {
         invoice.setBalance(invoice.getTotal());
 
         Invoice savedInvoice = invoiceRepository.save(invoice);
+
+        // Publish domain event for invoice creation (guarded for tests without eventPublisher mock)
+        if (eventPublisher != null) {
+            eventPublisher.publishEvent(new InvoiceCreatedEvent(
+                    savedInvoice.getId(),
+                    client.getId(),
+                    savedInvoice.getStatus(),
+                    savedInvoice.getTotal(),
+                    savedInvoice.getCreatedAt()
+            ));
+        }
         return invoiceMapper.invoiceToInvoiceDto(savedInvoice);
     }
 
     @Override
+    @InvoiceLane("#command.id")
     @Transactional
     public InvoiceDto updateInvoice(UpdateInvoiceCommand command) {
         Invoice invoice = invoiceRepository.findById(command.getId())
@@ -199,10 +333,20 @@ public class InvoiceServiceImpl implements InvoiceService {
         invoice.recalculateBalance();
 
         Invoice updatedInvoice = invoiceRepository.save(invoice);
+
+        // Publish domain event for invoice content changes (guarded for tests without eventPublisher mock)
+        if (eventPublisher != null) {
+            eventPublisher.publishEvent(new InvoiceChangedEvent(
+                    updatedInvoice.getId(),
+                    InvoiceChangedEvent.ChangeType.UPDATED,
+                    updatedInvoice.getUpdatedAt()
+            ));
+        }
         return invoiceMapper.invoiceToInvoiceDto(updatedInvoice);
     }
 
     @Override
+    @InvoiceLane("#command.invoiceId")
     @Transactional
     public InvoiceDto updateInvoiceStatus(UpdateInvoiceStatusCommand command) {
         Invoice invoice = invoiceRepository.findById(command.getInvoiceId())
@@ -234,15 +378,16 @@ public class InvoiceServiceImpl implements InvoiceService {
         }
 
         invoiceRepository.deleteById(id);
+
+        // Publish domain event for invoice deletion (guarded for tests without eventPublisher mock)
+        if (eventPublisher != null) {
+            eventPublisher.publishEvent(new InvoiceChangedEvent(id, InvoiceChangedEvent.ChangeType.DELETED, null));
+        }
     }
 
     // Helper method to generate a unique invoice number
     private String generateInvoiceNumber() {
-        LocalDate now = LocalDate.now();
-        String year = now.format(DateTimeFormatter.ofPattern("yyyy"));
-
-        long count = invoiceRepository.count() + 1;
-        return String.format("INV-%s-%04d", year, count);
+        return invoiceNumberAllocator.next(LocalDate.now());
     }
 
     // Helper method to validate invoice status transitions
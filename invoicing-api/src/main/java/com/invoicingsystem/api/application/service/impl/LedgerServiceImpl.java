@@ -0,0 +1,274 @@
+package com.invoicingsystem.api.application.service.impl;
+
+import com.invoicingsystem.api.application.query.InvoiceBalanceDto;
+import com.invoicingsystem.api.application.query.LedgerAuditDto;
+import com.invoicingsystem.api.application.query.LedgerEntryDto;
+import com.invoicingsystem.api.application.service.LedgerService;
+import com.invoicingsystem.api.domain.exception.ResourceNotFoundException;
+import com.invoicingsystem.api.domain.model.BalanceSnapshot;
+import com.invoicingsystem.api.domain.model.Invoice;
+import com.invoicingsystem.api.domain.model.LedgerEntry;
+import com.invoicingsystem.api.domain.repository.BalanceSnapshotRepository;
+import com.invoicingsystem.api.domain.repository.InvoiceRepository;
+import com.invoicingsystem.api.domain.repository.LedgerEntryRepository;
+import com.invoicingsystem.api.domain.repository.LedgerTotals;
+import com.invoicingsystem.api.infrastructure.ledger.LedgerProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LedgerServiceImpl implements LedgerService {
+
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final BalanceSnapshotRepository balanceSnapshotRepository;
+    private final InvoiceRepository invoiceRepository;
+    private final LedgerProperties properties;
+
+    @Override
+    @Transactional
+    public void record(LedgerEntry entry) {
+        ledgerEntryRepository.save(entry);
+    }
+
+    @Override
+    @Transactional
+    public void recordAll(Collection<LedgerEntry> entries) {
+        ledgerEntryRepository.saveAll(entries);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BigDecimal getAmountPaid(String invoiceId) {
+        return currentBalance(invoiceId).amountPaid;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, BigDecimal> getAmountsPaid(Collection<String> invoiceIds) {
+        if (invoiceIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, BigDecimal> amountsPaid = new HashMap<>();
+        ledgerEntryRepository.sumAmountPaidByInvoiceIn(invoiceIds)
+                .forEach(paid -> amountsPaid.put(paid.getId(), scaled(paid.getAmount())));
+        return amountsPaid;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public InvoiceBalanceDto getBalance(String invoiceId) {
+        Invoice invoice = findInvoice(invoiceId);
+        Balance current = currentBalance(invoiceId);
+        return InvoiceBalanceDto.builder()
+                .invoiceId(invoiceId)
+                .total(invoice.getTotal())
+                .amountPaid(current.amountPaid)
+                .balance(invoice.getTotal().subtract(current.amountPaid).setScale(2, RoundingMode.HALF_UP))
+                .snapshotThroughEntry(current.snapshotThroughEntry)
+                .tailEntries(current.tailEntries)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<LedgerEntryDto> getEntries(String invoiceId) {
+        findInvoice(invoiceId);
+        List<LedgerEntryDto> entries = new ArrayList<>();
+        for (LedgerEntry entry : ledgerEntryRepository.findByInvoiceIdOrderByIdAsc(invoiceId)) {
+            entries.add(LedgerEntryDto.builder()
+                    .sequence(entry.getId())
+                    .type(entry.getType())
+                    .paymentId(entry.getPaymentId())
+                    .amount(entry.getAmount())
+                    .recordedAt(entry.getRecordedAt())
+                    .build());
+        }
+        return entries;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void project(String invoiceId) {
+        // The row lock orders concurrent projections, so the last writer always saw the latest ledger
+        invoiceRepository.findByIdForUpdate(invoiceId).ifPresent(this::projectOnto);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void projectAll(Collection<String> invoiceIds) {
+        if (invoiceIds.isEmpty()) {
+            return;
+        }
+        // Locked in id order so overlapping batches cannot deadlock each other
+        List<Invoice> invoices = invoiceRepository.findAllByIdForUpdate(invoiceIds);
+        Map<String, BigDecimal> amountsPaid = getAmountsPaid(invoiceIds);
+        List<Invoice> changed = new ArrayList<>();
+        for (Invoice invoice : invoices) {
+            if (applyLedgerBalance(invoice, amountsPaid.getOrDefault(invoice.getId(), scaled(BigDecimal.ZERO)))) {
+                changed.add(invoice);
+            }
+        }
+        invoiceRepository.saveAll(changed);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<String> findCompactionCandidates() {
+        Optional<Long> settled = lastSettledEntryId();
+        if (settled.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return ledgerEntryRepository.findInvoiceIdsWithTail(settled.get(),
+                PageRequest.of(0, properties.getCompactionBatchSize()));
+    }
+
+    @Override
+    @Transactional
+    public boolean compact(String invoiceId) {
+        return lastSettledEntryId()
+                .map(settled -> fold(invoiceId, settled))
+                .orElse(false);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public LedgerAuditDto audit(String invoiceId) {
+        return audit(findInvoice(invoiceId));
+    }
+
+    @Override
+    @Transactional
+    public LedgerAuditDto rebuild(String invoiceId) {
+        Invoice invoice = invoiceRepository.findByIdForUpdate(invoiceId)
+                .orElseThrow(() -> new ResourceNotFoundException("Invoice", "id", invoiceId));
+        balanceSnapshotRepository.findById(invoiceId).ifPresent(snapshot -> {
+            balanceSnapshotRepository.delete(snapshot);
+            balanceSnapshotRepository.flush();
+        });
+        lastSettledEntryId().ifPresent(settled -> fold(invoiceId, settled));
+        projectOnto(invoice);
+        return audit(invoice);
+    }
+
+    @Override
+    public int openBalances() {
+        int opened = 0;
+        // One transaction per entry: a node starting alongside this one may open the same invoice
+        for (Invoice invoice : invoiceRepository.findPaidWithoutLedgerEntries()) {
+            try {
+                ledgerEntryRepository.save(LedgerEntry.opening(invoice.getId(), invoice.getAmountPaid()));
+                opened++;
+            } catch (DataIntegrityViolationException e) {
+                log.debug("Opening ledger balance of invoice {} was already recorded", invoice.getId());
+            }
+        }
+        return opened;
+    }
+
+    private Invoice findInvoice(String invoiceId) {
+        return invoiceRepository.findById(invoiceId)
+                .orElseThrow(() -> new ResourceNotFoundException("Invoice", "id", invoiceId));
+    }
+
+    private void projectOnto(Invoice invoice) {
+        if (applyLedgerBalance(invoice, getAmountPaid(invoice.getId()))) {
+            invoiceRepository.save(invoice);
+        }
+    }
+
+    private boolean applyLedgerBalance(Invoice invoice, BigDecimal amountPaid) {
+        if (!invoice.applyLedgerBalance(amountPaid)) {
+            return false;
+        }
+        if (invoice.isOverpaid()) {
+            log.warn("Invoice {} ledger exceeds its total by {}", invoice.getId(), invoice.getBalance().negate());
+        }
+        return true;
+    }
+
+    private LedgerAuditDto audit(Invoice invoice) {
+        LedgerTotals ledger = ledgerEntryRepository.sumAfter(invoice.getId(), 0L);
+        BigDecimal ledgerAmountPaid = scaled(ledger.getAmount());
+        BigDecimal snapshotAmountPaid = getAmountPaid(invoice.getId());
+        BigDecimal invoiceAmountPaid = invoice.getAmountPaid() != null ? invoice.getAmountPaid() : BigDecimal.ZERO;
+        return LedgerAuditDto.builder()
+                .invoiceId(invoice.getId())
+                .entryCount(ledger.getEntryCount())
+                .ledgerAmountPaid(ledgerAmountPaid)
+                .snapshotAmountPaid(snapshotAmountPaid)
+                .invoiceAmountPaid(invoiceAmountPaid)
+                .overpaid(invoice.getTotal() != null && ledgerAmountPaid.compareTo(invoice.getTotal()) > 0)
+                .consistent(ledgerAmountPaid.compareTo(snapshotAmountPaid) == 0
+                        && ledgerAmountPaid.compareTo(invoiceAmountPaid) == 0)
+                .build();
+    }
+
+    private Optional<Long> lastSettledEntryId() {
+        return ledgerEntryRepository.findLastSettledId(LocalDateTime.now().minus(properties.getSettleLag()));
+    }
+
+    private boolean fold(String invoiceId, long throughId) {
+        BalanceSnapshot snapshot = balanceSnapshotRepository.findById(invoiceId)
+                .orElseGet(() -> BalanceSnapshot.builder()
+                        .invoiceId(invoiceId)
+                        .amountPaid(BigDecimal.ZERO)
+                        .throughEntryId(0L)
+                        .build());
+        if (snapshot.getThroughEntryId() >= throughId) {
+            return false;
+        }
+        LedgerTotals tail = ledgerEntryRepository.sumBetween(invoiceId, snapshot.getThroughEntryId(), throughId);
+        if (tail.getEntryCount() == 0) {
+            return false;
+        }
+        snapshot.setAmountPaid(scaled(snapshot.getAmountPaid().add(tail.getAmount())));
+        snapshot.setThroughEntryId(tail.getLastEntryId());
+        snapshot.setEntryCount(snapshot.getEntryCount() + tail.getEntryCount());
+        snapshot.setCompactedAt(LocalDateTime.now());
+        balanceSnapshotRepository.save(snapshot);
+        return true;
+    }
+
+    private Balance currentBalance(String invoiceId) {
+        Optional<BalanceSnapshot> snapshot = balanceSnapshotRepository.findById(invoiceId);
+        long through = snapshot.map(BalanceSnapshot::getThroughEntryId).orElse(0L);
+        BigDecimal base = snapshot.map(BalanceSnapshot::getAmountPaid).orElse(BigDecimal.ZERO);
+        LedgerTotals tail = ledgerEntryRepository.sumAfter(invoiceId, through);
+        return new Balance(scaled(base.add(tail.getAmount())),
+                snapshot.isPresent() ? through : null, tail.getEntryCount());
+    }
+
+    private static BigDecimal scaled(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private static final class Balance {
+        private final BigDecimal amountPaid;
+        private final Long snapshotThroughEntry;
+        private final long tailEntries;
+
+        private Balance(BigDecimal amountPaid, Long snapshotThroughEntry, long tailEntries) {
+            this.amountPaid = amountPaid;
+            this.snapshotThroughEntry = snapshotThroughEntry;
+            this.tailEntries = tailEntries;
+        }
+    }
+}
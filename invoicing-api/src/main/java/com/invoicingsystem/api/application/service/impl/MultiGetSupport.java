@@ -0,0 +1,64 @@
+package com.invoicingsystem.api.application.service.impl;
+
+import com.invoicingsystem.api.application.query.MultiGetResultDto;
+import com.invoicingsystem.api.domain.exception.BadRequestException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Shared handling for the {@code ?ids=} multi-get endpoints: the id list is
+ * validated once, entities are loaded with a single {@code IN} query by the caller,
+ * and the result is reassembled in request order with the missing ids reported.
+ */
+final class MultiGetSupport {
+
+    static final int MAX_IDS = 100;
+
+    private MultiGetSupport() {
+    }
+
+    static List<String> distinctIds(List<String> ids) {
+        Set<String> distinct = new LinkedHashSet<>();
+        if (ids != null) {
+            for (String id : ids) {
+                if (id != null && !id.isBlank()) {
+                    distinct.add(id.trim());
+                }
+            }
+        }
+        if (distinct.isEmpty()) {
+            throw new BadRequestException("At least one id is required");
+        }
+        if (distinct.size() > MAX_IDS) {
+            throw new BadRequestException("At most " + MAX_IDS + " ids can be requested at once");
+        }
+        return new ArrayList<>(distinct);
+    }
+
+    static <E, D> MultiGetResultDto<D> assemble(List<String> ids, Collection<E> entities,
+                                                Function<E, String> idOf, Function<E, D> mapper) {
+        Map<String, E> byId = new HashMap<>(entities.size() * 2);
+        for (E entity : entities) {
+            byId.put(idOf.apply(entity), entity);
+        }
+
+        List<D> items = new ArrayList<>(byId.size());
+        List<String> missingIds = new ArrayList<>();
+        for (String id : ids) {
+            E entity = byId.get(id);
+            if (entity != null) {
+                items.add(mapper.apply(entity));
+            } else {
+                missingIds.add(id);
+            }
+        }
+        return MultiGetResultDto.<D>builder().items(items).missingIds(missingIds).build();
+    }
+}
@@ -0,0 +1,238 @@
+package com.invoicingsystem.api.application.service.impl;
+
+import com.invoicingsystem.api.application.command.CreateRecurringInvoiceCommand;
+import com.invoicingsystem.api.application.mapper.RecurringInvoiceMapper;
+import com.invoicingsystem.api.application.query.RecurringInvoiceTemplateDto;
+import com.invoicingsystem.api.application.service.RecurringInvoiceService;
+import com.invoicingsystem.api.domain.event.InvoiceCreatedEvent;
+import com.invoicingsystem.api.domain.exception.BadRequestException;
+import com.invoicingsystem.api.domain.exception.ResourceNotFoundException;
+import com.invoicingsystem.api.domain.model.Client;
+import com.invoicingsystem.api.domain.model.Invoice;
+import com.invoicingsystem.api.domain.model.InvoiceItem;
+import com.invoicingsystem.api.domain.model.RecurringInvoiceTemplate;
+import com.invoicingsystem.api.domain.model.User;
+import com.invoicingsystem.api.domain.repository.ClientRepository;
+import com.invoicingsystem.api.domain.repository.InvoiceRepository;
+import com.invoicingsystem.api.domain.repository.RecurringInvoiceTemplateRepository;
+import com.invoicingsystem.api.domain.repository.UserRepository;
+import com.invoicingsystem.api.infrastructure.recurring.RecurringInvoiceProperties;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Timed("invoicing.service")
+public class RecurringInvoiceServiceImpl implements RecurringInvoiceService {
+
+    private final RecurringInvoiceTemplateRepository templateRepository;
+    private final InvoiceRepository invoiceRepository;
+    private final ClientRepository clientRepository;
+    private final UserRepository userRepository;
+    private final RecurringInvoiceMapper recurringInvoiceMapper;
+    private final RecurringInvoiceProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<RecurringInvoiceTemplateDto> getTemplates() {
+        return recurringInvoiceMapper.templatesToDtos(templateRepository.findAllWithDetails());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public RecurringInvoiceTemplateDto getTemplate(String id) {
+        return templateRepository.findWithDetailsById(id)
+                .map(recurringInvoiceMapper::templateToDto)
+                .orElseThrow(() -> new ResourceNotFoundException("RecurringInvoiceTemplate", "id", id));
+    }
+
+    @Override
+    @Transactional
+    public RecurringInvoiceTemplateDto createTemplate(CreateRecurringInvoiceCommand command, String userId) {
+        Client client = clientRepository.findById(command.getClientId())
+                .orElseThrow(() -> new ResourceNotFoundException("Client", "id", command.getClientId()));
+
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
+
+        if (command.getEndDate() != null && command.getEndDate().isBefore(command.getStartDate())) {
+            throw new BadRequestException("End date cannot be before start date");
+        }
+        Invoice.InvoiceStatus status = initialStatus(command.getStatus());
+
+        LocalDateTime now = LocalDateTime.now();
+        RecurringInvoiceTemplate template = RecurringInvoiceTemplate.builder()
+                .name(command.getName())
+                .client(client)
+                .frequency(command.getFrequency())
+                .nextIssueDate(command.getStartDate())
+                .endDate(command.getEndDate())
+                .dueInDays(command.getDueInDays())
+                .taxRate(command.getTaxRate())
+                .notes(command.getNotes())
+                .invoiceStatus(status)
+                .active(true)
+                .createdBy(user)
+                .items(command.getItems().stream()
+                        .map(recurringInvoiceMapper::itemDtoToItem)
+                        .collect(Collectors.toList()))
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+
+        return recurringInvoiceMapper.templateToDto(templateRepository.save(template));
+    }
+
+    @Override
+    @Transactional
+    public void deactivateTemplate(String id) {
+        RecurringInvoiceTemplate template = templateRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("RecurringInvoiceTemplate", "id", id));
+        template.setActive(false);
+        template.setUpdatedAt(LocalDateTime.now());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<String> findDueTemplateIds(LocalDate today, String afterId, int limit) {
+        return templateRepository.findDueIdsAfter(today, afterId, PageRequest.of(0, limit));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public int countDueInvoices(Collection<String> templateIds, LocalDate today) {
+        Set<String> invoiced = invoicedPeriods(templateIds);
+        int count = 0;
+        for (RecurringInvoiceTemplate template : templateRepository.findAllById(templateIds)) {
+            LocalDate period = template.getNextIssueDate();
+            int periods = 0;
+            while (template.isActive() && isDue(template, period, today) && periods < properties.getMaxPeriodsPerRun()) {
+                if (!invoiced.contains(periodKey(template.getId(), period))) {
+                    count++;
+                }
+                period = template.getFrequency().next(period);
+                periods++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    @Transactional
+    public int generate(Collection<String> templateIds, LocalDate today, List<String> numbers) {
+        List<RecurringInvoiceTemplate> templates = templateRepository.findAllForGenerationByIdIn(templateIds);
+        templates.sort(Comparator.comparing(RecurringInvoiceTemplate::getId));
+        Set<String> invoiced = invoicedPeriods(templateIds);
+        Iterator<String> availableNumbers = numbers.iterator();
+        LocalDateTime now = LocalDateTime.now();
+        List<Invoice> invoices = new ArrayList<>();
+
+        for (RecurringInvoiceTemplate template : templates) {
+            int periods = 0;
+            while (template.isActive() && isDue(template, template.getNextIssueDate(), today)
+                    && periods < properties.getMaxPeriodsPerRun()) {
+                LocalDate period = template.getNextIssueDate();
+                if (!invoiced.contains(periodKey(template.getId(), period))) {
+                    if (!availableNumbers.hasNext()) {
+                        // Left due; the next run picks it up with fresh numbers
+                        break;
+                    }
+                    invoices.add(newInvoice(template, period, availableNumbers.next(), now));
+                }
+                template.advance();
+                template.setUpdatedAt(now);
+                periods++;
+            }
+        }
+
+        // Ids are assigned up front, so the inserts are batched on flush
+        invoiceRepository.saveAll(invoices);
+        for (Invoice invoice : invoices) {
+            eventPublisher.publishEvent(new InvoiceCreatedEvent(
+                    invoice.getId(),
+                    invoice.getClient().getId(),
+                    invoice.getStatus(),
+                    invoice.getTotal(),
+                    invoice.getCreatedAt()));
+        }
+        return invoices.size();
+    }
+
+    private static Invoice newInvoice(RecurringInvoiceTemplate template, LocalDate period, String number,
+                                      LocalDateTime now) {
+        Invoice invoice = Invoice.builder()
+                .number(number)
+                .client(template.getClient())
+                .createdBy(template.getCreatedBy())
+                .issueDate(period)
+                .dueDate(period.plusDays(template.getDueInDays()))
+                .status(template.getInvoiceStatus())
+                .taxRate(template.getTaxRate())
+                .notes(template.getNotes())
+                .recurringTemplateId(template.getId())
+                .recurringPeriod(period)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+        for (RecurringInvoiceTemplate.Item templateItem : template.getItems()) {
+            InvoiceItem item = InvoiceItem.builder()
+                    .description(templateItem.getDescription())
+                    .quantity(templateItem.getQuantity())
+                    .unitPrice(templateItem.getUnitPrice())
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .build();
+            item.calculateAmount();
+            invoice.addItem(item);
+        }
+        invoice.calculateTotals();
+        invoice.setAmountPaid(BigDecimal.ZERO);
+        invoice.setBalance(invoice.getTotal());
+        return invoice;
+    }
+
+    private static boolean isDue(RecurringInvoiceTemplate template, LocalDate period, LocalDate today) {
+        return !period.isAfter(today) && (template.getEndDate() == null || !period.isAfter(template.getEndDate()));
+    }
+
+    private Set<String> invoicedPeriods(Collection<String> templateIds) {
+        return invoiceRepository.findRecurringPeriods(templateIds).stream()
+                .map(invoiced -> periodKey(invoiced.getTemplateId(), invoiced.getPeriod()))
+                .collect(Collectors.toSet());
+    }
+
+    private static String periodKey(String templateId, LocalDate period) {
+        return templateId + '|' + period;
+    }
+
+    private static Invoice.InvoiceStatus initialStatus(String status) {
+        if (status == null || status.isEmpty()) {
+            return Invoice.InvoiceStatus.DRAFT;
+        }
+        try {
+            Invoice.InvoiceStatus initial = Invoice.InvoiceStatus.valueOf(status);
+            if (initial == Invoice.InvoiceStatus.DRAFT || initial == Invoice.InvoiceStatus.SENT) {
+                return initial;
+            }
+        } catch (IllegalArgumentException ignored) {
+            // Reported below
+        }
+        throw new BadRequestException("Recurring invoices start as DRAFT or SENT, not " + status);
+    }
+}
@@ -0,0 +1,38 @@
+package com.invoicingsystem.api.application.service.impl;
+
+import com.invoicingsystem.api.application.query.SearchResultDto;
+import com.invoicingsystem.api.application.service.SearchService;
+import com.invoicingsystem.api.domain.exception.BadRequestException;
+import com.invoicingsystem.api.infrastructure.search.SearchIndex;
+import com.invoicingsystem.api.infrastructure.search.SearchIndexer;
+import com.invoicingsystem.api.infrastructure.search.SearchProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+public class SearchServiceImpl implements SearchService {
+
+    private final SearchIndex searchIndex;
+    private final SearchIndexer searchIndexer;
+    private final SearchProperties searchProperties;
+
+    @Override
+    public SearchResultDto search(String query, String type, int page, int size) {
+        if (query == null || query.isBlank()) {
+            throw new BadRequestException("Search query must not be empty");
+        }
+        if (type != null && !SearchIndex.TYPE_INVOICE.equals(type) && !SearchIndex.TYPE_CLIENT.equals(type)) {
+            throw new BadRequestException("Unknown search type: " + type);
+        }
+        if (page < 0 || size < 1) {
+            throw new BadRequestException("Page must be >= 0 and size must be >= 1");
+        }
+        return searchIndex.search(query, type, page, Math.min(size, searchProperties.getMaxPageSize()));
+    }
+
+    @Override
+    public boolean reindex() {
+        return searchIndexer.requestReindex();
+    }
+}
@@ -0,0 +1,124 @@
+package com.invoicingsystem.api.application.service.impl;
+
+import com.invoicingsystem.api.application.mapper.UserMapper;
+import com.invoicingsystem.api.application.query.JwtResponse;
+import com.invoicingsystem.api.application.service.SessionService;
+import com.invoicingsystem.api.domain.exception.UnauthorizedException;
+import com.invoicingsystem.api.domain.model.RefreshToken;
+import com.invoicingsystem.api.domain.model.User;
+import com.invoicingsystem.api.domain.repository.RefreshTokenRepository;
+import com.invoicingsystem.api.domain.repository.UserRepository;
+import com.invoicingsystem.api.infrastructure.security.JwtUtils;
+import com.invoicingsystem.api.infrastructure.security.RevokedSessions;
+import com.invoicingsystem.api.infrastructure.security.UserDetailsServiceImpl;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SessionServiceImpl implements SessionService {
+
+    private static final String INVALID_REFRESH_TOKEN = "Refresh token is invalid or expired";
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+    private final RevokedSessions revokedSessions;
+    private final JwtUtils jwtUtils;
+    private final UserMapper userMapper;
+
+    @Override
+    @Transactional
+    public JwtResponse open(User user) {
+        return issue(user, UUID.randomUUID().toString());
+    }
+
+    @Override
+    @Transactional(noRollbackFor = UnauthorizedException.class)
+    public JwtResponse refresh(String refreshToken) {
+        LocalDateTime now = LocalDateTime.now();
+        RefreshToken token = refreshTokenRepository.findByTokenHash(hash(refreshToken))
+                .filter(t -> t.getRevokedAt() == null && t.getExpiresAt().isAfter(now))
+                .orElseThrow(() -> new UnauthorizedException(INVALID_REFRESH_TOKEN));
+
+        if (refreshTokenRepository.markRotated(token.getId(), now) == 0) {
+            log.warn("Refresh token reuse in session {}; revoking the session", token.getFamilyId());
+            revoke(token.getFamilyId(), now);
+            throw new UnauthorizedException(INVALID_REFRESH_TOKEN);
+        }
+
+        // Reload the user so role changes apply from the next refresh on
+        User user = userRepository.findById(token.getUserId())
+                .orElseThrow(() -> new UnauthorizedException(INVALID_REFRESH_TOKEN));
+        return issue(user, token.getFamilyId());
+    }
+
+    @Override
+    @Transactional
+    public void close(String refreshToken) {
+        refreshTokenRepository.findByTokenHash(hash(refreshToken))
+                .ifPresent(token -> revoke(token.getFamilyId(), LocalDateTime.now()));
+    }
+
+    @Override
+    @Transactional
+    public int closeAll(String userId) {
+        LocalDateTime now = LocalDateTime.now();
+        List<String> sessionIds = refreshTokenRepository.findActiveFamilyIds(userId, now);
+        sessionIds.forEach(sessionId -> revoke(sessionId, now));
+        return sessionIds.size();
+    }
+
+    private JwtResponse issue(User user, String sessionId) {
+        byte[] secret = new byte[32];
+        RANDOM.nextBytes(secret);
+        String refreshToken = Base64.getUrlEncoder().withoutPadding().encodeToString(secret);
+
+        LocalDateTime now = LocalDateTime.now();
+        refreshTokenRepository.save(RefreshToken.builder()
+                .id(UUID.randomUUID().toString())
+                .tokenHash(hash(refreshToken))
+                .familyId(sessionId)
+                .userId(user.getId())
+                .issuedAt(now)
+                .expiresAt(now.plus(jwtUtils.getRefreshExpiration(), ChronoUnit.MILLIS))
+                .build());
+
+        String accessToken = jwtUtils.generateAccessToken(
+                UserDetailsServiceImpl.principalOf(user), user.getRole().name(), sessionId);
+        JwtResponse response = userMapper.userToJwtResponse(user, accessToken);
+        response.setRefreshToken(refreshToken);
+        response.setExpiresIn(jwtUtils.getExpiration() / 1000);
+        return response;
+    }
+
+    private void revoke(String sessionId, LocalDateTime now) {
+        refreshTokenRepository.revokeFamily(sessionId, now);
+        revokedSessions.revoke(sessionId);
+    }
+
+    private static String hash(String token) {
+        try {
+            StringBuilder hex = new StringBuilder(64);
+            for (byte b : MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8))) {
+                hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.invoicingsystem.api.application.service.impl;
+
+import com.invoicingsystem.api.application.command.SettlePaymentCommand;
+import com.invoicingsystem.api.application.query.SettlementResult;
+import com.invoicingsystem.api.application.service.LedgerService;
+import com.invoicingsystem.api.application.service.SettlementService;
+import com.invoicingsystem.api.domain.event.PaymentRecordedEvent;
+import com.invoicingsystem.api.domain.model.Invoice;
+import com.invoicingsystem.api.domain.model.LedgerEntry;
+import com.invoicingsystem.api.domain.model.Payment;
+import com.invoicingsystem.api.domain.repository.InvoiceRepository;
+import com.invoicingsystem.api.domain.repository.PaymentRepository;
+import com.invoicingsystem.api.domain.repository.SettlementTarget;
+import com.invoicingsystem.api.infrastructure.lanes.InvoiceLaneProperties;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Timed("invoicing.service")
+public class SettlementServiceImpl implements SettlementService {
+
+    private final PaymentRepository paymentRepository;
+    private final InvoiceRepository invoiceRepository;
+    private final LedgerService ledgerService;
+    private final InvoiceLaneProperties laneProperties;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<SettlementTarget> findTargets(Collection<String> paymentIds, Collection<String> references) {
+        List<SettlementTarget> targets = new ArrayList<>();
+        if (!paymentIds.isEmpty()) {
+            targets.addAll(paymentRepository.findSettlementTargetsByIdIn(paymentIds));
+        }
+        if (!references.isEmpty()) {
+            targets.addAll(paymentRepository.findSettlementTargetsByReferenceIn(references));
+        }
+        return targets;
+    }
+
+    @Override
+    @Transactional
+    public SettlementResult settle(Map<String, List<SettlePaymentCommand>> confirmationsByInvoice) {
+        SettlementResult result = new SettlementResult();
+        Map<String, List<SettlePaymentCommand>> byInvoice = new TreeMap<>(confirmationsByInvoice);
+        if (laneProperties.isDbGuard()) {
+            // Before the payments are read, so their invoices are loaded under the lock
+            byInvoice.keySet().forEach(invoiceRepository::findByIdForUpdate);
+        }
+        Map<String, Payment> payments = paymentRepository.findAllWithInvoiceByIdIn(byInvoice.values().stream()
+                        .flatMap(List::stream)
+                        .map(SettlePaymentCommand::getPaymentId)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(Payment::getId, Function.identity()));
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Payment> settled = new ArrayList<>();
+        List<Duration> pendingTimes = new ArrayList<>();
+        for (Map.Entry<String, List<SettlePaymentCommand>> group : byInvoice.entrySet()) {
+            BigDecimal remaining = null;
+            for (SettlePaymentCommand confirmation : group.getValue()) {
+                Payment payment = payments.get(confirmation.getPaymentId());
+                if (payment == null || !payment.getInvoice().getId().equals(group.getKey())) {
+                    reject(result, SettlementResult.Rejection.UNKNOWN_PAYMENT);
+                    continue;
+                }
+                if (payment.getStatus() == Payment.PaymentStatus.COMPLETED) {
+                    // Processors redeliver; also covers the same payment twice in one batch
+                    result.setDuplicates(result.getDuplicates() + 1);
+                    continue;
+                }
+                if (payment.getStatus() != Payment.PaymentStatus.PENDING) {
+                    reject(result, SettlementResult.Rejection.NOT_PENDING);
+                    continue;
+                }
+                if (confirmation.getAmount() != null && confirmation.getAmount().compareTo(payment.getAmount()) != 0) {
+                    reject(result, SettlementResult.Rejection.AMOUNT_MISMATCH);
+                    continue;
+                }
+                if (remaining == null) {
+                    Invoice invoice = payment.getInvoice();
+                    remaining = invoice.getTotal().subtract(ledgerService.getAmountPaid(invoice.getId()));
+                }
+                if (payment.getAmount().compareTo(remaining) > 0) {
+                    reject(result, SettlementResult.Rejection.EXCEEDS_BALANCE);
+                    continue;
+                }
+                remaining = remaining.subtract(payment.getAmount());
+                payment.setStatus(Payment.PaymentStatus.COMPLETED);
+                payment.setUpdatedAt(now);
+                settled.add(payment);
+                if (payment.getReceivedAt() != null) {
+                    pendingTimes.add(Duration.between(payment.getReceivedAt(), now));
+                }
+            }
+        }
+
+        paymentRepository.saveAll(settled);
+        // Insert-only like recordPayment: LedgerProjector refreshes each invoice after commit
+        for (Payment payment : settled) {
+            String invoiceId = payment.getInvoice().getId();
+            ledgerService.record(LedgerEntry.applied(invoiceId, payment.getId(), payment.getAmount()));
+            eventPublisher.publishEvent(new PaymentRecordedEvent(payment.getId(), invoiceId, payment.getAmount(),
+                    payment.getMethod().name(), payment.getStatus().name(), now));
+        }
+        result.setSettled(settled.size());
+        result.setPendingTimes(pendingTimes);
+        return result;
+    }
+
+    private static void reject(SettlementResult result, SettlementResult.Rejection rejection) {
+        result.getRejected().merge(rejection, 1, Integer::sum);
+    }
+}
@@ -0,0 +1,328 @@
+package com.invoicingsystem.api.application.service.impl;
+
+import com.invoicingsystem.api.application.command.RecordPaymentCommand;
+import com.invoicingsystem.api.application.command.StatementEntry;
+import com.invoicingsystem.api.application.mapper.StatementImportMapper;
+import com.invoicingsystem.api.application.query.PaymentDto;
+import com.invoicingsystem.api.application.query.StatementBatchResult;
+import com.invoicingsystem.api.application.query.StatementExceptionDto;
+import com.invoicingsystem.api.application.query.StatementImportDto;
+import com.invoicingsystem.api.application.service.LedgerService;
+import com.invoicingsystem.api.application.service.PaymentService;
+import com.invoicingsystem.api.application.service.StatementImportService;
+import com.invoicingsystem.api.domain.event.PaymentRecordedEvent;
+import com.invoicingsystem.api.domain.exception.BadRequestException;
+import com.invoicingsystem.api.domain.exception.ResourceNotFoundException;
+import com.invoicingsystem.api.domain.model.Invoice;
+import com.invoicingsystem.api.domain.model.LedgerEntry;
+import com.invoicingsystem.api.domain.model.Payment;
+import com.invoicingsystem.api.domain.model.StatementException;
+import com.invoicingsystem.api.domain.model.StatementImport;
+import com.invoicingsystem.api.domain.repository.InvoiceRepository;
+import com.invoicingsystem.api.domain.repository.OpenInvoiceBalance;
+import com.invoicingsystem.api.domain.repository.PaymentRepository;
+import com.invoicingsystem.api.domain.repository.PendingPaymentReference;
+import com.invoicingsystem.api.domain.repository.StatementExceptionRepository;
+import com.invoicingsystem.api.domain.repository.StatementImportRepository;
+import com.invoicingsystem.api.infrastructure.lanes.InvoiceLaneProperties;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Timed("invoicing.service")
+public class StatementImportServiceImpl implements StatementImportService {
+
+    // Invoices a statement line may pay automatically; drafts and paid or canceled invoices need a person
+    static final Set<Invoice.InvoiceStatus> PAYABLE_STATUSES = EnumSet.of(
+            Invoice.InvoiceStatus.SENT, Invoice.InvoiceStatus.PARTIALLY_PAID, Invoice.InvoiceStatus.OVERDUE);
+
+    private final StatementImportRepository importRepository;
+    private final StatementExceptionRepository exceptionRepository;
+    private final InvoiceRepository invoiceRepository;
+    private final PaymentRepository paymentRepository;
+    private final LedgerService ledgerService;
+    private final PaymentService paymentService;
+    private final StatementImportMapper statementImportMapper;
+    private final InvoiceLaneProperties laneProperties;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    @Transactional
+    public StatementImportDto startImport(String filename, String startedBy) {
+        StatementImport statementImport = StatementImport.builder()
+                .id(UUID.randomUUID().toString())
+                .filename(truncate(filename, 255))
+                .status(StatementImport.Status.RUNNING)
+                .startedBy(truncate(startedBy, 100))
+                .startedAt(LocalDateTime.now())
+                .build();
+        return statementImportMapper.importToDto(importRepository.save(statementImport));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<OpenInvoiceBalance> findOpenInvoices() {
+        return invoiceRepository.findOpenBalances(PAYABLE_STATUSES);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<PendingPaymentReference> findPendingReferences() {
+        return paymentRepository.findPendingReferences();
+    }
+
+    @Override
+    @Transactional
+    public StatementBatchResult applyBatch(String importId, List<StatementEntry> entries, long ignored) {
+        List<String> references = entries.stream()
+                .map(StatementEntry::getReference)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        Set<String> paid = new HashSet<>();
+        Set<String> queued = new HashSet<>();
+        if (!references.isEmpty()) {
+            paid.addAll(paymentRepository.findExistingReferences(references));
+            queued.addAll(exceptionRepository.findExistingReferences(references));
+        }
+        Set<String> invoiceIds = entries.stream()
+                .filter(entry -> entry.getMatchType() != null)
+                .map(StatementEntry::getInvoiceId)
+                .collect(Collectors.toCollection(TreeSet::new));
+        // The row locks are taken in id order, so overlapping batches cannot deadlock each other
+        List<Invoice> loaded = laneProperties.isDbGuard() && !invoiceIds.isEmpty()
+                ? invoiceRepository.findAllByIdForUpdate(invoiceIds)
+                : invoiceRepository.findAllById(invoiceIds);
+        Map<String, Invoice> invoices = loaded.stream()
+                .collect(Collectors.toMap(Invoice::getId, Function.identity()));
+        Map<String, Payment> pendingPayments = paymentRepository.findAllById(entries.stream()
+                        .filter(entry -> entry.getMatchType() == StatementEntry.MatchType.PENDING_PAYMENT)
+                        .map(StatementEntry::getPaymentId)
+                        .collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(Payment::getId, Function.identity()));
+
+        Set<String> payableIds = new HashSet<>(invoiceIds);
+        pendingPayments.values().forEach(payment -> payableIds.add(payment.getInvoice().getId()));
+        Map<String, BigDecimal> amountsPaid = ledgerService.getAmountsPaid(payableIds);
+
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, BigDecimal> remaining = new HashMap<>();
+        Set<String> seen = new HashSet<>();
+        List<Payment> confirmed = new ArrayList<>();
+        List<Payment> created = new ArrayList<>();
+        List<StatementException> exceptions = new ArrayList<>();
+        int duplicates = 0;
+
+        for (StatementEntry entry : entries) {
+            String reference = entry.getReference();
+            if (entry.getMatchType() == StatementEntry.MatchType.PENDING_PAYMENT) {
+                Payment payment = pendingPayments.get(entry.getPaymentId());
+                if (queued.contains(reference) || !seen.add(reference)
+                        || (payment != null && payment.getStatus() != Payment.PaymentStatus.PENDING)) {
+                    // Confirmed or queued by an earlier import, or by an earlier line of this one
+                    duplicates++;
+                } else if (payment == null) {
+                    exceptions.add(exception(importId, entry, StatementEntry.Reason.NO_MATCH, null, now));
+                } else if (payment.getAmount().compareTo(entry.getAmount()) != 0) {
+                    exceptions.add(exception(importId, entry, StatementEntry.Reason.AMOUNT_MISMATCH,
+                            payment.getInvoice().getId(), now));
+                } else if (!take(remaining, amountsPaid, payment.getInvoice(), entry.getAmount())) {
+                    exceptions.add(exception(importId, entry, StatementEntry.Reason.EXCEEDS_BALANCE,
+                            payment.getInvoice().getId(), now));
+                } else {
+                    payment.setStatus(Payment.PaymentStatus.COMPLETED);
+                    payment.setUpdatedAt(now);
+                    confirmed.add(payment);
+                }
+                continue;
+            }
+
+            if (reference != null && (paid.contains(reference) || queued.contains(reference) || !seen.add(reference))) {
+                duplicates++;
+                continue;
+            }
+            if (entry.getMatchType() == null) {
+                exceptions.add(exception(importId, entry, entry.getUnmatchedReason(), null, now));
+                continue;
+            }
+            Invoice invoice = invoices.get(entry.getInvoiceId());
+            if (invoice == null || !PAYABLE_STATUSES.contains(invoice.getStatus())) {
+                exceptions.add(exception(importId, entry, StatementEntry.Reason.INVOICE_NOT_OPEN,
+                        entry.getInvoiceId(), now));
+            } else if (!take(remaining, amountsPaid, invoice, entry.getAmount())) {
+                exceptions.add(exception(importId, entry, StatementEntry.Reason.EXCEEDS_BALANCE,
+                        invoice.getId(), now));
+            } else {
+                created.add(Payment.builder()
+                        .invoice(invoice)
+                        .amount(entry.getAmount())
+                        .method(Payment.PaymentMethod.BANK_TRANSFER)
+                        .status(Payment.PaymentStatus.COMPLETED)
+                        .receivedAt(entry.getBookingDate() != null ? entry.getBookingDate().atStartOfDay() : now)
+                        .reference(reference)
+                        .createdAt(now)
+                        .updatedAt(now)
+                        .build());
+            }
+        }
+
+        paymentRepository.saveAll(confirmed);
+        paymentRepository.saveAll(created);
+        exceptionRepository.saveAll(exceptions);
+        // Insert-only like recordPayment: LedgerProjector refreshes each invoice once after commit
+        List<LedgerEntry> ledgerEntries = new ArrayList<>(confirmed.size() + created.size());
+        for (Payment payment : confirmed) {
+            ledgerEntries.add(LedgerEntry.applied(payment.getInvoice().getId(), payment.getId(), payment.getAmount()));
+        }
+        for (Payment payment : created) {
+            ledgerEntries.add(LedgerEntry.applied(payment.getInvoice().getId(), payment.getId(), payment.getAmount()));
+        }
+        ledgerService.recordAll(ledgerEntries);
+        for (Payment payment : confirmed) {
+            recorded(payment, payment.getUpdatedAt());
+        }
+        for (Payment payment : created) {
+            recorded(payment, payment.getReceivedAt());
+        }
+
+        int matched = confirmed.size() + created.size();
+        importRepository.addCounts(importId, entries.size() + ignored, matched, duplicates, exceptions.size(), ignored);
+        return new StatementBatchResult(matched, duplicates, exceptions.size());
+    }
+
+    @Override
+    @Transactional
+    public StatementImportDto finishImport(String importId, String error) {
+        StatementImport statementImport = findImport(importId);
+        statementImport.setStatus(error == null ? StatementImport.Status.COMPLETED : StatementImport.Status.FAILED);
+        statementImport.setError(truncate(error, 1000));
+        statementImport.setFinishedAt(LocalDateTime.now());
+        return statementImportMapper.importToDto(importRepository.save(statementImport));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public StatementImportDto getImport(String id) {
+        return statementImportMapper.importToDto(findImport(id));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<StatementImportDto> getImports(int page, int size) {
+        return statementImportMapper.importsToDtos(importRepository.findAllByOrderByStartedAtDesc(PageRequest.of(page, size)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<StatementExceptionDto> getExceptions(String importId, int page, int size) {
+        PageRequest pageable = PageRequest.of(page, size);
+        List<StatementException> exceptions = importId == null
+                ? exceptionRepository.findByStatusOrderByImportIdAscLineNumberAsc(StatementException.Status.OPEN, pageable)
+                : exceptionRepository.findByStatusAndImportIdOrderByLineNumberAsc(StatementException.Status.OPEN,
+                importId, pageable);
+        return statementImportMapper.exceptionsToDtos(exceptions);
+    }
+
+    @Override
+    public StatementExceptionDto matchException(String exceptionId, String invoiceId) {
+        StatementException exception = findOpenException(exceptionId);
+        if (exception.getAmount() == null) {
+            throw new BadRequestException("Statement line " + exception.getLineNumber() + " has no readable amount");
+        }
+        // Goes through the regular payment path, which checks the invoice and its balance under its lane
+        PaymentDto payment = paymentService.recordPayment(RecordPaymentCommand.builder()
+                .invoiceId(invoiceId)
+                .amount(exception.getAmount())
+                .method(Payment.PaymentMethod.BANK_TRANSFER)
+                .status(Payment.PaymentStatus.COMPLETED)
+                .receivedAt(exception.getBookingDate() != null ? exception.getBookingDate().atStartOfDay() : null)
+                .reference(exception.getReference())
+                .build());
+        exception.setStatus(StatementException.Status.MATCHED);
+        exception.setPaymentId(payment.getId());
+        exception.setResolvedAt(LocalDateTime.now());
+        return statementImportMapper.exceptionToDto(exceptionRepository.save(exception));
+    }
+
+    @Override
+    @Transactional
+    public StatementExceptionDto dismissException(String exceptionId) {
+        StatementException exception = findOpenException(exceptionId);
+        exception.setStatus(StatementException.Status.DISMISSED);
+        exception.setResolvedAt(LocalDateTime.now());
+        return statementImportMapper.exceptionToDto(exceptionRepository.save(exception));
+    }
+
+    private boolean take(Map<String, BigDecimal> remaining, Map<String, BigDecimal> amountsPaid,
+                         Invoice invoice, BigDecimal amount) {
+        BigDecimal left = remaining.computeIfAbsent(invoice.getId(),
+                id -> invoice.getTotal().subtract(amountsPaid.getOrDefault(id, BigDecimal.ZERO)));
+        if (amount.compareTo(left) > 0) {
+            return false;
+        }
+        remaining.put(invoice.getId(), left.subtract(amount));
+        return true;
+    }
+
+    private void recorded(Payment payment, LocalDateTime occurredAt) {
+        // Guarded for tests without eventPublisher mock
+        if (eventPublisher != null) {
+            eventPublisher.publishEvent(new PaymentRecordedEvent(payment.getId(), payment.getInvoice().getId(),
+                    payment.getAmount(), payment.getMethod().name(), payment.getStatus().name(), occurredAt));
+        }
+    }
+
+    private StatementException exception(String importId, StatementEntry entry, StatementEntry.Reason reason,
+                                         String suggestedInvoiceId, LocalDateTime now) {
+        return StatementException.builder()
+                .importId(importId)
+                .lineNumber(entry.getLineNumber())
+                .bookingDate(entry.getBookingDate())
+                .amount(entry.getAmount())
+                .reference(entry.getReference())
+                .memo(truncate(entry.getMemo(), 500))
+                .counterparty(truncate(entry.getCounterparty(), 200))
+                .reason(reason.name())
+                .suggestedInvoiceId(suggestedInvoiceId)
+                .status(StatementException.Status.OPEN)
+                .createdAt(now)
+                .build();
+    }
+
+    private StatementImport findImport(String id) {
+        return importRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("StatementImport", "id", id));
+    }
+
+    private StatementException findOpenException(String id) {
+        StatementException exception = exceptionRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("StatementException", "id", id));
+        if (exception.getStatus() != StatementException.Status.OPEN) {
+            throw new BadRequestException("Statement exception is already " + exception.getStatus());
+        }
+        return exception;
+    }
+
+    private static String truncate(String value, int length) {
+        return value != null && value.length() > length ? value.substring(0, length) : value;
+    }
+}
@@ -2,6 +2,7 @@ package com.invoicingsystem.api.application.service.impl;
 
 import com.invoicingsystem.api.application.mapper.UserMapper;
 import com.invoicingsystem.api.application.query.UserDto;
+import com.invoicingsystem.api.application.service.SessionService;
 import com.invoicingsystem.api.application.service.UserService;
 import com.invoicingsystem.api.domain.exception.ResourceNotFoundException;
 import com.invoicingsystem.api.domain.repository.UserRepository;
@@ -17,6 +18,7 @@ public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final SessionService sessionService;
 
     @Override
     @Transactional(readOnly = true)
@@ -47,6 +49,17 @@ public class UserServiceImpl implements UserService {
             throw new ResourceNotFoundException("User", "id", id);
         }
 
+        sessionService.closeAll(id);
         userRepository.deleteById(id);
     }
+
+    @Override
+    @Transactional
+    public int revokeSessions(String id) {
+        if (!userRepository.existsById(id)) {
+            throw new ResourceNotFoundException("User", "id", id);
+        }
+
+        return sessionService.closeAll(id);
+    }
 }
@@ -0,0 +1,29 @@
+package com.invoicingsystem.api.domain.event;
+
+import java.time.LocalDateTime;
+
+public class ClientChangedEvent {
+    private final String clientId;
+    private final ChangeType changeType;
+    private final String name;
+    private final String email;
+    private final LocalDateTime occurredAt;
+
+    public ClientChangedEvent(String clientId, ChangeType changeType, String name, String email, LocalDateTime occurredAt) {
+        this.clientId = clientId;
+        this.changeType = changeType;
+        this.name = name;
+        this.email = email;
+        this.occurredAt = occurredAt != null ? occurredAt : LocalDateTime.now();
+    }
+
+    public String getClientId() { return clientId; }
+    public ChangeType getChangeType() { return changeType; }
+    public String getName() { return name; }
+    public String getEmail() { return email; }
+    public LocalDateTime getOccurredAt() { return occurredAt; }
+
+    public enum ChangeType {
+        CREATED, UPDATED, DELETED
+    }
+}
@@ -0,0 +1,23 @@
+package com.invoicingsystem.api.domain.event;
+
+import java.time.LocalDateTime;
+
+public class InvoiceChangedEvent {
+    private final String invoiceId;
+    private final ChangeType changeType;
+    private final LocalDateTime occurredAt;
+
+    public InvoiceChangedEvent(String invoiceId, ChangeType changeType, LocalDateTime occurredAt) {
+        this.invoiceId = invoiceId;
+        this.changeType = changeType;
+        this.occurredAt = occurredAt != null ? occurredAt : LocalDateTime.now();
+    }
+
+    public String getInvoiceId() { return invoiceId; }
+    public ChangeType getChangeType() { return changeType; }
+    public LocalDateTime getOccurredAt() { return occurredAt; }
+
+    public enum ChangeType {
+        UPDATED, DELETED
+    }
+}
@@ -0,0 +1,27 @@
+package com.invoicingsystem.api.domain.event;
+
+import com.invoicingsystem.api.domain.model.Invoice;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public class InvoiceCreatedEvent {
+    private final String invoiceId;
+    private final String clientId;
+    private final Invoice.InvoiceStatus status;
+    private final BigDecimal total;
+    private final LocalDateTime occurredAt;
+
+    public InvoiceCreatedEvent(String invoiceId, String clientId, Invoice.InvoiceStatus status, BigDecimal total, LocalDateTime occurredAt) {
+        this.invoiceId = invoiceId;
+        this.clientId = clientId;
+        this.status = status;
+        this.total = total;
+        this.occurredAt = occurredAt != null ? occurredAt : LocalDateTime.now();
+    }
+
+    public String getInvoiceId() { return invoiceId; }
+    public String getClientId() { return clientId; }
+    public Invoice.InvoiceStatus getStatus() { return status; }
+    public BigDecimal getTotal() { return total; }
+    public LocalDateTime getOccurredAt() { return occurredAt; }
+}
@@ -0,0 +1,42 @@
+package com.invoicingsystem.api.domain.model;
+
+import javax.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Amount paid on an invoice folded from its ledger entries up to and including
+ * {@code throughEntryId}. The current amount paid is this plus the entries after it.
+ */
+@Entity
+@Table(name = "ledger_snapshots")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BalanceSnapshot {
+
+    @Id
+    @Column(name = "invoice_id", nullable = false, updatable = false)
+    private String invoiceId;
+
+    @Column(name = "amount_paid", nullable = false, precision = 12, scale = 2)
+    private BigDecimal amountPaid;
+
+    @Column(name = "through_entry_id", nullable = false)
+    private Long throughEntryId;
+
+    @Column(name = "entry_count", nullable = false)
+    private long entryCount;
+
+    @Column(name = "compacted_at", nullable = false)
+    private LocalDateTime compactedAt;
+
+    // Guards against two compactors folding the same invoice from the same base
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+}
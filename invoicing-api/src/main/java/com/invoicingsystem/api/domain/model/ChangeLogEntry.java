@@ -0,0 +1,53 @@
+package com.invoicingsystem.api.domain.model;
+
+import javax.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One mutation of an invoice, payment or client, appended in the transaction that made it.
+ * The generated id orders the feed; {@code delta} holds a compact JSON summary of the change.
+ */
+@Entity
+@Table(name = "change_log", indexes = {
+        @Index(name = "idx_change_log_entity", columnList = "entity_type, entity_id"),
+        @Index(name = "idx_change_log_recorded_at", columnList = "recorded_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ChangeLogEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", nullable = false, updatable = false)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", nullable = false, length = 20)
+    private EntityType entityType;
+
+    @Column(name = "entity_id", nullable = false)
+    private String entityId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "operation", nullable = false, length = 20)
+    private Operation operation;
+
+    @Column(name = "delta", length = 1000)
+    private String delta;
+
+    @Column(name = "recorded_at", nullable = false)
+    private LocalDateTime recordedAt;
+
+    public enum EntityType {
+        INVOICE, PAYMENT, CLIENT
+    }
+
+    public enum Operation {
+        CREATED, UPDATED, DELETED
+    }
+}
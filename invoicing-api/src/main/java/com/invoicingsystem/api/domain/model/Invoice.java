@@ -5,13 +5,18 @@ import lombok.*;
 import lombok.experimental.SuperBuilder;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
 @Entity
-@Table(name = "invoices")
+@Table(name = "invoices", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_invoices_recurring_period", columnNames = {"recurring_template_id", "recurring_period"})
+}, indexes = {
+        @Index(name = "idx_invoices_status_due_date", columnList = "status, due_date")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -19,6 +24,10 @@ import java.util.UUID;
 @SuperBuilder
 public class Invoice extends BaseEntity {
 
+    // Amounts are stored with two decimals; calculateTotals sums and taxes them as long cents (see Money)
+    private static final int CENTS = 2;
+    private static final BigDecimal ONE_HUNDRED = BigDecimal.valueOf(100);
+
     @Id
     @Column(name = "id", nullable = false, updatable = false)
     private String id;
@@ -67,6 +76,13 @@ public class Invoice extends BaseEntity {
     @JoinColumn(name = "created_by_id", nullable = false)
     private User createdBy;
 
+    // Set on invoices generated from a recurring template, at most one per template and period
+    @Column(name = "recurring_template_id", updatable = false)
+    private String recurringTemplateId;
+
+    @Column(name = "recurring_period", updatable = false)
+    private LocalDate recurringPeriod;
+
     @OneToMany(mappedBy = "invoice", cascade = CascadeType.ALL, orphanRemoval = true)
     @Builder.Default
     private List<InvoiceItem> items = new ArrayList<>();
@@ -96,21 +112,38 @@ public class Invoice extends BaseEntity {
 
     // Helper method to calculate totals
     public void calculateTotals() {
+        try {
+            long subtotalCents = 0L;
+            for (InvoiceItem item : items) {
+                subtotalCents = Math.addExact(subtotalCents, Money.toMinorUnits(item.getAmount(), CENTS));
+            }
+            long taxCents = taxRate != null ? Money.percentOf(subtotalCents, taxRate) : 0L;
+
+            this.subtotal = BigDecimal.valueOf(subtotalCents, CENTS);
+            this.taxAmount = taxRate != null ? BigDecimal.valueOf(taxCents, CENTS) : BigDecimal.ZERO;
+            this.total = BigDecimal.valueOf(Math.addExact(subtotalCents, taxCents), CENTS);
+        } catch (ArithmeticException notWholeCents) {
+            calculateTotalsInDecimal();
+        }
+        recalculateBalance();
+    }
+
+    // Reference arithmetic for amounts that are not whole cents or do not fit in a long
+    private void calculateTotalsInDecimal() {
         this.subtotal = items.stream()
                 .map(InvoiceItem::getAmount)
                 .reduce(BigDecimal.ZERO, BigDecimal::add)
-                .setScale(2, java.math.RoundingMode.HALF_UP);
+                .setScale(2, RoundingMode.HALF_UP);
 
         if (taxRate != null) {
             this.taxAmount = subtotal
-                    .multiply(taxRate.divide(new BigDecimal("100")))
-                    .setScale(2, java.math.RoundingMode.HALF_UP);
+                    .multiply(taxRate.divide(ONE_HUNDRED))
+                    .setScale(2, RoundingMode.HALF_UP);
         } else {
             this.taxAmount = BigDecimal.ZERO;
         }
 
-        this.total = subtotal.add(taxAmount).setScale(2, java.math.RoundingMode.HALF_UP);
-        recalculateBalance();
+        this.total = subtotal.add(taxAmount).setScale(2, RoundingMode.HALF_UP);
     }
 
     // Helper method to recalculate balance based on amount paid
@@ -118,7 +151,7 @@ public class Invoice extends BaseEntity {
         if (this.amountPaid == null) {
             this.amountPaid = BigDecimal.ZERO;
         }
-        this.balance = this.total.subtract(this.amountPaid).setScale(2, java.math.RoundingMode.HALF_UP);
+        this.balance = this.total.subtract(this.amountPaid).setScale(2, RoundingMode.HALF_UP);
     }
 
     // Helper method to apply payment amount
@@ -143,6 +176,32 @@ public class Invoice extends BaseEntity {
         }
     }
 
+    /**
+     * Sets the amount paid to the total of the payment ledger and moves the payment statuses to
+     * match, using the same rules as {@link #applyPayment} and {@link #reversePayment}. A ledger
+     * above the total still leaves the invoice PAID; the negative balance is the overpayment and
+     * is reported by {@link #isOverpaid}. Returns whether anything changed.
+     */
+    public boolean applyLedgerBalance(BigDecimal ledgerAmountPaid) {
+        BigDecimal paid = ledgerAmountPaid.setScale(2, RoundingMode.HALF_UP);
+        InvoiceStatus previousStatus = this.status;
+        boolean amountChanged = this.amountPaid == null || this.amountPaid.compareTo(paid) != 0;
+
+        this.amountPaid = paid;
+        recalculateBalance();
+
+        if (paid.signum() > 0) {
+            this.status = this.balance.signum() <= 0 ? InvoiceStatus.PAID : InvoiceStatus.PARTIALLY_PAID;
+        } else if (this.status == InvoiceStatus.PAID || this.status == InvoiceStatus.PARTIALLY_PAID) {
+            this.status = InvoiceStatus.SENT;
+        }
+        return amountChanged || this.status != previousStatus;
+    }
+
+    public boolean isOverpaid() {
+        return this.balance != null && this.balance.signum() < 0;
+    }
+
     // Backward-compatible alias methods for tests referring to balanceDue
     public BigDecimal getBalanceDue() {
         return this.getBalance();
@@ -45,6 +45,7 @@ public class InvoiceItem extends BaseEntity {
 
     // Helper method to calculate amount
     public void calculateAmount() {
-        this.amount = unitPrice.multiply(new BigDecimal(quantity));
+        // valueOf keeps the scale of unitPrice, as before, and reuses the cached small values
+        this.amount = unitPrice.multiply(BigDecimal.valueOf(quantity));
     }
 }
@@ -0,0 +1,25 @@
+package com.invoicingsystem.api.domain.model;
+
+import javax.persistence.*;
+import lombok.*;
+
+/**
+ * The next free invoice number of a year. Numbers are handed out in blocks under a row lock, so
+ * concurrent creators never collide; numbers of a block whose invoices were rolled back are lost.
+ */
+@Entity
+@Table(name = "invoice_number_sequences")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InvoiceNumberSequence {
+
+    @Id
+    @Column(name = "sequence_year", nullable = false, updatable = false)
+    private Integer year;
+
+    @Column(name = "next_value", nullable = false)
+    private long nextValue;
+}
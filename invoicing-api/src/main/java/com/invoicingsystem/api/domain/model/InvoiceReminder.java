@@ -0,0 +1,56 @@
+package com.invoicingsystem.api.domain.model;
+
+import javax.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A payment reminder for an overdue invoice at one dunning stage, claimed before it is sent so
+ * each stage goes out at most once per invoice even when runs overlap.
+ */
+@Entity
+@Table(name = "invoice_reminders", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_invoice_reminders_stage", columnNames = {"invoice_id", "stage"})
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InvoiceReminder {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "invoice_id", nullable = false, updatable = false)
+    private String invoiceId;
+
+    // Days overdue the reminder is sent at
+    @Column(name = "stage", nullable = false, updatable = false)
+    private int stage;
+
+    @Column(name = "recipient", nullable = false)
+    private String recipient;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private Status status;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "claimed_at", nullable = false)
+    private LocalDateTime claimedAt;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    @Column(name = "error", length = 1000)
+    private String error;
+
+    public enum Status {
+        PENDING, SENT, FAILED
+    }
+}
@@ -0,0 +1,43 @@
+package com.invoicingsystem.api.domain.model;
+
+import javax.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Ownership of one shard of a cluster job. A node runs the shard only while its lease is
+ * unexpired; the schedule lives here too, so whoever takes the lease over continues it.
+ */
+@Entity
+@Table(name = "job_leases")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class JobLease {
+
+    /** Job name and shard, e.g. {@code ledger-compaction#2}. */
+    @Id
+    @Column(name = "id", nullable = false, updatable = false, length = 150)
+    private String id;
+
+    @Column(name = "job_name", nullable = false, updatable = false, length = 100)
+    private String jobName;
+
+    @Column(name = "shard", nullable = false, updatable = false)
+    private int shard;
+
+    @Column(name = "owner", length = 100)
+    private String owner;
+
+    @Column(name = "lease_until")
+    private LocalDateTime leaseUntil;
+
+    @Column(name = "last_run_at")
+    private LocalDateTime lastRunAt;
+
+    @Column(name = "next_run_at")
+    private LocalDateTime nextRunAt;
+}
@@ -0,0 +1,29 @@
+package com.invoicingsystem.api.domain.model;
+
+import javax.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A scheduler instance; nodes with a recent heartbeat share the shards of every cluster job.
+ */
+@Entity
+@Table(name = "job_nodes")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class JobNode {
+
+    @Id
+    @Column(name = "id", nullable = false, updatable = false, length = 100)
+    private String id;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "heartbeat_at", nullable = false)
+    private LocalDateTime heartbeatAt;
+}
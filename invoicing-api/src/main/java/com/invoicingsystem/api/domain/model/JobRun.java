@@ -0,0 +1,52 @@
+package com.invoicingsystem.api.domain.model;
+
+import javax.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One execution of a cluster job shard, kept for the run history.
+ */
+@Entity
+@Table(name = "job_runs", indexes = {
+        @Index(name = "idx_job_runs_job_name", columnList = "job_name, id"),
+        @Index(name = "idx_job_runs_started_at", columnList = "started_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class JobRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "job_name", nullable = false, length = 100)
+    private String jobName;
+
+    @Column(name = "shard", nullable = false)
+    private int shard;
+
+    @Column(name = "node", nullable = false, length = 100)
+    private String node;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "duration_ms", nullable = false)
+    private long durationMs;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "outcome", nullable = false, length = 20)
+    private Outcome outcome;
+
+    @Column(name = "error", length = 1000)
+    private String error;
+
+    public enum Outcome {
+        SUCCEEDED, FAILED
+    }
+}
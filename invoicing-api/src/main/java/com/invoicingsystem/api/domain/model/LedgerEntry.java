@@ -0,0 +1,95 @@
+package com.invoicingsystem.api.domain.model;
+
+import javax.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One balance-affecting event of an invoice. Entries are only ever inserted: a payment that is
+ * reversed or deleted gets a compensating entry instead of an update. {@code amount} is the signed
+ * effect on the amount paid, so an invoice's amount paid is the sum of its entries.
+ */
+@Entity
+@Table(name = "ledger_entries", indexes = {
+        @Index(name = "idx_ledger_entries_invoice", columnList = "invoice_id, id"),
+        @Index(name = "idx_ledger_entries_recorded_at", columnList = "recorded_at")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_ledger_entries_opening", columnNames = "opening_for")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LedgerEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", nullable = false, updatable = false)
+    private Long id;
+
+    // Plain columns rather than associations: appending must not load or lock the invoice
+    @Column(name = "invoice_id", nullable = false, updatable = false)
+    private String invoiceId;
+
+    @Column(name = "payment_id", updatable = false)
+    private String paymentId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false, updatable = false, length = 20)
+    private EntryType type;
+
+    @Column(name = "amount", nullable = false, updatable = false, precision = 12, scale = 2)
+    private BigDecimal amount;
+
+    @Column(name = "recorded_at", nullable = false, updatable = false)
+    private LocalDateTime recordedAt;
+
+    // The invoice id on its opening balance and null otherwise, so each invoice has at most one
+    @Column(name = "opening_for", updatable = false)
+    private String openingFor;
+
+    public enum EntryType {
+        APPLIED, REVERSED, ADJUSTED
+    }
+
+    public static LedgerEntry applied(String invoiceId, String paymentId, BigDecimal amount) {
+        return of(EntryType.APPLIED, invoiceId, paymentId, requirePositive(amount));
+    }
+
+    public static LedgerEntry reversed(String invoiceId, String paymentId, BigDecimal amount) {
+        return of(EntryType.REVERSED, invoiceId, paymentId, requirePositive(amount).negate());
+    }
+
+    public static LedgerEntry adjusted(String invoiceId, BigDecimal delta) {
+        return of(EntryType.ADJUSTED, invoiceId, null, delta);
+    }
+
+    /**
+     * The amount an invoice had been paid before the ledger existed.
+     */
+    public static LedgerEntry opening(String invoiceId, BigDecimal amountPaid) {
+        LedgerEntry entry = adjusted(invoiceId, amountPaid);
+        entry.setOpeningFor(invoiceId);
+        return entry;
+    }
+
+    private static LedgerEntry of(EntryType type, String invoiceId, String paymentId, BigDecimal amount) {
+        return LedgerEntry.builder()
+                .invoiceId(invoiceId)
+                .paymentId(paymentId)
+                .type(type)
+                .amount(amount)
+                .recordedAt(LocalDateTime.now())
+                .build();
+    }
+
+    private static BigDecimal requirePositive(BigDecimal amount) {
+        if (amount == null || amount.signum() <= 0) {
+            throw new IllegalArgumentException("Ledger amount must be positive");
+        }
+        return amount;
+    }
+}
@@ -0,0 +1,205 @@
+package com.invoicingsystem.api.domain.model;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+import java.util.Objects;
+
+/**
+ * Monetary amount held as a long count of minor units (cents for USD) plus its currency.
+ *
+ * <p>Arithmetic is exact: anything that would overflow a long or needs more fraction digits
+ * than the currency has throws {@link ArithmeticException} instead of silently rounding.
+ * The only rounding rule is {@link RoundingMode#HALF_UP}, as used by {@link Invoice}.
+ *
+ * <p>The static {@code long} kernels are what the entity arithmetic uses on its hot paths;
+ * they work on primitive minor units and allocate nothing.
+ */
+public final class Money implements Comparable<Money>, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final Currency DEFAULT_CURRENCY = Currency.getInstance("USD");
+
+    private static final long[] POWERS_OF_TEN = {
+            1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L,
+            1_000_000_000L, 10_000_000_000L, 100_000_000_000L, 1_000_000_000_000L,
+            10_000_000_000_000L, 100_000_000_000_000L, 1_000_000_000_000_000L,
+            10_000_000_000_000_000L, 100_000_000_000_000_000L, 1_000_000_000_000_000_000L
+    };
+
+    private static final double[] DOUBLE_POWERS_OF_TEN = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8};
+
+    private static final double EXACT_DOUBLE_LIMIT = 0x1p50;
+
+    private final long minorUnits;
+    private final Currency currency;
+
+    private Money(long minorUnits, Currency currency) {
+        this.minorUnits = minorUnits;
+        this.currency = currency;
+    }
+
+    public static Money ofMinor(long minorUnits, Currency currency) {
+        return new Money(minorUnits, Objects.requireNonNull(currency, "currency"));
+    }
+
+    public static Money ofMinor(long minorUnits) {
+        return new Money(minorUnits, DEFAULT_CURRENCY);
+    }
+
+    /**
+     * Exact conversion; throws if {@code amount} has more fraction digits than the currency.
+     */
+    public static Money of(BigDecimal amount, Currency currency) {
+        Objects.requireNonNull(amount, "amount");
+        return ofMinor(toMinorUnits(amount, fractionDigits(currency)), currency);
+    }
+
+    public static Money of(BigDecimal amount) {
+        return of(amount, DEFAULT_CURRENCY);
+    }
+
+    public static Money zero(Currency currency) {
+        return ofMinor(0L, currency);
+    }
+
+    public long getMinorUnits() {
+        return minorUnits;
+    }
+
+    public Currency getCurrency() {
+        return currency;
+    }
+
+    public Money plus(Money other) {
+        requireSameCurrency(other);
+        return new Money(Math.addExact(minorUnits, other.minorUnits), currency);
+    }
+
+    public Money minus(Money other) {
+        requireSameCurrency(other);
+        return new Money(Math.subtractExact(minorUnits, other.minorUnits), currency);
+    }
+
+    public Money times(long factor) {
+        return new Money(Math.multiplyExact(minorUnits, factor), currency);
+    }
+
+    public Money negate() {
+        return new Money(Math.negateExact(minorUnits), currency);
+    }
+
+    /**
+     * {@code percent}% of this amount, rounded half-up to the currency's minor unit.
+     */
+    public Money percent(BigDecimal percent) {
+        return new Money(percentOf(minorUnits, percent), currency);
+    }
+
+    public int signum() {
+        return Long.signum(minorUnits);
+    }
+
+    public boolean isZero() {
+        return minorUnits == 0L;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, fractionDigits(currency));
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        requireSameCurrency(other);
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Money)) {
+            return false;
+        }
+        Money other = (Money) o;
+        return minorUnits == other.minorUnits && currency.equals(other.currency);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(minorUnits) + currency.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString() + " " + currency.getCurrencyCode();
+    }
+
+    private void requireSameCurrency(Money other) {
+        if (!currency.equals(other.currency)) {
+            throw new IllegalArgumentException("Currency mismatch: " + currency + " vs " + other.currency);
+        }
+    }
+
+    static int fractionDigits(Currency currency) {
+        // Pseudo-currencies such as XXX report -1
+        return Math.max(currency.getDefaultFractionDigits(), 0);
+    }
+
+    // ---- long kernels --------------------------------------------------------------------
+
+    /**
+     * {@code value} expressed in units of 10^-minorScale; throws if that is not exact or overflows.
+     */
+    public static long toMinorUnits(BigDecimal value, int minorScale) {
+        int scale = value.scale();
+        if (scale >= 0 && scale <= minorScale && minorScale < DOUBLE_POWERS_OF_TEN.length) {
+            // For at most minorScale decimals the result is an integer; BigDecimal.doubleValue()
+            // is allocation-free for compact values and, below 2^50, rounding the scaled double
+            // recovers that integer exactly.
+            double scaled = value.doubleValue() * DOUBLE_POWERS_OF_TEN[minorScale];
+            if (Math.abs(scaled) < EXACT_DOUBLE_LIMIT) {
+                return Math.round(scaled);
+            }
+        }
+        return value.movePointRight(minorScale).longValueExact();
+    }
+
+    /**
+     * {@code percent}% of {@code minorUnits}, rounded half-up (away from zero on ties) to a whole
+     * minor unit. Same result as {@code amount.multiply(percent.divide(100)).setScale(s, HALF_UP)}.
+     */
+    public static long percentOf(long minorUnits, BigDecimal percent) {
+        int rateScale = percent.scale();
+        long rateUnscaled;
+        if (rateScale >= 0) {
+            rateUnscaled = toMinorUnits(percent, rateScale);
+        } else {
+            rateUnscaled = toMinorUnits(percent, 0);
+            rateScale = 0;
+        }
+        return divideHalfUp(Math.multiplyExact(minorUnits, rateUnscaled), powerOfTen(rateScale + 2));
+    }
+
+    /**
+     * {@code dividend / divisor} rounded half-up; {@code divisor} must be positive.
+     */
+    public static long divideHalfUp(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (remainder != 0 && Math.abs(remainder) >= divisor - Math.abs(remainder)) {
+            quotient += Long.signum(dividend);
+        }
+        return quotient;
+    }
+
+    static long powerOfTen(int exponent) {
+        if (exponent < 0 || exponent >= POWERS_OF_TEN.length) {
+            throw new ArithmeticException("10^" + exponent + " does not fit in a long");
+        }
+        return POWERS_OF_TEN[exponent];
+    }
+}
@@ -9,7 +9,10 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "payments")
+@Table(name = "payments", uniqueConstraints = {
+        // Statement imports and settlements dedupe on it; payments without one may repeat null
+        @UniqueConstraint(name = "uk_payments_reference", columnNames = "reference")
+})
 @Getter
 @Setter
 @NoArgsConstructor
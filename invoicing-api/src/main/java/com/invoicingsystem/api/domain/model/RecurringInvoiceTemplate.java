@@ -0,0 +1,129 @@
+package com.invoicingsystem.api.domain.model;
+
+import javax.persistence.*;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * An invoice issued again every period, such as a monthly retainer. {@code nextIssueDate} is the
+ * issue date of the next invoice to generate and also identifies its period: an invoice records
+ * the template and period it was generated for, and each pair is generated at most once.
+ */
+@Entity
+@Table(name = "recurring_invoice_templates", indexes = {
+        @Index(name = "idx_recurring_templates_next_issue", columnList = "active, next_issue_date")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@SuperBuilder
+public class RecurringInvoiceTemplate extends BaseEntity {
+
+    @Id
+    @Column(name = "id", nullable = false, updatable = false)
+    private String id;
+
+    @Column(name = "name", nullable = false)
+    private String name;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "client_id", nullable = false)
+    private Client client;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "frequency", nullable = false)
+    private Frequency frequency;
+
+    @Column(name = "next_issue_date", nullable = false)
+    private LocalDate nextIssueDate;
+
+    /** Last day a period may start on; open-ended when null. */
+    @Column(name = "end_date")
+    private LocalDate endDate;
+
+    @Column(name = "due_in_days", nullable = false)
+    private int dueInDays;
+
+    @Column(name = "tax_rate", precision = 5, scale = 2)
+    private BigDecimal taxRate;
+
+    @Column(name = "notes")
+    private String notes;
+
+    /** Status generated invoices start in: DRAFT for review, or SENT. */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "invoice_status", nullable = false)
+    private Invoice.InvoiceStatus invoiceStatus;
+
+    @Column(name = "active", nullable = false)
+    private boolean active;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "created_by_id", nullable = false)
+    private User createdBy;
+
+    @ElementCollection
+    @CollectionTable(name = "recurring_invoice_template_items", joinColumns = @JoinColumn(name = "template_id"))
+    @OrderColumn(name = "position")
+    @Builder.Default
+    private List<Item> items = new ArrayList<>();
+
+    @PrePersist
+    protected void onCreate() {
+        if (id == null) {
+            id = UUID.randomUUID().toString();
+        }
+    }
+
+    /**
+     * Moves to the following period and deactivates the template once it starts after the end date.
+     */
+    public void advance() {
+        nextIssueDate = frequency.next(nextIssueDate);
+        if (endDate != null && nextIssueDate.isAfter(endDate)) {
+            active = false;
+        }
+    }
+
+    public enum Frequency {
+        WEEKLY, MONTHLY, QUARTERLY, YEARLY;
+
+        public LocalDate next(LocalDate date) {
+            switch (this) {
+                case WEEKLY:
+                    return date.plusWeeks(1);
+                case MONTHLY:
+                    return date.plusMonths(1);
+                case QUARTERLY:
+                    return date.plusMonths(3);
+                default:
+                    return date.plusYears(1);
+            }
+        }
+    }
+
+    @Embeddable
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Item {
+
+        @Column(name = "description", nullable = false)
+        private String description;
+
+        @Column(name = "quantity", nullable = false)
+        private Integer quantity;
+
+        @Column(name = "unit_price", nullable = false, precision = 10, scale = 2)
+        private BigDecimal unitPrice;
+    }
+}
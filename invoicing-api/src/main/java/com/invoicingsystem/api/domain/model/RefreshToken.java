@@ -0,0 +1,53 @@
+package com.invoicingsystem.api.domain.model;
+
+import javax.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One refresh token of a login session. Each refresh rotates the token within the same family;
+ * the family id is the session id carried by access tokens, so revoking a family also cuts off
+ * the access tokens issued from it. Only a hash of the token value is stored.
+ */
+@Entity
+@Table(name = "refresh_tokens", indexes = {
+        @Index(name = "idx_refresh_tokens_token_hash", columnList = "token_hash", unique = true),
+        @Index(name = "idx_refresh_tokens_family_id", columnList = "family_id"),
+        @Index(name = "idx_refresh_tokens_user_id", columnList = "user_id"),
+        @Index(name = "idx_refresh_tokens_revoked_at", columnList = "revoked_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RefreshToken {
+
+    @Id
+    @Column(name = "id", nullable = false, updatable = false, length = 36)
+    private String id;
+
+    @Column(name = "token_hash", nullable = false, updatable = false, length = 64)
+    private String tokenHash;
+
+    @Column(name = "family_id", nullable = false, updatable = false, length = 36)
+    private String familyId;
+
+    @Column(name = "user_id", nullable = false, updatable = false, length = 36)
+    private String userId;
+
+    @Column(name = "issued_at", nullable = false)
+    private LocalDateTime issuedAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    /** Set when the token was exchanged for its successor. */
+    @Column(name = "rotated_at")
+    private LocalDateTime rotatedAt;
+
+    /** Set when the whole family was revoked: logout, token reuse or an admin action. */
+    @Column(name = "revoked_at")
+    private LocalDateTime revokedAt;
+}
@@ -0,0 +1,83 @@
+package com.invoicingsystem.api.domain.model;
+
+import javax.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A statement line that could not be matched or applied automatically, queued for
+ * reconciliation staff to match by hand or dismiss.
+ */
+@Entity
+@Table(name = "statement_exceptions", indexes = {
+        @Index(name = "idx_statement_exceptions_status", columnList = "status, import_id, line_number"),
+        @Index(name = "idx_statement_exceptions_reference", columnList = "reference")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StatementException {
+
+    // Assigned on persist rather than generated by the database, so exceptions are inserted in JDBC batches
+    @Id
+    @Column(name = "id", nullable = false, updatable = false)
+    private String id;
+
+    @Column(name = "import_id", nullable = false, updatable = false)
+    private String importId;
+
+    @Column(name = "line_number", nullable = false, updatable = false)
+    private long lineNumber;
+
+    @Column(name = "booking_date")
+    private LocalDate bookingDate;
+
+    @Column(name = "amount", precision = 12, scale = 2)
+    private BigDecimal amount;
+
+    @Column(name = "reference", length = 100)
+    private String reference;
+
+    @Column(name = "memo", length = 500)
+    private String memo;
+
+    @Column(name = "counterparty", length = 200)
+    private String counterparty;
+
+    @Column(name = "reason", nullable = false)
+    private String reason;
+
+    // Invoice the line was matched to automatically, when it was matched but could not be applied
+    @Column(name = "suggested_invoice_id")
+    private String suggestedInvoiceId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private Status status;
+
+    @Column(name = "payment_id")
+    private String paymentId;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "resolved_at")
+    private LocalDateTime resolvedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (id == null) {
+            id = UUID.randomUUID().toString();
+        }
+    }
+
+    public enum Status {
+        OPEN, MATCHED, DISMISSED
+    }
+}
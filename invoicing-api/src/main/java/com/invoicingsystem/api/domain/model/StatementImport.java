@@ -0,0 +1,63 @@
+package com.invoicingsystem.api.domain.model;
+
+import javax.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One bank statement file run through payment matching, with its line counts.
+ */
+@Entity
+@Table(name = "statement_imports")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StatementImport {
+
+    @Id
+    @Column(name = "id", nullable = false, updatable = false)
+    private String id;
+
+    @Column(name = "filename", nullable = false)
+    private String filename;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private Status status;
+
+    @Column(name = "started_by", length = 100)
+    private String startedBy;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    @Column(name = "line_count", nullable = false)
+    private long lineCount;
+
+    @Column(name = "matched_count", nullable = false)
+    private long matchedCount;
+
+    // Lines whose payment had already been recorded, e.g. by an earlier import of the same file
+    @Column(name = "duplicate_count", nullable = false)
+    private long duplicateCount;
+
+    @Column(name = "exception_count", nullable = false)
+    private long exceptionCount;
+
+    // Debits and zero amounts, which are not customer payments
+    @Column(name = "ignored_count", nullable = false)
+    private long ignoredCount;
+
+    @Column(name = "error", length = 1000)
+    private String error;
+
+    public enum Status {
+        RUNNING, COMPLETED, FAILED
+    }
+}
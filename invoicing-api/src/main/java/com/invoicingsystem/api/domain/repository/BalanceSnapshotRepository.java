@@ -0,0 +1,9 @@
+package com.invoicingsystem.api.domain.repository;
+
+import com.invoicingsystem.api.domain.model.BalanceSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface BalanceSnapshotRepository extends JpaRepository<BalanceSnapshot, String> {
+}
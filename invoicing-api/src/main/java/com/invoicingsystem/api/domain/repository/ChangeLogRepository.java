@@ -0,0 +1,34 @@
+package com.invoicingsystem.api.domain.repository;
+
+import com.invoicingsystem.api.domain.model.ChangeLogEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ChangeLogRepository extends JpaRepository<ChangeLogEntry, Long> {
+
+    List<ChangeLogEntry> findByIdGreaterThanAndRecordedAtLessThanEqualOrderByIdAsc(
+            Long afterId, LocalDateTime visibleBefore, Pageable pageable);
+
+    List<ChangeLogEntry> findByIdGreaterThanAndRecordedAtLessThanEqualAndEntityTypeOrderByIdAsc(
+            Long afterId, LocalDateTime visibleBefore, ChangeLogEntry.EntityType entityType, Pageable pageable);
+
+    Optional<ChangeLogEntry> findTopByRecordedAtLessThanEqualOrderByIdDesc(LocalDateTime visibleBefore);
+
+    @Modifying
+    @Query("DELETE FROM ChangeLogEntry c WHERE c.recordedAt < :cutoff")
+    int deleteRecordedBefore(LocalDateTime cutoff);
+
+    @Modifying
+    @Query("DELETE FROM ChangeLogEntry c WHERE c.recordedAt < :cutoff AND EXISTS ("
+            + "SELECT n.id FROM ChangeLogEntry n WHERE n.entityType = c.entityType "
+            + "AND n.entityId = c.entityId AND n.id > c.id)")
+    int deleteSupersededBefore(LocalDateTime cutoff);
+}
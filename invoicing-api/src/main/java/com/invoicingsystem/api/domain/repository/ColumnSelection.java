@@ -0,0 +1,41 @@
+package com.invoicingsystem.api.domain.repository;
+
+import javax.persistence.criteria.From;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Turns dotted attribute paths into criteria selections, left-joining each
+ * association once no matter how many of its attributes are selected.
+ */
+final class ColumnSelection {
+
+    private ColumnSelection() {
+    }
+
+    static List<Selection<?>> of(Root<?> root, List<String> attributePaths) {
+        Map<String, Join<?, ?>> joins = new HashMap<>();
+        List<Selection<?>> selections = new ArrayList<>(attributePaths.size());
+        for (String attributePath : attributePaths) {
+            String[] segments = attributePath.split("\\.");
+            From<?, ?> from = root;
+            String joinKey = "";
+            for (int i = 0; i < segments.length - 1; i++) {
+                From<?, ?> parent = from;
+                String segment = segments[i];
+                joinKey = joinKey + "." + segment;
+                from = joins.computeIfAbsent(joinKey, key -> parent.join(segment, JoinType.LEFT));
+            }
+            Path<?> path = from.get(segments[segments.length - 1]);
+            selections.add(path.alias(attributePath.replace('.', '_')));
+        }
+        return selections;
+    }
+}
@@ -0,0 +1,13 @@
+package com.invoicingsystem.api.domain.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * An amount summed per id by a grouped query.
+ */
+public interface GroupedAmount {
+
+    String getId();
+
+    BigDecimal getAmount();
+}
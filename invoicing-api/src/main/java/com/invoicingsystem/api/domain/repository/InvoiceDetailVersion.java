@@ -0,0 +1,23 @@
+package com.invoicingsystem.api.domain.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Modification stamps of everything rendered by the invoice detail view,
+ * read with one aggregate query so a conditional GET can be answered
+ * without loading the aggregate.
+ */
+public interface InvoiceDetailVersion {
+
+    LocalDateTime getInvoiceUpdatedAt();
+
+    LocalDateTime getClientUpdatedAt();
+
+    Long getItemCount();
+
+    LocalDateTime getItemsUpdatedAt();
+
+    Long getPaymentCount();
+
+    LocalDateTime getPaymentsUpdatedAt();
+}
@@ -0,0 +1,40 @@
+package com.invoicingsystem.api.domain.repository;
+
+import com.invoicingsystem.api.domain.model.Invoice.InvoiceStatus;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Restriction applied to the invoice list endpoints when they are served
+ * from a column projection instead of full entities.
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class InvoiceListFilter {
+
+    private final String clientId;
+    private final InvoiceStatus status;
+    private final LocalDate dueBefore;
+
+    public static InvoiceListFilter all() {
+        return new InvoiceListFilter(null, null, null);
+    }
+
+    public static InvoiceListFilter byClient(String clientId) {
+        return new InvoiceListFilter(clientId, null, null);
+    }
+
+    public static InvoiceListFilter byStatus(InvoiceStatus status) {
+        return new InvoiceListFilter(null, status, null);
+    }
+
+    /**
+     * Same rule as {@link InvoiceRepository#findOverdueInvoices}: sent and past due.
+     */
+    public static InvoiceListFilter overdue(LocalDate today) {
+        return new InvoiceListFilter(null, InvoiceStatus.SENT, today);
+    }
+}
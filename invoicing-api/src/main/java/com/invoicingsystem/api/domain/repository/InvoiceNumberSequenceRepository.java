@@ -0,0 +1,18 @@
+package com.invoicingsystem.api.domain.repository;
+
+import com.invoicingsystem.api.domain.model.InvoiceNumberSequence;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.LockModeType;
+import java.util.Optional;
+
+@Repository
+public interface InvoiceNumberSequenceRepository extends JpaRepository<InvoiceNumberSequence, Integer> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM InvoiceNumberSequence s WHERE s.year = :year")
+    Optional<InvoiceNumberSequence> findByYearForUpdate(Integer year);
+}
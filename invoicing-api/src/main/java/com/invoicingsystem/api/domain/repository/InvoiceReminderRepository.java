@@ -0,0 +1,50 @@
+package com.invoicingsystem.api.domain.repository;
+
+import com.invoicingsystem.api.domain.model.InvoiceReminder;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface InvoiceReminderRepository extends JpaRepository<InvoiceReminder, Long> {
+
+    Optional<InvoiceReminder> findByInvoiceIdAndStage(String invoiceId, int stage);
+
+    List<InvoiceReminder> findByInvoiceIdOrderByStageAsc(String invoiceId);
+
+    boolean existsByInvoiceIdAndStage(String invoiceId, int stage);
+
+    /**
+     * Claims an existing reminder for another attempt: a failed one with attempts left, or one
+     * whose sender stopped before recording the outcome.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE InvoiceReminder r SET r.status = 'PENDING', r.attempts = r.attempts + 1, " +
+            "r.claimedAt = :now, r.recipient = :recipient " +
+            "WHERE r.invoiceId = :invoiceId AND r.stage = :stage AND (" +
+            "(r.status = 'FAILED' AND r.attempts < :maxAttempts) OR " +
+            "(r.status = 'PENDING' AND r.claimedAt < :staleBefore))")
+    int reclaim(String invoiceId, int stage, String recipient, int maxAttempts,
+                LocalDateTime now, LocalDateTime staleBefore);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE InvoiceReminder r SET r.status = 'SENT', r.sentAt = :sentAt, r.error = NULL " +
+            "WHERE r.invoiceId = :invoiceId AND r.stage = :stage")
+    int markSent(String invoiceId, int stage, LocalDateTime sentAt);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE InvoiceReminder r SET r.status = 'FAILED', r.error = :error " +
+            "WHERE r.invoiceId = :invoiceId AND r.stage = :stage")
+    int markFailed(String invoiceId, int stage, String error);
+
+    long countByStatus(InvoiceReminder.Status status);
+}
@@ -1,16 +1,22 @@
 package com.invoicingsystem.api.domain.repository;
 
 import com.invoicingsystem.api.domain.model.Invoice;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.LockModeType;
+
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface InvoiceRepository extends JpaRepository<Invoice, String> {
+public interface InvoiceRepository extends JpaRepository<Invoice, String>, InvoiceRepositoryCustom {
 
     Optional<Invoice> findByNumber(String number);
 
@@ -25,4 +31,78 @@ public interface InvoiceRepository extends JpaRepository<Invoice, String> {
     List<Invoice> findByUserId(String userId);
 
     boolean existsByNumber(String number);
+
+    @Query("SELECT DISTINCT i FROM Invoice i JOIN FETCH i.client LEFT JOIN FETCH i.items WHERE i.id IN :ids")
+    List<Invoice> findAllWithClientAndItemsByIdIn(Collection<String> ids);
+
+    @Query("SELECT DISTINCT i FROM Invoice i JOIN FETCH i.client JOIN FETCH i.createdBy LEFT JOIN FETCH i.items WHERE i.id IN :ids")
+    List<Invoice> findAllWithDetailsByIdIn(Collection<String> ids);
+
+    @Query("SELECT DISTINCT i FROM Invoice i JOIN FETCH i.client JOIN FETCH i.createdBy LEFT JOIN FETCH i.items WHERE i.id = :id")
+    Optional<Invoice> findWithDetailsById(String id);
+
+    @Query("SELECT i.updatedAt AS invoiceUpdatedAt, c.updatedAt AS clientUpdatedAt, "
+            + "(SELECT COUNT(it) FROM InvoiceItem it WHERE it.invoice.id = i.id) AS itemCount, "
+            + "(SELECT MAX(it.updatedAt) FROM InvoiceItem it WHERE it.invoice.id = i.id) AS itemsUpdatedAt, "
+            + "(SELECT COUNT(p) FROM Payment p WHERE p.invoice.id = i.id) AS paymentCount, "
+            + "(SELECT MAX(p.updatedAt) FROM Payment p WHERE p.invoice.id = i.id) AS paymentsUpdatedAt "
+            + "FROM Invoice i JOIN i.client c WHERE i.id = :id")
+    Optional<InvoiceDetailVersion> findDetailVersionById(String id);
+
+    @Query("SELECT i.id FROM Invoice i WHERE i.id > :afterId ORDER BY i.id")
+    List<String> findIdsAfter(String afterId, Pageable pageable);
+
+    @Query("SELECT i.createdBy.email FROM Invoice i WHERE i.id = :invoiceId")
+    Optional<String> findCreatorEmailById(String invoiceId);
+
+    @Query("SELECT i.id FROM Invoice i WHERE i.client.id = :clientId")
+    List<String> findIdsByClientId(String clientId);
+
+    @Query("SELECT i.recurringTemplateId AS templateId, i.recurringPeriod AS period FROM Invoice i "
+            + "WHERE i.recurringTemplateId IN :templateIds")
+    List<RecurringInvoicePeriod> findRecurringPeriods(Collection<String> templateIds);
+
+    @Query("SELECT i.number FROM Invoice i WHERE i.number LIKE :prefix%")
+    List<String> findNumbersStartingWith(String prefix);
+
+    /**
+     * One page of unpaid invoices at least {@code cutoff} overdue, keyset-paged by id, leaving out
+     * those whose final reminder stage is already settled. Settled means sent, given up on after
+     * {@code maxAttempts}, or claimed since {@code staleBefore} by a sender still working on it.
+     */
+    @Query("SELECT i.id AS invoiceId, i.number AS number, i.dueDate AS dueDate, i.balance AS balance, "
+            + "c.name AS clientName, c.email AS clientEmail, "
+            + "(SELECT MAX(r.stage) FROM InvoiceReminder r WHERE r.invoiceId = i.id AND (r.status = 'SENT' "
+            + "OR (r.status = 'FAILED' AND r.attempts >= :maxAttempts) "
+            + "OR (r.status = 'PENDING' AND r.claimedAt >= :staleBefore))) AS settledStage "
+            + "FROM Invoice i JOIN i.client c "
+            + "WHERE i.status IN :statuses AND i.dueDate <= :cutoff AND i.balance > 0 AND i.id > :afterId "
+            + "AND NOT EXISTS (SELECT f.id FROM InvoiceReminder f WHERE f.invoiceId = i.id AND f.stage = :finalStage "
+            + "AND (f.status = 'SENT' OR (f.status = 'FAILED' AND f.attempts >= :maxAttempts) "
+            + "OR (f.status = 'PENDING' AND f.claimedAt >= :staleBefore))) "
+            + "ORDER BY i.id")
+    List<ReminderCandidate> findReminderCandidates(Collection<Invoice.InvoiceStatus> statuses, LocalDate cutoff,
+                                                   int finalStage, int maxAttempts, LocalDateTime staleBefore,
+                                                   String afterId, Pageable pageable);
+
+    @Query("SELECT i.id AS id, i.number AS number, c.name AS clientName, i.balance AS balance "
+            + "FROM Invoice i JOIN i.client c WHERE i.status IN :statuses AND i.balance > 0")
+    List<OpenInvoiceBalance> findOpenBalances(Collection<Invoice.InvoiceStatus> statuses);
+
+    @Query("SELECT i.id AS invoiceId, i.total AS total, i.amountPaid AS amountPaid, i.balance AS balance "
+            + "FROM Invoice i WHERE i.id BETWEEN :fromId AND :toId")
+    List<StoredBalance> findStoredBalances(String fromId, String toId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Invoice i WHERE i.id = :id")
+    Optional<Invoice> findByIdForUpdate(String id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Invoice i WHERE i.id IN :ids ORDER BY i.id")
+    List<Invoice> findAllByIdForUpdate(Collection<String> ids);
+
+    // Invoices paid before the payment ledger existed
+    @Query("SELECT i FROM Invoice i WHERE i.amountPaid <> 0 "
+            + "AND NOT EXISTS (SELECT e.id FROM LedgerEntry e WHERE e.invoiceId = i.id)")
+    List<Invoice> findPaidWithoutLedgerEntries();
 }
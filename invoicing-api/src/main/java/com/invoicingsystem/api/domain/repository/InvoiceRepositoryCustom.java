@@ -0,0 +1,13 @@
+package com.invoicingsystem.api.domain.repository;
+
+import javax.persistence.Tuple;
+import java.util.List;
+
+public interface InvoiceRepositoryCustom {
+
+    /**
+     * Selects only the given attribute paths (e.g. {@code number}, {@code client.name})
+     * for the invoices matching the filter. Items are never loaded.
+     */
+    List<Tuple> findColumns(List<String> attributePaths, InvoiceListFilter filter);
+}
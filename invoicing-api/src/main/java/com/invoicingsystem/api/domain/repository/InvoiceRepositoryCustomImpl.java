@@ -0,0 +1,42 @@
+package com.invoicingsystem.api.domain.repository;
+
+import com.invoicingsystem.api.domain.model.Invoice;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.ArrayList;
+import java.util.List;
+
+class InvoiceRepositoryCustomImpl implements InvoiceRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Tuple> findColumns(List<String> attributePaths, InvoiceListFilter filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Invoice> invoice = query.from(Invoice.class);
+        query.multiselect(ColumnSelection.of(invoice, attributePaths));
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.getClientId() != null) {
+            predicates.add(cb.equal(invoice.get("client").get("id"), filter.getClientId()));
+        }
+        if (filter.getStatus() != null) {
+            predicates.add(cb.equal(invoice.get("status"), filter.getStatus()));
+        }
+        if (filter.getDueBefore() != null) {
+            predicates.add(cb.lessThan(invoice.get("dueDate"), filter.getDueBefore()));
+        }
+        query.where(predicates.toArray(new Predicate[0]));
+        query.orderBy(cb.desc(invoice.get("issueDate")), cb.asc(invoice.get("id")));
+
+        return entityManager.createQuery(query).getResultList();
+    }
+}
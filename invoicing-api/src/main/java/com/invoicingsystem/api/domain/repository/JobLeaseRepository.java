@@ -0,0 +1,42 @@
+package com.invoicingsystem.api.domain.repository;
+
+import com.invoicingsystem.api.domain.model.JobLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface JobLeaseRepository extends JpaRepository<JobLease, String> {
+
+    List<JobLease> findByJobNameOrderByShardAsc(String jobName);
+
+    /**
+     * Takes or renews the lease; succeeds only if it is free, expired or already ours.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE JobLease l SET l.owner = :node, l.leaseUntil = :until " +
+            "WHERE l.id = :id AND (l.owner = :node OR l.owner IS NULL OR l.leaseUntil < :now)")
+    int acquire(String id, String node, LocalDateTime now, LocalDateTime until);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE JobLease l SET l.owner = NULL, l.leaseUntil = NULL WHERE l.id = :id AND l.owner = :node")
+    int release(String id, String node);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE JobLease l SET l.owner = NULL, l.leaseUntil = NULL WHERE l.owner = :node")
+    int releaseAll(String node);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE JobLease l SET l.lastRunAt = :lastRunAt, l.nextRunAt = :nextRunAt " +
+            "WHERE l.id = :id AND l.owner = :node")
+    int reschedule(String id, String node, LocalDateTime lastRunAt, LocalDateTime nextRunAt);
+}
@@ -0,0 +1,28 @@
+package com.invoicingsystem.api.domain.repository;
+
+import com.invoicingsystem.api.domain.model.JobNode;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface JobNodeRepository extends JpaRepository<JobNode, String> {
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE JobNode n SET n.heartbeatAt = :now WHERE n.id = :id")
+    int heartbeat(String id, LocalDateTime now);
+
+    @Query("SELECT n.id FROM JobNode n WHERE n.heartbeatAt >= :since ORDER BY n.id")
+    List<String> findLiveNodeIds(LocalDateTime since);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM JobNode n WHERE n.heartbeatAt < :before")
+    int deleteStale(LocalDateTime before);
+}
@@ -0,0 +1,23 @@
+package com.invoicingsystem.api.domain.repository;
+
+import com.invoicingsystem.api.domain.model.JobRun;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface JobRunRepository extends JpaRepository<JobRun, Long> {
+
+    List<JobRun> findByJobNameOrderByIdDesc(String jobName, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM JobRun r WHERE r.startedAt < :before")
+    int deleteOlderThan(LocalDateTime before);
+}
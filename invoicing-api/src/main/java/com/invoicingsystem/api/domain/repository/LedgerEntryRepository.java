@@ -0,0 +1,56 @@
+package com.invoicingsystem.api.domain.repository;
+
+import com.invoicingsystem.api.domain.model.LedgerEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, Long> {
+
+    List<LedgerEntry> findByInvoiceIdOrderByIdAsc(String invoiceId);
+
+    boolean existsByInvoiceId(String invoiceId);
+
+    @Query("SELECT COALESCE(SUM(e.amount), 0) AS amount, COUNT(e) AS entryCount, MAX(e.id) AS lastEntryId "
+            + "FROM LedgerEntry e WHERE e.invoiceId = :invoiceId AND e.id > :afterId")
+    LedgerTotals sumAfter(String invoiceId, long afterId);
+
+    @Query("SELECT COALESCE(SUM(e.amount), 0) AS amount, COUNT(e) AS entryCount, MAX(e.id) AS lastEntryId "
+            + "FROM LedgerEntry e WHERE e.invoiceId = :invoiceId AND e.id > :afterId AND e.id <= :throughId")
+    LedgerTotals sumBetween(String invoiceId, long afterId, long throughId);
+
+    @Query("SELECT e.invoiceId AS invoiceId, SUM(e.amount) AS amount, "
+            + "SUM(CASE WHEN e.paymentId IS NOT NULL THEN e.amount ELSE 0 END) AS paymentAmount "
+            + "FROM LedgerEntry e WHERE e.invoiceId BETWEEN :fromId AND :toId GROUP BY e.invoiceId")
+    List<LedgerSums> sumByInvoiceBetween(String fromId, String toId);
+
+    @Query("SELECT e.paymentId AS id, SUM(e.amount) AS amount FROM LedgerEntry e "
+            + "WHERE e.invoiceId = :invoiceId AND e.paymentId IS NOT NULL GROUP BY e.paymentId")
+    List<GroupedAmount> sumByPayment(String invoiceId);
+
+    @Query("SELECT MAX(e.id) FROM LedgerEntry e WHERE e.recordedAt < :settledBefore")
+    Optional<Long> findLastSettledId(LocalDateTime settledBefore);
+
+    /**
+     * Amount paid per invoice, snapshot plus the entries after it, read in one statement so a
+     * concurrent compaction cannot be counted twice.
+     */
+    @Query("SELECT i.id AS id, COALESCE(s.amountPaid, 0) + COALESCE((SELECT SUM(e.amount) FROM LedgerEntry e "
+            + "WHERE e.invoiceId = i.id AND e.id > COALESCE(s.throughEntryId, 0)), 0) AS amount "
+            + "FROM Invoice i LEFT JOIN BalanceSnapshot s ON s.invoiceId = i.id WHERE i.id IN :invoiceIds")
+    List<GroupedAmount> sumAmountPaidByInvoiceIn(Collection<String> invoiceIds);
+
+    /**
+     * Invoices with entries after their snapshot, up to {@code throughId}.
+     */
+    @Query("SELECT DISTINCT e.invoiceId FROM LedgerEntry e WHERE e.id <= :throughId AND e.id > COALESCE("
+            + "(SELECT s.throughEntryId FROM BalanceSnapshot s WHERE s.invoiceId = e.invoiceId), 0)")
+    List<String> findInvoiceIdsWithTail(long throughId, Pageable pageable);
+}
@@ -0,0 +1,16 @@
+package com.invoicingsystem.api.domain.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * An invoice's ledger summed whole and over the entries recorded for payments, which leaves out
+ * opening adjustments.
+ */
+public interface LedgerSums {
+
+    String getInvoiceId();
+
+    BigDecimal getAmount();
+
+    BigDecimal getPaymentAmount();
+}
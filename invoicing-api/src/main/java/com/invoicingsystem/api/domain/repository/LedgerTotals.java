@@ -0,0 +1,15 @@
+package com.invoicingsystem.api.domain.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Sum, count and last id of a run of ledger entries, read with one aggregate query.
+ */
+public interface LedgerTotals {
+
+    BigDecimal getAmount();
+
+    Long getEntryCount();
+
+    Long getLastEntryId();
+}
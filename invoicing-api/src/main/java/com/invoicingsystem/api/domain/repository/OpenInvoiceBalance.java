@@ -0,0 +1,17 @@
+package com.invoicingsystem.api.domain.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * An invoice that can still take payments, as loaded into the statement matching indexes.
+ */
+public interface OpenInvoiceBalance {
+
+    String getId();
+
+    String getNumber();
+
+    String getClientName();
+
+    BigDecimal getBalance();
+}
@@ -6,21 +6,48 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface PaymentRepository extends JpaRepository<Payment, String> {
+public interface PaymentRepository extends JpaRepository<Payment, String>, PaymentRepositoryCustom {
 
     List<Payment> findByInvoiceId(String invoiceId);
 
+    List<Payment> findByInvoiceIdOrderByReceivedAtAsc(String invoiceId);
+
     @Query("SELECT p FROM Payment p WHERE p.invoice.id = :invoiceId AND p.status = 'COMPLETED'")
     List<Payment> findCompletedPaymentsByInvoiceId(String invoiceId);
 
     @Query("SELECT COALESCE(SUM(p.amount), 0) FROM Payment p WHERE p.invoice.id = :invoiceId AND p.status = 'COMPLETED'")
     BigDecimal getTotalPaidAmountByInvoiceId(String invoiceId);
 
+    @Query("SELECT p FROM Payment p JOIN FETCH p.invoice WHERE p.id IN :ids")
+    List<Payment> findAllWithInvoiceByIdIn(Collection<String> ids);
+
     Optional<Payment> findByReference(String reference);
 
     boolean existsByReference(String reference);
+
+    @Query("SELECT p.reference FROM Payment p WHERE p.reference IN :references")
+    List<String> findExistingReferences(Collection<String> references);
+
+    @Query("SELECT p.id AS id, p.reference AS reference, p.amount AS amount, p.invoice.id AS invoiceId "
+            + "FROM Payment p WHERE p.status = 'PENDING' AND p.reference IS NOT NULL")
+    List<PendingPaymentReference> findPendingReferences();
+
+    @Query("SELECT p.invoice.id AS id, SUM(p.amount) AS amount FROM Payment p "
+            + "WHERE p.invoice.id BETWEEN :fromId AND :toId AND p.status = 'COMPLETED' GROUP BY p.invoice.id")
+    List<GroupedAmount> sumCompletedByInvoiceBetween(String fromId, String toId);
+
+    @Query("SELECT p.id AS id, p.reference AS reference, p.invoice.id AS invoiceId FROM Payment p WHERE p.id IN :ids")
+    List<SettlementTarget> findSettlementTargetsByIdIn(Collection<String> ids);
+
+    @Query("SELECT p.id AS id, p.reference AS reference, p.invoice.id AS invoiceId "
+            + "FROM Payment p WHERE p.reference IN :references")
+    List<SettlementTarget> findSettlementTargetsByReferenceIn(Collection<String> references);
+
+    @Query("SELECT p.invoice.id FROM Payment p WHERE p.id = :id")
+    Optional<String> findInvoiceIdById(String id);
 }
\ No newline at end of file
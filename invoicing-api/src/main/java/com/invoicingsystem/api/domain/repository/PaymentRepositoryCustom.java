@@ -0,0 +1,13 @@
+package com.invoicingsystem.api.domain.repository;
+
+import javax.persistence.Tuple;
+import java.util.List;
+
+public interface PaymentRepositoryCustom {
+
+    /**
+     * Selects only the given attribute paths (e.g. {@code amount}, {@code invoice.number})
+     * for all payments, or for one invoice when {@code invoiceId} is set.
+     */
+    List<Tuple> findColumns(List<String> attributePaths, String invoiceId);
+}
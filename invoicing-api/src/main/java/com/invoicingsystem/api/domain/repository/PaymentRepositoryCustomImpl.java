@@ -0,0 +1,32 @@
+package com.invoicingsystem.api.domain.repository;
+
+import com.invoicingsystem.api.domain.model.Payment;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
+import java.util.List;
+
+class PaymentRepositoryCustomImpl implements PaymentRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Tuple> findColumns(List<String> attributePaths, String invoiceId) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Payment> payment = query.from(Payment.class);
+        query.multiselect(ColumnSelection.of(payment, attributePaths));
+
+        if (invoiceId != null) {
+            query.where(cb.equal(payment.get("invoice").get("id"), invoiceId));
+        }
+        query.orderBy(cb.desc(payment.get("receivedAt")), cb.asc(payment.get("id")));
+
+        return entityManager.createQuery(query).getResultList();
+    }
+}
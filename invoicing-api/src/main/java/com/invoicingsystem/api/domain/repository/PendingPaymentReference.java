@@ -0,0 +1,17 @@
+package com.invoicingsystem.api.domain.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * A pending payment awaiting confirmation, keyed by the reference a bank line would carry.
+ */
+public interface PendingPaymentReference {
+
+    String getId();
+
+    String getReference();
+
+    BigDecimal getAmount();
+
+    String getInvoiceId();
+}
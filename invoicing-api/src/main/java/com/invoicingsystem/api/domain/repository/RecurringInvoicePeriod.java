@@ -0,0 +1,13 @@
+package com.invoicingsystem.api.domain.repository;
+
+import java.time.LocalDate;
+
+/**
+ * A period already invoiced for a recurring template.
+ */
+public interface RecurringInvoicePeriod {
+
+    String getTemplateId();
+
+    LocalDate getPeriod();
+}
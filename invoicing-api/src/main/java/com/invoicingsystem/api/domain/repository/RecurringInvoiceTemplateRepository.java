@@ -0,0 +1,34 @@
+package com.invoicingsystem.api.domain.repository;
+
+import com.invoicingsystem.api.domain.model.RecurringInvoiceTemplate;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface RecurringInvoiceTemplateRepository extends JpaRepository<RecurringInvoiceTemplate, String> {
+
+    @Query("SELECT DISTINCT t FROM RecurringInvoiceTemplate t JOIN FETCH t.client LEFT JOIN FETCH t.items ORDER BY t.name")
+    List<RecurringInvoiceTemplate> findAllWithDetails();
+
+    @Query("SELECT DISTINCT t FROM RecurringInvoiceTemplate t JOIN FETCH t.client LEFT JOIN FETCH t.items WHERE t.id = :id")
+    Optional<RecurringInvoiceTemplate> findWithDetailsById(String id);
+
+    /**
+     * Due templates in id order, one page after {@code afterId}; generating a template moves it
+     * past {@code today}, so the walk never sees it twice.
+     */
+    @Query("SELECT t.id FROM RecurringInvoiceTemplate t WHERE t.active = true AND t.nextIssueDate <= :today "
+            + "AND t.id > :afterId ORDER BY t.id")
+    List<String> findDueIdsAfter(LocalDate today, String afterId, Pageable pageable);
+
+    @Query("SELECT DISTINCT t FROM RecurringInvoiceTemplate t JOIN FETCH t.client JOIN FETCH t.createdBy "
+            + "LEFT JOIN FETCH t.items WHERE t.id IN :ids")
+    List<RecurringInvoiceTemplate> findAllForGenerationByIdIn(Collection<String> ids);
+}
@@ -0,0 +1,43 @@
+package com.invoicingsystem.api.domain.repository;
+
+import com.invoicingsystem.api.domain.model.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, String> {
+
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    /**
+     * Marks a token as exchanged. Returns 0 when it was already exchanged or revoked, which for
+     * a presented token means it is being reused.
+     */
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.rotatedAt = :now " +
+            "WHERE t.id = :id AND t.rotatedAt IS NULL AND t.revokedAt IS NULL")
+    int markRotated(String id, LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.revokedAt = :now WHERE t.familyId = :familyId AND t.revokedAt IS NULL")
+    int revokeFamily(String familyId, LocalDateTime now);
+
+    @Query("SELECT DISTINCT t.familyId FROM RefreshToken t " +
+            "WHERE t.userId = :userId AND t.revokedAt IS NULL AND t.expiresAt > :now")
+    List<String> findActiveFamilyIds(String userId, LocalDateTime now);
+
+    @Query("SELECT DISTINCT t.familyId FROM RefreshToken t WHERE t.revokedAt >= :since")
+    List<String> findFamilyIdsRevokedSince(LocalDateTime since);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM RefreshToken t WHERE t.expiresAt < :now")
+    int deleteExpired(LocalDateTime now);
+}
@@ -0,0 +1,27 @@
+package com.invoicingsystem.api.domain.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * An overdue invoice that may be due a payment reminder, with the highest stage already settled.
+ */
+public interface ReminderCandidate {
+
+    String getInvoiceId();
+
+    String getNumber();
+
+    LocalDate getDueDate();
+
+    BigDecimal getBalance();
+
+    String getClientName();
+
+    String getClientEmail();
+
+    /**
+     * Highest stage sent, given up on or still being sent; null when no reminder went out yet.
+     */
+    Integer getSettledStage();
+}
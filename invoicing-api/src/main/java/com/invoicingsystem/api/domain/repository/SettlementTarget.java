@@ -0,0 +1,13 @@
+package com.invoicingsystem.api.domain.repository;
+
+/**
+ * The invoice of a payment named by a settlement confirmation.
+ */
+public interface SettlementTarget {
+
+    String getId();
+
+    String getReference();
+
+    String getInvoiceId();
+}
@@ -0,0 +1,23 @@
+package com.invoicingsystem.api.domain.repository;
+
+import com.invoicingsystem.api.domain.model.StatementException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface StatementExceptionRepository extends JpaRepository<StatementException, String> {
+
+    List<StatementException> findByStatusOrderByImportIdAscLineNumberAsc(StatementException.Status status,
+                                                                         Pageable pageable);
+
+    List<StatementException> findByStatusAndImportIdOrderByLineNumberAsc(StatementException.Status status,
+                                                                        String importId, Pageable pageable);
+
+    @Query("SELECT e.reference FROM StatementException e WHERE e.reference IN :references")
+    List<String> findExistingReferences(Collection<String> references);
+}
@@ -0,0 +1,29 @@
+package com.invoicingsystem.api.domain.repository;
+
+import com.invoicingsystem.api.domain.model.StatementImport;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface StatementImportRepository extends JpaRepository<StatementImport, String> {
+
+    List<StatementImport> findAllByOrderByStartedAtDesc(Pageable pageable);
+
+    /**
+     * Adds a batch's counts in the batch's own transaction, so progress is visible while the
+     * import runs and matches the payments actually committed.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE StatementImport s SET s.lineCount = s.lineCount + :lines, "
+            + "s.matchedCount = s.matchedCount + :matched, s.duplicateCount = s.duplicateCount + :duplicates, "
+            + "s.exceptionCount = s.exceptionCount + :exceptions, s.ignoredCount = s.ignoredCount + :ignored "
+            + "WHERE s.id = :id")
+    int addCounts(String id, long lines, long matched, long duplicates, long exceptions, long ignored);
+}
@@ -0,0 +1,17 @@
+package com.invoicingsystem.api.domain.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Balance columns of an invoice row, as projected from the ledger.
+ */
+public interface StoredBalance {
+
+    String getInvoiceId();
+
+    BigDecimal getTotal();
+
+    BigDecimal getAmountPaid();
+
+    BigDecimal getBalance();
+}
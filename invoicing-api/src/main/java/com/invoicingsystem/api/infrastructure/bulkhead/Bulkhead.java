@@ -0,0 +1,92 @@
+package com.invoicingsystem.api.infrastructure.bulkhead;
+
+import com.invoicingsystem.api.domain.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit of a single workload class. Calls that cannot get a permit within the
+ * configured wait are rejected with a {@link ServiceUnavailableException}.
+ */
+public class Bulkhead {
+
+    private final WorkloadClass workloadClass;
+    private final int maxConcurrent;
+    private final Duration maxWait;
+    private final long retryAfterSeconds;
+    private final Semaphore permits;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final Counter admitted;
+    private final Counter rejected;
+    private final Timer waitTimer;
+
+    public Bulkhead(WorkloadClass workloadClass, int maxConcurrent, Duration maxWait,
+                    long retryAfterSeconds, MeterRegistry meterRegistry) {
+        this.workloadClass = workloadClass;
+        this.maxConcurrent = maxConcurrent;
+        this.maxWait = maxWait;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.permits = new Semaphore(maxConcurrent, true);
+
+        String tag = workloadClass.tag();
+        Gauge.builder("bulkhead.calls.active", this, Bulkhead::active)
+                .tag("workload", tag).register(meterRegistry);
+        Gauge.builder("bulkhead.calls.waiting", waiting, AtomicInteger::get)
+                .tag("workload", tag).register(meterRegistry);
+        Gauge.builder("bulkhead.calls.max", this, b -> b.maxConcurrent)
+                .tag("workload", tag).register(meterRegistry);
+        Gauge.builder("bulkhead.saturation", this, b -> (double) b.active() / b.maxConcurrent)
+                .tag("workload", tag).register(meterRegistry);
+        this.admitted = Counter.builder("bulkhead.calls.admitted").tag("workload", tag).register(meterRegistry);
+        this.rejected = Counter.builder("bulkhead.calls.rejected").tag("workload", tag).register(meterRegistry);
+        this.waitTimer = Timer.builder("bulkhead.wait").tag("workload", tag).register(meterRegistry);
+    }
+
+    public void acquire() {
+        long start = System.nanoTime();
+        boolean acquired;
+        if (permits.tryAcquire()) {
+            acquired = true;
+        } else if (maxWait.isZero()) {
+            acquired = false;
+        } else {
+            waiting.incrementAndGet();
+            try {
+                acquired = permits.tryAcquire(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                acquired = false;
+            } finally {
+                waiting.decrementAndGet();
+            }
+        }
+        waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        if (!acquired) {
+            rejected.increment();
+            throw new ServiceUnavailableException(
+                    "Too many concurrent " + workloadClass.tag() + " requests, please retry later",
+                    retryAfterSeconds);
+        }
+        admitted.increment();
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public int active() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    public WorkloadClass getWorkloadClass() {
+        return workloadClass;
+    }
+}
@@ -0,0 +1,80 @@
+package com.invoicingsystem.api.infrastructure.bulkhead;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "app.bulkhead")
+public class BulkheadProperties {
+
+    /**
+     * Route JDBC connections to a separate Hikari pool per workload class.
+     */
+    private boolean routingEnabled = false;
+
+    /**
+     * Value of the Retry-After header sent with 503 responses when a bulkhead is full.
+     */
+    private long retryAfterSeconds = 2;
+
+    private Map<WorkloadClass, ClassSettings> classes = defaults();
+
+    public ClassSettings settingsFor(WorkloadClass workloadClass) {
+        ClassSettings settings = classes.get(workloadClass);
+        return settings != null ? settings : new ClassSettings();
+    }
+
+    private static Map<WorkloadClass, ClassSettings> defaults() {
+        Map<WorkloadClass, ClassSettings> defaults = new EnumMap<>(WorkloadClass.class);
+        defaults.put(WorkloadClass.INTERACTIVE, new ClassSettings(200, Duration.ofMillis(100), 6, 4, 100));
+        defaults.put(WorkloadClass.REPORTING, new ClassSettings(2, Duration.ofMillis(250), 2, 2, 10));
+        defaults.put(WorkloadClass.BATCH, new ClassSettings(2, Duration.ZERO, 2, 2, 50));
+        return defaults;
+    }
+
+    @Data
+    public static class ClassSettings {
+
+        /**
+         * Maximum number of calls of this class running at the same time.
+         */
+        private int maxConcurrent = 10;
+
+        /**
+         * How long a call may wait for a permit before it is rejected.
+         */
+        private Duration maxWait = Duration.ZERO;
+
+        /**
+         * Size of the dedicated connection pool (only used when routing is enabled). Classes that
+         * hold a connection for the whole call should keep {@code maxConcurrent} at or below it.
+         */
+        private int poolSize = 2;
+
+        /**
+         * Worker threads of the bounded executor for asynchronous work of this class.
+         */
+        private int executorThreads = 2;
+
+        /**
+         * Queue capacity of the bounded executor; submissions beyond it are rejected.
+         */
+        private int executorQueueCapacity = 10;
+
+        public ClassSettings() {
+        }
+
+        public ClassSettings(int maxConcurrent, Duration maxWait, int poolSize,
+                             int executorThreads, int executorQueueCapacity) {
+            this.maxConcurrent = maxConcurrent;
+            this.maxWait = maxWait;
+            this.poolSize = poolSize;
+            this.executorThreads = executorThreads;
+            this.executorQueueCapacity = executorQueueCapacity;
+        }
+    }
+}
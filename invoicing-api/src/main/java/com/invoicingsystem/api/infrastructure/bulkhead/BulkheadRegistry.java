@@ -0,0 +1,100 @@
+package com.invoicingsystem.api.infrastructure.bulkhead;
+
+import com.invoicingsystem.api.domain.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Owns the per-class bulkheads and bounded executors. Work submitted to a class executor runs
+ * with that class set in the {@link WorkloadContext}, so it uses the class connection pool.
+ */
+@Component
+public class BulkheadRegistry implements DisposableBean {
+
+    private final BulkheadProperties properties;
+    private final Map<WorkloadClass, Bulkhead> bulkheads = new EnumMap<>(WorkloadClass.class);
+    private final Map<WorkloadClass, ThreadPoolExecutor> rawExecutors = new EnumMap<>(WorkloadClass.class);
+    private final Map<WorkloadClass, ExecutorService> executors = new EnumMap<>(WorkloadClass.class);
+
+    public BulkheadRegistry(BulkheadProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        for (WorkloadClass workloadClass : WorkloadClass.values()) {
+            BulkheadProperties.ClassSettings settings = properties.settingsFor(workloadClass);
+            bulkheads.put(workloadClass, new Bulkhead(workloadClass, settings.getMaxConcurrent(),
+                    settings.getMaxWait(), properties.getRetryAfterSeconds(), meterRegistry));
+
+            ThreadPoolExecutor executor = newExecutor(workloadClass, settings);
+            rawExecutors.put(workloadClass, executor);
+            executors.put(workloadClass, ExecutorServiceMetrics.monitor(meterRegistry, executor,
+                    "bulkhead." + workloadClass.tag(), Tags.of("workload", workloadClass.tag())));
+        }
+    }
+
+    public Bulkhead bulkhead(WorkloadClass workloadClass) {
+        return bulkheads.get(workloadClass);
+    }
+
+    /**
+     * Submits work to the bounded executor of the given class. A full queue is reported as a
+     * {@link ServiceUnavailableException} instead of blocking the caller.
+     */
+    public <T> Future<T> submit(WorkloadClass workloadClass, Callable<T> task) {
+        try {
+            return executors.get(workloadClass).submit(() -> {
+                WorkloadContext.set(workloadClass);
+                try {
+                    return task.call();
+                } finally {
+                    WorkloadContext.clear();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            throw new ServiceUnavailableException(
+                    "The " + workloadClass.tag() + " work queue is full, please retry later",
+                    properties.getRetryAfterSeconds());
+        }
+    }
+
+    public Future<?> submit(WorkloadClass workloadClass, Runnable task) {
+        return submit(workloadClass, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    @Override
+    public void destroy() {
+        rawExecutors.values().forEach(ThreadPoolExecutor::shutdown);
+    }
+
+    private static ThreadPoolExecutor newExecutor(WorkloadClass workloadClass,
+                                                  BulkheadProperties.ClassSettings settings) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return new ThreadPoolExecutor(
+                settings.getExecutorThreads(),
+                settings.getExecutorThreads(),
+                60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, settings.getExecutorQueueCapacity())),
+                runnable -> {
+                    Thread thread = new Thread(runnable,
+                            workloadClass.tag() + "-worker-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+}
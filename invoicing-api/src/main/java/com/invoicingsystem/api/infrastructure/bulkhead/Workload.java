@@ -0,0 +1,20 @@
+package com.invoicingsystem.api.infrastructure.bulkhead;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Assigns a controller or service method (or every method of a class) to a workload class.
+ * A method-level annotation overrides the class-level one. Nested calls run in the class of
+ * the outermost annotated call.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Workload {
+
+    WorkloadClass value();
+}
@@ -0,0 +1,61 @@
+package com.invoicingsystem.api.infrastructure.bulkhead;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+
+/**
+ * Admits {@link Workload}-annotated calls through the bulkhead of their class. Runs outside the
+ * transaction interceptor so the connection is taken from the class pool.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 100)
+@RequiredArgsConstructor
+public class WorkloadAspect {
+
+    private final BulkheadRegistry bulkheadRegistry;
+
+    @Around("@within(com.invoicingsystem.api.infrastructure.bulkhead.Workload) "
+            + "|| @annotation(com.invoicingsystem.api.infrastructure.bulkhead.Workload)")
+    public Object admit(ProceedingJoinPoint joinPoint) throws Throwable {
+        // Nested calls stay in the class that admitted the outermost call
+        if (WorkloadContext.current() != null) {
+            return joinPoint.proceed();
+        }
+
+        WorkloadClass workloadClass = resolve(joinPoint);
+        Bulkhead bulkhead = bulkheadRegistry.bulkhead(workloadClass);
+        bulkhead.acquire();
+        WorkloadContext.set(workloadClass);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            WorkloadContext.clear();
+            bulkhead.release();
+        }
+    }
+
+    private WorkloadClass resolve(ProceedingJoinPoint joinPoint) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Class<?> targetClass = joinPoint.getTarget() != null
+                ? AopUtils.getTargetClass(joinPoint.getTarget())
+                : method.getDeclaringClass();
+        Method specificMethod = AopUtils.getMostSpecificMethod(method, targetClass);
+
+        Workload workload = AnnotatedElementUtils.findMergedAnnotation(specificMethod, Workload.class);
+        if (workload == null) {
+            workload = AnnotatedElementUtils.findMergedAnnotation(targetClass, Workload.class);
+        }
+        return workload != null ? workload.value() : WorkloadClass.INTERACTIVE;
+    }
+}
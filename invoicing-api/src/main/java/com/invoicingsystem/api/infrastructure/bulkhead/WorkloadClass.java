@@ -0,0 +1,13 @@
+package com.invoicingsystem.api.infrastructure.bulkhead;
+
+/**
+ * Workload classes isolated from each other by the bulkheads. Each class gets its own
+ * concurrency limit, bounded executor and (when routing is enabled) its own connection pool.
+ */
+public enum WorkloadClass {
+    INTERACTIVE, REPORTING, BATCH;
+
+    public String tag() {
+        return name().toLowerCase();
+    }
+}
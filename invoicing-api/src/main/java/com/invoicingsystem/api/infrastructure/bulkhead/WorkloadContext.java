@@ -0,0 +1,30 @@
+package com.invoicingsystem.api.infrastructure.bulkhead;
+
+/**
+ * Holds the workload class admitted for the current thread. Read by the routing data source
+ * to pick the connection pool.
+ */
+public final class WorkloadContext {
+
+    private static final ThreadLocal<WorkloadClass> CURRENT = new ThreadLocal<>();
+
+    private WorkloadContext() {
+    }
+
+    public static WorkloadClass current() {
+        return CURRENT.get();
+    }
+
+    public static WorkloadClass currentOrDefault() {
+        WorkloadClass workloadClass = CURRENT.get();
+        return workloadClass != null ? workloadClass : WorkloadClass.INTERACTIVE;
+    }
+
+    static void set(WorkloadClass workloadClass) {
+        CURRENT.set(workloadClass);
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+}
@@ -0,0 +1,45 @@
+package com.invoicingsystem.api.infrastructure.bulkhead;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Hands out connections from the pool of the workload class admitted on the current thread.
+ * Work outside any bulkhead (startup, schema management) uses the interactive pool. Each pool
+ * publishes the usual {@code hikaricp.*} meters tagged with its own pool name.
+ */
+public class WorkloadRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private final Map<WorkloadClass, HikariDataSource> pools;
+
+    public WorkloadRoutingDataSource(Map<WorkloadClass, HikariDataSource> pools) {
+        this.pools = pools;
+        setTargetDataSources(new HashMap<>(pools));
+        setDefaultTargetDataSource(pools.get(WorkloadClass.INTERACTIVE));
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return WorkloadContext.currentOrDefault();
+    }
+
+    public void bindPoolMetrics(MeterRegistry registry) {
+        for (HikariDataSource pool : pools.values()) {
+            // The interactive pool is also reachable through unwrap() and may already be bound
+            if (pool.getMetricRegistry() == null && pool.getMetricsTrackerFactory() == null) {
+                pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        pools.values().forEach(HikariDataSource::close);
+    }
+}
@@ -0,0 +1,41 @@
+package com.invoicingsystem.api.infrastructure.changefeed;
+
+import com.invoicingsystem.api.application.service.ChangeFeedService;
+import com.invoicingsystem.api.infrastructure.jobs.ClusterJob;
+import com.invoicingsystem.api.infrastructure.jobs.JobContext;
+import com.invoicingsystem.api.infrastructure.jobs.JobSchedule;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies change log retention and compaction every {@code app.change-feed.maintenance-interval},
+ * on one node of the cluster.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ChangeFeedMaintenance implements ClusterJob {
+
+    private final ChangeFeedService changeFeedService;
+    private final ChangeFeedProperties properties;
+
+    @Override
+    public String name() {
+        return "change-feed-maintenance";
+    }
+
+    @Override
+    public JobSchedule schedule() {
+        return JobSchedule.fixedRate(properties.getMaintenanceInterval());
+    }
+
+    @Override
+    public void run(JobContext context) {
+        int purged = changeFeedService.purgeExpired();
+        int compacted = changeFeedService.compact();
+        if (purged > 0 || compacted > 0) {
+            log.info("Change log maintenance purged {} expired and {} superseded entries", purged, compacted);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.invoicingsystem.api.infrastructure.changefeed;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "app.change-feed")
+public class ChangeFeedProperties {
+
+    /**
+     * Entries younger than this are held back from the feed. Ids are assigned before commit, so a
+     * transaction that commits late could otherwise land behind a cursor a client already holds.
+     */
+    private Duration visibilityLag = Duration.ofSeconds(1);
+
+    /**
+     * Entries older than this are deleted; cursors older than this are answered with 410 Gone.
+     */
+    private Duration retention = Duration.ofDays(30);
+
+    /**
+     * Entries older than this keep only the latest change per entity.
+     */
+    private Duration compactAfter = Duration.ofDays(1);
+
+    /**
+     * Delay between retention and compaction runs.
+     */
+    private Duration maintenanceInterval = Duration.ofHours(1);
+
+    private int defaultLimit = 100;
+
+    private int maxLimit = 1000;
+}
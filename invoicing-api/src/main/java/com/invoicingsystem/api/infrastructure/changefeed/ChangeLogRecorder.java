@@ -0,0 +1,121 @@
+package com.invoicingsystem.api.infrastructure.changefeed;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.invoicingsystem.api.domain.event.ClientChangedEvent;
+import com.invoicingsystem.api.domain.event.InvoiceChangedEvent;
+import com.invoicingsystem.api.domain.event.InvoiceCreatedEvent;
+import com.invoicingsystem.api.domain.event.InvoiceStatusChangedEvent;
+import com.invoicingsystem.api.domain.event.PaymentRecordedEvent;
+import com.invoicingsystem.api.domain.model.ChangeLogEntry;
+import com.invoicingsystem.api.domain.model.ChangeLogEntry.EntityType;
+import com.invoicingsystem.api.domain.model.ChangeLogEntry.Operation;
+import com.invoicingsystem.api.domain.repository.ChangeLogRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Appends change log entries from domain events before the publishing transaction commits, so
+ * the entry exists if and only if the mutation does.
+ */
+@Component
+@RequiredArgsConstructor
+public class ChangeLogRecorder {
+
+    private final ChangeLogRepository changeLogRepository;
+    private final ObjectMapper objectMapper;
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onInvoiceCreated(InvoiceCreatedEvent event) {
+        record(EntityType.INVOICE, event.getInvoiceId(), Operation.CREATED, delta(
+                "clientId", event.getClientId(),
+                "status", event.getStatus(),
+                "total", event.getTotal()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onInvoiceChanged(InvoiceChangedEvent event) {
+        Operation operation = event.getChangeType() == InvoiceChangedEvent.ChangeType.DELETED
+                ? Operation.DELETED
+                : Operation.UPDATED;
+        record(EntityType.INVOICE, event.getInvoiceId(), operation, null);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onInvoiceStatusChanged(InvoiceStatusChangedEvent event) {
+        record(EntityType.INVOICE, event.getInvoiceId(), Operation.UPDATED, delta(
+                "status", event.getNewStatus(),
+                "previousStatus", event.getPreviousStatus()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onPaymentRecorded(PaymentRecordedEvent event) {
+        record(EntityType.PAYMENT, event.getPaymentId(), Operation.UPDATED, delta(
+                "invoiceId", event.getInvoiceId(),
+                "status", event.getStatus(),
+                "method", event.getMethod(),
+                "amount", event.getAmount()));
+        // Payments move the invoice balance, so invoice-only consumers need an entry too
+        record(EntityType.INVOICE, event.getInvoiceId(), Operation.UPDATED, delta(
+                "paymentId", event.getPaymentId(),
+                "paymentStatus", event.getStatus()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onClientChanged(ClientChangedEvent event) {
+        Operation operation;
+        switch (event.getChangeType()) {
+            case CREATED:
+                operation = Operation.CREATED;
+                break;
+            case DELETED:
+                operation = Operation.DELETED;
+                break;
+            default:
+                operation = Operation.UPDATED;
+        }
+        record(EntityType.CLIENT, event.getClientId(), operation, delta(
+                "name", event.getName(),
+                "email", event.getEmail()));
+    }
+
+    private void record(EntityType entityType, String entityId, Operation operation, String delta) {
+        changeLogRepository.save(ChangeLogEntry.builder()
+                .entityType(entityType)
+                .entityId(entityId)
+                .operation(operation)
+                .delta(delta)
+                .recordedAt(LocalDateTime.now())
+                .build());
+    }
+
+    private String delta(Object... keysAndValues) {
+        Map<String, Object> delta = new LinkedHashMap<>();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            Object value = keysAndValues[i + 1];
+            if (value instanceof BigDecimal) {
+                value = ((BigDecimal) value).toPlainString();
+            } else if (value instanceof Enum) {
+                value = ((Enum<?>) value).name();
+            }
+            if (value != null) {
+                delta.put((String) keysAndValues[i], value);
+            }
+        }
+        if (delta.isEmpty()) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(delta);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize change delta", e);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.invoicingsystem.api.infrastructure.coalescing;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a read-only query whose concurrent identical calls (same method, arguments and
+ * authorization scope) share a single execution. The result is handed to every caller, so the
+ * method must return a value that is safe to share; lists are returned as unmodifiable views.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Coalesce {
+
+    /**
+     * How long a completed result keeps serving identical calls, in milliseconds. A negative
+     * value falls back to {@code app.coalescing.default-ttl}; zero shares in-flight calls only.
+     */
+    long ttlMillis() default -1;
+}
@@ -0,0 +1,71 @@
+package com.invoicingsystem.api.infrastructure.coalescing;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Routes {@link Coalesce} calls through the {@link RequestCoalescer}. Runs outside the
+ * transaction interceptor, so only the leader of a burst opens a transaction and connection.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 200)
+@RequiredArgsConstructor
+public class CoalescingAspect {
+
+    private final RequestCoalescer requestCoalescer;
+    private final CoalescingProperties properties;
+
+    @Around("@annotation(coalesce)")
+    public Object coalesce(ProceedingJoinPoint joinPoint, Coalesce coalesce) throws Throwable {
+        // A caller inside a transaction may be reading its own uncommitted writes
+        if (!properties.isEnabled() || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        String name = signature.getDeclaringType().getSimpleName() + "." + signature.getName();
+        List<Object> key = Arrays.asList(name, Arrays.asList(joinPoint.getArgs()), authorizationScope());
+        Duration ttl = coalesce.ttlMillis() >= 0
+                ? Duration.ofMillis(coalesce.ttlMillis())
+                : properties.getDefaultTtl();
+
+        return requestCoalescer.execute(name, key, ttl, () -> shareable(joinPoint.proceed()));
+    }
+
+    /**
+     * Callers with the same authorities see the same data, so the username is not part of the key.
+     */
+    private static Set<String> authorizationScope() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        Set<String> scope = new TreeSet<>();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return scope;
+        }
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            scope.add(authority.getAuthority());
+        }
+        return scope;
+    }
+
+    private static Object shareable(Object result) {
+        return result instanceof List ? Collections.unmodifiableList((List<?>) result) : result;
+    }
+}
@@ -0,0 +1,26 @@
+package com.invoicingsystem.api.infrastructure.coalescing;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "app.coalescing")
+public class CoalescingProperties {
+
+    /**
+     * Share the execution of concurrent identical {@link Coalesce} calls.
+     */
+    private boolean enabled = true;
+
+    /**
+     * How long a completed result is reused when the annotation does not set its own TTL.
+     */
+    private Duration defaultTtl = Duration.ZERO;
+
+    /**
+     * How long a caller waits on another caller's computation before running its own.
+     */
+    private Duration joinTimeout = Duration.ofSeconds(5);
+}
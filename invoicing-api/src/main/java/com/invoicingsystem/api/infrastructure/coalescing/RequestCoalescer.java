@@ -0,0 +1,163 @@
+package com.invoicingsystem.api.infrastructure.coalescing;
+
+import com.invoicingsystem.api.domain.event.ClientChangedEvent;
+import com.invoicingsystem.api.domain.event.InvoiceChangedEvent;
+import com.invoicingsystem.api.domain.event.InvoiceCreatedEvent;
+import com.invoicingsystem.api.domain.event.InvoiceStatusChangedEvent;
+import com.invoicingsystem.api.domain.event.PaymentRecordedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single-flight execution: the first caller for a key runs the computation, callers arriving
+ * while it runs (or within the TTL afterwards) receive the same result or exception. A joiner
+ * waits at most the configured join timeout and then runs the computation itself, so a stuck
+ * leader cannot hold every caller of the key.
+ */
+@Component
+public class RequestCoalescer {
+
+    private final Map<Object, Flight> flights = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final MeterRegistry meterRegistry;
+    private final CoalescingProperties properties;
+
+    public RequestCoalescer(MeterRegistry meterRegistry, CoalescingProperties properties) {
+        this.meterRegistry = meterRegistry;
+        this.properties = properties;
+        Gauge.builder("coalescing.flights", flights, Map::size)
+                .description("In-flight and cached coalesced computations")
+                .register(meterRegistry);
+    }
+
+    public Object execute(String name, Object key, Duration ttl, Computation computation) throws Throwable {
+        long now = System.nanoTime();
+        Flight flight = new Flight(generation.get());
+        // A flight started before the last committed write may miss it, so it is never joined
+        Flight winner = flights.compute(key, (k, current) ->
+                current == null || current.isExpired(now) || current.generation != flight.generation
+                        ? flight : current);
+
+        if (winner != flight) {
+            if (winner.future.isDone()) {
+                count(name, "cached");
+                return await(winner, Duration.ZERO);
+            }
+            count(name, "joined");
+            try {
+                return await(winner, properties.getJoinTimeout());
+            } catch (TimeoutException ex) {
+                count(name, "timeout");
+                return computation.compute();
+            }
+        }
+
+        count(name, "leader");
+        Object result;
+        try {
+            result = computation.compute();
+        } catch (Throwable ex) {
+            flights.remove(key, flight);
+            flight.future.completeExceptionally(ex);
+            throw ex;
+        }
+
+        // A write committed while we were running makes the result unfit for reuse
+        if (ttl.isZero() || ttl.isNegative() || flight.generation != generation.get()) {
+            flights.remove(key, flight);
+        } else {
+            flight.expiresAt = System.nanoTime() + ttl.toNanos();
+        }
+        flight.future.complete(result);
+        return result;
+    }
+
+    /**
+     * Drops cached results and computations in flight, so every call from now on reads fresh
+     * data. Callers already waiting on a dropped computation still receive its result.
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        flights.clear();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onClientChanged(ClientChangedEvent event) {
+        invalidateAll();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInvoiceCreated(InvoiceCreatedEvent event) {
+        invalidateAll();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInvoiceChanged(InvoiceChangedEvent event) {
+        invalidateAll();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInvoiceStatusChanged(InvoiceStatusChangedEvent event) {
+        invalidateAll();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPaymentRecorded(PaymentRecordedEvent event) {
+        invalidateAll();
+    }
+
+    int size() {
+        return flights.size();
+    }
+
+    private void count(String name, String outcome) {
+        Counter.builder("coalescing.calls")
+                .description("Coalesced calls by outcome")
+                .tag("method", name)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private static Object await(Flight flight, Duration timeout) throws Throwable {
+        try {
+            return flight.future.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException | CompletionException ex) {
+            throw Objects.requireNonNullElse(ex.getCause(), ex);
+        }
+    }
+
+    @FunctionalInterface
+    public interface Computation {
+        Object compute() throws Throwable;
+    }
+
+    private static final class Flight {
+        private final CompletableFuture<Object> future = new CompletableFuture<>();
+        private final long generation;
+        // Long.MAX_VALUE while running; set once before the future completes
+        private volatile long expiresAt = Long.MAX_VALUE;
+
+        private Flight(long generation) {
+            this.generation = generation;
+        }
+
+        private boolean isExpired(long now) {
+            return future.isDone() && now - expiresAt >= 0;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.invoicingsystem.api.infrastructure.config;
+
+import com.invoicingsystem.api.infrastructure.bulkhead.BulkheadProperties;
+import com.invoicingsystem.api.infrastructure.bulkhead.WorkloadClass;
+import com.invoicingsystem.api.infrastructure.bulkhead.WorkloadRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Configuration
+@EnableConfigurationProperties(BulkheadProperties.class)
+public class BulkheadConfig {
+
+    /**
+     * Replaces the single auto-configured pool with one Hikari pool per workload class, so a
+     * long-running report can only exhaust the reporting pool. Shared settings come from
+     * {@code spring.datasource.hikari.*}; only the pool size is overridden per class.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "app.bulkhead", name = "routing-enabled", havingValue = "true")
+    public DataSource dataSource(DataSourceProperties dataSourceProperties,
+                                 BulkheadProperties bulkheadProperties,
+                                 Environment environment) {
+        Map<WorkloadClass, HikariDataSource> pools = new EnumMap<>(WorkloadClass.class);
+        for (WorkloadClass workloadClass : WorkloadClass.values()) {
+            HikariDataSource pool = dataSourceProperties.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .build();
+            Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+
+            int poolSize = bulkheadProperties.settingsFor(workloadClass).getPoolSize();
+            pool.setPoolName("invoicing-" + workloadClass.tag());
+            pool.setMaximumPoolSize(poolSize);
+            if (pool.getMinimumIdle() > poolSize) {
+                pool.setMinimumIdle(poolSize);
+            }
+            pools.put(workloadClass, pool);
+        }
+        return new WorkloadRoutingDataSource(pools);
+    }
+
+    /**
+     * Publishes {@code hikaricp.*} meters for every class pool, tagged with the pool name.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "app.bulkhead", name = "routing-enabled", havingValue = "true")
+    public MeterBinder workloadPoolMetrics(DataSource dataSource) {
+        return registry -> {
+            try {
+                dataSource.unwrap(WorkloadRoutingDataSource.class).bindPoolMetrics(registry);
+            } catch (SQLException e) {
+                throw new IllegalStateException("Workload routing data source is not available", e);
+            }
+        };
+    }
+}
@@ -0,0 +1,12 @@
+package com.invoicingsystem.api.infrastructure.config;
+
+import com.invoicingsystem.api.infrastructure.changefeed.ChangeFeedProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(ChangeFeedProperties.class)
+public class ChangeFeedConfig {
+}
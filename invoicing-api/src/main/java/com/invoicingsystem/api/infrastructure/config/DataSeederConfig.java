@@ -2,6 +2,7 @@ package com.invoicingsystem.api.infrastructure.config;
 
 import com.invoicingsystem.api.application.command.CreateClientCommand;
 import com.invoicingsystem.api.application.command.CreateInvoiceCommand;
+import com.invoicingsystem.api.application.command.CreateRecurringInvoiceCommand;
 import com.invoicingsystem.api.application.command.CreateUserCommand;
 import com.invoicingsystem.api.application.command.RecordPaymentCommand;
 import com.invoicingsystem.api.application.query.UserDto;
@@ -10,7 +11,9 @@ import com.invoicingsystem.api.application.service.AuthService;
 import com.invoicingsystem.api.application.service.ClientService;
 import com.invoicingsystem.api.application.service.InvoiceService;
 import com.invoicingsystem.api.application.service.PaymentService;
+import com.invoicingsystem.api.application.service.RecurringInvoiceService;
 import com.invoicingsystem.api.domain.model.Payment;
+import com.invoicingsystem.api.domain.model.RecurringInvoiceTemplate;
 import com.invoicingsystem.api.domain.model.User;
 import com.invoicingsystem.api.domain.repository.ClientRepository;
 import com.invoicingsystem.api.domain.repository.InvoiceRepository;
@@ -42,7 +45,8 @@ public class DataSeederConfig {
             ClientRepository clientRepository,
             InvoiceService invoiceService,
             InvoiceRepository invoiceRepository,
-            PaymentService paymentService
+            PaymentService paymentService,
+            RecurringInvoiceService recurringInvoiceService
     ) {
         return args -> {
             // Seed Users
@@ -157,6 +161,19 @@ public class DataSeederConfig {
                             .build();
                     InvoiceDto inv3 = invoiceService.createInvoice(inv3Cmd, creatorUserId);
 
+                    // The retainer recurs monthly from next month on
+                    recurringInvoiceService.createTemplate(CreateRecurringInvoiceCommand.builder()
+                            .name("Umbrella maintenance retainer")
+                            .clientId(umbrellaId)
+                            .frequency(RecurringInvoiceTemplate.Frequency.MONTHLY)
+                            .startDate(LocalDate.now().withDayOfMonth(1).plusMonths(1))
+                            .dueInDays(30)
+                            .status("DRAFT")
+                            .taxRate(new BigDecimal("0.05"))
+                            .notes("Maintenance retainer")
+                            .items(inv3Cmd.getItems())
+                            .build(), creatorUserId);
+
                     // Payments (resilient to avoid startup failure)
                     try {
                         // Fully pay invoice 1 (Acme): 880.00 total
@@ -1,5 +1,6 @@
 package com.invoicingsystem.api.infrastructure.config;
 
+import com.invoicingsystem.api.infrastructure.security.PasswordHashingProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
@@ -18,8 +19,8 @@ public class DevSecurityConfig {
 
     @Bean
     @Primary
-    public PasswordEncoder devPasswordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder devPasswordEncoder(PasswordHashingProperties properties) {
+        return new BCryptPasswordEncoder(properties.getBcryptStrength());
     }
 
     @Bean
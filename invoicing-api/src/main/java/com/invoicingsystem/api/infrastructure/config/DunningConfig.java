@@ -0,0 +1,34 @@
+package com.invoicingsystem.api.infrastructure.config;
+
+import com.invoicingsystem.api.infrastructure.dunning.DunningProperties;
+import com.invoicingsystem.api.infrastructure.dunning.FileReminderTransport;
+import com.invoicingsystem.api.infrastructure.dunning.ReminderTransport;
+import com.invoicingsystem.api.infrastructure.dunning.SmtpReminderTransport;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.mail.javamail.JavaMailSender;
+
+@Configuration
+@EnableConfigurationProperties(DunningProperties.class)
+public class DunningConfig {
+
+    /**
+     * Sends reminders through {@code spring.mail.*}, which must then be configured.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "app.dunning", name = "transport", havingValue = "smtp")
+    public ReminderTransport smtpReminderTransport(JavaMailSender mailSender) {
+        return new SmtpReminderTransport(mailSender);
+    }
+
+    /**
+     * Writes reminders to a local outbox directory instead of sending them.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "app.dunning", name = "transport", havingValue = "file", matchIfMissing = true)
+    public ReminderTransport fileReminderTransport(DunningProperties properties) {
+        return new FileReminderTransport(properties.getOutboxDirectory());
+    }
+}
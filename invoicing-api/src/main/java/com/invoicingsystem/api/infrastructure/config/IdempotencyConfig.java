@@ -0,0 +1,10 @@
+package com.invoicingsystem.api.infrastructure.config;
+
+import com.invoicingsystem.api.infrastructure.idempotency.IdempotencyProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(IdempotencyProperties.class)
+public class IdempotencyConfig {
+}
@@ -0,0 +1,10 @@
+package com.invoicingsystem.api.infrastructure.config;
+
+import com.invoicingsystem.api.infrastructure.lanes.InvoiceLaneProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(InvoiceLaneProperties.class)
+public class InvoiceLaneConfig {
+}
@@ -0,0 +1,11 @@
+package com.invoicingsystem.api.infrastructure.config;
+
+import com.invoicingsystem.api.infrastructure.ledger.BalanceAuditProperties;
+import com.invoicingsystem.api.infrastructure.ledger.LedgerProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties({LedgerProperties.class, BalanceAuditProperties.class})
+public class LedgerConfig {
+}
@@ -0,0 +1,41 @@
+package com.invoicingsystem.api.infrastructure.config;
+
+import com.invoicingsystem.api.infrastructure.observability.SqlBudgetProperties;
+import com.invoicingsystem.api.infrastructure.observability.StatementTrackingDataSource;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+@EnableConfigurationProperties(SqlBudgetProperties.class)
+public class ObservabilityConfig {
+
+    /**
+     * Enables {@code @Timed} on service classes; distribution settings live in application.yml.
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    /**
+     * Wraps the application data source so statements can be counted and timed per request.
+     */
+    @Bean
+    public static BeanPostProcessor statementTrackingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource && !(bean instanceof StatementTrackingDataSource)) {
+                    return new StatementTrackingDataSource((DataSource) bean);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,35 @@
+package com.invoicingsystem.api.infrastructure.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.invoicingsystem.api.infrastructure.settlement.FileSettlementSource;
+import com.invoicingsystem.api.infrastructure.settlement.SettlementInbox;
+import com.invoicingsystem.api.infrastructure.settlement.SettlementProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(SettlementProperties.class)
+public class SettlementConfig {
+
+    /**
+     * Reads confirmations from files dropped into a local directory.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "app.settlement.file", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public FileSettlementSource fileSettlementSource(SettlementProperties properties, ObjectMapper objectMapper,
+                                                     MeterRegistry meterRegistry) {
+        return new FileSettlementSource(properties.getFile().getDropDirectory(), objectMapper, meterRegistry);
+    }
+
+    /**
+     * Holds confirmations posted to {@code /settlements}.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "app.settlement.http", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public SettlementInbox settlementInbox(SettlementProperties properties) {
+        return new SettlementInbox(properties.getHttp().getCapacity(), properties.getHttp().getRetryAfterSeconds());
+    }
+}
@@ -1,5 +1,6 @@
 package com.invoicingsystem.api.infrastructure.config;
 
+import com.invoicingsystem.api.infrastructure.ratelimit.RateLimitFilter;
 import com.invoicingsystem.api.infrastructure.security.JwtAuthenticationEntryPoint;
 import com.invoicingsystem.api.infrastructure.security.JwtAuthenticationFilter;
 import lombok.RequiredArgsConstructor;
@@ -30,6 +31,7 @@ public class WebSecurityConfig {
 
     private final JwtAuthenticationEntryPoint jwtAuthenticationEntryPoint;
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final RateLimitFilter rateLimitFilter;
 
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
@@ -43,10 +45,14 @@ public class WebSecurityConfig {
                 .and()
                 .authorizeRequests()
                     // antMatchers matches against the servlet path (excludes context-path '/api')
-                    .antMatchers("/auth/**", "/actuator/**").permitAll()
+                    .antMatchers("/auth/**", "/actuator/health/**").permitAll()
+                    // Jobs, balance audit and metrics expose node, lease and per-invoice details
+                    .antMatchers("/actuator/**").hasRole("ADMIN")
                     .anyRequest().authenticated();
 
         http.addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+        // Limits are per user, so they are applied once the token has been read
+        http.addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class);
         return http.build();
     }
 
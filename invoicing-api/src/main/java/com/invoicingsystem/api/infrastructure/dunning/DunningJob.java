@@ -0,0 +1,300 @@
+package com.invoicingsystem.api.infrastructure.dunning;
+
+import com.invoicingsystem.api.domain.model.Invoice;
+import com.invoicingsystem.api.domain.model.InvoiceReminder;
+import com.invoicingsystem.api.domain.repository.InvoiceRepository;
+import com.invoicingsystem.api.domain.repository.InvoiceReminderRepository;
+import com.invoicingsystem.api.domain.repository.ReminderCandidate;
+import com.invoicingsystem.api.infrastructure.jobs.ClusterJob;
+import com.invoicingsystem.api.infrastructure.jobs.JobContext;
+import com.invoicingsystem.api.infrastructure.jobs.JobSchedule;
+import com.invoicingsystem.api.infrastructure.ratelimit.TokenBucket;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Sends payment reminders for overdue invoices at the configured stages. Each run reads the
+ * candidates a page at a time with one query on the invoice status and due date, then renders
+ * and sends the owned ones on a worker pool. A reminder is claimed in {@code invoice_reminders}
+ * before it is sent and its outcome recorded after, so overlapping runs never send a stage twice;
+ * failed sends are retried by later runs up to {@code max-attempts}.
+ *
+ * <p>Sends are throttled per recipient domain and per node. A reminder whose domain would keep
+ * a worker waiting longer than {@code throttle.max-delay} is left for the next run.
+ */
+@Slf4j
+@Component
+public class DunningJob implements ClusterJob, DisposableBean {
+
+    private static final List<Invoice.InvoiceStatus> OPEN_STATUSES = Arrays.asList(
+            Invoice.InvoiceStatus.SENT, Invoice.InvoiceStatus.PARTIALLY_PAID, Invoice.InvoiceStatus.OVERDUE);
+
+    private final InvoiceRepository invoiceRepository;
+    private final InvoiceReminderRepository reminderRepository;
+    private final ReminderTemplates templates;
+    private final ReminderTransport transport;
+    private final DunningProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ExecutorService workers;
+    private final Map<String, TokenBucket> throttles = new ConcurrentHashMap<>();
+    private final AtomicLong backlog = new AtomicLong();
+
+    public DunningJob(InvoiceRepository invoiceRepository,
+                      InvoiceReminderRepository reminderRepository,
+                      ReminderTemplates templates,
+                      ReminderTransport transport,
+                      DunningProperties properties,
+                      MeterRegistry meterRegistry) {
+        this.invoiceRepository = invoiceRepository;
+        this.reminderRepository = reminderRepository;
+        this.templates = templates;
+        this.transport = transport;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.workers = Executors.newFixedThreadPool(properties.getWorkers(),
+                new CustomizableThreadFactory("dunning-"));
+        Gauge.builder("dunning.backlog", backlog, AtomicLong::get)
+                .description("Reminders due but left unsent by the last run")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String name() {
+        return "dunning";
+    }
+
+    @Override
+    public JobSchedule schedule() {
+        return JobSchedule.cron(properties.getSchedule());
+    }
+
+    @Override
+    public int shards() {
+        return properties.getShards();
+    }
+
+    @Override
+    public void run(JobContext context) throws InterruptedException {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Map<Outcome, Integer> outcomes = remind(LocalDate.now(), context::owns, context::isLeaseHeld);
+        if (outcomes.get(Outcome.SENT) + outcomes.get(Outcome.FAILED) + outcomes.get(Outcome.DEFERRED) > 0) {
+            log.info("Dunning shard {}: {}", context.getShard(), outcomes);
+        }
+    }
+
+    /**
+     * Sends the reminders due on {@code today} for the invoices {@code owns} accepts, stopping
+     * between pages once {@code active} turns false.
+     */
+    Map<Outcome, Integer> remind(LocalDate today, Predicate<String> owns, BooleanSupplier active)
+            throws InterruptedException {
+        Map<Outcome, Integer> outcomes = new EnumMap<>(Outcome.class);
+        for (Outcome outcome : Outcome.values()) {
+            outcomes.put(outcome, 0);
+        }
+        List<Integer> stages = properties.getStages().stream().sorted().distinct().collect(Collectors.toList());
+        if (stages.isEmpty()) {
+            return outcomes;
+        }
+        long start = System.nanoTime();
+        LocalDateTime staleBefore = LocalDateTime.now().minus(properties.getClaimTimeout());
+        LocalDate cutoff = today.minusDays(stages.get(0));
+        int finalStage = stages.get(stages.size() - 1);
+
+        String afterId = "";
+        while (active.getAsBoolean()) {
+            List<ReminderCandidate> page = invoiceRepository.findReminderCandidates(OPEN_STATUSES, cutoff,
+                    finalStage, properties.getMaxAttempts(), staleBefore, afterId,
+                    PageRequest.of(0, properties.getPageSize()));
+            if (page.isEmpty()) {
+                break;
+            }
+            afterId = page.get(page.size() - 1).getInvoiceId();
+
+            List<Future<Outcome>> sends = new ArrayList<>();
+            for (ReminderCandidate candidate : page) {
+                int stage = dueStage(candidate, stages, today);
+                if (stage > 0 && owns.test(candidate.getInvoiceId())) {
+                    sends.add(workers.submit(() -> remind(candidate, stage, today)));
+                }
+            }
+            for (Future<Outcome> send : sends) {
+                Outcome outcome;
+                try {
+                    outcome = send.get();
+                } catch (ExecutionException e) {
+                    log.warn("Sending a reminder failed; it is retried on the next run", e.getCause());
+                    outcome = Outcome.FAILED;
+                }
+                outcomes.merge(outcome, 1, Integer::sum);
+            }
+        }
+
+        backlog.set(outcomes.get(Outcome.FAILED) + outcomes.get(Outcome.DEFERRED));
+        record(outcomes.get(Outcome.SENT), System.nanoTime() - start);
+        return outcomes;
+    }
+
+    /**
+     * The latest stage the invoice has reached, or 0 if that stage is already settled.
+     */
+    private static int dueStage(ReminderCandidate candidate, List<Integer> stages, LocalDate today) {
+        long daysOverdue = ChronoUnit.DAYS.between(candidate.getDueDate(), today);
+        int settled = candidate.getSettledStage() != null ? candidate.getSettledStage() : 0;
+        int due = 0;
+        for (int stage : stages) {
+            if (stage <= daysOverdue) {
+                due = stage;
+            }
+        }
+        return due > settled ? due : 0;
+    }
+
+    private Outcome remind(ReminderCandidate candidate, int stage, LocalDate today) throws InterruptedException {
+        String email = candidate.getClientEmail();
+        int at = email != null ? email.lastIndexOf('@') : -1;
+        if (at < 0) {
+            return count(stage, Outcome.SKIPPED);
+        }
+        if (!throttle(email.substring(at + 1).toLowerCase(Locale.ROOT))) {
+            return count(stage, Outcome.DEFERRED);
+        }
+        if (!claim(candidate.getInvoiceId(), stage, email)) {
+            return count(stage, Outcome.SKIPPED);
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Outcome outcome = Outcome.FAILED;
+        try {
+            transport.send(templates.render(candidate, stage, today, properties.getFrom()));
+            outcome = Outcome.SENT;
+        } catch (Exception e) {
+            String error = e.getClass().getSimpleName() + ": " + e.getMessage();
+            reminderRepository.markFailed(candidate.getInvoiceId(), stage,
+                    error.length() > 1000 ? error.substring(0, 1000) : error);
+            log.warn("Reminder {} for invoice {} failed: {}", stage, candidate.getNumber(), error);
+        } finally {
+            sample.stop(Timer.builder("dunning.send")
+                    .description("Reminder render and send durations")
+                    .tag("outcome", outcome.tag())
+                    .register(meterRegistry));
+        }
+        if (outcome == Outcome.SENT) {
+            reminderRepository.markSent(candidate.getInvoiceId(), stage, LocalDateTime.now());
+        }
+        return count(stage, outcome);
+    }
+
+    /**
+     * Waits for the domain's rate if that is quick, otherwise gives up so the worker can move on.
+     */
+    private boolean throttle(String domain) throws InterruptedException {
+        DunningProperties.Throttle settings = properties.getThrottle();
+        TokenBucket bucket = throttles.computeIfAbsent(domain, d -> new TokenBucket(
+                settings.getBurst(), settings.getPerDomainPerMinute() / 60, System.nanoTime()));
+        long maxDelay = settings.getMaxDelay().toNanos();
+        long waited = 0;
+        while (true) {
+            long wait = bucket.tryAcquire(1, System.nanoTime());
+            if (wait == 0) {
+                return true;
+            }
+            if (waited + wait > maxDelay) {
+                return false;
+            }
+            TimeUnit.NANOSECONDS.sleep(wait);
+            waited += wait;
+        }
+    }
+
+    private boolean claim(String invoiceId, int stage, String recipient) {
+        LocalDateTime now = LocalDateTime.now();
+        if (reminderRepository.reclaim(invoiceId, stage, recipient, properties.getMaxAttempts(), now,
+                now.minus(properties.getClaimTimeout())) > 0) {
+            return true;
+        }
+        if (reminderRepository.existsByInvoiceIdAndStage(invoiceId, stage)) {
+            return false;
+        }
+        try {
+            reminderRepository.saveAndFlush(InvoiceReminder.builder()
+                    .invoiceId(invoiceId)
+                    .stage(stage)
+                    .recipient(recipient)
+                    .status(InvoiceReminder.Status.PENDING)
+                    .attempts(1)
+                    .claimedAt(now)
+                    .build());
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            // Another run claimed it first
+            return false;
+        }
+    }
+
+    private Outcome count(int stage, Outcome outcome) {
+        Counter.builder("dunning.reminders")
+                .description("Reminders by stage and outcome")
+                .tag("stage", String.valueOf(stage))
+                .tag("outcome", outcome.tag())
+                .register(meterRegistry)
+                .increment();
+        return outcome;
+    }
+
+    private void record(int sent, long durationNanos) {
+        if (sent == 0) {
+            return;
+        }
+        double seconds = Math.max(durationNanos, 1) / (double) TimeUnit.SECONDS.toNanos(1);
+        DistributionSummary.builder("dunning.throughput")
+                .description("Reminders sent per second by a dunning run")
+                .baseUnit("reminders/s")
+                .register(meterRegistry)
+                .record(sent / seconds);
+    }
+
+    @Override
+    public void destroy() {
+        workers.shutdownNow();
+    }
+
+    enum Outcome {
+        SENT, FAILED, DEFERRED, SKIPPED;
+
+        String tag() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+}
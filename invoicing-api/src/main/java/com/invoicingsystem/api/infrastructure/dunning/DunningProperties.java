@@ -0,0 +1,80 @@
+package com.invoicingsystem.api.infrastructure.dunning;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "app.dunning")
+public class DunningProperties {
+
+    private boolean enabled = true;
+
+    private String schedule = "0 15 * * * *";
+
+    private int shards = 1;
+
+    /**
+     * Days overdue at which reminders go out. An invoice that missed a stage only gets the
+     * latest one due.
+     */
+    private List<Integer> stages = new ArrayList<>(Arrays.asList(7, 14, 30));
+
+    /**
+     * Candidate invoices read per query.
+     */
+    private int pageSize = 500;
+
+    /**
+     * Threads rendering and sending reminders.
+     */
+    private int workers = 4;
+
+    /**
+     * Sends per attempt before a reminder stage is given up on.
+     */
+    private int maxAttempts = 3;
+
+    /**
+     * How long a claimed reminder may go without a recorded outcome before another run retries it.
+     */
+    private Duration claimTimeout = Duration.ofMinutes(30);
+
+    private Transport transport = Transport.FILE;
+
+    private String from = "billing@invoicing.local";
+
+    /**
+     * Directory the file transport writes messages to.
+     */
+    private String outboxDirectory = "data/mail-outbox";
+
+    private Throttle throttle = new Throttle();
+
+    @Data
+    public static class Throttle {
+
+        /**
+         * Reminders sent to one recipient domain per minute.
+         */
+        private double perDomainPerMinute = 60;
+
+        /**
+         * Reminders to one domain sent back to back before the rate applies.
+         */
+        private int burst = 10;
+
+        /**
+         * Longest a worker waits for a domain's rate before leaving the reminder to the next run.
+         */
+        private Duration maxDelay = Duration.ofSeconds(5);
+    }
+
+    public enum Transport {
+        FILE, SMTP
+    }
+}
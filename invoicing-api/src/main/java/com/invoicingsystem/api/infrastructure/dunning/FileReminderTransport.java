@@ -0,0 +1,49 @@
+package com.invoicingsystem.api.infrastructure.dunning;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Local mail stub writing each reminder as {@code <invoice id>-<stage>.eml} into a directory, for
+ * development and for inspecting what would be sent. A retried send overwrites its file.
+ */
+public class FileReminderTransport implements ReminderTransport {
+
+    private final Path directory;
+
+    public FileReminderTransport(String directory) {
+        this.directory = Paths.get(directory).toAbsolutePath().normalize();
+        try {
+            Files.createDirectories(this.directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create mail outbox " + this.directory, e);
+        }
+    }
+
+    @Override
+    public void send(ReminderMessage message) throws IOException {
+        String content = "Date: " + DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now()) + "\r\n"
+                + "From: " + message.getFrom() + "\r\n"
+                + "To: " + message.getTo() + "\r\n"
+                + "Subject: " + message.getSubject() + "\r\n"
+                + "Content-Type: text/plain; charset=UTF-8\r\n"
+                + "\r\n"
+                + message.getBody().replace("\n", "\r\n");
+        String name = message.getInvoiceId() + '-' + message.getStage();
+        Path temp = Files.createTempFile(directory, name, ".tmp");
+        try {
+            Files.write(temp, content.getBytes(StandardCharsets.UTF_8));
+            Files.move(temp, directory.resolve(name + ".eml"),
+                    StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+}
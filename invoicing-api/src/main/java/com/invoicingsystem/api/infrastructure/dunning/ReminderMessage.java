@@ -0,0 +1,16 @@
+package com.invoicingsystem.api.infrastructure.dunning;
+
+import lombok.Value;
+
+/**
+ * A rendered reminder, identified by invoice and stage so transports can deduplicate on it.
+ */
+@Value
+public class ReminderMessage {
+    String invoiceId;
+    int stage;
+    String from;
+    String to;
+    String subject;
+    String body;
+}
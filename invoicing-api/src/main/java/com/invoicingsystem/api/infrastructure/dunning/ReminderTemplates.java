@@ -0,0 +1,88 @@
+package com.invoicingsystem.api.infrastructure.dunning;
+
+import com.invoicingsystem.api.domain.repository.ReminderCandidate;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reminder texts from {@code classpath:reminders/overdue-<stage>.txt}, falling back to
+ * {@code reminders/overdue.txt}. The first line is {@code Subject: ...}, the body follows a blank
+ * line, and {@code {{name}}} placeholders are filled from the invoice. Templates are parsed once
+ * and are safe to render from several threads.
+ */
+@Component
+public class ReminderTemplates {
+
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\{\\{(\\w+)}}");
+    private static final String SUBJECT = "Subject:";
+
+    private final Map<Integer, Template> templates = new ConcurrentHashMap<>();
+
+    public ReminderMessage render(ReminderCandidate invoice, int stage, LocalDate today, String from) {
+        Template template = templates.computeIfAbsent(stage, ReminderTemplates::load);
+        Map<String, String> values = new HashMap<>();
+        values.put("number", invoice.getNumber());
+        values.put("clientName", invoice.getClientName());
+        values.put("dueDate", invoice.getDueDate().toString());
+        values.put("daysOverdue", String.valueOf(ChronoUnit.DAYS.between(invoice.getDueDate(), today)));
+        values.put("balance", invoice.getBalance().setScale(2, RoundingMode.HALF_UP).toPlainString());
+        return new ReminderMessage(invoice.getInvoiceId(), stage, from, invoice.getClientEmail(),
+                fill(template.subject, values), fill(template.body, values));
+    }
+
+    private static String fill(String text, Map<String, String> values) {
+        Matcher matcher = PLACEHOLDER.matcher(text);
+        StringBuffer out = new StringBuffer();
+        while (matcher.find()) {
+            String value = values.get(matcher.group(1));
+            matcher.appendReplacement(out, Matcher.quoteReplacement(value != null ? value : matcher.group()));
+        }
+        matcher.appendTail(out);
+        return out.toString();
+    }
+
+    private static Template load(int stage) {
+        Resource resource = new ClassPathResource("reminders/overdue-" + stage + ".txt");
+        if (!resource.exists()) {
+            resource = new ClassPathResource("reminders/overdue.txt");
+        }
+        String text;
+        try (InputStream in = resource.getInputStream()) {
+            text = StreamUtils.copyToString(in, StandardCharsets.UTF_8).replace("\r\n", "\n");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read reminder template for stage " + stage, e);
+        }
+        int endOfSubject = text.indexOf('\n');
+        if (!text.startsWith(SUBJECT) || endOfSubject < 0) {
+            throw new IllegalStateException("Reminder template " + resource.getDescription()
+                    + " must start with a Subject: line");
+        }
+        return new Template(text.substring(SUBJECT.length(), endOfSubject).trim(),
+                text.substring(endOfSubject + 1).replaceFirst("^\n", ""));
+    }
+
+    private static final class Template {
+        private final String subject;
+        private final String body;
+
+        private Template(String subject, String body) {
+            this.subject = subject;
+            this.body = body;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.invoicingsystem.api.infrastructure.dunning;
+
+/**
+ * Delivers rendered reminders. Implementations throw on failure; the attempt is then recorded
+ * and retried by a later run.
+ */
+public interface ReminderTransport {
+
+    void send(ReminderMessage message) throws Exception;
+}
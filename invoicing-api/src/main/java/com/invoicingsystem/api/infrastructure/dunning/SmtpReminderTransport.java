@@ -0,0 +1,24 @@
+package com.invoicingsystem.api.infrastructure.dunning;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+
+/**
+ * Sends reminders through the {@code spring.mail.*} SMTP server.
+ */
+@RequiredArgsConstructor
+public class SmtpReminderTransport implements ReminderTransport {
+
+    private final JavaMailSender mailSender;
+
+    @Override
+    public void send(ReminderMessage message) {
+        SimpleMailMessage mail = new SimpleMailMessage();
+        mail.setFrom(message.getFrom());
+        mail.setTo(message.getTo());
+        mail.setSubject(message.getSubject());
+        mail.setText(message.getBody());
+        mailSender.send(mail);
+    }
+}
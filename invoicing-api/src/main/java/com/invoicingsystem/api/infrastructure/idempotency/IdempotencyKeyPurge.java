@@ -0,0 +1,41 @@
+package com.invoicingsystem.api.infrastructure.idempotency;
+
+import com.invoicingsystem.api.domain.repository.IdempotencyRecordRepository;
+import com.invoicingsystem.api.infrastructure.jobs.ClusterJob;
+import com.invoicingsystem.api.infrastructure.jobs.JobContext;
+import com.invoicingsystem.api.infrastructure.jobs.JobSchedule;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Deletes stored responses past their TTL every {@code app.idempotency.purge-interval}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IdempotencyKeyPurge implements ClusterJob {
+
+    private final IdempotencyRecordRepository repository;
+    private final IdempotencyProperties properties;
+
+    @Override
+    public String name() {
+        return "idempotency-key-purge";
+    }
+
+    @Override
+    public JobSchedule schedule() {
+        return JobSchedule.fixedRate(properties.getPurgeInterval());
+    }
+
+    @Override
+    public void run(JobContext context) {
+        int purged = repository.deleteExpired(LocalDateTime.now());
+        if (purged > 0) {
+            log.info("Purged {} expired idempotency keys", purged);
+        }
+    }
+}
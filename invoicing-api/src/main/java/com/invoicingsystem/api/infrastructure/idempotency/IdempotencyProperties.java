@@ -0,0 +1,52 @@
+package com.invoicingsystem.api.infrastructure.idempotency;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "app.idempotency")
+public class IdempotencyProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * POST paths (below the context path) that honour the {@code Idempotency-Key} header.
+     */
+    private List<String> paths = new ArrayList<>(List.of("/payments", "/invoices"));
+
+    /**
+     * How long stored responses are replayed to retries.
+     */
+    private Duration ttl = Duration.ofHours(24);
+
+    /**
+     * How long a response is also kept in memory in front of the table.
+     */
+    private Duration frontCacheTtl = Duration.ofMinutes(10);
+
+    /**
+     * Responses kept in memory at most; beyond this, retries are answered from the table.
+     */
+    private int maxCachedResponses = 10_000;
+
+    /**
+     * How long a duplicate waits for the in-flight original before it is answered with 409.
+     */
+    private Duration maxWait = Duration.ofSeconds(10);
+
+    private int maxKeyLength = 255;
+
+    /**
+     * Larger responses are not stored; retries of them run again.
+     */
+    private int maxStoredBodyLength = 65536;
+
+    /**
+     * Delay between purges of expired responses.
+     */
+    private Duration purgeInterval = Duration.ofHours(1);
+}
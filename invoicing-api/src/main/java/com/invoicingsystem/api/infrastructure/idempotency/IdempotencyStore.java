@@ -0,0 +1,201 @@
+package com.invoicingsystem.api.infrastructure.idempotency;
+
+import com.invoicingsystem.api.domain.model.IdempotencyRecord;
+import com.invoicingsystem.api.domain.repository.IdempotencyRecordRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.stereotype.Component;
+
+import javax.servlet.ServletException;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Responses stored per idempotency key: a table for the full TTL, fronted by an in-memory map
+ * that also holds the requests still in flight. The first request for a key runs; duplicates
+ * arriving meanwhile wait for its response, later ones are answered from memory or the table.
+ */
+@Slf4j
+@Component
+public class IdempotencyStore implements SchedulingConfigurer {
+
+    private final IdempotencyRecordRepository repository;
+    private final IdempotencyProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Flight> flights = new ConcurrentHashMap<>();
+
+    public IdempotencyStore(IdempotencyRecordRepository repository, IdempotencyProperties properties,
+                            MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("idempotency.cached", flights, Map::size)
+                .description("In-flight and cached idempotent responses")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs {@code execution} unless a response for {@code id} is in flight or stored, in which case
+     * that response is returned as a replay. Only responses below 500 are kept.
+     */
+    public Outcome execute(String id, Execution execution) throws IOException, ServletException {
+        while (true) {
+            long now = System.nanoTime();
+            Flight flight = new Flight();
+            Flight winner = flights.compute(id, (k, current) ->
+                    current == null || current.isExpired(now) ? flight : current);
+
+            if (winner != flight) {
+                count(winner.future.isDone() ? "cached" : "joined");
+                StoredResponse stored = await(winner);
+                if (stored != null) {
+                    return new Outcome(stored, true);
+                }
+                // The original was not stored (5xx or too large): run it again, once
+                continue;
+            }
+
+            StoredResponse kept = null;
+            try {
+                kept = load(id);
+                if (kept != null) {
+                    count("stored");
+                    return new Outcome(kept, true);
+                }
+                count("executed");
+                StoredResponse fresh = execution.run();
+                if (isStorable(fresh)) {
+                    persist(id, fresh);
+                    kept = fresh;
+                }
+                return new Outcome(fresh, false);
+            } finally {
+                if (kept != null && flights.size() <= properties.getMaxCachedResponses()) {
+                    flight.expiresAt = System.nanoTime() + properties.getFrontCacheTtl().toNanos();
+                } else {
+                    flights.remove(id, flight);
+                }
+                flight.future.complete(kept);
+            }
+        }
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar registrar) {
+        registrar.addFixedDelayTask(this::purge, properties.getPurgeInterval().toMillis());
+    }
+
+    /**
+     * Drops finished flights from the front cache; expired keys are deleted from the table by
+     * {@link IdempotencyKeyPurge} on one node.
+     */
+    void purge() {
+        long now = System.nanoTime();
+        flights.values().removeIf(flight -> flight.isExpired(now));
+    }
+
+    int size() {
+        return flights.size();
+    }
+
+    private StoredResponse load(String id) {
+        return repository.findByIdAndExpiresAtAfter(id, LocalDateTime.now())
+                .map(record -> new StoredResponse(record.getRequestHash(), record.getStatusCode(),
+                        record.getContentType(), record.getBody()))
+                .orElse(null);
+    }
+
+    private void persist(String id, StoredResponse response) {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            repository.save(IdempotencyRecord.builder()
+                    .id(id)
+                    .requestHash(response.getRequestHash())
+                    .statusCode(response.getStatus())
+                    .contentType(response.getContentType())
+                    .body(response.getBody())
+                    .createdAt(now)
+                    .expiresAt(now.plus(properties.getTtl()))
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            // Another instance stored a response for this key first; retries will get that one
+            log.warn("Idempotency key {} was stored concurrently by another instance", id);
+        }
+    }
+
+    private boolean isStorable(StoredResponse response) {
+        return response.getStatus() < 500
+                && (response.getBody() == null || response.getBody().length() <= properties.getMaxStoredBodyLength());
+    }
+
+    private StoredResponse await(Flight flight) {
+        try {
+            return flight.future.get(properties.getMaxWait().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            count("timeout");
+            throw new IdempotencyConflictException();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyConflictException();
+        } catch (ExecutionException e) {
+            // Never completed exceptionally; treat like an unstored response
+            return null;
+        }
+    }
+
+    private void count(String outcome) {
+        Counter.builder("idempotency.requests")
+                .description("Requests carrying an Idempotency-Key by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    @FunctionalInterface
+    public interface Execution {
+        StoredResponse run() throws IOException, ServletException;
+    }
+
+    public static final class Outcome {
+        private final StoredResponse response;
+        private final boolean replayed;
+
+        private Outcome(StoredResponse response, boolean replayed) {
+            this.response = response;
+            this.replayed = replayed;
+        }
+
+        public StoredResponse getResponse() { return response; }
+        public boolean isReplayed() { return replayed; }
+    }
+
+    /**
+     * A duplicate gave up waiting for the original request with the same key.
+     */
+    public static class IdempotencyConflictException extends RuntimeException {
+        IdempotencyConflictException() {
+            super("A request with this Idempotency-Key is still being processed");
+        }
+    }
+
+    private static final class Flight {
+        private final CompletableFuture<StoredResponse> future = new CompletableFuture<>();
+        // Long.MAX_VALUE while running; set once before the future completes
+        private volatile long expiresAt = Long.MAX_VALUE;
+
+        private boolean isExpired(long now) {
+            return future.isDone() && now - expiresAt >= 0;
+        }
+    }
+}
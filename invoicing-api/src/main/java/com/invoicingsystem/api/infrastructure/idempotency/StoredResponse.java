@@ -0,0 +1,24 @@
+package com.invoicingsystem.api.infrastructure.idempotency;
+
+/**
+ * Status, content type and body of a response, plus the hash of the request that produced it.
+ */
+public final class StoredResponse {
+
+    private final String requestHash;
+    private final int status;
+    private final String contentType;
+    private final String body;
+
+    public StoredResponse(String requestHash, int status, String contentType, String body) {
+        this.requestHash = requestHash;
+        this.status = status;
+        this.contentType = contentType;
+        this.body = body;
+    }
+
+    public String getRequestHash() { return requestHash; }
+    public int getStatus() { return status; }
+    public String getContentType() { return contentType; }
+    public String getBody() { return body; }
+}
@@ -0,0 +1,23 @@
+package com.invoicingsystem.api.infrastructure.jobs;
+
+/**
+ * Background work that must run once per schedule across all nodes rather than on every node.
+ * Beans implementing this are picked up by the {@link JobScheduler}. Jobs with several shards
+ * have each shard leased and run separately, normally on different nodes; a shard should only
+ * process the part of the work {@link JobContext#owns owned} by it.
+ *
+ * <p>Runs are at-least-once: a node that stalls past its lease may overlap with the node that
+ * took the shard over, so jobs must be safe to repeat.
+ */
+public interface ClusterJob {
+
+    String name();
+
+    JobSchedule schedule();
+
+    default int shards() {
+        return 1;
+    }
+
+    void run(JobContext context) throws Exception;
+}
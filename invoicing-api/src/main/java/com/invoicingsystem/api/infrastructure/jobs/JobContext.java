@@ -0,0 +1,53 @@
+package com.invoicingsystem.api.infrastructure.jobs;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * The shard a run was started for, and whether this node still holds its lease.
+ */
+public final class JobContext {
+
+    private final String jobName;
+    private final int shard;
+    private final int shardCount;
+    private final String node;
+    private final BooleanSupplier leaseHeld;
+
+    JobContext(String jobName, int shard, int shardCount, String node, BooleanSupplier leaseHeld) {
+        this.jobName = jobName;
+        this.shard = shard;
+        this.shardCount = shardCount;
+        this.node = node;
+        this.leaseHeld = leaseHeld;
+    }
+
+    /**
+     * Whether the item with this key belongs to this run's shard of the work range.
+     */
+    public boolean owns(String key) {
+        return shardCount == 1 || Math.floorMod(key.hashCode(), shardCount) == shard;
+    }
+
+    /**
+     * Long runs should stop early once this turns false; another node has taken the shard over.
+     */
+    public boolean isLeaseHeld() {
+        return leaseHeld.getAsBoolean();
+    }
+
+    public String getJobName() {
+        return jobName;
+    }
+
+    public int getShard() {
+        return shard;
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    public String getNode() {
+        return node;
+    }
+}
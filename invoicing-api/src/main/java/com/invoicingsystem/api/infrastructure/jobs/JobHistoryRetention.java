@@ -0,0 +1,43 @@
+package com.invoicingsystem.api.infrastructure.jobs;
+
+import com.invoicingsystem.api.domain.repository.JobNodeRepository;
+import com.invoicingsystem.api.domain.repository.JobRunRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Deletes run history older than {@code app.jobs.history-retention}, and the rows of nodes that
+ * stopped without deregistering.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class JobHistoryRetention implements ClusterJob {
+
+    private final JobRunRepository runRepository;
+    private final JobNodeRepository nodeRepository;
+    private final JobSchedulerProperties properties;
+
+    @Override
+    public String name() {
+        return "job-history-retention";
+    }
+
+    @Override
+    public JobSchedule schedule() {
+        return JobSchedule.cron("0 30 3 * * *");
+    }
+
+    @Override
+    public void run(JobContext context) {
+        LocalDateTime now = LocalDateTime.now();
+        int runs = runRepository.deleteOlderThan(now.minus(properties.getHistoryRetention()));
+        int nodes = nodeRepository.deleteStale(now.minus(properties.getHistoryRetention()));
+        if (runs > 0 || nodes > 0) {
+            log.info("Job history retention deleted {} runs and {} stale nodes", runs, nodes);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.invoicingsystem.api.infrastructure.jobs;
+
+import org.springframework.scheduling.support.CronExpression;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * When a cluster job runs: on a cron expression, or at a fixed rate starting as soon as it is
+ * first scheduled. Missed runs are not caught up; a late job runs once and resumes its rhythm.
+ */
+public final class JobSchedule {
+
+    private final CronExpression cron;
+    private final Duration rate;
+    private final String description;
+
+    private JobSchedule(CronExpression cron, Duration rate, String description) {
+        this.cron = cron;
+        this.rate = rate;
+        this.description = description;
+    }
+
+    public static JobSchedule cron(String expression) {
+        return new JobSchedule(CronExpression.parse(expression), null, "cron " + expression);
+    }
+
+    public static JobSchedule fixedRate(Duration rate) {
+        if (rate.isZero() || rate.isNegative()) {
+            throw new IllegalArgumentException("Job rate must be positive: " + rate);
+        }
+        return new JobSchedule(null, rate, "every " + rate);
+    }
+
+    public LocalDateTime first(LocalDateTime now) {
+        return cron != null ? cron.next(now) : now;
+    }
+
+    /**
+     * The run after one that was due at {@code scheduled} and finished at {@code now}.
+     */
+    public LocalDateTime next(LocalDateTime scheduled, LocalDateTime now) {
+        if (cron != null) {
+            return cron.next(now);
+        }
+        LocalDateTime next = scheduled.plus(rate);
+        return next.isAfter(now) ? next : now.plus(rate);
+    }
+
+    @Override
+    public String toString() {
+        return description;
+    }
+}
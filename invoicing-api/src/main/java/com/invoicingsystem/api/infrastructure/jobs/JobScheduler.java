@@ -0,0 +1,318 @@
+package com.invoicingsystem.api.infrastructure.jobs;
+
+import com.invoicingsystem.api.domain.model.JobLease;
+import com.invoicingsystem.api.domain.model.JobNode;
+import com.invoicingsystem.api.domain.model.JobRun;
+import com.invoicingsystem.api.domain.repository.JobLeaseRepository;
+import com.invoicingsystem.api.domain.repository.JobNodeRepository;
+import com.invoicingsystem.api.domain.repository.JobRunRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.net.InetAddress;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs {@link ClusterJob}s once per schedule across all nodes sharing the database. Every poll a
+ * node heartbeats, works out which shards it is assigned among the live nodes, takes or renews
+ * their leases, hands back shards now assigned elsewhere and starts those that are due. A crashed
+ * node's shards are taken over once its leases expire.
+ */
+@Slf4j
+@Component
+public class JobScheduler implements SchedulingConfigurer {
+
+    private final Map<String, ClusterJob> jobs = new LinkedHashMap<>();
+    private final JobLeaseRepository leaseRepository;
+    private final JobNodeRepository nodeRepository;
+    private final JobRunRepository runRepository;
+    private final JobSchedulerProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+    private final Executor executor;
+    private final String nodeId;
+    private final Set<String> held = ConcurrentHashMap.newKeySet();
+    private final Set<String> running = ConcurrentHashMap.newKeySet();
+    private final Map<String, LocalDateTime> leaseUntil = new ConcurrentHashMap<>();
+    private ThreadPoolTaskScheduler pollScheduler;
+
+    @Autowired
+    public JobScheduler(List<ClusterJob> jobs,
+                        JobLeaseRepository leaseRepository,
+                        JobNodeRepository nodeRepository,
+                        JobRunRepository runRepository,
+                        JobSchedulerProperties properties,
+                        MeterRegistry meterRegistry) {
+        this(jobs, leaseRepository, nodeRepository, runRepository, properties, meterRegistry,
+                Clock.systemDefaultZone(), Executors.newFixedThreadPool(properties.getThreads(),
+                        new CustomizableThreadFactory("cluster-job-")));
+    }
+
+    JobScheduler(List<ClusterJob> jobs,
+                 JobLeaseRepository leaseRepository,
+                 JobNodeRepository nodeRepository,
+                 JobRunRepository runRepository,
+                 JobSchedulerProperties properties,
+                 MeterRegistry meterRegistry,
+                 Clock clock,
+                 Executor executor) {
+        for (ClusterJob job : jobs) {
+            if (this.jobs.putIfAbsent(job.name(), job) != null) {
+                throw new IllegalStateException("Duplicate cluster job name: " + job.name());
+            }
+        }
+        this.leaseRepository = leaseRepository;
+        this.nodeRepository = nodeRepository;
+        this.runRepository = runRepository;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+        this.executor = executor;
+        this.nodeId = properties.getNodeId() != null ? properties.getNodeId() : defaultNodeId();
+        Gauge.builder("jobs.leases.held", held, Set::size)
+                .description("Cluster job shards leased by this node")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar registrar) {
+        if (properties.isEnabled()) {
+            // Own thread: a slow @Scheduled task must not hold heartbeats past the node timeout
+            pollScheduler = new ThreadPoolTaskScheduler();
+            pollScheduler.setThreadNamePrefix("cluster-poll-");
+            pollScheduler.initialize();
+            pollScheduler.scheduleWithFixedDelay(this::tick, properties.getPollInterval());
+        }
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public Map<String, ClusterJob> getJobs() {
+        return Collections.unmodifiableMap(jobs);
+    }
+
+    void tick() {
+        try {
+            LocalDateTime now = LocalDateTime.now(clock);
+            List<String> liveNodes = heartbeat(now);
+            for (ClusterJob job : jobs.values()) {
+                for (int shard = 0; shard < job.shards(); shard++) {
+                    try {
+                        tick(job, shard, liveNodes, now);
+                    } catch (Exception e) {
+                        log.error("Scheduling {} shard {} failed", job.name(), shard, e);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            log.error("Cluster job scheduling failed", e);
+        }
+    }
+
+    private void tick(ClusterJob job, int shard, List<String> liveNodes, LocalDateTime now) {
+        String leaseId = job.name() + '#' + shard;
+        LocalDateTime until = now.plus(properties.getLeaseDuration());
+        if (!assignedHere(job, shard, liveNodes)) {
+            if (!held.contains(leaseId)) {
+                return;
+            }
+            if (running.contains(leaseId)) {
+                // Keep the lease until the run finishes so the new owner cannot start it alongside
+                if (leaseRepository.acquire(leaseId, nodeId, now, until) > 0) {
+                    leaseUntil.put(leaseId, until);
+                } else {
+                    held.remove(leaseId);
+                    leaseUntil.remove(leaseId);
+                }
+                return;
+            }
+            // Hand the shard to its new owner without waiting for the lease to run out
+            leaseRepository.release(leaseId, nodeId);
+            held.remove(leaseId);
+            leaseUntil.remove(leaseId);
+            return;
+        }
+
+        if (!acquire(job, shard, leaseId, now, until)) {
+            held.remove(leaseId);
+            leaseUntil.remove(leaseId);
+            return;
+        }
+        held.add(leaseId);
+        leaseUntil.put(leaseId, until);
+
+        if (running.contains(leaseId)) {
+            return;
+        }
+        JobLease lease = leaseRepository.findById(leaseId).orElse(null);
+        if (lease == null) {
+            return;
+        }
+        LocalDateTime due = lease.getNextRunAt();
+        if (due == null) {
+            due = job.schedule().first(now);
+            leaseRepository.reschedule(leaseId, nodeId, lease.getLastRunAt(), due);
+        }
+        if (!due.isAfter(now) && running.add(leaseId)) {
+            LocalDateTime scheduled = due;
+            try {
+                executor.execute(() -> execute(job, shard, leaseId, scheduled));
+            } catch (RuntimeException e) {
+                running.remove(leaseId);
+                throw e;
+            }
+        }
+    }
+
+    private boolean acquire(ClusterJob job, int shard, String leaseId, LocalDateTime now, LocalDateTime until) {
+        if (leaseRepository.acquire(leaseId, nodeId, now, until) > 0) {
+            return true;
+        }
+        if (leaseRepository.existsById(leaseId)) {
+            return false;
+        }
+        try {
+            leaseRepository.saveAndFlush(JobLease.builder()
+                    .id(leaseId)
+                    .jobName(job.name())
+                    .shard(shard)
+                    .owner(nodeId)
+                    .leaseUntil(until)
+                    .build());
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            // Another node created the lease first
+            return false;
+        }
+    }
+
+    private void execute(ClusterJob job, int shard, String leaseId, LocalDateTime scheduled) {
+        LocalDateTime startedAt = LocalDateTime.now(clock);
+        long start = System.nanoTime();
+        JobRun.Outcome outcome = JobRun.Outcome.SUCCEEDED;
+        String error = null;
+        try {
+            job.run(new JobContext(job.name(), shard, job.shards(), nodeId, () -> holds(leaseId)));
+        } catch (Exception e) {
+            outcome = JobRun.Outcome.FAILED;
+            error = e.getClass().getSimpleName() + ": " + e.getMessage();
+            log.error("Cluster job {} shard {} failed", job.name(), shard, e);
+        } finally {
+            long durationNanos = System.nanoTime() - start;
+            try {
+                record(job, shard, startedAt, durationNanos, outcome, error);
+                LocalDateTime finishedAt = LocalDateTime.now(clock);
+                leaseRepository.reschedule(leaseId, nodeId, startedAt, job.schedule().next(scheduled, finishedAt));
+            } catch (Exception e) {
+                log.error("Recording run of {} shard {} failed", job.name(), shard, e);
+            } finally {
+                running.remove(leaseId);
+            }
+        }
+    }
+
+    private void record(ClusterJob job, int shard, LocalDateTime startedAt, long durationNanos,
+                        JobRun.Outcome outcome, String error) {
+        Timer.builder("jobs.run")
+                .description("Cluster job run durations")
+                .tag("job", job.name())
+                .tag("outcome", outcome.name().toLowerCase())
+                .register(meterRegistry)
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+        runRepository.save(JobRun.builder()
+                .jobName(job.name())
+                .shard(shard)
+                .node(nodeId)
+                .startedAt(startedAt)
+                .durationMs(TimeUnit.NANOSECONDS.toMillis(durationNanos))
+                .outcome(outcome)
+                .error(error != null && error.length() > 1000 ? error.substring(0, 1000) : error)
+                .build());
+    }
+
+    private List<String> heartbeat(LocalDateTime now) {
+        if (nodeRepository.heartbeat(nodeId, now) == 0) {
+            try {
+                nodeRepository.saveAndFlush(JobNode.builder().id(nodeId).startedAt(now).heartbeatAt(now).build());
+            } catch (DataIntegrityViolationException e) {
+                nodeRepository.heartbeat(nodeId, now);
+            }
+        }
+        List<String> liveNodes = new ArrayList<>(nodeRepository.findLiveNodeIds(now.minus(properties.getNodeTimeout())));
+        if (!liveNodes.contains(nodeId)) {
+            liveNodes.add(nodeId);
+            Collections.sort(liveNodes);
+        }
+        return liveNodes;
+    }
+
+    /**
+     * Spreads shards over the live nodes in id order, offset per job so single-shard jobs do
+     * not all land on the same node.
+     */
+    private boolean assignedHere(ClusterJob job, int shard, List<String> liveNodes) {
+        int index = Math.floorMod(job.name().hashCode() + shard, liveNodes.size());
+        return liveNodes.get(index).equals(nodeId);
+    }
+
+    private boolean holds(String leaseId) {
+        LocalDateTime until = leaseUntil.get(leaseId);
+        return until != null && until.isAfter(LocalDateTime.now(clock));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (pollScheduler != null) {
+            pollScheduler.shutdown();
+        }
+        if (executor instanceof ExecutorService) {
+            ((ExecutorService) executor).shutdown();
+        }
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            leaseRepository.releaseAll(nodeId);
+            nodeRepository.deleteById(nodeId);
+        } catch (Exception e) {
+            log.warn("Releasing cluster job leases of {} failed; they expire on their own", nodeId, e);
+        }
+        held.clear();
+        leaseUntil.clear();
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "node";
+        }
+        return host + '-' + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
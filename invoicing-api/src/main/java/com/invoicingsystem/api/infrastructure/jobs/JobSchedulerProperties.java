@@ -0,0 +1,47 @@
+package com.invoicingsystem.api.infrastructure.jobs;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "app.jobs")
+public class JobSchedulerProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Identifies this instance in leases and run history; defaults to host name plus a random
+     * suffix. Must be unique per running instance.
+     */
+    private String nodeId;
+
+    /**
+     * How often leases are renewed, shards rebalanced and due jobs started.
+     */
+    private Duration pollInterval = Duration.ofSeconds(5);
+
+    /**
+     * How long a lease lasts without renewal; a crashed node's shards are taken over after this.
+     * Keep it well above the poll interval and any clock skew between nodes.
+     */
+    private Duration leaseDuration = Duration.ofSeconds(30);
+
+    /**
+     * Nodes without a heartbeat for this long no longer get shards assigned.
+     */
+    private Duration nodeTimeout = Duration.ofSeconds(30);
+
+    /**
+     * Threads running jobs on this node.
+     */
+    private int threads = 2;
+
+    private Duration historyRetention = Duration.ofDays(7);
+
+    /**
+     * Runs per job shown by the {@code jobs} actuator endpoint.
+     */
+    private int historySize = 20;
+}
@@ -0,0 +1,100 @@
+package com.invoicingsystem.api.infrastructure.jobs;
+
+import com.invoicingsystem.api.domain.model.JobLease;
+import com.invoicingsystem.api.domain.model.JobRun;
+import com.invoicingsystem.api.domain.repository.JobLeaseRepository;
+import com.invoicingsystem.api.domain.repository.JobNodeRepository;
+import com.invoicingsystem.api.domain.repository.JobRunRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.LongSummaryStatistics;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * {@code /actuator/jobs}: the registered cluster jobs with their leases and recent runs, as
+ * recorded in the database by every node.
+ */
+@Component
+@Endpoint(id = "jobs")
+@RequiredArgsConstructor
+public class JobsEndpoint {
+
+    private final JobScheduler scheduler;
+    private final JobLeaseRepository leaseRepository;
+    private final JobNodeRepository nodeRepository;
+    private final JobRunRepository runRepository;
+    private final JobSchedulerProperties properties;
+
+    @ReadOperation
+    public Map<String, Object> jobs() {
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, Object> jobs = new LinkedHashMap<>();
+        scheduler.getJobs().values().forEach(job -> jobs.put(job.name(), describe(job, now)));
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("node", scheduler.getNodeId());
+        body.put("liveNodes", nodeRepository.findLiveNodeIds(now.minus(properties.getNodeTimeout())));
+        body.put("jobs", jobs);
+        return body;
+    }
+
+    @ReadOperation
+    public Map<String, Object> job(@Selector String name) {
+        ClusterJob job = scheduler.getJobs().get(name);
+        return job != null ? describe(job, LocalDateTime.now()) : null;
+    }
+
+    private Map<String, Object> describe(ClusterJob job, LocalDateTime now) {
+        List<JobRun> runs = runRepository.findByJobNameOrderByIdDesc(job.name(),
+                PageRequest.of(0, properties.getHistorySize()));
+        LongSummaryStatistics durations = runs.stream().mapToLong(JobRun::getDurationMs).summaryStatistics();
+
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("schedule", job.schedule().toString());
+        description.put("shards", job.shards());
+        description.put("leases", leaseRepository.findByJobNameOrderByShardAsc(job.name()).stream()
+                .map(lease -> lease(lease, now))
+                .collect(Collectors.toList()));
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("runs", durations.getCount());
+        stats.put("failed", runs.stream().filter(run -> run.getOutcome() == JobRun.Outcome.FAILED).count());
+        stats.put("avgDurationMs", durations.getCount() > 0 ? Math.round(durations.getAverage()) : null);
+        stats.put("maxDurationMs", durations.getCount() > 0 ? durations.getMax() : null);
+        description.put("recent", stats);
+        description.put("runs", runs.stream().map(JobsEndpoint::run).collect(Collectors.toList()));
+        return description;
+    }
+
+    private static Map<String, Object> lease(JobLease lease, LocalDateTime now) {
+        boolean held = lease.getOwner() != null && lease.getLeaseUntil() != null && lease.getLeaseUntil().isAfter(now);
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("shard", lease.getShard());
+        description.put("owner", held ? lease.getOwner() : null);
+        description.put("leaseUntil", held ? lease.getLeaseUntil() : null);
+        description.put("lastRunAt", lease.getLastRunAt());
+        description.put("nextRunAt", lease.getNextRunAt());
+        return description;
+    }
+
+    private static Map<String, Object> run(JobRun run) {
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("shard", run.getShard());
+        description.put("node", run.getNode());
+        description.put("startedAt", run.getStartedAt());
+        description.put("durationMs", run.getDurationMs());
+        description.put("outcome", run.getOutcome());
+        if (run.getError() != null) {
+            description.put("error", run.getError());
+        }
+        return description;
+    }
+}
@@ -0,0 +1,32 @@
+package com.invoicingsystem.api.infrastructure.lanes;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Serializes calls that mutate the same invoice: the call runs on the lane its invoice id hashes
+ * to, so two mutations of one invoice never overlap while different invoices proceed in parallel.
+ * The lane is held for the whole call, including the commit of a transaction the call starts.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface InvoiceLane {
+
+    /**
+     * SpEL expression over the method parameters yielding the key, e.g. {@code #command.invoiceId}.
+     */
+    String value();
+
+    /**
+     * What the key identifies; payment ids are resolved to the id of their invoice.
+     */
+    KeySource source() default KeySource.INVOICE;
+
+    enum KeySource {
+        INVOICE, PAYMENT
+    }
+}
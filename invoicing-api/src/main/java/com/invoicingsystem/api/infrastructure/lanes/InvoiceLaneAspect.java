@@ -0,0 +1,106 @@
+package com.invoicingsystem.api.infrastructure.lanes;
+
+import com.invoicingsystem.api.domain.repository.InvoiceRepository;
+import com.invoicingsystem.api.domain.repository.PaymentRepository;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.context.expression.MethodBasedEvaluationContext;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.Ordered;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.annotation.Order;
+import org.springframework.expression.Expression;
+import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs {@link InvoiceLane}-annotated calls on the lane of their invoice. Runs inside the workload
+ * bulkhead but outside the transaction interceptor, so the lane is held until after commit.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 200)
+public class InvoiceLaneAspect {
+
+    private static final ThreadLocal<Lane> CURRENT = new ThreadLocal<>();
+
+    private final StripedLanes lanes;
+    private final InvoiceLaneProperties properties;
+    private final PaymentRepository paymentRepository;
+    private final InvoiceRepository invoiceRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ExpressionParser parser = new SpelExpressionParser();
+    private final ParameterNameDiscoverer parameterNames = new DefaultParameterNameDiscoverer();
+    private final Map<String, Expression> expressions = new ConcurrentHashMap<>();
+
+    public InvoiceLaneAspect(StripedLanes lanes, InvoiceLaneProperties properties,
+                             PaymentRepository paymentRepository, InvoiceRepository invoiceRepository,
+                             PlatformTransactionManager transactionManager) {
+        this.lanes = lanes;
+        this.properties = properties;
+        this.paymentRepository = paymentRepository;
+        this.invoiceRepository = invoiceRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Around("@annotation(invoiceLane)")
+    public Object serialize(ProceedingJoinPoint joinPoint, InvoiceLane invoiceLane) throws Throwable {
+        // Nested calls run in the lane of the outermost call; taking a second lane could deadlock
+        if (!properties.isEnabled() || CURRENT.get() != null) {
+            return joinPoint.proceed();
+        }
+        String invoiceId = resolveInvoiceId(joinPoint, invoiceLane);
+        if (invoiceId == null) {
+            // Unknown payment or missing id: the call fails validation without touching an invoice
+            return joinPoint.proceed();
+        }
+
+        Lane lane = lanes.laneFor(invoiceId);
+        long start = lane.acquire();
+        CURRENT.set(lane);
+        try {
+            return properties.isDbGuard() ? proceedGuarded(joinPoint, invoiceId) : joinPoint.proceed();
+        } finally {
+            CURRENT.remove();
+            lane.release(start);
+        }
+    }
+
+    private Object proceedGuarded(ProceedingJoinPoint joinPoint, String invoiceId) {
+        // Serializes against other instances too; the service transaction joins this one
+        return transactionTemplate.execute(status -> {
+            invoiceRepository.findByIdForUpdate(invoiceId);
+            try {
+                return joinPoint.proceed();
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new UndeclaredThrowableException(e);
+            }
+        });
+    }
+
+    private String resolveInvoiceId(ProceedingJoinPoint joinPoint, InvoiceLane invoiceLane) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        MethodBasedEvaluationContext context = new MethodBasedEvaluationContext(
+                null, method, joinPoint.getArgs(), parameterNames);
+        Object key = expressions.computeIfAbsent(invoiceLane.value(), parser::parseExpression).getValue(context);
+        if (key == null) {
+            return null;
+        }
+        if (invoiceLane.source() == InvoiceLane.KeySource.PAYMENT) {
+            return paymentRepository.findInvoiceIdById(key.toString()).orElse(null);
+        }
+        return key.toString();
+    }
+}
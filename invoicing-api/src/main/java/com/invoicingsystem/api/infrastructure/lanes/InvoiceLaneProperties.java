@@ -0,0 +1,39 @@
+package com.invoicingsystem.api.infrastructure.lanes;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "app.invoice-lanes")
+public class InvoiceLaneProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Number of lanes invoice ids are hashed onto. Lanes only serialize within one instance.
+     */
+    private int lanes = 16;
+
+    /**
+     * Calls allowed to wait behind the running one on a lane before new calls are rejected.
+     */
+    private int maxQueued = 64;
+
+    /**
+     * How long a call may wait for its lane before it is rejected.
+     */
+    private Duration maxWait = Duration.ofSeconds(5);
+
+    /**
+     * Value of the Retry-After header sent with 503 responses when a lane is full.
+     */
+    private long retryAfterSeconds = 1;
+
+    /**
+     * Also take a row lock on the invoice for the duration of the call. Needed when several
+     * instances write to the same database, where in-process lanes cannot see each other.
+     */
+    private boolean dbGuard = false;
+}
@@ -0,0 +1,97 @@
+package com.invoicingsystem.api.infrastructure.lanes;
+
+import com.invoicingsystem.api.domain.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * One single-writer lane. Calls take a fair lock, so they run one at a time in arrival order;
+ * callers beyond {@code maxQueued} or waiting longer than {@code maxWait} are rejected with a
+ * {@link ServiceUnavailableException}. Work runs on the caller's thread, which keeps its
+ * transaction, security context and SQL statement budget.
+ */
+public class Lane {
+
+    private final int index;
+    private final int maxQueued;
+    private final Duration maxWait;
+    private final long retryAfterSeconds;
+    private final ReentrantLock lock = new ReentrantLock(true);
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Counter rejected;
+    private final Timer waitTimer;
+    private final Timer latencyTimer;
+
+    public Lane(int index, int maxQueued, Duration maxWait, long retryAfterSeconds, MeterRegistry meterRegistry) {
+        this.index = index;
+        this.maxQueued = maxQueued;
+        this.maxWait = maxWait;
+        this.retryAfterSeconds = retryAfterSeconds;
+
+        String tag = String.valueOf(index);
+        Gauge.builder("invoice.lane.depth", this, Lane::depth)
+                .description("Calls running or waiting on the lane")
+                .tag("lane", tag).register(meterRegistry);
+        this.rejected = Counter.builder("invoice.lane.rejected").tag("lane", tag).register(meterRegistry);
+        this.waitTimer = Timer.builder("invoice.lane.wait").tag("lane", tag).register(meterRegistry);
+        this.latencyTimer = Timer.builder("invoice.lane.latency")
+                .description("Time from entering the lane queue to leaving the lane")
+                .tag("lane", tag).register(meterRegistry);
+    }
+
+    /**
+     * Waits for the lane; returns the start time to pass to {@link #release}.
+     */
+    public long acquire() {
+        long start = System.nanoTime();
+        if (queued.incrementAndGet() > maxQueued + 1) {
+            queued.decrementAndGet();
+            reject("is full");
+        }
+        boolean acquired;
+        try {
+            acquired = lock.tryLock(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            queued.decrementAndGet();
+            reject("did not free up in time");
+        }
+        waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return start;
+    }
+
+    public void release(long start) {
+        queued.decrementAndGet();
+        lock.unlock();
+        latencyTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    public boolean isHeldByCurrentThread() {
+        return lock.isHeldByCurrentThread();
+    }
+
+    public int depth() {
+        return queued.get();
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    private void reject(String reason) {
+        rejected.increment();
+        throw new ServiceUnavailableException(
+                "Too many concurrent changes to this invoice, please retry later (lane " + index + " " + reason + ")",
+                retryAfterSeconds);
+    }
+}
@@ -0,0 +1,32 @@
+package com.invoicingsystem.api.infrastructure.lanes;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fixed set of {@link Lane}s that invoice ids are hashed onto. A hot invoice only ever occupies
+ * its own lane; ids that share a lane are serialized with it, which is what bounds the lanes.
+ */
+@Component
+public class StripedLanes {
+
+    private final Lane[] lanes;
+
+    public StripedLanes(InvoiceLaneProperties properties, MeterRegistry meterRegistry) {
+        this.lanes = new Lane[Math.max(1, properties.getLanes())];
+        for (int i = 0; i < lanes.length; i++) {
+            lanes[i] = new Lane(i, properties.getMaxQueued(), properties.getMaxWait(),
+                    properties.getRetryAfterSeconds(), meterRegistry);
+        }
+    }
+
+    public Lane laneFor(String key) {
+        int hash = key.hashCode();
+        // Spread the high bits, as HashMap does, so that similar ids do not cluster
+        return lanes[Math.floorMod(hash ^ (hash >>> 16), lanes.length)];
+    }
+
+    public int size() {
+        return lanes.length;
+    }
+}
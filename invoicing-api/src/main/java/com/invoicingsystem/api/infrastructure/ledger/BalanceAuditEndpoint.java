@@ -0,0 +1,24 @@
+package com.invoicingsystem.api.infrastructure.ledger;
+
+import com.invoicingsystem.api.application.query.BalanceAuditReport;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code /actuator/balance-audit}: the report of the last balance audit run on this node. Runs on
+ * other nodes are listed under {@code /actuator/jobs}.
+ */
+@Component
+@Endpoint(id = "balance-audit")
+@RequiredArgsConstructor
+public class BalanceAuditEndpoint {
+
+    private final BalanceAuditJob balanceAuditJob;
+
+    @ReadOperation
+    public BalanceAuditReport lastReport() {
+        return balanceAuditJob.getLastReport();
+    }
+}
@@ -0,0 +1,254 @@
+package com.invoicingsystem.api.infrastructure.ledger;
+
+import com.invoicingsystem.api.application.query.BalanceAuditReport;
+import com.invoicingsystem.api.application.query.BalanceDiscrepancyDto;
+import com.invoicingsystem.api.application.service.BalanceAuditService;
+import com.invoicingsystem.api.infrastructure.jobs.ClusterJob;
+import com.invoicingsystem.api.infrastructure.jobs.JobContext;
+import com.invoicingsystem.api.infrastructure.jobs.JobSchedule;
+import com.invoicingsystem.api.infrastructure.lanes.InvoiceLaneProperties;
+import com.invoicingsystem.api.infrastructure.lanes.Lane;
+import com.invoicingsystem.api.infrastructure.lanes.StripedLanes;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Audits every invoice's stored balance against its ledger, and the ledger against completed
+ * payments. Invoice ids are walked in pages of {@code chunk-size}; each page becomes an id range
+ * compared with one grouped query per table on a fork-join pool of {@code parallelism} threads.
+ * Flagged invoices are checked again one by one, which drops payments that were mid-commit
+ * during the scan, then reported and, with {@code repair} on, corrected under their lane.
+ */
+@Slf4j
+@Component
+public class BalanceAuditJob implements ClusterJob, DisposableBean {
+
+    private final BalanceAuditService balanceAuditService;
+    private final StripedLanes stripedLanes;
+    private final InvoiceLaneProperties laneProperties;
+    private final BalanceAuditProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ForkJoinPool pool;
+    private volatile BalanceAuditReport lastReport;
+
+    public BalanceAuditJob(BalanceAuditService balanceAuditService,
+                           StripedLanes stripedLanes,
+                           InvoiceLaneProperties laneProperties,
+                           BalanceAuditProperties properties,
+                           MeterRegistry meterRegistry) {
+        this.balanceAuditService = balanceAuditService;
+        this.stripedLanes = stripedLanes;
+        this.laneProperties = laneProperties;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.pool = new ForkJoinPool(Math.max(1, properties.getParallelism()), pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("balance-audit-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+    }
+
+    @Override
+    public String name() {
+        return "balance-audit";
+    }
+
+    @Override
+    public JobSchedule schedule() {
+        return JobSchedule.cron(properties.getSchedule());
+    }
+
+    @Override
+    public void run(JobContext context) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        BalanceAuditReport report = audit(properties.isRepair(), context::isLeaseHeld);
+        if (report.getFailedRanges() > 0) {
+            throw new IllegalStateException(report.getFailedRanges() + " balance audit ranges failed");
+        }
+    }
+
+    /**
+     * Report of the last audit run on this node, or null before the first.
+     */
+    public BalanceAuditReport getLastReport() {
+        return lastReport;
+    }
+
+    /**
+     * Audits the whole table, stopping early once {@code keepGoing} turns false.
+     */
+    public BalanceAuditReport audit(boolean repair, BooleanSupplier keepGoing) {
+        long start = System.nanoTime();
+        BalanceAuditReport report = new BalanceAuditReport();
+        report.setStartedAt(LocalDateTime.now());
+        report.setRepair(repair);
+        // Enough ranges queued to keep every thread busy while the next page of ids is read
+        int maxInFlight = pool.getParallelism() * 2;
+        Deque<ForkJoinTask<List<BalanceDiscrepancyDto>>> inFlight = new ArrayDeque<>();
+
+        String afterId = "";
+        while (keepGoing.getAsBoolean()) {
+            List<String> ids = balanceAuditService.findInvoiceIdsAfter(afterId, properties.getChunkSize());
+            if (ids.isEmpty()) {
+                break;
+            }
+            String fromId = ids.get(0);
+            String toId = ids.get(ids.size() - 1);
+            afterId = toId;
+            report.setInvoices(report.getInvoices() + ids.size());
+            report.setRanges(report.getRanges() + 1);
+            inFlight.add(pool.submit(() -> auditRange(fromId, toId, repair)));
+            while (inFlight.size() >= maxInFlight) {
+                collect(inFlight.poll(), report);
+            }
+        }
+        while (!inFlight.isEmpty()) {
+            collect(inFlight.poll(), report);
+        }
+
+        report.setFinishedAt(LocalDateTime.now());
+        record(report, System.nanoTime() - start);
+        lastReport = report;
+        return report;
+    }
+
+    private List<BalanceDiscrepancyDto> auditRange(String fromId, String toId, boolean repair) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failed";
+        try {
+            List<BalanceDiscrepancyDto> confirmed = new ArrayList<>();
+            for (BalanceDiscrepancyDto candidate : balanceAuditService.auditRange(fromId, toId)) {
+                Optional<BalanceDiscrepancyDto> discrepancy = balanceAuditService.check(candidate.getInvoiceId());
+                if (discrepancy.isPresent()) {
+                    confirmed.add(repair ? repair(discrepancy.get()) : discrepancy.get());
+                }
+            }
+            outcome = "succeeded";
+            return confirmed;
+        } finally {
+            sample.stop(Timer.builder("balance.audit.range")
+                    .description("Balance audit of one invoice id range")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    private BalanceDiscrepancyDto repair(BalanceDiscrepancyDto discrepancy) {
+        String invoiceId = discrepancy.getInvoiceId();
+        try {
+            BalanceDiscrepancyDto repaired;
+            if (laneProperties.isEnabled()) {
+                Lane lane = stripedLanes.laneFor(invoiceId);
+                long start = lane.acquire();
+                try {
+                    repaired = balanceAuditService.repair(invoiceId);
+                } finally {
+                    lane.release(start);
+                }
+            } else {
+                repaired = balanceAuditService.repair(invoiceId);
+            }
+            // Report what was found, marked as repaired
+            discrepancy.setRepaired(repaired.isRepaired());
+        } catch (RuntimeException e) {
+            // Typically a busy lane; the next run finds the invoice again
+            log.warn("Repairing the balance of invoice {} failed", invoiceId, e);
+        }
+        return discrepancy;
+    }
+
+    private void collect(ForkJoinTask<List<BalanceDiscrepancyDto>> range, BalanceAuditReport report) {
+        List<BalanceDiscrepancyDto> discrepancies;
+        try {
+            discrepancies = range.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            range.cancel(true);
+            report.setFailedRanges(report.getFailedRanges() + 1);
+            return;
+        } catch (ExecutionException e) {
+            report.setFailedRanges(report.getFailedRanges() + 1);
+            log.warn("Balance audit range failed; it is checked again on the next run", e.getCause());
+            return;
+        }
+        for (BalanceDiscrepancyDto discrepancy : discrepancies) {
+            report.setDiscrepancies(report.getDiscrepancies() + 1);
+            if (discrepancy.isRepaired()) {
+                report.setRepaired(report.getRepaired() + 1);
+            }
+            if (report.getReported().size() < properties.getMaxReported()) {
+                report.getReported().add(discrepancy);
+                log.warn("Invoice {} balance discrepancy: stored paid {} balance {}, ledger {}, "
+                                + "completed payments {} vs ledger payments {}{}",
+                        discrepancy.getInvoiceId(), discrepancy.getStoredAmountPaid(), discrepancy.getStoredBalance(),
+                        discrepancy.getLedgerAmountPaid(), discrepancy.getCompletedPayments(),
+                        discrepancy.getLedgerPayments(), discrepancy.isRepaired() ? " (repaired)"
+                                : discrepancy.isOverpaid() ? " (overpaid)" : "");
+            }
+            if (discrepancy.isStoredDrift()) {
+                count("balance.audit.discrepancies", "stored");
+            }
+            if (discrepancy.isPaymentDrift()) {
+                count("balance.audit.discrepancies", "payments");
+            }
+            if (discrepancy.isOverpaid()) {
+                count("balance.audit.discrepancies", "overpaid");
+            }
+        }
+    }
+
+    private void count(String name, String kind) {
+        Counter.builder(name)
+                .description("Invoices found with a stored balance or ledger out of line with their payments")
+                .tag("kind", kind)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private void record(BalanceAuditReport report, long durationNanos) {
+        Counter.builder("balance.audit.invoices")
+                .description("Invoices audited")
+                .register(meterRegistry)
+                .increment(report.getInvoices());
+        Counter.builder("balance.audit.repaired")
+                .description("Invoice balances corrected by the audit")
+                .register(meterRegistry)
+                .increment(report.getRepaired());
+        double seconds = Math.max(durationNanos, 1) / (double) TimeUnit.SECONDS.toNanos(1);
+        double throughput = report.getInvoices() / seconds;
+        DistributionSummary.builder("balance.audit.throughput")
+                .description("Invoices audited per second by an audit run")
+                .baseUnit("invoices/s")
+                .register(meterRegistry)
+                .record(throughput);
+        log.info("Balance audit checked {} invoices in {} ranges in {} ms ({} per second): {} discrepancies, "
+                        + "{} repaired, {} ranges failed",
+                report.getInvoices(), report.getRanges(), TimeUnit.NANOSECONDS.toMillis(durationNanos),
+                Math.round(throughput), report.getDiscrepancies(), report.getRepaired(), report.getFailedRanges());
+    }
+
+    @Override
+    public void destroy() {
+        pool.shutdownNow();
+    }
+}
@@ -0,0 +1,36 @@
+package com.invoicingsystem.api.infrastructure.ledger;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "app.balance-audit")
+public class BalanceAuditProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Cron expression for audit runs over the whole invoice table.
+     */
+    private String schedule = "0 30 3 * * *";
+
+    /**
+     * Invoices per id range; each range is compared with one grouped query per table.
+     */
+    private int chunkSize = 1000;
+
+    /**
+     * Ranges audited in parallel.
+     */
+    private int parallelism = 4;
+
+    /**
+     * Correct the discrepancies found instead of only reporting them.
+     */
+    private boolean repair = false;
+
+    /**
+     * Discrepancies logged and kept in the run's report; all of them are counted.
+     */
+    private int maxReported = 100;
+}
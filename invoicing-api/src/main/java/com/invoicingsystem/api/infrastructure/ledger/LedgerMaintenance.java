@@ -0,0 +1,79 @@
+package com.invoicingsystem.api.infrastructure.ledger;
+
+import com.invoicingsystem.api.application.service.LedgerService;
+import com.invoicingsystem.api.infrastructure.jobs.ClusterJob;
+import com.invoicingsystem.api.infrastructure.jobs.JobContext;
+import com.invoicingsystem.api.infrastructure.jobs.JobSchedule;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Folds settled ledger entries into balance snapshots every {@code app.ledger.compaction-interval},
+ * one invoice per transaction. Invoices are split into {@code app.ledger.compaction-shards} shards
+ * so the work spreads over the cluster's nodes.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LedgerMaintenance implements ClusterJob {
+
+    private final LedgerService ledgerService;
+    private final LedgerProperties properties;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void openBalances() {
+        if (!properties.isOpenBalancesOnStartup()) {
+            return;
+        }
+        try {
+            int opened = ledgerService.openBalances();
+            if (opened > 0) {
+                log.info("Recorded opening ledger balances for {} invoices", opened);
+            }
+        } catch (Exception e) {
+            log.error("Recording opening ledger balances failed", e);
+        }
+    }
+
+    @Override
+    public String name() {
+        return "ledger-compaction";
+    }
+
+    @Override
+    public JobSchedule schedule() {
+        return JobSchedule.fixedRate(properties.getCompactionInterval());
+    }
+
+    @Override
+    public int shards() {
+        return properties.getCompactionShards();
+    }
+
+    @Override
+    public void run(JobContext context) {
+        int compacted = 0;
+        for (String invoiceId : ledgerService.findCompactionCandidates()) {
+            if (!context.isLeaseHeld()) {
+                break;
+            }
+            if (!context.owns(invoiceId)) {
+                continue;
+            }
+            try {
+                if (ledgerService.compact(invoiceId)) {
+                    compacted++;
+                }
+            } catch (Exception e) {
+                // Typically a node that took the shard over folded it first; the tail stays readable either way
+                log.warn("Ledger compaction of invoice {} failed", invoiceId, e);
+            }
+        }
+        if (compacted > 0) {
+            log.info("Ledger compaction shard {} advanced {} balance snapshots", context.getShard(), compacted);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.invoicingsystem.api.infrastructure.ledger;
+
+import com.invoicingsystem.api.application.service.LedgerService;
+import com.invoicingsystem.api.domain.event.PaymentRecordedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Refreshes the invoice's amount paid, balance and status from the ledger once a payment
+ * transaction has committed. Runs before the other after-commit listeners so that search,
+ * push and cache consumers see the projected invoice. A transaction that records several
+ * payments, such as a statement import batch, refreshes all of their invoices together.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LedgerProjector {
+
+    private final LedgerService ledgerService;
+
+    @EventListener
+    public void onPaymentRecorded(PaymentRecordedEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || !TransactionSynchronizationManager.isActualTransactionActive()) {
+            project(event.getInvoiceId());
+            return;
+        }
+        PendingProjections pending = (PendingProjections) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingProjections();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.invoiceIds.add(event.getInvoiceId());
+    }
+
+    private void project(String invoiceId) {
+        try {
+            ledgerService.project(invoiceId);
+        } catch (RuntimeException e) {
+            // The ledger write has committed; audit/rebuild or the next payment repairs the projection
+            log.error("Failed to project ledger balance onto invoice {}", invoiceId, e);
+        }
+    }
+
+    private final class PendingProjections implements TransactionSynchronization, Ordered {
+
+        private final Set<String> invoiceIds = new LinkedHashSet<>();
+
+        @Override
+        public void afterCommit() {
+            if (invoiceIds.size() == 1) {
+                project(invoiceIds.iterator().next());
+                return;
+            }
+            try {
+                ledgerService.projectAll(invoiceIds);
+            } catch (RuntimeException e) {
+                log.error("Failed to project ledger balances onto {} invoices", invoiceIds.size(), e);
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(LedgerProjector.this);
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
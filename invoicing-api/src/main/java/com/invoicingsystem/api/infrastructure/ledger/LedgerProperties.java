@@ -0,0 +1,37 @@
+package com.invoicingsystem.api.infrastructure.ledger;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "app.ledger")
+public class LedgerProperties {
+
+    /**
+     * Only entries older than this are folded into snapshots. Ids are assigned before commit, so
+     * folding up to a fresh id could skip an entry whose transaction has not committed yet.
+     */
+    private Duration settleLag = Duration.ofMinutes(1);
+
+    /**
+     * Delay between compaction runs.
+     */
+    private Duration compactionInterval = Duration.ofMinutes(5);
+
+    /**
+     * Invoices compacted per run.
+     */
+    private int compactionBatchSize = 500;
+
+    /**
+     * Shards compaction is split into, each leased and run separately by the cluster scheduler.
+     */
+    private int compactionShards = 4;
+
+    /**
+     * Record opening adjustments for invoices paid before the ledger existed on startup.
+     */
+    private boolean openBalancesOnStartup = true;
+}
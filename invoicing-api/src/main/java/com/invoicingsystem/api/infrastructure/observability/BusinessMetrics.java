@@ -0,0 +1,81 @@
+package com.invoicingsystem.api.infrastructure.observability;
+
+import com.invoicingsystem.api.domain.event.InvoiceCreatedEvent;
+import com.invoicingsystem.api.domain.event.InvoiceStatusChangedEvent;
+import com.invoicingsystem.api.domain.event.PaymentRecordedEvent;
+import com.invoicingsystem.api.domain.model.Payment;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Business throughput meters fed from committed domain events. Payment meters count status
+ * events, so a payment recorded as PENDING and later completed is counted once per status.
+ */
+@Component
+@RequiredArgsConstructor
+public class BusinessMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInvoiceCreated(InvoiceCreatedEvent event) {
+        Counter.builder("invoicing.invoices.created")
+                .description("Invoices created")
+                .tag("status", tagValue(event.getStatus()))
+                .register(meterRegistry)
+                .increment();
+        if (event.getTotal() != null) {
+            DistributionSummary.builder("invoicing.invoices.created.amount")
+                    .description("Total amount of created invoices")
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(event.getTotal().doubleValue());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInvoiceStatusChanged(InvoiceStatusChangedEvent event) {
+        Counter.builder("invoicing.invoices.status.changes")
+                .description("Invoice status transitions")
+                .tag("from", tagValue(event.getPreviousStatus()))
+                .tag("to", tagValue(event.getNewStatus()))
+                .register(meterRegistry)
+                .increment();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPaymentRecorded(PaymentRecordedEvent event) {
+        Counter.builder("invoicing.payments")
+                .description("Payments recorded or moved to a new status")
+                .tag("method", tagValue(event.getMethod()))
+                .tag("status", tagValue(event.getStatus()))
+                .register(meterRegistry)
+                .increment();
+
+        if (event.getAmount() == null) {
+            return;
+        }
+        if (Payment.PaymentStatus.COMPLETED.name().equals(event.getStatus())) {
+            DistributionSummary.builder("invoicing.payments.applied.amount")
+                    .description("Payment amounts applied to invoice balances")
+                    .tag("method", tagValue(event.getMethod()))
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(event.getAmount().doubleValue());
+        } else if (Payment.PaymentStatus.REVERSED.name().equals(event.getStatus())) {
+            DistributionSummary.builder("invoicing.payments.reversed.amount")
+                    .description("Payment amounts reversed from invoice balances")
+                    .tag("method", tagValue(event.getMethod()))
+                    .register(meterRegistry)
+                    .record(event.getAmount().doubleValue());
+        }
+    }
+
+    private static String tagValue(Object value) {
+        return value != null ? value.toString() : "UNKNOWN";
+    }
+}
@@ -0,0 +1,19 @@
+package com.invoicingsystem.api.infrastructure.observability;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares how many SQL statements a controller method may execute per request. An entry in
+ * {@code app.sql-budget.endpoints} for the same handler takes precedence.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface SqlBudget {
+
+    int maxStatements();
+}
@@ -0,0 +1,8 @@
+package com.invoicingsystem.api.infrastructure.observability;
+
+public class SqlBudgetExceededException extends IllegalStateException {
+
+    public SqlBudgetExceededException(String message) {
+        super(message);
+    }
+}
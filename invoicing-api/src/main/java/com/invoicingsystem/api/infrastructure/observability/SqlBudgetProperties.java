@@ -0,0 +1,39 @@
+package com.invoicingsystem.api.infrastructure.observability;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "app.sql-budget")
+public class SqlBudgetProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Add X-Sql-* headers with the per-request totals. Keep off in production.
+     */
+    private boolean exposeHeaders = false;
+
+    /**
+     * Throw instead of logging a warning when a budget is exceeded (used by the test profile).
+     */
+    private boolean failOnExceed = false;
+
+    /**
+     * Budget applied to handlers without an explicit one.
+     */
+    private int defaultMaxStatements = 50;
+
+    /**
+     * Executions of the same SQL within one request at which a possible N+1 is reported.
+     */
+    private int repeatedStatementThreshold = 10;
+
+    /**
+     * Per-handler budgets keyed by {@code Controller.method}.
+     */
+    private Map<String, Integer> endpoints = new HashMap<>();
+}
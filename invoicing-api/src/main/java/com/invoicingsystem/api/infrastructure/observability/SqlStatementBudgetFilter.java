@@ -0,0 +1,144 @@
+package com.invoicingsystem.api.infrastructure.observability;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects the SQL statements executed while serving a request, publishes them as structured
+ * log fields and per-handler meters, and enforces the statement budget of the handler.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@RequiredArgsConstructor
+public class SqlStatementBudgetFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlStatementBudgetFilter.class);
+
+    private final SqlBudgetProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !properties.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain) throws ServletException, IOException {
+
+        SqlStatementStats stats = SqlStatementRecorder.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SqlStatementRecorder.end();
+        }
+
+        Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+        if (!(handler instanceof HandlerMethod)) {
+            return;
+        }
+        HandlerMethod handlerMethod = (HandlerMethod) handler;
+        String handlerName = handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+
+        record(handlerName, stats);
+        checkRepeatedStatements(handlerName, stats);
+        checkBudget(handlerName, handlerMethod, stats);
+    }
+
+    private void record(String handlerName, SqlStatementStats stats) {
+        DistributionSummary.builder("sql.request.statements")
+                .description("SQL statements executed per request")
+                .tag("handler", handlerName)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(stats.getStatementCount());
+        Timer.builder("sql.request.time")
+                .description("Total database time per request")
+                .tag("handler", handlerName)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(stats.getTotalNanos(), TimeUnit.NANOSECONDS);
+
+        if (log.isDebugEnabled()) {
+            withFields(handlerName, stats, () -> log.debug(
+                    "sql_stats handler={} statements={} db_time_ms={} slowest_ms={} slowest_sql=\"{}\"",
+                    handlerName, stats.getStatementCount(), format(stats.getTotalMillis()),
+                    format(stats.getSlowestMillis()), stats.getSlowestSql()));
+        }
+    }
+
+    private void checkRepeatedStatements(String handlerName, SqlStatementStats stats) {
+        Map.Entry<String, Integer> mostRepeated = stats.mostRepeated();
+        if (mostRepeated != null && mostRepeated.getValue() >= properties.getRepeatedStatementThreshold()) {
+            meterRegistry.counter("sql.request.repeated_statements", "handler", handlerName).increment();
+            withFields(handlerName, stats, () -> log.warn(
+                    "Possible N+1 in {}: statement executed {} times in one request: {}",
+                    handlerName, mostRepeated.getValue(), mostRepeated.getKey()));
+        }
+    }
+
+    private void checkBudget(String handlerName, HandlerMethod handlerMethod, SqlStatementStats stats) {
+        int budget = budgetFor(handlerName, handlerMethod);
+        if (stats.getStatementCount() <= budget) {
+            return;
+        }
+
+        meterRegistry.counter("sql.request.budget_exceeded", "handler", handlerName).increment();
+        String message = String.format("%s executed %d SQL statements (budget %d, db time %s ms)",
+                handlerName, stats.getStatementCount(), budget, format(stats.getTotalMillis()));
+        if (properties.isFailOnExceed()) {
+            throw new SqlBudgetExceededException(message);
+        }
+        withFields(handlerName, stats, () -> log.warn("SQL statement budget exceeded: {}", message));
+    }
+
+    private int budgetFor(String handlerName, HandlerMethod handlerMethod) {
+        Integer configured = properties.getEndpoints().get(handlerName);
+        if (configured != null) {
+            return configured;
+        }
+        SqlBudget annotation = handlerMethod.getMethodAnnotation(SqlBudget.class);
+        return annotation != null ? annotation.maxStatements() : properties.getDefaultMaxStatements();
+    }
+
+    private static void withFields(String handlerName, SqlStatementStats stats, Runnable logStatement) {
+        MDC.put("sql.handler", handlerName);
+        MDC.put("sql.statements", String.valueOf(stats.getStatementCount()));
+        MDC.put("sql.time_ms", format(stats.getTotalMillis()));
+        MDC.put("sql.slowest_ms", format(stats.getSlowestMillis()));
+        try {
+            logStatement.run();
+        } finally {
+            MDC.remove("sql.handler");
+            MDC.remove("sql.statements");
+            MDC.remove("sql.time_ms");
+            MDC.remove("sql.slowest_ms");
+        }
+    }
+
+    static String format(double millis) {
+        return String.format("%.2f", millis);
+    }
+}
@@ -0,0 +1,39 @@
+package com.invoicingsystem.api.infrastructure.observability;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Adds the SQL totals of the request as response headers. The body is written right after
+ * this point, so later headers would be lost.
+ */
+@ControllerAdvice
+@RequiredArgsConstructor
+public class SqlStatementHeaderAdvice implements ResponseBodyAdvice<Object> {
+
+    private final SqlBudgetProperties properties;
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return properties.isEnabled() && properties.isExposeHeaders();
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        SqlStatementStats stats = SqlStatementRecorder.current();
+        if (stats != null) {
+            response.getHeaders().set("X-Sql-Statements", String.valueOf(stats.getStatementCount()));
+            response.getHeaders().set("X-Sql-Time-Ms", SqlStatementBudgetFilter.format(stats.getTotalMillis()));
+            response.getHeaders().set("X-Sql-Slowest-Ms", SqlStatementBudgetFilter.format(stats.getSlowestMillis()));
+        }
+        return body;
+    }
+}
@@ -0,0 +1,34 @@
+package com.invoicingsystem.api.infrastructure.observability;
+
+/**
+ * Thread-bound holder for the statistics of the request currently being served. Statements
+ * executed outside a request (startup, background jobs) are not recorded.
+ */
+public final class SqlStatementRecorder {
+
+    private static final ThreadLocal<SqlStatementStats> CURRENT = new ThreadLocal<>();
+
+    private SqlStatementRecorder() {
+    }
+
+    public static SqlStatementStats begin() {
+        SqlStatementStats stats = new SqlStatementStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    public static SqlStatementStats current() {
+        return CURRENT.get();
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    static void record(String sql, long elapsedNanos) {
+        SqlStatementStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.record(sql, elapsedNanos);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.invoicingsystem.api.infrastructure.observability;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Statement count and database time accumulated while serving one request.
+ */
+public class SqlStatementStats {
+
+    private int statementCount;
+    private long totalNanos;
+    private long slowestNanos;
+    private String slowestSql;
+    private final Map<String, Integer> executionsBySql = new HashMap<>();
+
+    void record(String sql, long elapsedNanos) {
+        statementCount++;
+        totalNanos += elapsedNanos;
+        if (elapsedNanos > slowestNanos) {
+            slowestNanos = elapsedNanos;
+            slowestSql = sql;
+        }
+        if (sql != null) {
+            executionsBySql.merge(sql, 1, Integer::sum);
+        }
+    }
+
+    public int getStatementCount() {
+        return statementCount;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    public long getSlowestNanos() {
+        return slowestNanos;
+    }
+
+    public String getSlowestSql() {
+        return slowestSql;
+    }
+
+    public double getTotalMillis() {
+        return totalNanos / 1_000_000.0;
+    }
+
+    public double getSlowestMillis() {
+        return slowestNanos / 1_000_000.0;
+    }
+
+    /**
+     * Returns the statement executed most often, which is the usual sign of an N+1 pattern
+     * when the same prepared SQL runs once per parent row.
+     */
+    public Map.Entry<String, Integer> mostRepeated() {
+        Map.Entry<String, Integer> mostRepeated = null;
+        for (Map.Entry<String, Integer> entry : executionsBySql.entrySet()) {
+            if (mostRepeated == null || entry.getValue() > mostRepeated.getValue()) {
+                mostRepeated = entry;
+            }
+        }
+        return mostRepeated;
+    }
+}
@@ -0,0 +1,19 @@
+package com.invoicingsystem.api.infrastructure.pdf;
+
+import lombok.Value;
+
+import java.nio.file.Path;
+
+/**
+ * A rendered invoice PDF in the local cache.
+ */
+@Value
+public class InvoicePdf {
+    String invoiceId;
+    String version;
+    Path file;
+
+    public String getFilename() {
+        return "invoice-" + invoiceId + ".pdf";
+    }
+}
@@ -0,0 +1,150 @@
+package com.invoicingsystem.api.infrastructure.pdf;
+
+import com.invoicingsystem.api.application.query.ClientDto;
+import com.invoicingsystem.api.application.query.InvoiceDetailDto;
+import com.invoicingsystem.api.application.query.InvoiceDto;
+import com.invoicingsystem.api.application.query.InvoiceItemDto;
+import com.invoicingsystem.api.application.query.PaymentDto;
+import com.lowagie.text.Document;
+import com.lowagie.text.DocumentException;
+import com.lowagie.text.Element;
+import com.lowagie.text.Font;
+import com.lowagie.text.FontFactory;
+import com.lowagie.text.PageSize;
+import com.lowagie.text.Paragraph;
+import com.lowagie.text.Phrase;
+import com.lowagie.text.pdf.PdfPCell;
+import com.lowagie.text.pdf.PdfPTable;
+import com.lowagie.text.pdf.PdfWriter;
+import org.springframework.stereotype.Component;
+
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Lays out an invoice as an A4 PDF with OpenPDF, using the standard Helvetica fonts so nothing
+ * has to be embedded.
+ */
+@Component
+public class InvoicePdfRenderer {
+
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ISO_LOCAL_DATE;
+    private static final Font TITLE = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 20);
+    private static final Font HEADING = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 10);
+    private static final Font BODY = FontFactory.getFont(FontFactory.HELVETICA, 10);
+
+    public void render(InvoiceDetailDto detail, OutputStream out) {
+        InvoiceDto invoice = detail.getInvoice();
+        ClientDto client = detail.getClient();
+        Document document = new Document(PageSize.A4, 50, 50, 50, 50);
+        try {
+            PdfWriter.getInstance(document, out);
+            document.addTitle("Invoice " + invoice.getNumber());
+            document.open();
+
+            document.add(new Paragraph("INVOICE " + invoice.getNumber(), TITLE));
+            document.add(new Paragraph("Status: " + invoice.getStatus(), BODY));
+            document.add(new Paragraph("Issued: " + format(invoice.getIssueDate()) + "    Due: "
+                    + format(invoice.getDueDate()), BODY));
+            document.add(new Paragraph(" ", BODY));
+
+            document.add(new Paragraph("Bill to", HEADING));
+            document.add(new Paragraph(client.getName(), BODY));
+            addLine(document, client.getAddress());
+            addLine(document, client.getEmail());
+            addLine(document, client.getPhone());
+            document.add(new Paragraph(" ", BODY));
+
+            PdfPTable items = new PdfPTable(new float[]{6, 1.2f, 2, 2});
+            items.setWidthPercentage(100);
+            header(items, "Description", "Qty", "Unit price", "Amount");
+            for (InvoiceItemDto item : invoice.getItems()) {
+                items.addCell(new Phrase(item.getDescription(), BODY));
+                amountCell(items, String.valueOf(item.getQuantity()));
+                amountCell(items, format(item.getUnitPrice()));
+                amountCell(items, format(item.getAmount()));
+            }
+            document.add(items);
+
+            PdfPTable totals = new PdfPTable(new float[]{8, 3});
+            totals.setWidthPercentage(100);
+            totals.setSpacingBefore(8);
+            total(totals, "Subtotal", invoice.getSubtotal());
+            total(totals, "Tax" + (invoice.getTaxRate() != null ? " (" + invoice.getTaxRate().stripTrailingZeros().toPlainString() + "%)" : ""),
+                    invoice.getTaxAmount());
+            total(totals, "Total", invoice.getTotal());
+            total(totals, "Paid", invoice.getAmountPaid());
+            total(totals, "Balance due", invoice.getBalance());
+            document.add(totals);
+
+            if (!detail.getPayments().isEmpty()) {
+                document.add(new Paragraph(" ", BODY));
+                document.add(new Paragraph("Payments", HEADING));
+                PdfPTable payments = new PdfPTable(new float[]{3, 3, 3, 2});
+                payments.setWidthPercentage(100);
+                header(payments, "Received", "Method", "Reference", "Amount");
+                for (PaymentDto payment : detail.getPayments()) {
+                    payments.addCell(new Phrase(payment.getReceivedAt() != null
+                            ? DATE.format(payment.getReceivedAt()) : "", BODY));
+                    payments.addCell(new Phrase(payment.getMethod() + " (" + payment.getStatus() + ")", BODY));
+                    payments.addCell(new Phrase(payment.getReference() != null ? payment.getReference() : "", BODY));
+                    amountCell(payments, format(payment.getAmount()));
+                }
+                document.add(payments);
+            }
+
+            if (invoice.getNotes() != null && !invoice.getNotes().isEmpty()) {
+                document.add(new Paragraph(" ", BODY));
+                document.add(new Paragraph("Notes", HEADING));
+                document.add(new Paragraph(invoice.getNotes(), BODY));
+            }
+        } catch (DocumentException e) {
+            throw new IllegalStateException("Rendering invoice " + invoice.getId() + " failed", e);
+        } finally {
+            if (document.isOpen()) {
+                document.close();
+            }
+        }
+    }
+
+    private static void addLine(Document document, String text) {
+        if (text != null && !text.isEmpty()) {
+            document.add(new Paragraph(text, BODY));
+        }
+    }
+
+    private static void header(PdfPTable table, String... titles) {
+        for (String title : titles) {
+            PdfPCell cell = new PdfPCell(new Phrase(title, HEADING));
+            cell.setGrayFill(0.9f);
+            table.addCell(cell);
+        }
+        table.setHeaderRows(1);
+    }
+
+    private static void amountCell(PdfPTable table, String text) {
+        PdfPCell cell = new PdfPCell(new Phrase(text, BODY));
+        cell.setHorizontalAlignment(Element.ALIGN_RIGHT);
+        table.addCell(cell);
+    }
+
+    private static void total(PdfPTable table, String label, BigDecimal amount) {
+        PdfPCell name = new PdfPCell(new Phrase(label, HEADING));
+        name.setBorder(PdfPCell.NO_BORDER);
+        name.setHorizontalAlignment(Element.ALIGN_RIGHT);
+        table.addCell(name);
+        PdfPCell value = new PdfPCell(new Phrase(format(amount), BODY));
+        value.setBorder(PdfPCell.NO_BORDER);
+        value.setHorizontalAlignment(Element.ALIGN_RIGHT);
+        table.addCell(value);
+    }
+
+    private static String format(BigDecimal amount) {
+        return amount != null ? amount.setScale(2, java.math.RoundingMode.HALF_UP).toPlainString() : "";
+    }
+
+    private static String format(java.time.LocalDate date) {
+        return date != null ? DATE.format(date) : "";
+    }
+}
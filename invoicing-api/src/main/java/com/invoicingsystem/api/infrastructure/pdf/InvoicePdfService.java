@@ -0,0 +1,227 @@
+package com.invoicingsystem.api.infrastructure.pdf;
+
+import com.invoicingsystem.api.application.query.InvoiceDetailDto;
+import com.invoicingsystem.api.application.service.InvoiceService;
+import com.invoicingsystem.api.domain.event.InvoiceChangedEvent;
+import com.invoicingsystem.api.domain.event.InvoiceCreatedEvent;
+import com.invoicingsystem.api.domain.event.InvoiceStatusChangedEvent;
+import com.invoicingsystem.api.domain.exception.ResourceNotFoundException;
+import com.invoicingsystem.api.domain.exception.ServiceUnavailableException;
+import com.invoicingsystem.api.domain.model.Invoice;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Invoice PDFs rendered on a small bounded pool and cached on local disk per invoice version, the
+ * version being the invoice detail ETag. A download of a cached version never touches the
+ * renderer; a miss waits up to {@code render-timeout} for the render and otherwise gets a 503 with
+ * Retry-After, the render carrying on so the retry is a hit. Concurrent requests for the same
+ * version share one render.
+ */
+@Slf4j
+@Component
+public class InvoicePdfService implements DisposableBean {
+
+    private static final String THREAD_PREFIX = "pdf-render-";
+
+    private final InvoiceService invoiceService;
+    private final InvoicePdfRenderer renderer;
+    private final PdfProperties properties;
+    private final PdfDocumentCache cache;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, CompletableFuture<Path>> inFlight = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final Counter rejected;
+
+    public InvoicePdfService(InvoiceService invoiceService,
+                             InvoicePdfRenderer renderer,
+                             PdfProperties properties,
+                             MeterRegistry meterRegistry) {
+        this.invoiceService = invoiceService;
+        this.renderer = renderer;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.cache = new PdfDocumentCache(properties.getCacheDirectory());
+        this.executor = new ThreadPoolExecutor(properties.getThreads(), properties.getThreads(),
+                0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                new CustomizableThreadFactory(THREAD_PREFIX), new ThreadPoolExecutor.AbortPolicy());
+        this.rejected = Counter.builder("pdf.rejected")
+                .description("PDF renders rejected because the render queue was full")
+                .register(meterRegistry);
+        Gauge.builder("pdf.queue", executor, e -> e.getQueue().size())
+                .description("PDF renders waiting for a render thread")
+                .register(meterRegistry);
+    }
+
+    /**
+     * The current version of an invoice's PDF, rendering it first if it is not cached.
+     */
+    public InvoicePdf getDocument(String invoiceId) {
+        String version = version(invoiceService.getInvoiceDetailEtag(invoiceId));
+        Path cached = cache.find(invoiceId, version);
+        if (cached != null) {
+            cacheCounter("hit").increment();
+            return new InvoicePdf(invoiceId, version, cached);
+        }
+        cacheCounter("miss").increment();
+
+        CompletableFuture<Path> render = render(invoiceId, version);
+        try {
+            Path file = render.get(properties.getRenderTimeout().toMillis(), TimeUnit.MILLISECONDS);
+            return new InvoicePdf(invoiceId, version(file), file);
+        } catch (TimeoutException e) {
+            throw busy();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw busy();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Rendering invoice " + invoiceId + " failed", e.getCause());
+        }
+    }
+
+    /**
+     * Queues a render of the invoice's current version unless it is already cached. Skipped
+     * quietly when the queue is full; the first download renders it instead.
+     */
+    public void prerender(String invoiceId) {
+        try {
+            executor.execute(() -> {
+                try {
+                    String version = version(invoiceService.getInvoiceDetailEtag(invoiceId));
+                    if (cache.find(invoiceId, version) == null) {
+                        render(invoiceId, version).join();
+                    }
+                } catch (ResourceNotFoundException e) {
+                    // Deleted before we got to it
+                } catch (Exception e) {
+                    log.warn("Pre-rendering invoice {} failed", invoiceId, e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            log.debug("PDF render queue full, not pre-rendering invoice {}", invoiceId);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInvoiceStatusChanged(InvoiceStatusChangedEvent event) {
+        if (properties.isPrerenderOnSent() && event.getNewStatus() == Invoice.InvoiceStatus.SENT) {
+            prerender(event.getInvoiceId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInvoiceCreated(InvoiceCreatedEvent event) {
+        if (properties.isPrerenderOnSent() && event.getStatus() == Invoice.InvoiceStatus.SENT) {
+            prerender(event.getInvoiceId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInvoiceChanged(InvoiceChangedEvent event) {
+        if (event.getChangeType() == InvoiceChangedEvent.ChangeType.DELETED) {
+            cache.evict(event.getInvoiceId());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Renders on the pool, joining a render of the same version already under way. The render
+     * stores whatever version it loads, which is newer than requested if the invoice changed.
+     */
+    private CompletableFuture<Path> render(String invoiceId, String version) {
+        String key = invoiceId + '/' + version;
+        CompletableFuture<Path> created = new CompletableFuture<>();
+        CompletableFuture<Path> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            return existing;
+        }
+        created.whenComplete((file, error) -> inFlight.remove(key, created));
+        Runnable task = () -> {
+            long start = System.nanoTime();
+            try {
+                InvoiceDetailDto detail = invoiceService.getInvoiceDetail(invoiceId);
+                Path file = cache.store(invoiceId, version(detail.getEtag()), out -> renderer.render(detail, out));
+                renderTimer("success").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                created.complete(file);
+            } catch (IOException e) {
+                renderTimer("failure").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                created.completeExceptionally(new UncheckedIOException("Caching PDF of invoice " + invoiceId + " failed", e));
+            } catch (Exception e) {
+                renderTimer("failure").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                created.completeExceptionally(e);
+            }
+        };
+        if (Thread.currentThread().getName().startsWith(THREAD_PREFIX)) {
+            // Pre-renders already run on the pool; queueing behind themselves could deadlock it
+            task.run();
+            return created;
+        }
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            created.completeExceptionally(busy());
+        }
+        return created;
+    }
+
+    private ServiceUnavailableException busy() {
+        return new ServiceUnavailableException("Invoice PDF is being rendered, please retry",
+                properties.getRetryAfterSeconds());
+    }
+
+    private Counter cacheCounter(String result) {
+        return Counter.builder("pdf.cache")
+                .description("Invoice PDF downloads by cache result")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private Timer renderTimer(String outcome) {
+        return Timer.builder("pdf.render")
+                .description("Invoice PDF render durations")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * The cache version of a detail ETag such as {@code W/"0a1b..."}.
+     */
+    static String version(String etag) {
+        String value = etag.startsWith("W/") ? etag.substring(2) : etag;
+        return value.replace("\"", "");
+    }
+
+    private static String version(Path file) {
+        String name = file.getFileName().toString();
+        return name.substring(0, name.length() - ".pdf".length());
+    }
+}
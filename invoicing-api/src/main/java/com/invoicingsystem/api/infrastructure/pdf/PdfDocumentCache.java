@@ -0,0 +1,104 @@
+package com.invoicingsystem.api.infrastructure.pdf;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Rendered invoices on local disk under {@code <cache-directory>/<invoice id>/<version>.pdf}. A
+ * document is written to a temporary file and moved into place, so readers never see a partial
+ * file, and storing a new version removes the invoice's older ones.
+ */
+@Slf4j
+class PdfDocumentCache {
+
+    private static final Pattern SAFE_NAME = Pattern.compile("[A-Za-z0-9-]+");
+    private static final String SUFFIX = ".pdf";
+
+    private final Path root;
+
+    PdfDocumentCache(Path root) {
+        this.root = root.toAbsolutePath().normalize();
+        try {
+            Files.createDirectories(this.root);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create PDF cache directory " + this.root, e);
+        }
+    }
+
+    PdfDocumentCache(String root) {
+        this(Paths.get(root));
+    }
+
+    Path find(String invoiceId, String version) {
+        Path file = file(invoiceId, version);
+        return Files.isRegularFile(file) ? file : null;
+    }
+
+    Path store(String invoiceId, String version, Consumer<OutputStream> writer) throws IOException {
+        Path directory = directory(invoiceId);
+        Files.createDirectories(directory);
+        Path target = file(invoiceId, version);
+        Path temp = Files.createTempFile(directory, version, ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                writer.accept(out);
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        removeOtherVersions(directory, target);
+        return target;
+    }
+
+    void evict(String invoiceId) {
+        Path directory = directory(invoiceId);
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        removeOtherVersions(directory, null);
+        try {
+            Files.deleteIfExists(directory);
+        } catch (IOException e) {
+            // A render for the invoice may have just created a file; it goes with the next eviction
+            log.debug("Could not remove PDF cache directory {}", directory, e);
+        }
+    }
+
+    private void removeOtherVersions(Path directory, Path keep) {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            for (Path file : files) {
+                if (!file.equals(keep)) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not remove stale PDFs in {}", directory, e);
+        }
+    }
+
+    private Path file(String invoiceId, String version) {
+        return directory(invoiceId).resolve(checkName(version) + SUFFIX);
+    }
+
+    private Path directory(String invoiceId) {
+        return root.resolve(checkName(invoiceId));
+    }
+
+    private static String checkName(String name) {
+        if (name == null || !SAFE_NAME.matcher(name).matches()) {
+            throw new IllegalArgumentException("Invalid PDF cache key: " + name);
+        }
+        return name;
+    }
+}
@@ -0,0 +1,38 @@
+package com.invoicingsystem.api.infrastructure.pdf;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "app.pdf")
+public class PdfProperties {
+
+    /**
+     * Directory rendered invoices are cached in, one file per invoice for its current version.
+     */
+    private String cacheDirectory = "data/pdf-cache";
+
+    /**
+     * Threads rendering documents.
+     */
+    private int threads = 2;
+
+    /**
+     * Renders waiting for a thread before new ones are rejected.
+     */
+    private int queueCapacity = 100;
+
+    /**
+     * How long a download waits for a document that is not cached yet before answering 503.
+     */
+    private Duration renderTimeout = Duration.ofSeconds(5);
+
+    private long retryAfterSeconds = 2;
+
+    /**
+     * Render invoices in the background when they are sent, so the first download is a cache hit.
+     */
+    private boolean prerenderOnSent = true;
+}
@@ -0,0 +1,237 @@
+package com.invoicingsystem.api.infrastructure.push;
+
+import com.invoicingsystem.api.domain.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Server-Sent Event streams keyed by topic ({@code invoice:<id>}, {@code user:<email>}). Idle
+ * streams are parked async requests and hold no thread. Each stream has a bounded buffer drained
+ * by a small sender pool, one drain task per stream at a time; a stream whose buffer overflows
+ * is disconnected instead of slowing down everyone else.
+ */
+@Slf4j
+@Component
+public class EventStreamRegistry implements DisposableBean {
+
+    private final PushProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Set<Connection>> topics = new ConcurrentHashMap<>();
+    private final Set<Connection> connections = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    private final AtomicLong eventIds = new AtomicLong();
+    private final ExecutorService senders;
+    private final ScheduledExecutorService heartbeat;
+    private final Counter messagesSent;
+
+    public EventStreamRegistry(PushProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(properties.getSenderThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "sse-sender-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sse-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = properties.getHeartbeatInterval().toMillis();
+        heartbeat.scheduleWithFixedDelay(this::sendHeartbeats, interval, interval, TimeUnit.MILLISECONDS);
+
+        Gauge.builder("push.connections", connectionCount, AtomicInteger::get)
+                .description("Open Server-Sent Event streams")
+                .register(meterRegistry);
+        this.messagesSent = Counter.builder("push.messages.sent")
+                .description("Messages written to Server-Sent Event streams")
+                .register(meterRegistry);
+    }
+
+    public SseEmitter subscribe(List<String> topicKeys) {
+        if (connectionCount.incrementAndGet() > properties.getMaxConnections()) {
+            connectionCount.decrementAndGet();
+            closed("rejected");
+            throw new ServiceUnavailableException("Too many open event streams", properties.getHeartbeatInterval().toSeconds());
+        }
+
+        SseEmitter emitter = new SseEmitter(properties.getConnectionTimeout().toMillis());
+        Connection connection = new Connection(emitter, topicKeys, properties.getBufferSize());
+        connections.add(connection);
+        for (String topic : topicKeys) {
+            topics.computeIfAbsent(topic, key -> ConcurrentHashMap.newKeySet()).add(connection);
+        }
+        emitter.onCompletion(() -> remove(connection, "completed"));
+        emitter.onTimeout(() -> remove(connection, "timeout"));
+        emitter.onError(error -> remove(connection, "error"));
+
+        // Flushes the response headers so the client sees the stream open right away
+        enqueue(connection, SseEmitter.event().comment("connected"));
+        return emitter;
+    }
+
+    public boolean isEmpty() {
+        return connections.isEmpty();
+    }
+
+    /**
+     * Buffers {@code data} for every stream subscribed to any of {@code topicKeys}; a stream
+     * subscribed to several of them receives it once.
+     */
+    public void publish(List<String> topicKeys, String name, Object data) {
+        Set<Connection> recipients = new HashSet<>();
+        for (String topic : topicKeys) {
+            Set<Connection> subscribers = topics.get(topic);
+            if (subscribers != null) {
+                recipients.addAll(subscribers);
+            }
+        }
+        if (recipients.isEmpty()) {
+            return;
+        }
+        String id = String.valueOf(eventIds.incrementAndGet());
+        for (Connection connection : recipients) {
+            enqueue(connection, SseEmitter.event().id(id).name(name).data(data, MediaType.APPLICATION_JSON));
+        }
+    }
+
+    /**
+     * Runs work on the sender pool, off the request thread that published the domain event.
+     */
+    public void execute(Runnable task) {
+        senders.execute(task);
+    }
+
+    int connectionCount() {
+        return connectionCount.get();
+    }
+
+    private void enqueue(Connection connection, SseEmitter.SseEventBuilder event) {
+        if (connection.closed.get()) {
+            return;
+        }
+        if (!connection.buffer.offer(event)) {
+            log.debug("Disconnecting slow event stream {}", connection.id);
+            evict(connection, "slow_consumer");
+            return;
+        }
+        if (connection.draining.compareAndSet(false, true)) {
+            senders.execute(() -> drain(connection));
+        }
+    }
+
+    private void drain(Connection connection) {
+        while (true) {
+            SseEmitter.SseEventBuilder event = connection.buffer.poll();
+            if (event == null) {
+                connection.draining.set(false);
+                // Re-check: a message may have arrived after poll() but before the flag was cleared
+                if (connection.buffer.isEmpty() || !connection.draining.compareAndSet(false, true)) {
+                    return;
+                }
+                continue;
+            }
+            if (connection.closed.get()) {
+                connection.buffer.clear();
+                connection.draining.set(false);
+                return;
+            }
+            try {
+                connection.emitter.send(event);
+                messagesSent.increment();
+            } catch (IOException | IllegalStateException e) {
+                remove(connection, "error");
+                connection.buffer.clear();
+                connection.draining.set(false);
+                return;
+            }
+        }
+    }
+
+    private void sendHeartbeats() {
+        for (Connection connection : connections) {
+            enqueue(connection, SseEmitter.event().comment("heartbeat"));
+        }
+    }
+
+    private void evict(Connection connection, String reason) {
+        if (remove(connection, reason)) {
+            // complete() waits for a send in progress, so never call it on the publishing thread
+            senders.execute(connection.emitter::complete);
+        }
+    }
+
+    private boolean remove(Connection connection, String reason) {
+        if (!connection.closed.compareAndSet(false, true)) {
+            return false;
+        }
+        connections.remove(connection);
+        for (String topic : connection.topics) {
+            topics.computeIfPresent(topic, (key, subscribers) -> {
+                subscribers.remove(connection);
+                return subscribers.isEmpty() ? null : subscribers;
+            });
+        }
+        connectionCount.decrementAndGet();
+        closed(reason);
+        return true;
+    }
+
+    private void closed(String reason) {
+        Counter.builder("push.connections.closed")
+                .description("Server-Sent Event streams closed or rejected, by reason")
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    @Override
+    public void destroy() {
+        heartbeat.shutdownNow();
+        for (Connection connection : connections) {
+            if (remove(connection, "shutdown")) {
+                connection.emitter.complete();
+            }
+        }
+        senders.shutdownNow();
+    }
+
+    private static final class Connection {
+        private final String id = UUID.randomUUID().toString();
+        private final SseEmitter emitter;
+        private final List<String> topics;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> buffer;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Connection(SseEmitter emitter, List<String> topics, int bufferSize) {
+            this.emitter = emitter;
+            this.topics = topics;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        }
+    }
+}
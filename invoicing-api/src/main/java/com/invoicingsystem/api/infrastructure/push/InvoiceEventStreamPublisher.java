@@ -0,0 +1,74 @@
+package com.invoicingsystem.api.infrastructure.push;
+
+import com.invoicingsystem.api.application.query.InvoiceNotificationDto;
+import com.invoicingsystem.api.domain.event.InvoiceStatusChangedEvent;
+import com.invoicingsystem.api.domain.event.PaymentRecordedEvent;
+import com.invoicingsystem.api.domain.repository.InvoiceRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pushes committed invoice status changes and payments to the streams of the invoice and of the
+ * user who created it.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class InvoiceEventStreamPublisher {
+
+    public static final String INVOICE_TOPIC = "invoice:";
+    public static final String USER_TOPIC = "user:";
+
+    private final EventStreamRegistry eventStreamRegistry;
+    private final InvoiceRepository invoiceRepository;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInvoiceStatusChanged(InvoiceStatusChangedEvent event) {
+        publish(event.getInvoiceId(), "invoice.status_changed", InvoiceNotificationDto.builder()
+                .type("invoice.status_changed")
+                .invoiceId(event.getInvoiceId())
+                .status(name(event.getNewStatus()))
+                .previousStatus(name(event.getPreviousStatus()))
+                .occurredAt(event.getOccurredAt())
+                .build());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPaymentRecorded(PaymentRecordedEvent event) {
+        publish(event.getInvoiceId(), "payment.recorded", InvoiceNotificationDto.builder()
+                .type("payment.recorded")
+                .invoiceId(event.getInvoiceId())
+                .paymentId(event.getPaymentId())
+                .status(event.getStatus())
+                .amount(event.getAmount())
+                .method(event.getMethod())
+                .occurredAt(event.getOccurredAt())
+                .build());
+    }
+
+    private void publish(String invoiceId, String name, InvoiceNotificationDto notification) {
+        if (eventStreamRegistry.isEmpty()) {
+            return;
+        }
+        // The owner lookup hits the database, so it runs on the sender pool after commit
+        eventStreamRegistry.execute(() -> {
+            List<String> topics = new ArrayList<>();
+            topics.add(INVOICE_TOPIC + invoiceId);
+            try {
+                invoiceRepository.findCreatorEmailById(invoiceId).ifPresent(email -> topics.add(USER_TOPIC + email));
+            } catch (RuntimeException e) {
+                log.warn("Could not resolve owner of invoice {} for push notification", invoiceId, e);
+            }
+            eventStreamRegistry.publish(topics, name, notification);
+        });
+    }
+
+    private static String name(Enum<?> value) {
+        return value != null ? value.name() : null;
+    }
+}
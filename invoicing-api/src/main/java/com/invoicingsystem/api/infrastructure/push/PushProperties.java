@@ -0,0 +1,38 @@
+package com.invoicingsystem.api.infrastructure.push;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "app.push")
+public class PushProperties {
+
+    /**
+     * Interval of the SSE comment sent to every connection; keeps proxies from closing idle
+     * streams and detects dead clients.
+     */
+    private Duration heartbeatInterval = Duration.ofSeconds(20);
+
+    /**
+     * Lifetime of a stream; EventSource clients reconnect transparently after it.
+     */
+    private Duration connectionTimeout = Duration.ofMinutes(30);
+
+    /**
+     * Open streams allowed on this node; further subscriptions get 503. Keep below
+     * {@code server.tomcat.max-connections}.
+     */
+    private int maxConnections = 5000;
+
+    /**
+     * Messages buffered per connection; a client that falls this far behind is disconnected.
+     */
+    private int bufferSize = 32;
+
+    /**
+     * Threads writing buffered messages to connections. Streams hold no thread while idle.
+     */
+    private int senderThreads = 4;
+}
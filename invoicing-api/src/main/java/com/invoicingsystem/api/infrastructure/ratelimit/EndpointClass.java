@@ -0,0 +1,13 @@
+package com.invoicingsystem.api.infrastructure.ratelimit;
+
+/**
+ * Request classes rate limited separately, so a client looping on one kind of call only
+ * exhausts the bucket of that class. Each class has a cost taken from its bucket per request.
+ */
+public enum EndpointClass {
+    AUTH, DETAIL, LIST, SEARCH, WRITE, STREAM;
+
+    public String tag() {
+        return name().toLowerCase();
+    }
+}
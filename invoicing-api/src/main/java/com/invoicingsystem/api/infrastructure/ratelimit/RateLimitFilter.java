@@ -0,0 +1,144 @@
+package com.invoicingsystem.api.infrastructure.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.invoicingsystem.api.domain.model.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-client admission control, run right after {@code JwtAuthenticationFilter} so the caller
+ * is known. Authenticated users are limited per user with their role's limit; anonymous requests
+ * per client address, which behind a trusted proxy is the X-Forwarded-For client resolved by
+ * Tomcat's RemoteIpValve. Rejected requests get 429 with Retry-After.
+ */
+@Component
+@RequiredArgsConstructor
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String ANONYMOUS = "anonymous";
+    // Checked in order for GETs; the first class whose paths match wins
+    private static final EndpointClass[] READ_CLASSES = {
+            EndpointClass.STREAM, EndpointClass.SEARCH, EndpointClass.LIST};
+
+    private final RateLimiter rateLimiter;
+    private final RateLimitProperties properties;
+    private final ObjectMapper objectMapper;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !properties.isEnabled() || request.getServletPath().startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain) throws ServletException, IOException {
+
+        EndpointClass endpointClass = classify(request);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        User.Role role = roleOf(authentication);
+
+        long waitNanos;
+        if (role == null) {
+            waitNanos = rateLimiter.tryAcquire(request.getRemoteAddr(), ANONYMOUS,
+                    properties.getAnonymous(), endpointClass);
+        } else {
+            waitNanos = rateLimiter.tryAcquire(authentication.getName(), role.name().toLowerCase(),
+                    properties.limitFor(role), endpointClass);
+        }
+
+        if (waitNanos > 0) {
+            reject(response, RateLimiter.toRetryAfterSeconds(waitNanos), endpointClass);
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    EndpointClass classify(HttpServletRequest request) {
+        String path = request.getServletPath();
+        boolean read = "GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod());
+        if (matches(EndpointClass.AUTH, path)) {
+            return EndpointClass.AUTH;
+        }
+        if (!read) {
+            return EndpointClass.WRITE;
+        }
+        if (request.getParameter("ids") != null) {
+            return EndpointClass.LIST;
+        }
+        for (EndpointClass candidate : READ_CLASSES) {
+            if (matches(candidate, path)) {
+                return candidate;
+            }
+        }
+        return EndpointClass.DETAIL;
+    }
+
+    private boolean matches(EndpointClass endpointClass, String path) {
+        for (String pattern : properties.settingsFor(endpointClass).getPaths()) {
+            if (pathMatcher.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The caller's most generous role, or {@code null} when the request is anonymous.
+     */
+    private User.Role roleOf(Authentication authentication) {
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        User.Role best = null;
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            String name = authority.getAuthority();
+            if (name == null || !name.startsWith("ROLE_")) {
+                continue;
+            }
+            try {
+                User.Role role = User.Role.valueOf(name.substring("ROLE_".length()));
+                if (best == null || properties.limitFor(role).getCapacity() > properties.limitFor(best).getCapacity()) {
+                    best = role;
+                }
+            } catch (IllegalArgumentException ignored) {
+                // Not an application role
+            }
+        }
+        return best != null ? best : User.Role.USER;
+    }
+
+    private void reject(HttpServletResponse response, long retryAfterSeconds, EndpointClass endpointClass)
+            throws IOException {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("status", HttpStatus.TOO_MANY_REQUESTS.value());
+        body.put("message", "Rate limit exceeded for " + endpointClass.tag() + " requests");
+        body.put("timestamp", LocalDateTime.now());
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+}
@@ -0,0 +1,113 @@
+package com.invoicingsystem.api.infrastructure.ratelimit;
+
+import com.invoicingsystem.api.domain.model.User;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Bucket size and refill rate per role, in cost units. Every user gets one bucket of this
+     * size per endpoint class.
+     */
+    private Map<User.Role, Limit> roles = defaultRoles();
+
+    /**
+     * Limit for unauthenticated requests, keyed by client address.
+     */
+    private Limit anonymous = new Limit(20, 2);
+
+    private Map<EndpointClass, ClassSettings> classes = defaultClasses();
+
+    /**
+     * Buckets untouched for this long are refilled anyway and are dropped from memory.
+     */
+    private Duration idleEviction = Duration.ofMinutes(10);
+
+    public Limit limitFor(User.Role role) {
+        Limit limit = role != null ? roles.get(role) : null;
+        return limit != null ? limit : anonymous;
+    }
+
+    public ClassSettings settingsFor(EndpointClass endpointClass) {
+        ClassSettings settings = classes.get(endpointClass);
+        return settings != null ? settings : new ClassSettings();
+    }
+
+    private static Map<User.Role, Limit> defaultRoles() {
+        Map<User.Role, Limit> defaults = new EnumMap<>(User.Role.class);
+        defaults.put(User.Role.USER, new Limit(200, 50));
+        defaults.put(User.Role.ADMIN, new Limit(400, 100));
+        return defaults;
+    }
+
+    private static Map<EndpointClass, ClassSettings> defaultClasses() {
+        Map<EndpointClass, ClassSettings> defaults = new EnumMap<>(EndpointClass.class);
+        defaults.put(EndpointClass.AUTH, new ClassSettings(1, "/auth/**"));
+        defaults.put(EndpointClass.DETAIL, new ClassSettings(1));
+        defaults.put(EndpointClass.LIST, new ClassSettings(5,
+                "/invoices", "/invoices/client/**", "/invoices/status/**", "/invoices/overdue",
+                "/invoices/*/ledger", "/payments", "/payments/invoice/**", "/clients", "/users", "/changes"));
+        defaults.put(EndpointClass.SEARCH, new ClassSettings(5,
+                "/search", "/clients/search", "/clients/autocomplete"));
+        defaults.put(EndpointClass.WRITE, new ClassSettings(2));
+        defaults.put(EndpointClass.STREAM, new ClassSettings(10, "/events/**"));
+        return defaults;
+    }
+
+    @Data
+    public static class Limit {
+
+        /**
+         * Largest burst, in cost units.
+         */
+        private long capacity = 100;
+
+        /**
+         * Cost units returned to the bucket per second.
+         */
+        private double refillPerSecond = 10;
+
+        public Limit() {
+        }
+
+        public Limit(long capacity, double refillPerSecond) {
+            this.capacity = capacity;
+            this.refillPerSecond = refillPerSecond;
+        }
+    }
+
+    @Data
+    public static class ClassSettings {
+
+        /**
+         * Cost units one request of this class takes from its bucket.
+         */
+        private int cost = 1;
+
+        /**
+         * Servlet paths (Ant patterns) belonging to this class. GETs not matching any class are
+         * DETAIL, other methods WRITE; a GET with an {@code ids} parameter is always LIST.
+         */
+        private List<String> paths = new ArrayList<>();
+
+        public ClassSettings() {
+        }
+
+        public ClassSettings(int cost, String... paths) {
+            this.cost = cost;
+            this.paths = new ArrayList<>(Arrays.asList(paths));
+        }
+    }
+}
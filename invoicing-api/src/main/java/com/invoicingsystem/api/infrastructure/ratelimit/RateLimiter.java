@@ -0,0 +1,77 @@
+package com.invoicingsystem.api.infrastructure.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory token buckets per client and endpoint class. Buckets are created on first use and
+ * dropped once they have refilled and sat idle, so memory follows the set of active clients.
+ */
+@Component
+public class RateLimiter implements SchedulingConfigurer {
+
+    private final RateLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    public RateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("ratelimit.buckets", buckets, Map::size)
+                .description("Rate limit buckets held in memory")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Takes the cost of one {@code endpointClass} request from the client's bucket. Returns 0 when
+     * admitted, otherwise the nanoseconds until the request would be admitted.
+     */
+    public long tryAcquire(String client, String tier, RateLimitProperties.Limit limit, EndpointClass endpointClass) {
+        long now = System.nanoTime();
+        String key = tier + '|' + client + '|' + endpointClass.name();
+        TokenBucket bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(key,
+                    k -> new TokenBucket(limit.getCapacity(), limit.getRefillPerSecond(), now));
+        }
+        long waitNanos = bucket.tryAcquire(properties.settingsFor(endpointClass).getCost(), now);
+        count(waitNanos == 0 ? "admitted" : "rejected", tier, endpointClass);
+        return waitNanos;
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar registrar) {
+        registrar.addFixedDelayTask(this::evictIdle, properties.getIdleEviction().toMillis());
+    }
+
+    void evictIdle() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+    }
+
+    int size() {
+        return buckets.size();
+    }
+
+    private void count(String outcome, String tier, EndpointClass endpointClass) {
+        Counter.builder("ratelimit.requests")
+                .description("Requests admitted or rejected by the rate limiter")
+                .tag("outcome", outcome)
+                .tag("role", tier)
+                .tag("class", endpointClass.tag())
+                .register(meterRegistry)
+                .increment();
+    }
+
+    static long toRetryAfterSeconds(long waitNanos) {
+        return Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+}
@@ -0,0 +1,58 @@
+package com.invoicingsystem.api.infrastructure.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket kept as a single "theoretical arrival time" (the GCRA form): the bucket
+ * is full when it lies in the past, and each unit taken pushes it forward by one refill interval.
+ * A request is admitted while that time stays within {@code capacity} intervals of now.
+ */
+public final class TokenBucket {
+
+    private final long capacity;
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final AtomicLong arrival;
+
+    public TokenBucket(long capacity, double refillPerSecond, long nowNanos) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Bucket capacity must be positive: " + capacity);
+        }
+        if (!(refillPerSecond > 0)) {
+            throw new IllegalArgumentException("Refill rate must be positive: " + refillPerSecond);
+        }
+        this.capacity = capacity;
+        this.intervalNanos = Math.max(1L, (long) (TimeUnit.SECONDS.toNanos(1) / refillPerSecond));
+        this.toleranceNanos = capacity * intervalNanos;
+        this.arrival = new AtomicLong(nowNanos - toleranceNanos);
+    }
+
+    /**
+     * Takes {@code cost} units if available. Returns 0 when admitted, otherwise the nanoseconds
+     * until enough units will have been refilled.
+     */
+    public long tryAcquire(long cost, long nowNanos) {
+        long increment = Math.min(cost, capacity) * intervalNanos;
+        while (true) {
+            long current = arrival.get();
+            long next = Math.max(current, nowNanos - toleranceNanos) + increment;
+            long overshoot = next - nowNanos;
+            if (overshoot > 0) {
+                return overshoot;
+            }
+            if (arrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    long available(long nowNanos) {
+        long used = arrival.get() - (nowNanos - toleranceNanos);
+        return used <= 0 ? capacity : Math.max(0, capacity - (used + intervalNanos - 1) / intervalNanos);
+    }
+
+    boolean isFull(long nowNanos) {
+        return arrival.get() <= nowNanos - toleranceNanos;
+    }
+}
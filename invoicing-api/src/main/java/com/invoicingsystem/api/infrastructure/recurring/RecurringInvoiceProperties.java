@@ -0,0 +1,34 @@
+package com.invoicingsystem.api.infrastructure.recurring;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "app.recurring-invoices")
+public class RecurringInvoiceProperties {
+
+    /**
+     * Cron expression for generation runs. Runs with nothing due cost one query.
+     */
+    private String schedule = "0 5 * * * *";
+
+    /**
+     * Shards templates are split into, each leased and run separately by the cluster scheduler.
+     */
+    private int shards = 2;
+
+    /**
+     * Threads generating chunks in parallel on each node.
+     */
+    private int workers = 4;
+
+    /**
+     * Templates generated per transaction.
+     */
+    private int chunkSize = 50;
+
+    /**
+     * Missed periods a template catches up on per run; the rest follow on later runs.
+     */
+    private int maxPeriodsPerRun = 12;
+}
@@ -0,0 +1,207 @@
+package com.invoicingsystem.api.infrastructure.search;
+
+import com.invoicingsystem.api.application.query.ClientSuggestionDto;
+import com.invoicingsystem.api.domain.event.ClientChangedEvent;
+import com.invoicingsystem.api.domain.model.Client;
+import com.invoicingsystem.api.domain.repository.ClientRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.regex.Pattern;
+
+/**
+ * In-process prefix index over normalized client name and email tokens for autocomplete.
+ * Keys are {@code token + '\0' + clientId} in a sorted set, so a prefix lookup is a range scan
+ * that stops after a bounded number of keys; matches are ranked before the limit is applied.
+ * Rebuilt when the application starts and kept current from committed
+ * {@link ClientChangedEvent}s.
+ */
+@Slf4j
+@Component
+public class ClientPrefixIndex {
+
+    public static final int MAX_LIMIT = 50;
+
+    private static final char SEPARATOR = '\0';
+    private static final int MAX_SCANNED_KEYS = 2_000;
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^\\p{Alnum}@.]+");
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{Alnum}]+");
+
+    private final ClientRepository clientRepository;
+    private final Timer completeTimer;
+
+    private volatile NavigableSet<String> keys = new ConcurrentSkipListSet<>();
+    private volatile Map<String, IndexedClient> clients = new ConcurrentHashMap<>();
+
+    public ClientPrefixIndex(ClientRepository clientRepository, MeterRegistry meterRegistry) {
+        this.clientRepository = clientRepository;
+        this.completeTimer = Timer.builder("clients.autocomplete")
+                .description("Client autocomplete lookups")
+                .register(meterRegistry);
+        Gauge.builder("clients.autocomplete.indexed", this, index -> index.clients.size())
+                .description("Clients held in the autocomplete index")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        NavigableSet<String> rebuiltKeys = new ConcurrentSkipListSet<>();
+        Map<String, IndexedClient> rebuiltClients = new ConcurrentHashMap<>();
+        for (Client client : clientRepository.findAll()) {
+            IndexedClient indexed = new IndexedClient(client.getId(), client.getName(), client.getEmail());
+            rebuiltClients.put(indexed.id, indexed);
+            indexed.tokens.forEach(token -> rebuiltKeys.add(key(token, indexed.id)));
+        }
+        keys = rebuiltKeys;
+        clients = rebuiltClients;
+        log.info("Client autocomplete index built with {} clients and {} keys", rebuiltClients.size(), rebuiltKeys.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onClientChanged(ClientChangedEvent event) {
+        IndexedClient previous = clients.remove(event.getClientId());
+        if (previous != null) {
+            previous.tokens.forEach(token -> keys.remove(key(token, previous.id)));
+        }
+        if (event.getChangeType() != ClientChangedEvent.ChangeType.DELETED) {
+            IndexedClient indexed = new IndexedClient(event.getClientId(), event.getName(), event.getEmail());
+            indexed.tokens.forEach(token -> keys.add(key(token, indexed.id)));
+            clients.put(indexed.id, indexed);
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} clients for which every query term is a prefix of one of their
+     * name or email tokens. Clients whose name starts with the query come first, then by name.
+     */
+    public List<ClientSuggestionDto> complete(String query, int limit) {
+        return completeTimer.record(() -> lookup(query, Math.max(1, Math.min(limit, MAX_LIMIT))));
+    }
+
+    private List<ClientSuggestionDto> lookup(String query, int limit) {
+        String normalizedQuery = normalize(query);
+        if (normalizedQuery.isEmpty()) {
+            return List.of();
+        }
+        List<String> terms = terms(normalizedQuery);
+
+        // The whole query hits full-name and email tokens; the longest term covers reordered words
+        Set<IndexedClient> matches = new LinkedHashSet<>();
+        collect(normalizedQuery, terms, matches);
+        if (terms.size() > 1) {
+            collect(longest(terms), terms, matches);
+        }
+
+        List<IndexedClient> ranked = new ArrayList<>(matches);
+        ranked.sort(Comparator
+                .comparing((IndexedClient client) -> !client.normalizedName.startsWith(normalizedQuery))
+                .thenComparing(client -> client.normalizedName));
+        List<ClientSuggestionDto> suggestions = new ArrayList<>(Math.min(limit, ranked.size()));
+        for (IndexedClient client : ranked.subList(0, Math.min(limit, ranked.size()))) {
+            suggestions.add(new ClientSuggestionDto(client.id, client.name, client.email));
+        }
+        return suggestions;
+    }
+
+    private void collect(String prefix, List<String> terms, Set<IndexedClient> matches) {
+        Map<String, IndexedClient> current = clients;
+        int scanned = 0;
+        for (String key : keys.subSet(prefix, true, prefix + Character.MAX_VALUE, false)) {
+            if (++scanned > MAX_SCANNED_KEYS) {
+                break;
+            }
+            IndexedClient client = current.get(key.substring(key.lastIndexOf(SEPARATOR) + 1));
+            if (client != null && client.matchesAll(terms)) {
+                matches.add(client);
+            }
+        }
+    }
+
+    int size() {
+        return clients.size();
+    }
+
+    static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String stripped = DIACRITICS.matcher(Normalizer.normalize(value, Normalizer.Form.NFD)).replaceAll("");
+        return NON_ALPHANUMERIC.matcher(stripped.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    private static List<String> terms(String normalized) {
+        List<String> terms = new ArrayList<>();
+        for (String term : WORD_SEPARATOR.split(normalized)) {
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    private static String longest(List<String> terms) {
+        return terms.stream().max(Comparator.comparingInt(String::length)).orElse("");
+    }
+
+    private static String key(String token, String clientId) {
+        return token + SEPARATOR + clientId;
+    }
+
+    private static final class IndexedClient {
+        private final String id;
+        private final String name;
+        private final String email;
+        private final String normalizedName;
+        private final Set<String> tokens = new LinkedHashSet<>();
+
+        private IndexedClient(String id, String name, String email) {
+            this.id = id;
+            this.name = name;
+            this.email = email;
+            this.normalizedName = normalize(name);
+
+            addTokens(normalizedName);
+            // Also indexes local part and domain words, so "globex" finds billing@globex.com
+            addTokens(normalize(email));
+        }
+
+        private void addTokens(String normalized) {
+            if (normalized.isEmpty()) {
+                return;
+            }
+            tokens.add(normalized);
+            for (String word : WORD_SEPARATOR.split(normalized)) {
+                if (!word.isEmpty()) {
+                    tokens.add(word);
+                }
+            }
+        }
+
+        private boolean matchesAll(List<String> terms) {
+            for (String term : terms) {
+                if (tokens.stream().noneMatch(token -> token.startsWith(term))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
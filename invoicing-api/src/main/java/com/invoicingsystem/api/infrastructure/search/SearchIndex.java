@@ -0,0 +1,337 @@
+package com.invoicingsystem.api.infrastructure.search;
+
+import com.invoicingsystem.api.application.query.SearchHitDto;
+import com.invoicingsystem.api.application.query.SearchResultDto;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.core.KeywordTokenizerFactory;
+import org.apache.lucene.analysis.core.LowerCaseFilterFactory;
+import org.apache.lucene.analysis.custom.CustomAnalyzer;
+import org.apache.lucene.analysis.miscellaneous.ASCIIFoldingFilterFactory;
+import org.apache.lucene.analysis.miscellaneous.PerFieldAnalyzerWrapper;
+import org.apache.lucene.analysis.ngram.NGramFilterFactory;
+import org.apache.lucene.analysis.standard.StandardTokenizerFactory;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.index.IndexNotFoundException;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.SegmentInfos;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TopScoreDocCollector;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Embedded Lucene index over invoices (number, client, notes and line items) and clients.
+ * Writes go through a single {@link IndexWriter}; searches use a near-real-time
+ * {@link SearcherManager} that sees changes after {@link #refresh()}, before they are committed.
+ */
+@Slf4j
+@Component
+public class SearchIndex implements DisposableBean {
+
+    public static final String TYPE_INVOICE = "invoice";
+    public static final String TYPE_CLIENT = "client";
+
+    static final String FIELD_KEY = "key";
+    static final String FIELD_TYPE = "type";
+    static final String FIELD_ID = "id";
+    static final String FIELD_CLIENT_ID = "client_id";
+    static final String FIELD_TITLE = "title";
+    static final String FIELD_SUBTITLE = "subtitle";
+    static final String FIELD_NUMBER = "number";
+    static final String FIELD_NUMBER_GRAMS = "number_grams";
+    static final String FIELD_CLIENT = "client";
+    static final String FIELD_EMAIL = "email";
+    static final String FIELD_ITEMS = "items";
+    static final String FIELD_NOTES = "notes";
+    static final String FIELD_ADDRESS = "address";
+
+    private static final String COMMIT_CLEAN = "clean";
+    private static final int MIN_GRAM = 2;
+    private static final int MAX_GRAM = 20;
+    private static final int MAX_WINDOW = 10_000;
+
+    /** Searched text fields and their boosts; a number or client name match outranks a note. */
+    private static final Map<String, Float> TEXT_FIELDS = new LinkedHashMap<>();
+
+    static {
+        TEXT_FIELDS.put(FIELD_NUMBER, 4.0f);
+        TEXT_FIELDS.put(FIELD_CLIENT, 3.0f);
+        TEXT_FIELDS.put(FIELD_EMAIL, 2.0f);
+        TEXT_FIELDS.put(FIELD_ITEMS, 1.5f);
+        TEXT_FIELDS.put(FIELD_NOTES, 1.0f);
+        TEXT_FIELDS.put(FIELD_ADDRESS, 0.5f);
+    }
+
+    private final Directory directory;
+    private final Analyzer analyzer;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    private final boolean closedCleanly;
+    private final MeterRegistry meterRegistry;
+
+    public SearchIndex(SearchProperties properties, MeterRegistry meterRegistry) throws IOException {
+        this.meterRegistry = meterRegistry;
+        this.directory = properties.isInMemory()
+                ? new ByteBuffersDirectory()
+                : FSDirectory.open(Paths.get(properties.getIndexPath()));
+        this.closedCleanly = readCleanFlag(directory);
+        this.analyzer = analyzer();
+        IndexWriterConfig config = new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+        this.writer = new IndexWriter(directory, config);
+        this.searcherManager = new SearcherManager(writer, null);
+
+        Gauge.builder("search.index.documents", this, SearchIndex::documentCount)
+                .description("Documents in the full-text index")
+                .register(meterRegistry);
+        Gauge.builder("search.index.size", this, SearchIndex::sizeInBytes)
+                .description("Size of the full-text index files")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        log.info("Opened search index at {} with {} documents",
+                properties.isInMemory() ? "memory" : properties.getIndexPath(), documentCount());
+    }
+
+    public SearchResultDto search(String text, String type, int page, int size) {
+        long start = System.nanoTime();
+        Query query = buildQuery(text, type);
+        SearchResultDto.SearchResultDtoBuilder result = SearchResultDto.builder()
+                .query(text)
+                .page(page)
+                .size(size);
+        List<SearchHitDto> hits = new ArrayList<>();
+        if (query == null) {
+            return result.hits(hits).tookMs(0).build();
+        }
+
+        int window = Math.min(MAX_WINDOW, (page + 1) * size);
+        IndexSearcher searcher = acquire();
+        try {
+            TopScoreDocCollector collector = TopScoreDocCollector.create(window, Integer.MAX_VALUE);
+            searcher.search(query, collector);
+            TopDocs topDocs = collector.topDocs(page * size, size);
+            for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+                Document document = searcher.doc(scoreDoc.doc);
+                hits.add(new SearchHitDto(
+                        document.get(FIELD_TYPE),
+                        document.get(FIELD_ID),
+                        document.get(FIELD_TITLE),
+                        document.get(FIELD_SUBTITLE),
+                        scoreDoc.score));
+            }
+            result.totalHits(collector.getTotalHits());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            release(searcher);
+            long elapsed = System.nanoTime() - start;
+            Timer.builder("search.query")
+                    .description("Full-text search latency")
+                    .tag("type", type != null ? type : "all")
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(elapsed, TimeUnit.NANOSECONDS);
+            result.tookMs(elapsed / 1_000_000);
+        }
+        return result.hits(hits).build();
+    }
+
+    public void upsert(String type, String id, Document document) throws IOException {
+        writer.updateDocument(new Term(FIELD_KEY, key(type, id)), document);
+    }
+
+    public void delete(String type, String id) throws IOException {
+        writer.deleteDocuments(new Term(FIELD_KEY, key(type, id)));
+    }
+
+    public void deleteInvoicesOfClient(String clientId) throws IOException {
+        writer.deleteDocuments(new BooleanQuery.Builder()
+                .add(new TermQuery(new Term(FIELD_TYPE, TYPE_INVOICE)), BooleanClause.Occur.FILTER)
+                .add(new TermQuery(new Term(FIELD_CLIENT_ID, clientId)), BooleanClause.Occur.FILTER)
+                .build());
+    }
+
+    public void deleteAll() throws IOException {
+        writer.deleteAll();
+    }
+
+    /**
+     * Makes applied changes visible to searches without committing them.
+     */
+    public void refresh() throws IOException {
+        searcherManager.maybeRefresh();
+    }
+
+    public void commit() throws IOException {
+        if (writer.hasUncommittedChanges()) {
+            writer.setLiveCommitData(Map.of(COMMIT_CLEAN, "false").entrySet());
+            writer.commit();
+        }
+    }
+
+    /**
+     * Whether the last commit before this process started was written by a clean shutdown. When
+     * it was not, changes applied after the last periodic commit may be missing.
+     */
+    public boolean wasClosedCleanly() {
+        return closedCleanly;
+    }
+
+    public int documentCount() {
+        return writer.getDocStats().numDocs;
+    }
+
+    public long sizeInBytes() {
+        long size = 0;
+        try {
+            for (String file : directory.listAll()) {
+                try {
+                    size += directory.fileLength(file);
+                } catch (IOException e) {
+                    // Merged away between listing and measuring
+                }
+            }
+        } catch (IOException e) {
+            return -1;
+        }
+        return size;
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        searcherManager.close();
+        writer.setLiveCommitData(Map.of(COMMIT_CLEAN, "true").entrySet());
+        writer.commit();
+        writer.close();
+        directory.close();
+    }
+
+    static String key(String type, String id) {
+        return type + ":" + id;
+    }
+
+    private Query buildQuery(String text, String type) {
+        List<String> terms = analyze(text);
+        String raw = text.trim().toLowerCase(Locale.ROOT);
+        boolean numberFragment = raw.length() >= MIN_GRAM && raw.length() <= MAX_GRAM && raw.indexOf(' ') < 0;
+        if (terms.isEmpty() && !numberFragment) {
+            return null;
+        }
+
+        // Every term must match some field, exactly (scored by boost) or as a prefix
+        BooleanQuery.Builder allTerms = new BooleanQuery.Builder();
+        for (String term : terms) {
+            BooleanQuery.Builder anyField = new BooleanQuery.Builder();
+            for (Map.Entry<String, Float> field : TEXT_FIELDS.entrySet()) {
+                anyField.add(new BoostQuery(new TermQuery(new Term(field.getKey(), term)), field.getValue()),
+                        BooleanClause.Occur.SHOULD);
+                if (term.length() >= MIN_GRAM) {
+                    anyField.add(new BoostQuery(new PrefixQuery(new Term(field.getKey(), term)), field.getValue() / 2),
+                            BooleanClause.Occur.SHOULD);
+                }
+            }
+            allTerms.add(anyField.build(), BooleanClause.Occur.MUST);
+        }
+
+        BooleanQuery.Builder query = new BooleanQuery.Builder().setMinimumNumberShouldMatch(1);
+        if (!terms.isEmpty()) {
+            query.add(allTerms.build(), BooleanClause.Occur.SHOULD);
+        }
+        if (numberFragment) {
+            // Partial invoice numbers such as "2024-00" or "0042"
+            query.add(new BoostQuery(new TermQuery(new Term(FIELD_NUMBER_GRAMS, raw)), 4.0f),
+                    BooleanClause.Occur.SHOULD);
+        }
+        if (type != null) {
+            query.add(new TermQuery(new Term(FIELD_TYPE, type)), BooleanClause.Occur.FILTER);
+        }
+        return query.build();
+    }
+
+    private List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        try (TokenStream stream = analyzer.tokenStream(FIELD_NOTES, text)) {
+            CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                terms.add(term.toString());
+            }
+            stream.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return terms;
+    }
+
+    private IndexSearcher acquire() {
+        try {
+            return searcherManager.acquire();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void release(IndexSearcher searcher) {
+        try {
+            searcherManager.release(searcher);
+        } catch (IOException e) {
+            log.warn("Failed to release index searcher", e);
+        }
+    }
+
+    private static boolean readCleanFlag(Directory directory) throws IOException {
+        if (directory.listAll().length == 0) {
+            return true;
+        }
+        try {
+            return "true".equals(SegmentInfos.readLatestCommit(directory).getUserData().get(COMMIT_CLEAN));
+        } catch (IndexNotFoundException e) {
+            return true;
+        }
+    }
+
+    private static Analyzer analyzer() throws IOException {
+        Analyzer text = CustomAnalyzer.builder()
+                .withTokenizer(StandardTokenizerFactory.class)
+                .addTokenFilter(LowerCaseFilterFactory.class)
+                .addTokenFilter(ASCIIFoldingFilterFactory.class)
+                .build();
+        Analyzer grams = CustomAnalyzer.builder()
+                .withTokenizer(KeywordTokenizerFactory.class)
+                .addTokenFilter(LowerCaseFilterFactory.class)
+                .addTokenFilter(NGramFilterFactory.class,
+                        "minGramSize", String.valueOf(MIN_GRAM), "maxGramSize", String.valueOf(MAX_GRAM))
+                .build();
+        return new PerFieldAnalyzerWrapper(text, Map.of(FIELD_NUMBER_GRAMS, grams));
+    }
+}
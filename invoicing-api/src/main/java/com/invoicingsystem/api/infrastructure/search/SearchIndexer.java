@@ -0,0 +1,316 @@
+package com.invoicingsystem.api.infrastructure.search;
+
+import com.invoicingsystem.api.domain.event.ClientChangedEvent;
+import com.invoicingsystem.api.domain.event.InvoiceChangedEvent;
+import com.invoicingsystem.api.domain.event.InvoiceCreatedEvent;
+import com.invoicingsystem.api.domain.event.InvoiceStatusChangedEvent;
+import com.invoicingsystem.api.domain.event.PaymentRecordedEvent;
+import com.invoicingsystem.api.domain.model.Client;
+import com.invoicingsystem.api.domain.model.Invoice;
+import com.invoicingsystem.api.domain.model.InvoiceItem;
+import com.invoicingsystem.api.domain.repository.ClientRepository;
+import com.invoicingsystem.api.domain.repository.InvoiceRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Feeds the {@link SearchIndex} from committed invoice, payment and client events. Events only
+ * mark ids as pending; a single indexer thread reloads pending rows in batches, so a burst of
+ * writes to one invoice costs one reindex and a rolled-back write never reaches the index.
+ * Full reindexes run on the same thread, which keeps them ordered with incremental updates.
+ */
+@Slf4j
+@Component
+public class SearchIndexer implements DisposableBean {
+
+    private static final int BATCH_SIZE = 200;
+
+    private final SearchIndex searchIndex;
+    private final InvoiceRepository invoiceRepository;
+    private final ClientRepository clientRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final SearchProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    private final Set<String> pendingInvoices = ConcurrentHashMap.newKeySet();
+    private final Set<String> pendingClients = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean reindexQueued = new AtomicBoolean();
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "search-indexer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public SearchIndexer(SearchIndex searchIndex,
+                         InvoiceRepository invoiceRepository,
+                         ClientRepository clientRepository,
+                         PlatformTransactionManager transactionManager,
+                         SearchProperties properties,
+                         MeterRegistry meterRegistry) {
+        this.searchIndex = searchIndex;
+        this.invoiceRepository = invoiceRepository;
+        this.clientRepository = clientRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("search.index.pending", this, indexer -> indexer.pendingInvoices.size() + indexer.pendingClients.size())
+                .description("Invoices and clients waiting to be indexed")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        long refresh = properties.getRefreshInterval().toMillis();
+        long commit = properties.getCommitInterval().toMillis();
+        executor.scheduleWithFixedDelay(this::applyPending, refresh, refresh, TimeUnit.MILLISECONDS);
+        executor.scheduleWithFixedDelay(this::commit, commit, commit, TimeUnit.MILLISECONDS);
+
+        if (properties.isReindexOnStartup()
+                && (searchIndex.documentCount() == 0 || !searchIndex.wasClosedCleanly())) {
+            requestReindex();
+        }
+    }
+
+    /**
+     * Queues a full rebuild of the index from the database.
+     *
+     * @return false when a rebuild is already queued or running
+     */
+    public boolean requestReindex() {
+        if (!reindexQueued.compareAndSet(false, true)) {
+            return false;
+        }
+        executor.execute(() -> {
+            try {
+                reindex();
+            } finally {
+                reindexQueued.set(false);
+            }
+        });
+        return true;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInvoiceCreated(InvoiceCreatedEvent event) {
+        pendingInvoices.add(event.getInvoiceId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInvoiceChanged(InvoiceChangedEvent event) {
+        pendingInvoices.add(event.getInvoiceId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInvoiceStatusChanged(InvoiceStatusChangedEvent event) {
+        pendingInvoices.add(event.getInvoiceId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPaymentRecorded(PaymentRecordedEvent event) {
+        // Payments move the invoice status shown in search results
+        pendingInvoices.add(event.getInvoiceId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onClientChanged(ClientChangedEvent event) {
+        pendingClients.add(event.getClientId());
+    }
+
+    void applyPending() {
+        if (pendingInvoices.isEmpty() && pendingClients.isEmpty()) {
+            return;
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        List<String> clientIds = drain(pendingClients);
+        List<String> invoiceIds = new ArrayList<>();
+        try {
+            for (String clientId : clientIds) {
+                indexClient(clientId);
+            }
+            invoiceIds = drain(pendingInvoices);
+            for (int from = 0; from < invoiceIds.size(); from += BATCH_SIZE) {
+                indexInvoices(invoiceIds.subList(from, Math.min(from + BATCH_SIZE, invoiceIds.size())));
+            }
+            searchIndex.refresh();
+        } catch (Exception e) {
+            // Retried on the next run; upserts are idempotent
+            pendingClients.addAll(clientIds);
+            pendingInvoices.addAll(invoiceIds);
+            log.error("Failed to apply pending search index changes", e);
+        } finally {
+            sample.stop(Timer.builder("search.index.apply")
+                    .description("Time to apply pending changes to the search index")
+                    .register(meterRegistry));
+        }
+    }
+
+    void reindex() {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            searchIndex.deleteAll();
+            int clients = 0;
+            Page<Client> page;
+            int pageNumber = 0;
+            do {
+                PageRequest request = PageRequest.of(pageNumber++, BATCH_SIZE, Sort.by("id"));
+                page = readOnlyTransaction.execute(status -> clientRepository.findAll(request));
+                for (Client client : page.getContent()) {
+                    searchIndex.upsert(SearchIndex.TYPE_CLIENT, client.getId(), clientDocument(client));
+                    clients++;
+                }
+            } while (page.hasNext());
+
+            int invoices = 0;
+            String afterId = "";
+            List<String> ids;
+            do {
+                String cursor = afterId;
+                ids = invoiceRepository.findIdsAfter(cursor, PageRequest.of(0, BATCH_SIZE));
+                if (!ids.isEmpty()) {
+                    indexInvoices(ids);
+                    invoices += ids.size();
+                    afterId = ids.get(ids.size() - 1);
+                }
+            } while (ids.size() == BATCH_SIZE);
+
+            searchIndex.commit();
+            searchIndex.refresh();
+            log.info("Rebuilt search index with {} clients and {} invoices", clients, invoices);
+        } catch (Exception e) {
+            log.error("Search index rebuild failed", e);
+        } finally {
+            sample.stop(Timer.builder("search.index.reindex")
+                    .description("Duration of full search index rebuilds")
+                    .register(meterRegistry));
+        }
+    }
+
+    private void indexClient(String clientId) throws IOException {
+        Client client = readOnlyTransaction.execute(status -> clientRepository.findById(clientId).orElse(null));
+        if (client == null) {
+            searchIndex.delete(SearchIndex.TYPE_CLIENT, clientId);
+            searchIndex.deleteInvoicesOfClient(clientId);
+            return;
+        }
+        searchIndex.upsert(SearchIndex.TYPE_CLIENT, clientId, clientDocument(client));
+        // Invoice documents carry the client name
+        pendingInvoices.addAll(invoiceRepository.findIdsByClientId(clientId));
+    }
+
+    private void indexInvoices(List<String> ids) throws IOException {
+        Map<String, Document> documents = new LinkedHashMap<>();
+        readOnlyTransaction.executeWithoutResult(status -> {
+            for (Invoice invoice : invoiceRepository.findAllWithClientAndItemsByIdIn(ids)) {
+                documents.put(invoice.getId(), invoiceDocument(invoice));
+            }
+        });
+        for (Map.Entry<String, Document> document : documents.entrySet()) {
+            searchIndex.upsert(SearchIndex.TYPE_INVOICE, document.getKey(), document.getValue());
+        }
+        for (String id : ids) {
+            if (!documents.containsKey(id)) {
+                searchIndex.delete(SearchIndex.TYPE_INVOICE, id);
+            }
+        }
+    }
+
+    private void commit() {
+        try {
+            searchIndex.commit();
+        } catch (Exception e) {
+            log.error("Failed to commit search index", e);
+        }
+    }
+
+    static Document invoiceDocument(Invoice invoice) {
+        Client client = invoice.getClient();
+        Document document = base(SearchIndex.TYPE_INVOICE, invoice.getId());
+        document.add(new StringField(SearchIndex.FIELD_CLIENT_ID, client.getId(), Field.Store.NO));
+        document.add(new StoredField(SearchIndex.FIELD_TITLE, invoice.getNumber() + " - " + client.getName()));
+        document.add(new StoredField(SearchIndex.FIELD_SUBTITLE, invoice.getStatus() + " - " + invoice.getTotal()));
+        document.add(new TextField(SearchIndex.FIELD_NUMBER, invoice.getNumber(), Field.Store.NO));
+        document.add(new TextField(SearchIndex.FIELD_NUMBER_GRAMS, invoice.getNumber(), Field.Store.NO));
+        document.add(new TextField(SearchIndex.FIELD_CLIENT, client.getName(), Field.Store.NO));
+        addText(document, SearchIndex.FIELD_NOTES, invoice.getNotes());
+        if (invoice.getItems() != null) {
+            for (InvoiceItem item : invoice.getItems()) {
+                addText(document, SearchIndex.FIELD_ITEMS, item.getDescription());
+            }
+        }
+        return document;
+    }
+
+    static Document clientDocument(Client client) {
+        Document document = base(SearchIndex.TYPE_CLIENT, client.getId());
+        document.add(new StoredField(SearchIndex.FIELD_TITLE, client.getName()));
+        document.add(new StoredField(SearchIndex.FIELD_SUBTITLE, client.getEmail()));
+        addText(document, SearchIndex.FIELD_CLIENT, client.getName());
+        addText(document, SearchIndex.FIELD_EMAIL, client.getEmail());
+        addText(document, SearchIndex.FIELD_ADDRESS, client.getAddress());
+        return document;
+    }
+
+    private static Document base(String type, String id) {
+        Document document = new Document();
+        document.add(new StringField(SearchIndex.FIELD_KEY, SearchIndex.key(type, id), Field.Store.NO));
+        document.add(new StringField(SearchIndex.FIELD_TYPE, type, Field.Store.YES));
+        document.add(new StringField(SearchIndex.FIELD_ID, id, Field.Store.YES));
+        return document;
+    }
+
+    private static void addText(Document document, String field, String value) {
+        if (value != null && !value.isBlank()) {
+            document.add(new TextField(field, value, Field.Store.NO));
+        }
+    }
+
+    private static List<String> drain(Set<String> pending) {
+        List<String> drained = new ArrayList<>();
+        for (String id : pending) {
+            if (pending.remove(id)) {
+                drained.add(id);
+            }
+        }
+        return drained;
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+        applyPending();
+    }
+}
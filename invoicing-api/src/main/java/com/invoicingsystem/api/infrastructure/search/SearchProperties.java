@@ -0,0 +1,42 @@
+package com.invoicingsystem.api.infrastructure.search;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "app.search")
+public class SearchProperties {
+
+    /**
+     * Directory of the on-disk full-text index.
+     */
+    private String indexPath = "data/search-index";
+
+    /**
+     * Keep the index in memory instead of on disk (tests and throwaway environments).
+     */
+    private boolean inMemory = false;
+
+    /**
+     * How often pending invoice and client changes are applied and made searchable.
+     */
+    private Duration refreshInterval = Duration.ofMillis(500);
+
+    /**
+     * How often applied changes are committed to disk. Uncommitted changes are recovered by a
+     * reindex on the next start if the process dies.
+     */
+    private Duration commitInterval = Duration.ofSeconds(30);
+
+    /**
+     * Rebuild the index on startup when it is empty or was not closed cleanly.
+     */
+    private boolean reindexOnStartup = true;
+
+    /**
+     * Largest page size a search request may ask for.
+     */
+    private int maxPageSize = 100;
+}
@@ -1,5 +1,6 @@
 package com.invoicingsystem.api.infrastructure.security;
 
+import io.jsonwebtoken.Claims;
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
@@ -8,7 +9,9 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.lang.NonNull;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -17,12 +20,14 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Collections;
 
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtils jwtUtils;
+    private final RevokedSessions revokedSessions;
     @Lazy
     private final UserDetailsService userDetailsService;
 
@@ -34,7 +39,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         // Skip authentication for auth endpoints
         String requestURI = request.getRequestURI();
-        if (requestURI.startsWith("/api/auth/") || requestURI.startsWith("/api/actuator/")) {
+        if (requestURI.startsWith("/api/auth/") || requestURI.startsWith("/api/actuator/health")) {
             filterChain.doFilter(request, response);
             return;
         }
@@ -42,11 +47,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = parseJwt(request);
             if (jwt != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                String username = jwtUtils.extractUsername(jwt);
-
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-
-                if (jwtUtils.validateToken(jwt, userDetails)) {
+                UserDetails userDetails = authenticate(jwtUtils.parseClaims(jwt));
+                if (userDetails != null) {
                     UsernamePasswordAuthenticationToken authentication =
                             new UsernamePasswordAuthenticationToken(
                                     userDetails,
@@ -64,6 +66,23 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Session tokens carry everything needed, so the only check is the in-memory revocation set.
+     * Tokens without a session still fall back to a user lookup until they expire.
+     */
+    private UserDetails authenticate(Claims claims) {
+        String sessionId = claims.get(JwtUtils.SESSION_CLAIM, String.class);
+        String role = claims.get(JwtUtils.ROLE_CLAIM, String.class);
+        if (sessionId == null || role == null) {
+            return userDetailsService.loadUserByUsername(claims.getSubject());
+        }
+        if (revokedSessions.isRevoked(sessionId)) {
+            return null;
+        }
+        return new User(claims.getSubject(), "",
+                Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role)));
+    }
+
     private String parseJwt(HttpServletRequest request) {
         String headerAuth = request.getHeader("Authorization");
 
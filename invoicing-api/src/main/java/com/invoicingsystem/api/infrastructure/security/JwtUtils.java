@@ -13,17 +13,25 @@ import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 @Component
 public class JwtUtils {
 
+    /** Refresh-token family the access token was issued from; checked against revocations. */
+    public static final String SESSION_CLAIM = "sid";
+    public static final String ROLE_CLAIM = "role";
+
     @Value("${jwt.secret}")
     private String secret;
 
     @Value("${jwt.expiration}")
     private Long expiration;
 
+    @Value("${jwt.refresh-expiration:1209600000}")
+    private Long refreshExpiration;
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -37,6 +45,13 @@ public class JwtUtils {
         return claimsResolver.apply(claims);
     }
 
+    /**
+     * Verifies the signature and expiry and returns the claims in a single parse.
+     */
+    public Claims parseClaims(String token) {
+        return extractAllClaims(token);
+    }
+
     private Claims extractAllClaims(String token) {
         return Jwts.parserBuilder()
                 .setSigningKey(getSigningKey())
@@ -69,6 +84,26 @@ public class JwtUtils {
                 .compact();
     }
 
+    /**
+     * Access token carrying the role and session, so requests can be authenticated without a
+     * user lookup.
+     */
+    public String generateAccessToken(UserDetails userDetails, String role, String sessionId) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(ROLE_CLAIM, role);
+        claims.put(SESSION_CLAIM, sessionId);
+        claims.put(Claims.ID, UUID.randomUUID().toString());
+        return generateToken(claims, userDetails);
+    }
+
+    public long getExpiration() {
+        return expiration;
+    }
+
+    public long getRefreshExpiration() {
+        return refreshExpiration;
+    }
+
     public Boolean validateToken(String token, UserDetails userDetails) {
         final String username = extractUsername(token);
         return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
@@ -0,0 +1,166 @@
+package com.invoicingsystem.api.infrastructure.security;
+
+import com.invoicingsystem.api.domain.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Runs password hashing on a small bounded pool instead of the request thread. When the pool and
+ * its queue are full, or a hash waits longer than {@code max-wait}, the caller gets a 503 with
+ * Retry-After rather than tying up a request thread.
+ */
+@Component
+public class PasswordHasher implements DisposableBean {
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[abxy]?\\$(\\d{2})\\$");
+
+    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingProperties properties;
+    private final ThreadPoolExecutor executor;
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final Timer verifyTimer;
+    private final Timer encodeTimer;
+    private final Timer verifyCpu;
+    private final Timer encodeCpu;
+    private final Counter rejected;
+    private volatile String decoyHash;
+
+    public PasswordHasher(PasswordEncoder passwordEncoder, PasswordHashingProperties properties,
+                          MeterRegistry meterRegistry) {
+        this.passwordEncoder = passwordEncoder;
+        this.properties = properties;
+        this.executor = new ThreadPoolExecutor(properties.getThreads(), properties.getThreads(),
+                0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                new CustomizableThreadFactory("password-hash-"), new ThreadPoolExecutor.AbortPolicy());
+
+        this.verifyTimer = hashTimer(meterRegistry, "verify");
+        this.encodeTimer = hashTimer(meterRegistry, "encode");
+        this.verifyCpu = cpuTimer(meterRegistry, "verify");
+        this.encodeCpu = cpuTimer(meterRegistry, "encode");
+        this.rejected = Counter.builder("auth.password.rejected")
+                .description("Hashes rejected because the hashing pool was saturated")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.queue", executor, e -> e.getQueue().size())
+                .description("Hashes waiting for a hashing thread")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Hashes currently running")
+                .register(meterRegistry);
+    }
+
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> passwordEncoder.matches(rawPassword, encodedPassword), verifyTimer, verifyCpu);
+    }
+
+    /**
+     * Verifies against a throwaway hash of the configured cost, so unknown users take as long to
+     * reject as wrong passwords.
+     */
+    public void matchesDecoy(CharSequence rawPassword) {
+        String decoy = decoyHash;
+        if (decoy == null) {
+            decoy = encode("decoy-password");
+            decoyHash = decoy;
+        }
+        matches(rawPassword, decoy);
+    }
+
+    public String encode(CharSequence rawPassword) {
+        return run(() -> passwordEncoder.encode(rawPassword), encodeTimer, encodeCpu);
+    }
+
+    /**
+     * Whether a stored hash was made with a different BCrypt cost than the configured one.
+     */
+    public boolean needsRehash(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        if (passwordEncoder instanceof BCryptPasswordEncoder) {
+            Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+            return matcher.find() && Integer.parseInt(matcher.group(1)) != properties.getBcryptStrength();
+        }
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private <T> T run(Callable<T> hash, Timer wallTimer, Timer cpuTimer) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long cpuStart = threads.getCurrentThreadCpuTime();
+                long start = System.nanoTime();
+                try {
+                    return hash.call();
+                } finally {
+                    wallTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    if (cpuStart >= 0) {
+                        cpuTimer.record(threads.getCurrentThreadCpuTime() - cpuStart, TimeUnit.NANOSECONDS);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            throw saturated();
+        }
+
+        try {
+            return future.get(properties.getMaxWait().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw saturated();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw saturated();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private ServiceUnavailableException saturated() {
+        rejected.increment();
+        return new ServiceUnavailableException("Too many concurrent logins, please retry",
+                properties.getRetryAfterSeconds());
+    }
+
+    private static Timer hashTimer(MeterRegistry registry, String operation) {
+        return Timer.builder("auth.password.hash")
+                .description("Time spent hashing passwords")
+                .tag("operation", operation)
+                .register(registry);
+    }
+
+    private static Timer cpuTimer(MeterRegistry registry, String operation) {
+        return Timer.builder("auth.password.cpu")
+                .description("CPU time spent hashing passwords")
+                .tag("operation", operation)
+                .register(registry);
+    }
+}
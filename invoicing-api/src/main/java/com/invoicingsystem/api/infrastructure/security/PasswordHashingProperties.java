@@ -0,0 +1,39 @@
+package com.invoicingsystem.api.infrastructure.security;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "app.password-hashing")
+public class PasswordHashingProperties {
+
+    /**
+     * BCrypt cost factor for new hashes. Stored hashes with a different cost are re-encoded on
+     * the next successful login.
+     */
+    private int bcryptStrength = 10;
+
+    /**
+     * Threads dedicated to hashing, so a login storm cannot occupy every request thread.
+     */
+    private int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+    /**
+     * Hashes allowed to wait for a thread before further logins are rejected.
+     */
+    private int queueCapacity = 32;
+
+    /**
+     * How long a login waits for its hash, queueing included, before it is rejected.
+     */
+    private Duration maxWait = Duration.ofSeconds(3);
+
+    /**
+     * Value of the Retry-After header sent with 503 responses when hashing is saturated.
+     */
+    private long retryAfterSeconds = 1;
+
+    private boolean rehashOnLogin = true;
+}
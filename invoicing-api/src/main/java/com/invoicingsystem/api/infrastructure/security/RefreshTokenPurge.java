@@ -0,0 +1,40 @@
+package com.invoicingsystem.api.infrastructure.security;
+
+import com.invoicingsystem.api.domain.repository.RefreshTokenRepository;
+import com.invoicingsystem.api.infrastructure.jobs.ClusterJob;
+import com.invoicingsystem.api.infrastructure.jobs.JobContext;
+import com.invoicingsystem.api.infrastructure.jobs.JobSchedule;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Deletes refresh tokens past their expiry at the top of every hour.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RefreshTokenPurge implements ClusterJob {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+
+    @Override
+    public String name() {
+        return "refresh-token-purge";
+    }
+
+    @Override
+    public JobSchedule schedule() {
+        return JobSchedule.cron("0 0 * * * *");
+    }
+
+    @Override
+    public void run(JobContext context) {
+        int purged = refreshTokenRepository.deleteExpired(LocalDateTime.now());
+        if (purged > 0) {
+            log.info("Purged {} expired refresh tokens", purged);
+        }
+    }
+}
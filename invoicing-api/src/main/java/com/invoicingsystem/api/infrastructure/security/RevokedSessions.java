@@ -0,0 +1,90 @@
+package com.invoicingsystem.api.infrastructure.security;
+
+import com.invoicingsystem.api.domain.repository.RefreshTokenRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Session ids revoked within the last access-token lifetime, held in memory so each request can
+ * be checked without a query. Built from the refresh-token table at startup and kept in sync
+ * every {@code jwt.revocation-sync-interval}, so revocations made on other instances apply
+ * within seconds. Older revocations are dropped: every access token they could cover has expired.
+ */
+@Slf4j
+@Component
+public class RevokedSessions implements SchedulingConfigurer {
+
+    // Re-read a little before the last sync to catch clock skew and late-committing revocations
+    private static final Duration SYNC_OVERLAP = Duration.ofMinutes(1);
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final Duration accessTokenLifetime;
+    private final Duration syncInterval;
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+    private volatile LocalDateTime syncedAt;
+
+    public RevokedSessions(RefreshTokenRepository refreshTokenRepository,
+                           JwtUtils jwtUtils,
+                           @Value("${jwt.revocation-sync-interval:5s}") Duration syncInterval,
+                           MeterRegistry meterRegistry) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.accessTokenLifetime = Duration.ofMillis(jwtUtils.getExpiration());
+        this.syncInterval = syncInterval;
+        Gauge.builder("auth.sessions.revoked", revoked, Map::size)
+                .description("Revoked sessions whose access tokens may still be unexpired")
+                .register(meterRegistry);
+    }
+
+    public boolean isRevoked(String sessionId) {
+        return revoked.containsKey(sessionId);
+    }
+
+    /**
+     * Applies a revocation on this instance immediately; other instances pick it up on their next sync.
+     */
+    public void revoke(String sessionId) {
+        revoked.put(sessionId, System.currentTimeMillis() + accessTokenLifetime.toMillis());
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar registrar) {
+        registrar.addFixedDelayTask(this::sync, syncInterval.toMillis());
+    }
+
+    /**
+     * Pulls revocations recorded since the last sync, or within the last access-token lifetime on
+     * the first run, and drops entries that have outlived every token they could cover.
+     */
+    public void sync() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime since = syncedAt == null
+                ? now.minus(accessTokenLifetime)
+                : syncedAt.minus(SYNC_OVERLAP);
+        try {
+            List<String> sessionIds = refreshTokenRepository.findFamilyIdsRevokedSince(since);
+            for (String sessionId : sessionIds) {
+                revoked.putIfAbsent(sessionId, System.currentTimeMillis() + accessTokenLifetime.toMillis());
+            }
+            syncedAt = now;
+        } catch (Exception e) {
+            log.error("Revoked session sync failed", e);
+        }
+        long nowMillis = System.currentTimeMillis();
+        revoked.values().removeIf(evictAt -> evictAt < nowMillis);
+    }
+
+    int size() {
+        return revoked.size();
+    }
+}
@@ -23,6 +23,13 @@ public class UserDetailsServiceImpl implements UserDetailsService {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "email", email));
 
+        return principalOf(user);
+    }
+
+    /**
+     * The principal for a user already loaded, so callers holding the entity need not look it up again.
+     */
+    public static UserDetails principalOf(User user) {
         return new org.springframework.security.core.userdetails.User(
                 user.getEmail(),
                 user.getPassword(),
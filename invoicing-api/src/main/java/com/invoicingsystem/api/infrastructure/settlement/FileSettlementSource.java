@@ -0,0 +1,168 @@
+package com.invoicingsystem.api.infrastructure.settlement;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.invoicingsystem.api.application.command.SettlePaymentCommand;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Local processor stub reading confirmations from {@code *.jsonl} files dropped into a directory,
+ * one JSON confirmation per line. Writers should create the file under another name and rename
+ * it into place. A file is claimed by moving it to {@code processing/}, read in batches and moved
+ * to {@code processed/} once its last batch is acknowledged; a failed batch puts the whole file
+ * back, so its earlier batches come round again as duplicates. Unreadable lines are logged and
+ * skipped. Only one instance should consume a directory.
+ */
+@Slf4j
+public class FileSettlementSource implements SettlementSource {
+
+    private static final String SUFFIX = ".jsonl";
+
+    private final Path dropDirectory;
+    private final Path processing;
+    private final Path processed;
+    private final ObjectMapper objectMapper;
+    private final Counter malformed;
+    private Path current;
+    private BufferedReader reader;
+    private int lineNumber;
+    private boolean exhausted;
+
+    public FileSettlementSource(String dropDirectory, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.dropDirectory = Paths.get(dropDirectory).toAbsolutePath().normalize();
+        this.processing = this.dropDirectory.resolve("processing");
+        this.processed = this.dropDirectory.resolve("processed");
+        this.objectMapper = objectMapper;
+        this.malformed = Counter.builder("settlement.malformed")
+                .description("Unreadable lines skipped in settlement files")
+                .register(meterRegistry);
+        try {
+            Files.createDirectories(processing);
+            Files.createDirectories(processed);
+            // Files claimed before a restart start over
+            for (Path file : list(processing)) {
+                Files.move(file, this.dropDirectory.resolve(file.getFileName()), StandardCopyOption.ATOMIC_MOVE);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot prepare settlement drop directory " + this.dropDirectory, e);
+        }
+    }
+
+    @Override
+    public String name() {
+        return "file";
+    }
+
+    @Override
+    public List<SettlePaymentCommand> poll(int max) throws IOException {
+        List<SettlePaymentCommand> batch = new ArrayList<>();
+        while (true) {
+            if (current == null && !claimNext()) {
+                return batch;
+            }
+            String line = null;
+            while (batch.size() < max && (line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    batch.add(objectMapper.readValue(line, SettlePaymentCommand.class));
+                } catch (JsonProcessingException e) {
+                    malformed.increment();
+                    log.warn("Skipping unreadable settlement {}:{}: {}", current.getFileName(), lineNumber,
+                            e.getOriginalMessage());
+                }
+            }
+            exhausted = line == null;
+            if (!batch.isEmpty() || !exhausted) {
+                return batch;
+            }
+            // Nothing left in this file to apply
+            finish();
+        }
+    }
+
+    @Override
+    public void acknowledge() throws IOException {
+        if (current != null && exhausted) {
+            finish();
+        }
+    }
+
+    @Override
+    public void retry(List<SettlePaymentCommand> confirmations) throws IOException {
+        if (current != null) {
+            Path file = current;
+            close();
+            Files.move(file, dropDirectory.resolve(file.getFileName()), StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+    @Override
+    public int backlog() {
+        try {
+            return list(dropDirectory).size() + (current != null ? 1 : 0);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private boolean claimNext() throws IOException {
+        for (Path file : list(dropDirectory)) {
+            Path claimed = processing.resolve(file.getFileName());
+            try {
+                Files.move(file, claimed, StandardCopyOption.ATOMIC_MOVE);
+            } catch (NoSuchFileException e) {
+                continue;
+            }
+            current = claimed;
+            reader = Files.newBufferedReader(claimed, StandardCharsets.UTF_8);
+            lineNumber = 0;
+            exhausted = false;
+            return true;
+        }
+        return false;
+    }
+
+    private void finish() throws IOException {
+        Path file = current;
+        close();
+        Files.move(file, processed.resolve(file.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private void close() throws IOException {
+        try {
+            reader.close();
+        } finally {
+            reader = null;
+            current = null;
+        }
+    }
+
+    // Oldest name first, so files named by time are applied in order
+    private static List<Path> list(Path directory) throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            stream.forEach(files::add);
+        }
+        Collections.sort(files);
+        return files;
+    }
+}
@@ -0,0 +1,72 @@
+package com.invoicingsystem.api.infrastructure.settlement;
+
+import com.invoicingsystem.api.application.command.SettlePaymentCommand;
+import com.invoicingsystem.api.domain.exception.ServiceUnavailableException;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.ListIterator;
+
+/**
+ * Bounded in-memory queue of confirmations posted to {@code /settlements}, for processors that
+ * push instead of dropping files. Held confirmations are lost on restart; the processor is
+ * expected to redeliver anything it did not see settled.
+ */
+public class SettlementInbox implements SettlementSource {
+
+    private final Deque<SettlePaymentCommand> queue = new ArrayDeque<>();
+    private final int capacity;
+    private final long retryAfterSeconds;
+
+    public SettlementInbox(int capacity, long retryAfterSeconds) {
+        this.capacity = capacity;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * Queues all of the confirmations or, when they do not fit, none of them.
+     *
+     * @return confirmations now waiting, these included
+     */
+    public synchronized int offer(List<SettlePaymentCommand> confirmations) {
+        if (queue.size() + confirmations.size() > capacity) {
+            throw new ServiceUnavailableException("Settlement inbox is full", retryAfterSeconds);
+        }
+        queue.addAll(confirmations);
+        return queue.size();
+    }
+
+    @Override
+    public String name() {
+        return "http";
+    }
+
+    @Override
+    public synchronized List<SettlePaymentCommand> poll(int max) {
+        List<SettlePaymentCommand> batch = new ArrayList<>(Math.min(max, queue.size()));
+        while (batch.size() < max && !queue.isEmpty()) {
+            batch.add(queue.poll());
+        }
+        return batch;
+    }
+
+    @Override
+    public void acknowledge() {
+    }
+
+    @Override
+    public synchronized void retry(List<SettlePaymentCommand> confirmations) {
+        // Back at the head in their original order, even past capacity: they were already accepted
+        ListIterator<SettlePaymentCommand> it = confirmations.listIterator(confirmations.size());
+        while (it.hasPrevious()) {
+            queue.addFirst(it.previous());
+        }
+    }
+
+    @Override
+    public synchronized int backlog() {
+        return queue.size();
+    }
+}
@@ -0,0 +1,62 @@
+package com.invoicingsystem.api.infrastructure.settlement;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "app.settlement")
+public class SettlementProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Pause between polls.
+     */
+    private Duration pollInterval = Duration.ofSeconds(1);
+
+    /**
+     * Confirmations taken from a source at a time. Each lane's share of them is applied in one
+     * transaction.
+     */
+    private int batchSize = 500;
+
+    /**
+     * Batches taken from each source per poll. Polls share the scheduler thread with other
+     * housekeeping such as revoked-session sync, so a large backlog is worked off over several
+     * polls instead of holding that thread.
+     */
+    private int maxBatchesPerPoll = 20;
+
+    private FileDrop file = new FileDrop();
+
+    private Http http = new Http();
+
+    @Data
+    public static class FileDrop {
+
+        private boolean enabled = true;
+
+        /**
+         * Directory processors drop {@code *.jsonl} files of confirmations into, one per line.
+         */
+        private String dropDirectory = "data/settlements";
+    }
+
+    @Data
+    public static class Http {
+
+        /**
+         * Accept confirmations posted to {@code /settlements}.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Confirmations held in memory until applied; posts beyond it are turned away with a 503.
+         */
+        private int capacity = 10000;
+
+        private long retryAfterSeconds = 1;
+    }
+}
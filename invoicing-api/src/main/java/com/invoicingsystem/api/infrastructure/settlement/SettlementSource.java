@@ -0,0 +1,36 @@
+package com.invoicingsystem.api.infrastructure.settlement;
+
+import com.invoicingsystem.api.application.command.SettlePaymentCommand;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Where settlement confirmations come from. Polled by a single {@link SettlementWorker} thread:
+ * each poll is followed by either {@link #acknowledge} or {@link #retry} before the next one.
+ */
+public interface SettlementSource {
+
+    String name();
+
+    /**
+     * Up to {@code max} confirmations; empty once the source has nothing waiting.
+     */
+    List<SettlePaymentCommand> poll(int max) throws IOException;
+
+    /**
+     * The last polled confirmations were applied or rejected and need not be seen again.
+     */
+    void acknowledge() throws IOException;
+
+    /**
+     * Applying the last polled confirmations failed; they are to be offered again on a later
+     * poll. Some may have been applied already and come back as duplicates.
+     */
+    void retry(List<SettlePaymentCommand> confirmations) throws IOException;
+
+    /**
+     * Confirmations, or for file sources files, waiting to be polled.
+     */
+    int backlog();
+}
@@ -0,0 +1,226 @@
+package com.invoicingsystem.api.infrastructure.settlement;
+
+import com.invoicingsystem.api.application.command.SettlePaymentCommand;
+import com.invoicingsystem.api.application.query.SettlementResult;
+import com.invoicingsystem.api.application.service.SettlementService;
+import com.invoicingsystem.api.domain.repository.SettlementTarget;
+import com.invoicingsystem.api.infrastructure.lanes.InvoiceLaneProperties;
+import com.invoicingsystem.api.infrastructure.lanes.Lane;
+import com.invoicingsystem.api.infrastructure.lanes.StripedLanes;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Applies settlement confirmations from every {@link SettlementSource} on this instance. Each
+ * batch is resolved to invoices, grouped per invoice and split by invoice lane; every lane's
+ * share is applied in one transaction while holding that lane, so settlements serialize with
+ * API writes to the same invoices without holding up the others. A failed batch goes back to
+ * its source and is retried on the next poll.
+ */
+@Slf4j
+@Component
+public class SettlementWorker implements SchedulingConfigurer {
+
+    private final List<SettlementSource> sources;
+    private final SettlementService settlementService;
+    private final StripedLanes stripedLanes;
+    private final InvoiceLaneProperties laneProperties;
+    private final SettlementProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public SettlementWorker(ObjectProvider<SettlementSource> sources,
+                            SettlementService settlementService,
+                            StripedLanes stripedLanes,
+                            InvoiceLaneProperties laneProperties,
+                            SettlementProperties properties,
+                            MeterRegistry meterRegistry) {
+        this(sources.orderedStream().collect(Collectors.toList()), settlementService, stripedLanes,
+                laneProperties, properties, meterRegistry);
+    }
+
+    SettlementWorker(List<SettlementSource> sources,
+                     SettlementService settlementService,
+                     StripedLanes stripedLanes,
+                     InvoiceLaneProperties laneProperties,
+                     SettlementProperties properties,
+                     MeterRegistry meterRegistry) {
+        this.sources = sources;
+        this.settlementService = settlementService;
+        this.stripedLanes = stripedLanes;
+        this.laneProperties = laneProperties;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        for (SettlementSource source : sources) {
+            Gauge.builder("settlement.backlog", source, SettlementSource::backlog)
+                    .description("Settlement confirmations, or files of them, waiting to be applied")
+                    .tag("source", source.name())
+                    .register(meterRegistry);
+        }
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar registrar) {
+        if (properties.isEnabled() && !sources.isEmpty()) {
+            registrar.addFixedDelayTask(this::drain, properties.getPollInterval().toMillis());
+        }
+    }
+
+    /**
+     * Applies up to {@code max-batches-per-poll} batches from each source, stopping early once it
+     * has none left or a batch fails.
+     */
+    public void drain() {
+        for (SettlementSource source : sources) {
+            try {
+                // Bounded so a large drop cannot hold the shared scheduler thread
+                for (int batches = 0; batches < properties.getMaxBatchesPerPoll() && drain(source); batches++) {
+                    // next batch
+                }
+            } catch (Exception e) {
+                log.error("Applying settlements from {} failed; retrying on the next poll", source.name(), e);
+            }
+        }
+    }
+
+    private boolean drain(SettlementSource source) throws IOException {
+        List<SettlePaymentCommand> batch = source.poll(properties.getBatchSize());
+        if (batch.isEmpty()) {
+            return false;
+        }
+        try {
+            apply(source.name(), batch);
+        } catch (RuntimeException e) {
+            source.retry(batch);
+            throw e;
+        }
+        source.acknowledge();
+        return true;
+    }
+
+    private void apply(String source, List<SettlePaymentCommand> batch) {
+        Map<String, String> invoiceOf = resolve(batch);
+
+        // Lane index to the lane's confirmations, grouped per invoice
+        Map<Integer, Map<String, List<SettlePaymentCommand>>> byLane = new TreeMap<>();
+        int unknown = 0;
+        for (SettlePaymentCommand confirmation : batch) {
+            String paymentId = confirmation.getPaymentId() != null
+                    ? confirmation.getPaymentId()
+                    : invoiceOf.get(referenceKey(confirmation.getReference()));
+            String invoiceId = paymentId != null ? invoiceOf.get(paymentId) : null;
+            if (invoiceId == null) {
+                unknown++;
+                continue;
+            }
+            confirmation.setPaymentId(paymentId);
+            int lane = laneProperties.isEnabled() ? stripedLanes.laneFor(invoiceId).getIndex() : -1;
+            byLane.computeIfAbsent(lane, index -> new TreeMap<>())
+                    .computeIfAbsent(invoiceId, id -> new ArrayList<>())
+                    .add(confirmation);
+        }
+        if (unknown > 0) {
+            count(source, SettlementResult.Rejection.UNKNOWN_PAYMENT.name(), unknown);
+        }
+
+        for (Map<String, List<SettlePaymentCommand>> group : byLane.values()) {
+            SettlementResult result;
+            if (laneProperties.isEnabled()) {
+                Lane lane = stripedLanes.laneFor(group.keySet().iterator().next());
+                long start = lane.acquire();
+                try {
+                    result = settlementService.settle(group);
+                } finally {
+                    lane.release(start);
+                }
+            } else {
+                result = settlementService.settle(group);
+            }
+            record(source, result);
+        }
+
+        Timer delivery = lag("delivery");
+        LocalDateTime now = LocalDateTime.now();
+        for (SettlePaymentCommand confirmation : batch) {
+            if (confirmation.getSettledAt() != null && !confirmation.getSettledAt().isAfter(now)) {
+                delivery.record(Duration.between(confirmation.getSettledAt(), now));
+            }
+        }
+    }
+
+    /**
+     * Maps each payment id to its invoice id and each reference key to its payment id. A
+     * reference carried by more than one payment is left out, so its confirmations count as unknown.
+     */
+    private Map<String, String> resolve(List<SettlePaymentCommand> batch) {
+        Set<String> paymentIds = new HashSet<>();
+        Set<String> references = new HashSet<>();
+        for (SettlePaymentCommand confirmation : batch) {
+            if (confirmation.getPaymentId() != null) {
+                paymentIds.add(confirmation.getPaymentId());
+            } else {
+                references.add(confirmation.getReference());
+            }
+        }
+        Map<String, String> resolved = new HashMap<>();
+        Set<String> ambiguous = new HashSet<>();
+        for (SettlementTarget target : settlementService.findTargets(paymentIds, references)) {
+            resolved.put(target.getId(), target.getInvoiceId());
+            if (target.getReference() != null && references.contains(target.getReference())) {
+                String previous = resolved.put(referenceKey(target.getReference()), target.getId());
+                if (previous != null && !previous.equals(target.getId())) {
+                    ambiguous.add(referenceKey(target.getReference()));
+                }
+            }
+        }
+        resolved.keySet().removeAll(ambiguous);
+        return resolved;
+    }
+
+    private void record(String source, SettlementResult result) {
+        count(source, "settled", result.getSettled());
+        count(source, "duplicate", result.getDuplicates());
+        result.getRejected().forEach((rejection, count) -> count(source, rejection.name(), count));
+        Timer pending = lag("pending");
+        result.getPendingTimes().forEach(pending::record);
+    }
+
+    private void count(String source, String outcome, int count) {
+        if (count > 0) {
+            meterRegistry.counter("settlement.confirmations", "source", source, "outcome", outcome.toLowerCase())
+                    .increment(count);
+        }
+    }
+
+    // pending: payment received until settled here; delivery: settled by the processor until applied here
+    private Timer lag(String stage) {
+        return Timer.builder("settlement.lag")
+                .description("Time from a payment being received or settled by its processor until it is applied")
+                .tag("stage", stage)
+                .register(meterRegistry);
+    }
+
+    // References share the map with payment ids, so keep them apart
+    private static String referenceKey(String reference) {
+        return "ref:" + reference;
+    }
+}
@@ -0,0 +1,111 @@
+package com.invoicingsystem.api.infrastructure.statements;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Folds statement text and the values it is matched against into comparable byte keys, and
+ * hashes them (64-bit FNV-1a) straight from the mapped statement without copying. Non-ASCII
+ * bytes are compared as they are.
+ */
+enum KeyNormalizer {
+
+    /**
+     * Invoice numbers and references: ASCII upper-cased, blanks and quotes dropped.
+     */
+    CODE {
+        @Override
+        int map(int b) {
+            if (b == ' ' || b == '\t' || b == '"') {
+                return -1;
+            }
+            return b >= 'a' && b <= 'z' ? b - 32 : b;
+        }
+    },
+
+    /**
+     * Names: ASCII letters lower-cased and digits; punctuation and blanks dropped, so
+     * "ACME Corp." and "Acme corp" compare equal.
+     */
+    NAME {
+        @Override
+        int map(int b) {
+            if (b >= 'A' && b <= 'Z') {
+                return b + 32;
+            }
+            if ((b >= 'a' && b <= 'z') || (b >= '0' && b <= '9') || b >= 0x80) {
+                return b;
+            }
+            return -1;
+        }
+    },
+
+    /**
+     * Raw line content, for identifying a line that carries no reference.
+     */
+    RAW {
+        @Override
+        int map(int b) {
+            return b == '\r' ? -1 : b;
+        }
+    };
+
+    private static final long OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long PRIME = 0x100000001b3L;
+
+    /**
+     * The normalized byte, or -1 to drop it.
+     */
+    abstract int map(int b);
+
+    /**
+     * Hash of the normalized range; 0 when nothing is left after normalizing.
+     */
+    long hash(ByteBuffer buffer, int start, int end) {
+        long hash = OFFSET_BASIS;
+        boolean empty = true;
+        for (int i = start; i < end; i++) {
+            int b = map(buffer.get(i) & 0xff);
+            if (b >= 0) {
+                hash = (hash ^ b) * PRIME;
+                empty = false;
+            }
+        }
+        if (empty) {
+            return 0;
+        }
+        return hash == 0 ? 1 : hash;
+    }
+
+    long hash(byte[] key) {
+        return hash(ByteBuffer.wrap(key), 0, key.length);
+    }
+
+    boolean matches(ByteBuffer buffer, int start, int end, byte[] key) {
+        int j = 0;
+        for (int i = start; i < end; i++) {
+            int b = map(buffer.get(i) & 0xff);
+            if (b < 0) {
+                continue;
+            }
+            if (j >= key.length || key[j] != (byte) b) {
+                return false;
+            }
+            j++;
+        }
+        return j == key.length;
+    }
+
+    byte[] normalize(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length);
+        for (byte raw : bytes) {
+            int b = map(raw & 0xff);
+            if (b >= 0) {
+                out.write(b);
+            }
+        }
+        return out.toByteArray();
+    }
+}
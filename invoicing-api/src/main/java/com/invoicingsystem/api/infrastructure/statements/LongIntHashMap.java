@@ -0,0 +1,91 @@
+package com.invoicingsystem.api.infrastructure.statements;
+
+/**
+ * Open-addressing map from non-zero long keys to int values, so lookups while matching neither
+ * box nor allocate.
+ */
+final class LongIntHashMap {
+
+    static final int MISSING = -1;
+
+    /**
+     * Stored in place of the value when a key was put with two different values.
+     */
+    static final int AMBIGUOUS = -2;
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+
+    LongIntHashMap(int expectedSize) {
+        allocate(Integer.highestOneBit(Math.max(4, expectedSize) * 2 - 1) << 1);
+    }
+
+    int get(long key) {
+        int index = indexOf(key);
+        return keys[index] == 0 ? MISSING : values[index];
+    }
+
+    /**
+     * Maps the key to the value, or marks it {@link #AMBIGUOUS} if it already maps to another.
+     */
+    void put(long key, int value) {
+        int index = indexOf(key);
+        if (keys[index] == 0) {
+            insert(index, key, value);
+        } else if (values[index] != value) {
+            values[index] = AMBIGUOUS;
+        }
+    }
+
+    /**
+     * Adds one to the key's count and returns the new count.
+     */
+    int increment(long key) {
+        int index = indexOf(key);
+        if (keys[index] == 0) {
+            insert(index, key, 1);
+            return 1;
+        }
+        return ++values[index];
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void insert(int index, long key, int value) {
+        keys[index] = key;
+        values[index] = value;
+        if (++size > keys.length / 2) {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            allocate(oldKeys.length * 2);
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0) {
+                    int slot = indexOf(oldKeys[i]);
+                    keys[slot] = oldKeys[i];
+                    values[slot] = oldValues[i];
+                }
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    private int indexOf(long key) {
+        if (key == 0) {
+            throw new IllegalArgumentException("Zero is reserved for empty slots");
+        }
+        int index = (int) ((key ^ (key >>> 32)) * 0x9E3779B97F4A7C15L >>> 32) & mask;
+        while (keys[index] != 0 && keys[index] != key) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+}
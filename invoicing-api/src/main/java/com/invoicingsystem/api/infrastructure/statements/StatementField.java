@@ -0,0 +1,25 @@
+package com.invoicingsystem.api.infrastructure.statements;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The statement columns used for matching, with the header names they are recognised by.
+ */
+public enum StatementField {
+    DATE("date", "booking date", "value date", "transaction date"),
+    AMOUNT("amount", "credit", "amount (eur)", "amount (usd)"),
+    REFERENCE("reference", "transaction id", "end to end id", "bank reference"),
+    MEMO("memo", "description", "details", "remittance information", "purpose"),
+    COUNTERPARTY("counterparty", "payer", "name", "counterparty name");
+
+    private final List<String> defaultHeaders;
+
+    StatementField(String... defaultHeaders) {
+        this.defaultHeaders = Arrays.asList(defaultHeaders);
+    }
+
+    public List<String> getDefaultHeaders() {
+        return defaultHeaders;
+    }
+}
@@ -0,0 +1,11 @@
+package com.invoicingsystem.api.infrastructure.statements;
+
+/**
+ * A statement file or field that cannot be read.
+ */
+public class StatementFormatException extends RuntimeException {
+
+    public StatementFormatException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,43 @@
+package com.invoicingsystem.api.infrastructure.statements;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "app.statement-import")
+public class StatementImportProperties {
+
+    /**
+     * Directory uploaded statements are spooled to until their import finishes.
+     */
+    private String uploadDirectory = "data/statement-uploads";
+
+    /**
+     * Statement lines applied per transaction.
+     */
+    private int batchSize = 500;
+
+    /**
+     * Imports running at once on this node; uploads beyond it are turned away with a 503.
+     */
+    private int maxConcurrentImports = 1;
+
+    private long retryAfterSeconds = 30;
+
+    private char delimiter = ',';
+
+    /**
+     * How much of the file is mapped into memory at a time. No single record may be longer.
+     */
+    private DataSize mapWindow = DataSize.ofMegabytes(256);
+
+    /**
+     * Header names recognised per field, replacing the built-in ones for that field.
+     */
+    private Map<StatementField, List<String>> headers = new EnumMap<>(StatementField.class);
+}
@@ -0,0 +1,278 @@
+package com.invoicingsystem.api.infrastructure.statements;
+
+import com.invoicingsystem.api.application.command.StatementEntry;
+import com.invoicingsystem.api.application.query.StatementBatchResult;
+import com.invoicingsystem.api.application.query.StatementImportDto;
+import com.invoicingsystem.api.application.service.StatementImportService;
+import com.invoicingsystem.api.domain.exception.BadRequestException;
+import com.invoicingsystem.api.domain.exception.ServiceUnavailableException;
+import com.invoicingsystem.api.infrastructure.bulkhead.BulkheadRegistry;
+import com.invoicingsystem.api.infrastructure.bulkhead.WorkloadClass;
+import com.invoicingsystem.api.infrastructure.lanes.InvoiceLaneProperties;
+import com.invoicingsystem.api.infrastructure.lanes.Lane;
+import com.invoicingsystem.api.infrastructure.lanes.StripedLanes;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs bank statement imports in the background on the batch executor. The uploaded file is
+ * spooled to disk, streamed through {@link StatementParser} and {@link StatementMatcher} one
+ * record at a time, and the results are applied through {@link StatementImportService#applyBatch}
+ * every {@code batch-size} lines, so memory use does not grow with the file. Matched lines of a
+ * batch are split by invoice lane and each lane's share is applied while holding that lane, so
+ * imported payments serialize with every other write to the same invoices.
+ */
+@Slf4j
+@Component
+public class StatementImporter {
+
+    private final StatementImportService statementImportService;
+    private final StatementImportProperties properties;
+    private final BulkheadRegistry bulkheadRegistry;
+    private final StripedLanes stripedLanes;
+    private final InvoiceLaneProperties laneProperties;
+    private final MeterRegistry meterRegistry;
+    private final Semaphore permits;
+    private final AtomicInteger active = new AtomicInteger();
+
+    public StatementImporter(StatementImportService statementImportService,
+                             StatementImportProperties properties,
+                             BulkheadRegistry bulkheadRegistry,
+                             StripedLanes stripedLanes,
+                             InvoiceLaneProperties laneProperties,
+                             MeterRegistry meterRegistry) {
+        this.statementImportService = statementImportService;
+        this.properties = properties;
+        this.bulkheadRegistry = bulkheadRegistry;
+        this.stripedLanes = stripedLanes;
+        this.laneProperties = laneProperties;
+        this.meterRegistry = meterRegistry;
+        // One import at a time by default, so two files cannot pay the same invoice concurrently
+        this.permits = new Semaphore(properties.getMaxConcurrentImports());
+        Gauge.builder("statements.imports.active", active, AtomicInteger::get)
+                .description("Statement imports running on this node")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Spools the upload and starts importing it.
+     *
+     * @return the import, still running
+     * @throws ServiceUnavailableException if the node is already running its maximum of imports
+     */
+    public StatementImportDto submit(MultipartFile file, String startedBy) throws IOException {
+        if (file.isEmpty()) {
+            throw new BadRequestException("Statement file is empty");
+        }
+        if (!permits.tryAcquire()) {
+            throw new ServiceUnavailableException("A statement import is already running, please retry later",
+                    properties.getRetryAfterSeconds());
+        }
+        Path spooled = null;
+        StatementImportDto started = null;
+        try {
+            Path directory = Paths.get(properties.getUploadDirectory());
+            Files.createDirectories(directory);
+            spooled = Files.createTempFile(directory, "statement-", ".csv");
+            file.transferTo(spooled);
+            String filename = file.getOriginalFilename() != null ? file.getOriginalFilename() : spooled.getFileName().toString();
+            started = statementImportService.startImport(filename, startedBy);
+            String importId = started.getId();
+            Path path = spooled;
+            bulkheadRegistry.submit(WorkloadClass.BATCH, () -> {
+                try {
+                    run(importId, path);
+                } finally {
+                    delete(path);
+                    permits.release();
+                }
+            });
+            return started;
+        } catch (IOException | RuntimeException e) {
+            permits.release();
+            if (spooled != null) {
+                delete(spooled);
+            }
+            if (started != null) {
+                statementImportService.finishImport(started.getId(), "Not started: " + e.getMessage());
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Imports a spooled statement file and records the outcome on the import.
+     */
+    StatementImportDto run(String importId, Path file) {
+        active.incrementAndGet();
+        long start = System.nanoTime();
+        Batch batch = null;
+        String error = null;
+        try {
+            StatementMatcher matcher = new StatementMatcher(statementImportService.findOpenInvoices(),
+                    statementImportService.findPendingReferences());
+            batch = new Batch(importId, matcher);
+            parser().parse(file, batch::add);
+            batch.flush();
+        } catch (StatementFormatException e) {
+            error = e.getMessage();
+        } catch (Exception e) {
+            log.error("Statement import {} failed", importId, e);
+            error = e.getClass().getSimpleName() + ": " + e.getMessage();
+        } finally {
+            active.decrementAndGet();
+        }
+
+        long durationNanos = System.nanoTime() - start;
+        Timer.builder("statements.import")
+                .description("Statement import durations")
+                .tag("outcome", error == null ? "completed" : "failed")
+                .register(meterRegistry)
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+        StatementImportDto finished = statementImportService.finishImport(importId, error);
+        long millis = TimeUnit.NANOSECONDS.toMillis(durationNanos);
+        log.info("Statement import {} {} in {} ms: {} lines, {} matched, {} duplicates, {} exceptions, {} ignored",
+                importId, error == null ? "completed" : "failed", millis, finished.getLineCount(),
+                finished.getMatchedCount(), finished.getDuplicateCount(), finished.getExceptionCount(),
+                finished.getIgnoredCount());
+        return finished;
+    }
+
+    StatementParser parser() {
+        return new StatementParser(properties.getHeaders(), properties.getDelimiter(),
+                (int) Math.min(Integer.MAX_VALUE, properties.getMapWindow().toBytes()));
+    }
+
+    private void count(String result, long amount) {
+        if (amount > 0) {
+            Counter.builder("statements.lines")
+                    .description("Statement lines imported, by result")
+                    .tag("result", result)
+                    .register(meterRegistry)
+                    .increment(amount);
+        }
+    }
+
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete spooled statement {}", file, e);
+        }
+    }
+
+    /**
+     * Turns records into entries and applies them a batch at a time.
+     */
+    private final class Batch {
+
+        private final String importId;
+        private final StatementMatcher matcher;
+        // Occurrences of each line without a reference, so identical lines get distinct references
+        private final LongIntHashMap occurrences = new LongIntHashMap(1024);
+        private List<StatementEntry> entries = new ArrayList<>(properties.getBatchSize());
+        private long ignored;
+
+        Batch(String importId, StatementMatcher matcher) {
+            this.importId = importId;
+            this.matcher = matcher;
+        }
+
+        void add(StatementLine line) {
+            long cents = line.amountCents();
+            if (cents != StatementLine.NO_AMOUNT && cents <= 0) {
+                // Debits and zero lines are not customer payments
+                ignored++;
+            } else {
+                boolean readable = cents != StatementLine.NO_AMOUNT;
+                StatementEntry.StatementEntryBuilder entry = StatementEntry.builder()
+                        .lineNumber(line.number())
+                        .bookingDate(line.bookingDate())
+                        .amount(readable ? BigDecimal.valueOf(cents, 2) : null)
+                        .reference(reference(line));
+                if (readable && matcher.match(line, cents)) {
+                    entry.matchType(matcher.matchType())
+                            .invoiceId(matcher.invoiceId())
+                            .paymentId(matcher.paymentId());
+                } else {
+                    // Only exceptions keep the free text, for whoever reconciles them
+                    entry.unmatchedReason(readable ? matcher.reason() : StatementEntry.Reason.INVALID_AMOUNT)
+                            .memo(line.text(StatementField.MEMO))
+                            .counterparty(line.text(StatementField.COUNTERPARTY));
+                }
+                entries.add(entry.build());
+            }
+            if (entries.size() + ignored >= properties.getBatchSize()) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (entries.isEmpty() && ignored == 0) {
+                return;
+            }
+            // Lane index to the matched lines of its invoices; unmatched lines only become exceptions
+            Map<Integer, List<StatementEntry>> byLane = new TreeMap<>();
+            List<StatementEntry> unlaned = new ArrayList<>();
+            for (StatementEntry entry : entries) {
+                if (laneProperties.isEnabled() && entry.getMatchType() != null) {
+                    byLane.computeIfAbsent(stripedLanes.laneFor(entry.getInvoiceId()).getIndex(),
+                            index -> new ArrayList<>()).add(entry);
+                } else {
+                    unlaned.add(entry);
+                }
+            }
+            if (!unlaned.isEmpty() || ignored > 0) {
+                apply(unlaned, ignored);
+            }
+            for (List<StatementEntry> group : byLane.values()) {
+                Lane lane = stripedLanes.laneFor(group.get(0).getInvoiceId());
+                long start = lane.acquire();
+                try {
+                    apply(group, 0);
+                } finally {
+                    lane.release(start);
+                }
+            }
+            count("ignored", ignored);
+            entries = new ArrayList<>(properties.getBatchSize());
+            ignored = 0;
+        }
+
+        private void apply(List<StatementEntry> group, long groupIgnored) {
+            StatementBatchResult result = statementImportService.applyBatch(importId, group, groupIgnored);
+            count("matched", result.getMatched());
+            count("duplicate", result.getDuplicates());
+            count("exception", result.getExceptions());
+        }
+
+        private String reference(StatementLine line) {
+            String reference = line.text(StatementField.REFERENCE);
+            if (reference != null && reference.length() <= 100) {
+                return reference;
+            }
+            long hash = line.hashLine();
+            int occurrence = occurrences.increment(hash);
+            String derived = "STMT-" + Long.toHexString(hash);
+            return occurrence == 1 ? derived : derived + '-' + occurrence;
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.invoicingsystem.api.infrastructure.statements;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+
+/**
+ * One statement record, read in place from the mapped file. The parser reuses a single instance
+ * for every record, so nothing here is valid after the consumer returns; values that must outlive
+ * the record are copied out with {@link #text} and {@link #bookingDate}.
+ */
+final class StatementLine {
+
+    static final int MAX_COLUMNS = 64;
+
+    /**
+     * Returned by {@link #amountCents} when the amount is missing or unreadable.
+     */
+    static final long NO_AMOUNT = Long.MIN_VALUE;
+
+    // Column index of each StatementField, -1 when the statement does not have it
+    private final int[] columns;
+    private final int[] starts = new int[MAX_COLUMNS];
+    private final int[] ends = new int[MAX_COLUMNS];
+    private final boolean[] escaped = new boolean[MAX_COLUMNS];
+    private ByteBuffer buffer;
+    private int count;
+    private int lineStart;
+    private int lineEnd;
+    private long number;
+
+    StatementLine(int[] columns) {
+        this.columns = columns;
+    }
+
+    void reset(ByteBuffer buffer, int lineStart, long number) {
+        this.buffer = buffer;
+        this.lineStart = lineStart;
+        this.number = number;
+        this.count = 0;
+    }
+
+    void addField(int start, int end, boolean hasEscapedQuotes) {
+        if (count < MAX_COLUMNS) {
+            starts[count] = start;
+            ends[count] = end;
+            escaped[count] = hasEscapedQuotes;
+            count++;
+        }
+    }
+
+    void end(int lineEnd) {
+        this.lineEnd = lineEnd;
+    }
+
+    /**
+     * Record number in the file, counting the header as 1.
+     */
+    long number() {
+        return number;
+    }
+
+    ByteBuffer buffer() {
+        return buffer;
+    }
+
+    int fieldCount() {
+        return count;
+    }
+
+    int lineStart() {
+        return lineStart;
+    }
+
+    int lineEnd() {
+        return lineEnd;
+    }
+
+    boolean has(StatementField field) {
+        int column = columns[field.ordinal()];
+        return column >= 0 && column < count && ends[column] > starts[column];
+    }
+
+    /**
+     * Start of the field's content, or 0 when absent; with {@link #end} an empty range.
+     */
+    int start(StatementField field) {
+        return has(field) ? starts[columns[field.ordinal()]] : 0;
+    }
+
+    int end(StatementField field) {
+        return has(field) ? ends[columns[field.ordinal()]] : 0;
+    }
+
+    /**
+     * The amount in cents. Accepts either separator for decimals: the last '.' or ',' followed by
+     * one or two digits is the decimal point and any others are grouping, so "1,234.50",
+     * "1.234,50" and "1 234,5" all read as 123450. Currency codes and symbols, blanks and
+     * apostrophes are skipped; a leading or trailing '-' or enclosing parentheses make it negative.
+     *
+     * @return the amount, or {@link #NO_AMOUNT}
+     */
+    long amountCents() {
+        if (!has(StatementField.AMOUNT)) {
+            return NO_AMOUNT;
+        }
+        int start = start(StatementField.AMOUNT);
+        int end = end(StatementField.AMOUNT);
+        long units = 0;
+        int digits = 0;
+        int digitsAfterSeparator = -1;
+        boolean negative = false;
+        for (int i = start; i < end; i++) {
+            int b = buffer.get(i) & 0xff;
+            if (b >= '0' && b <= '9') {
+                if (++digits > 17) {
+                    return NO_AMOUNT;
+                }
+                units = units * 10 + (b - '0');
+                if (digitsAfterSeparator >= 0) {
+                    digitsAfterSeparator++;
+                }
+            } else if (b == '.' || b == ',') {
+                if (digits == 0) {
+                    return NO_AMOUNT;
+                }
+                digitsAfterSeparator = 0;
+            } else if (b == '-' || b == '(') {
+                negative = true;
+            } else if (!(b == ' ' || b == '\'' || b == '+' || b == ')' || b == '$'
+                    || (b >= 'A' && b <= 'Z') || (b >= 'a' && b <= 'z') || b >= 0x80)) {
+                return NO_AMOUNT;
+            }
+        }
+        if (digits == 0) {
+            return NO_AMOUNT;
+        }
+        long cents;
+        if (digitsAfterSeparator == 1) {
+            cents = units * 10;
+        } else if (digitsAfterSeparator == 2) {
+            cents = units;
+        } else if (digitsAfterSeparator <= 0 || digitsAfterSeparator == 3) {
+            // No separator, a trailing one, or grouping of thousands
+            cents = units * 100;
+        } else {
+            return NO_AMOUNT;
+        }
+        return negative ? -cents : cents;
+    }
+
+    /**
+     * The booking date, read as yyyy-MM-dd, yyyyMMdd or day first (dd.MM.yyyy, dd/MM/yyyy); any
+     * non-digit separates the parts.
+     *
+     * @return the date, or null when missing or unreadable
+     */
+    LocalDate bookingDate() {
+        if (!has(StatementField.DATE)) {
+            return null;
+        }
+        int start = start(StatementField.DATE);
+        int end = end(StatementField.DATE);
+        int[] parts = new int[3];
+        int[] lengths = new int[3];
+        int part = 0;
+        for (int i = start; i < end && part < 3; i++) {
+            int b = buffer.get(i) & 0xff;
+            if (b >= '0' && b <= '9') {
+                parts[part] = parts[part] * 10 + (b - '0');
+                lengths[part]++;
+            } else if (lengths[part] > 0) {
+                part++;
+            }
+        }
+        try {
+            if (lengths[0] == 8 && lengths[1] == 0) {
+                return LocalDate.of(parts[0] / 10000, parts[0] / 100 % 100, parts[0] % 100);
+            }
+            if (lengths[0] == 4) {
+                return LocalDate.of(parts[0], parts[1], parts[2]);
+            }
+            if (lengths[2] == 4) {
+                return LocalDate.of(parts[2], parts[1], parts[0]);
+            }
+            if (lengths[2] == 2) {
+                return LocalDate.of(2000 + parts[2], parts[1], parts[0]);
+            }
+        } catch (DateTimeException e) {
+            return null;
+        }
+        return null;
+    }
+
+    /**
+     * The field's text with surrounding blanks trimmed, or null when absent or blank.
+     */
+    String text(StatementField field) {
+        if (!has(field)) {
+            return null;
+        }
+        int column = columns[field.ordinal()];
+        String text = decode(starts[column], ends[column]);
+        if (escaped[column]) {
+            text = text.replace("\"\"", "\"");
+        }
+        text = text.trim();
+        return text.isEmpty() ? null : text;
+    }
+
+    /**
+     * Raw text of a column by position, for reading the header.
+     */
+    String field(int column) {
+        return decode(starts[column], ends[column]);
+    }
+
+    private String decode(int start, int end) {
+        byte[] bytes = new byte[end - start];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buffer.get(start + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    long hash(StatementField field, KeyNormalizer normalizer) {
+        return has(field) ? normalizer.hash(buffer, start(field), end(field)) : 0;
+    }
+
+    long hashLine() {
+        return KeyNormalizer.RAW.hash(buffer, lineStart, lineEnd);
+    }
+}
@@ -0,0 +1,231 @@
+package com.invoicingsystem.api.infrastructure.statements;
+
+import com.invoicingsystem.api.application.command.StatementEntry.MatchType;
+import com.invoicingsystem.api.application.command.StatementEntry.Reason;
+import com.invoicingsystem.api.domain.repository.OpenInvoiceBalance;
+import com.invoicingsystem.api.domain.repository.PendingPaymentReference;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Matches statement lines against the invoices open when the import started, using hash indexes
+ * built once up front. Strategies, in order of confidence:
+ * <ol>
+ *     <li>the line's reference is that of a pending payment, which the line confirms;</li>
+ *     <li>an invoice number appears as a word in the reference or memo;</li>
+ *     <li>the counterparty is the client's name and the amount is the invoice's exact balance.</li>
+ * </ol>
+ * Hash hits are confirmed against the stored key bytes, and keys shared by two invoices (or
+ * pending payments) match neither. Results are left in fields so a match allocates nothing; not
+ * thread-safe.
+ */
+final class StatementMatcher {
+
+    private final LongIntHashMap pendingByReference;
+    private final byte[][] pendingReferences;
+    private final String[] pendingIds;
+    private final String[] pendingInvoiceIds;
+
+    private final LongIntHashMap invoiceByNumber;
+    private final LongIntHashMap invoiceByClientAmount;
+    private final byte[][] invoiceNumbers;
+    private final byte[][] clientNames;
+    private final long[] balanceCents;
+    private final String[] invoiceIds;
+
+    private MatchType matchType;
+    private Reason reason;
+    private int invoice;
+    private int pending;
+
+    StatementMatcher(List<OpenInvoiceBalance> invoices, List<PendingPaymentReference> pendingPayments) {
+        int pendingCount = pendingPayments.size();
+        pendingByReference = new LongIntHashMap(pendingCount);
+        pendingReferences = new byte[pendingCount][];
+        pendingIds = new String[pendingCount];
+        pendingInvoiceIds = new String[pendingCount];
+        for (int i = 0; i < pendingCount; i++) {
+            PendingPaymentReference payment = pendingPayments.get(i);
+            pendingReferences[i] = KeyNormalizer.CODE.normalize(payment.getReference());
+            pendingIds[i] = payment.getId();
+            pendingInvoiceIds[i] = payment.getInvoiceId();
+            long hash = KeyNormalizer.CODE.hash(pendingReferences[i]);
+            if (hash != 0) {
+                pendingByReference.put(hash, i);
+            }
+        }
+
+        int invoiceCount = invoices.size();
+        invoiceByNumber = new LongIntHashMap(invoiceCount);
+        invoiceByClientAmount = new LongIntHashMap(invoiceCount);
+        invoiceNumbers = new byte[invoiceCount][];
+        clientNames = new byte[invoiceCount][];
+        balanceCents = new long[invoiceCount];
+        invoiceIds = new String[invoiceCount];
+        for (int i = 0; i < invoiceCount; i++) {
+            OpenInvoiceBalance open = invoices.get(i);
+            invoiceIds[i] = open.getId();
+            invoiceNumbers[i] = KeyNormalizer.CODE.normalize(open.getNumber());
+            clientNames[i] = KeyNormalizer.NAME.normalize(open.getClientName() != null ? open.getClientName() : "");
+            balanceCents[i] = toCents(open.getBalance());
+            long number = KeyNormalizer.CODE.hash(invoiceNumbers[i]);
+            if (number != 0) {
+                invoiceByNumber.put(number, i);
+            }
+            long name = KeyNormalizer.NAME.hash(clientNames[i]);
+            if (name != 0) {
+                invoiceByClientAmount.put(clientAmountKey(name, balanceCents[i]), i);
+            }
+        }
+    }
+
+    /**
+     * Matches a credit line of the given amount.
+     *
+     * @return whether it matched; see {@link #matchType()} and {@link #reason()}
+     */
+    boolean match(StatementLine line, long amountCents) {
+        matchType = null;
+        reason = Reason.NO_MATCH;
+        invoice = -1;
+        pending = -1;
+        ByteBuffer buffer = line.buffer();
+
+        if (line.has(StatementField.REFERENCE)) {
+            int start = line.start(StatementField.REFERENCE);
+            int end = line.end(StatementField.REFERENCE);
+            int found = lookup(pendingByReference, KeyNormalizer.CODE.hash(buffer, start, end));
+            if (found >= 0 && KeyNormalizer.CODE.matches(buffer, start, end, pendingReferences[found])) {
+                pending = found;
+                matchType = MatchType.PENDING_PAYMENT;
+                return true;
+            }
+            if (found == LongIntHashMap.AMBIGUOUS) {
+                reason = Reason.AMBIGUOUS_MATCH;
+            }
+        }
+
+        int found = findInvoiceNumber(line, StatementField.REFERENCE);
+        if (found == LongIntHashMap.MISSING) {
+            found = findInvoiceNumber(line, StatementField.MEMO);
+        }
+        if (found >= 0) {
+            invoice = found;
+            matchType = MatchType.INVOICE_NUMBER;
+            return true;
+        }
+        if (found == LongIntHashMap.AMBIGUOUS) {
+            reason = Reason.AMBIGUOUS_MATCH;
+        }
+
+        if (line.has(StatementField.COUNTERPARTY)) {
+            int start = line.start(StatementField.COUNTERPARTY);
+            int end = line.end(StatementField.COUNTERPARTY);
+            long name = KeyNormalizer.NAME.hash(buffer, start, end);
+            if (name != 0) {
+                found = invoiceByClientAmount.get(clientAmountKey(name, amountCents));
+                if (found >= 0 && balanceCents[found] == amountCents
+                        && KeyNormalizer.NAME.matches(buffer, start, end, clientNames[found])) {
+                    invoice = found;
+                    matchType = MatchType.CLIENT_AMOUNT;
+                    return true;
+                }
+                if (found == LongIntHashMap.AMBIGUOUS) {
+                    reason = Reason.AMBIGUOUS_MATCH;
+                }
+            }
+        }
+        return false;
+    }
+
+    MatchType matchType() {
+        return matchType;
+    }
+
+    /**
+     * Why the last line did not match; {@link Reason#AMBIGUOUS_MATCH} when some strategy found
+     * more than one candidate.
+     */
+    Reason reason() {
+        return reason;
+    }
+
+    String invoiceId() {
+        if (pending >= 0) {
+            return pendingInvoiceIds[pending];
+        }
+        return invoice >= 0 ? invoiceIds[invoice] : null;
+    }
+
+    String paymentId() {
+        return pending >= 0 ? pendingIds[pending] : null;
+    }
+
+    int invoiceCount() {
+        return invoiceIds.length;
+    }
+
+    int pendingCount() {
+        return pendingIds.length;
+    }
+
+    /**
+     * Looks up each word of the field (letters, digits, '-' and '_') as an invoice number.
+     *
+     * @return the invoice index, {@link LongIntHashMap#MISSING}, or {@link LongIntHashMap#AMBIGUOUS}
+     * when the field names two different invoices
+     */
+    private int findInvoiceNumber(StatementLine line, StatementField field) {
+        if (!line.has(field)) {
+            return LongIntHashMap.MISSING;
+        }
+        ByteBuffer buffer = line.buffer();
+        int end = line.end(field);
+        int result = LongIntHashMap.MISSING;
+        int i = line.start(field);
+        while (i < end) {
+            while (i < end && !isWordByte(buffer.get(i))) {
+                i++;
+            }
+            int wordStart = i;
+            while (i < end && isWordByte(buffer.get(i))) {
+                i++;
+            }
+            if (i == wordStart) {
+                break;
+            }
+            int found = lookup(invoiceByNumber, KeyNormalizer.CODE.hash(buffer, wordStart, i));
+            if (found == LongIntHashMap.AMBIGUOUS) {
+                return found;
+            }
+            if (found >= 0 && KeyNormalizer.CODE.matches(buffer, wordStart, i, invoiceNumbers[found])) {
+                if (result >= 0 && result != found) {
+                    return LongIntHashMap.AMBIGUOUS;
+                }
+                result = found;
+            }
+        }
+        return result;
+    }
+
+    private static int lookup(LongIntHashMap index, long hash) {
+        return hash == 0 ? LongIntHashMap.MISSING : index.get(hash);
+    }
+
+    private static boolean isWordByte(byte b) {
+        return (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z') || (b >= '0' && b <= '9') || b == '-' || b == '_';
+    }
+
+    private static long clientAmountKey(long nameHash, long cents) {
+        long key = (nameHash ^ cents) * 0x9E3779B97F4A7C15L;
+        key ^= key >>> 31;
+        return key == 0 ? 1 : key;
+    }
+
+    static long toCents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+}
@@ -0,0 +1,193 @@
+package com.invoicingsystem.api.infrastructure.statements;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Reads a delimited statement export (RFC 4180 quoting, LF or CRLF line ends, optional UTF-8 BOM)
+ * by mapping it into memory a window at a time and handing each record to the consumer as a
+ * reused {@link StatementLine}, without copying or decoding fields that are not asked for. A
+ * record cut off at the end of a window is re-read at the start of the next one.
+ */
+final class StatementParser {
+
+    private final Map<StatementField, List<String>> headers;
+    private final byte delimiter;
+    private final int windowSize;
+
+    StatementParser(Map<StatementField, List<String>> headers, char delimiter, int windowSize) {
+        if (delimiter > 0x7f || delimiter == '"' || delimiter == '\n' || delimiter == '\r') {
+            throw new IllegalArgumentException("Unsupported statement delimiter: " + delimiter);
+        }
+        this.headers = headers;
+        this.delimiter = (byte) delimiter;
+        this.windowSize = windowSize;
+    }
+
+    /**
+     * Parses the file, calling the consumer for every non-blank record after the header.
+     *
+     * @return the number of records passed to the consumer
+     * @throws StatementFormatException if the header lacks the columns needed for matching or
+     *                                  the file cannot be read as a statement
+     */
+    long parse(Path file, Consumer<StatementLine> consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            long number = 0;
+            long records = 0;
+            StatementLine line = null;
+            while (position < size) {
+                int length = (int) Math.min(windowSize, size - position);
+                boolean last = position + length == size;
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                int pos = position == 0 ? bomLength(buffer, length) : 0;
+                int consumed = pos;
+                while (pos < length) {
+                    if (line == null) {
+                        StatementLine header = new StatementLine(new int[0]);
+                        header.reset(buffer, pos, 1);
+                        int next = record(buffer, pos, length, last, header);
+                        if (next < 0) {
+                            break;
+                        }
+                        line = new StatementLine(columns(header));
+                        number = 1;
+                        pos = next;
+                    } else {
+                        line.reset(buffer, pos, number + 1);
+                        int next = record(buffer, pos, length, last, line);
+                        if (next < 0) {
+                            break;
+                        }
+                        number++;
+                        if (line.lineEnd() > line.lineStart()) {
+                            consumer.accept(line);
+                            records++;
+                        }
+                        pos = next;
+                    }
+                    consumed = pos;
+                }
+                if (!last && consumed == 0) {
+                    throw new StatementFormatException("Statement record " + (number + 1)
+                            + " is longer than " + windowSize + " bytes");
+                }
+                position += last ? length : consumed;
+            }
+            if (line == null) {
+                throw new StatementFormatException("Statement is empty");
+            }
+            return records;
+        }
+    }
+
+    /**
+     * Reads the record starting at {@code pos} into the line.
+     *
+     * @return the offset after its line end, or -1 if it runs past the window and more follows
+     */
+    private int record(MappedByteBuffer buffer, int pos, int limit, boolean last, StatementLine line) {
+        int i = pos;
+        while (true) {
+            if (i < limit && buffer.get(i) == '"') {
+                int start = ++i;
+                boolean escaped = false;
+                while (true) {
+                    if (i >= limit) {
+                        if (!last) {
+                            return -1;
+                        }
+                        throw new StatementFormatException("Unterminated quote in statement record " + line.number());
+                    }
+                    if (buffer.get(i) == '"') {
+                        if (i + 1 < limit && buffer.get(i + 1) == '"') {
+                            escaped = true;
+                            i += 2;
+                            continue;
+                        }
+                        if (i + 1 >= limit && !last) {
+                            return -1;
+                        }
+                        break;
+                    }
+                    i++;
+                }
+                line.addField(start, i, escaped);
+                i++;
+                // Tolerate stray characters between the closing quote and the delimiter
+                while (i < limit && buffer.get(i) != delimiter && buffer.get(i) != '\n') {
+                    i++;
+                }
+            } else {
+                int start = i;
+                while (i < limit && buffer.get(i) != delimiter && buffer.get(i) != '\n') {
+                    i++;
+                }
+                int end = i;
+                if (end > start && buffer.get(end - 1) == '\r') {
+                    end--;
+                }
+                line.addField(start, end, false);
+            }
+            if (i >= limit) {
+                if (!last) {
+                    return -1;
+                }
+                line.end(trimCr(buffer, pos, limit));
+                return limit;
+            }
+            if (buffer.get(i) == '\n') {
+                line.end(trimCr(buffer, pos, i));
+                return i + 1;
+            }
+            i++;
+        }
+    }
+
+    private int[] columns(StatementLine header) {
+        int[] columns = new int[StatementField.values().length];
+        Arrays.fill(columns, -1);
+        for (int column = header.fieldCount() - 1; column >= 0; column--) {
+            String name = normalizeHeader(header, column);
+            for (StatementField field : StatementField.values()) {
+                for (String alias : headers.getOrDefault(field, field.getDefaultHeaders())) {
+                    if (name.equals(alias.trim().toLowerCase(Locale.ROOT))) {
+                        columns[field.ordinal()] = column;
+                    }
+                }
+            }
+        }
+        if (columns[StatementField.AMOUNT.ordinal()] < 0) {
+            throw new StatementFormatException("Statement has no amount column; expected one of "
+                    + headers.getOrDefault(StatementField.AMOUNT, StatementField.AMOUNT.getDefaultHeaders()));
+        }
+        if (columns[StatementField.REFERENCE.ordinal()] < 0 && columns[StatementField.MEMO.ordinal()] < 0
+                && columns[StatementField.COUNTERPARTY.ordinal()] < 0) {
+            throw new StatementFormatException("Statement needs a reference, memo or counterparty column to match on");
+        }
+        return columns;
+    }
+
+    private static String normalizeHeader(StatementLine header, int column) {
+        return header.field(column).replace("\"\"", "\"").trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private static int trimCr(MappedByteBuffer buffer, int start, int end) {
+        return end > start && buffer.get(end - 1) == '\r' ? end - 1 : end;
+    }
+
+    private static int bomLength(MappedByteBuffer buffer, int length) {
+        return length >= 3 && (buffer.get(0) & 0xff) == 0xEF && (buffer.get(1) & 0xff) == 0xBB
+                && (buffer.get(2) & 0xff) == 0xBF ? 3 : 0;
+    }
+}
@@ -2,11 +2,14 @@ package com.invoicingsystem.api.infrastructure.web;
 
 import com.invoicingsystem.api.domain.exception.BadRequestException;
 import com.invoicingsystem.api.domain.exception.DuplicateResourceException;
+import com.invoicingsystem.api.domain.exception.ResourceGoneException;
 import com.invoicingsystem.api.domain.exception.ResourceNotFoundException;
+import com.invoicingsystem.api.domain.exception.ServiceUnavailableException;
 import com.invoicingsystem.api.domain.exception.UnauthorizedException;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -35,6 +38,13 @@ public class GlobalExceptionHandler {
                 HttpStatus.CONFLICT);
     }
 
+    @ExceptionHandler(ResourceGoneException.class)
+    public ResponseEntity<ApiError> handleResourceGoneException(ResourceGoneException e) {
+        return new ResponseEntity<>(
+                new ApiError(HttpStatus.GONE.value(), e.getMessage(), LocalDateTime.now()),
+                HttpStatus.GONE);
+    }
+
     @ExceptionHandler(BadRequestException.class)
     public ResponseEntity<ApiError> handleBadRequestException(BadRequestException e) {
         return new ResponseEntity<>(
@@ -49,6 +59,13 @@ public class GlobalExceptionHandler {
                 HttpStatus.UNAUTHORIZED);
     }
 
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ApiError> handleServiceUnavailableException(ServiceUnavailableException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(new ApiError(HttpStatus.SERVICE_UNAVAILABLE.value(), e.getMessage(), LocalDateTime.now()));
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ValidationErrors> handleMethodArgumentNotValid(MethodArgumentNotValidException e) {
         Map<String, String> errors = new HashMap<>();
@@ -2,10 +2,13 @@ package com.invoicingsystem.api.infrastructure.web.controller;
 
 import com.invoicingsystem.api.application.command.CreateUserCommand;
 import com.invoicingsystem.api.application.command.LoginCommand;
+import com.invoicingsystem.api.application.command.RefreshTokenCommand;
 import com.invoicingsystem.api.application.query.JwtResponse;
 import com.invoicingsystem.api.application.query.UserDto;
 import com.invoicingsystem.api.application.service.AuthService;
 import javax.validation.Valid;
+import com.invoicingsystem.api.infrastructure.bulkhead.Workload;
+import com.invoicingsystem.api.infrastructure.bulkhead.WorkloadClass;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -16,6 +19,7 @@ import org.springframework.web.bind.annotation.RestController;
 @RestController
 @RequestMapping("/auth")
 @RequiredArgsConstructor
+@Workload(WorkloadClass.INTERACTIVE)
 public class AuthController {
 
     private final AuthService authService;
@@ -29,4 +33,15 @@ public class AuthController {
     public ResponseEntity<UserDto> register(@Valid @RequestBody CreateUserCommand command) {
         return ResponseEntity.ok(authService.register(command));
     }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<JwtResponse> refresh(@Valid @RequestBody RefreshTokenCommand command) {
+        return ResponseEntity.ok(authService.refresh(command));
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@Valid @RequestBody RefreshTokenCommand command) {
+        authService.logout(command);
+        return ResponseEntity.noContent().build();
+    }
 }
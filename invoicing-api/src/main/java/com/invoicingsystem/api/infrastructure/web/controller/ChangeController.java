@@ -0,0 +1,26 @@
+package com.invoicingsystem.api.infrastructure.web.controller;
+
+import com.invoicingsystem.api.application.query.ChangeFeedDto;
+import com.invoicingsystem.api.application.service.ChangeFeedService;
+import com.invoicingsystem.api.infrastructure.bulkhead.Workload;
+import com.invoicingsystem.api.infrastructure.bulkhead.WorkloadClass;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/changes")
+@RequiredArgsConstructor
+@Workload(WorkloadClass.INTERACTIVE)
+public class ChangeController {
+
+    private final ChangeFeedService changeFeedService;
+
+    @GetMapping
+    public ResponseEntity<ChangeFeedDto> getChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(changeFeedService.getChanges(since, type, limit));
+    }
+}
@@ -3,8 +3,13 @@ package com.invoicingsystem.api.infrastructure.web.controller;
 import com.invoicingsystem.api.application.command.CreateClientCommand;
 import com.invoicingsystem.api.application.command.UpdateClientCommand;
 import com.invoicingsystem.api.application.query.ClientDto;
+import com.invoicingsystem.api.application.query.ClientSuggestionDto;
+import com.invoicingsystem.api.application.query.MultiGetResultDto;
 import com.invoicingsystem.api.application.service.ClientService;
 import javax.validation.Valid;
+import com.invoicingsystem.api.infrastructure.bulkhead.Workload;
+import com.invoicingsystem.api.infrastructure.bulkhead.WorkloadClass;
+import com.invoicingsystem.api.infrastructure.observability.SqlBudget;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -16,15 +21,23 @@ import java.util.List;
 @RestController
 @RequestMapping("/clients")
 @RequiredArgsConstructor
+@Workload(WorkloadClass.INTERACTIVE)
 public class ClientController {
 
     private final ClientService clientService;
 
     @GetMapping
+    @Workload(WorkloadClass.REPORTING)
     public ResponseEntity<List<ClientDto>> getAllClients() {
         return ResponseEntity.ok(clientService.getAllClients());
     }
 
+    @GetMapping(params = "ids")
+    @SqlBudget(maxStatements = 5)
+    public ResponseEntity<MultiGetResultDto<ClientDto>> getClientsByIds(@RequestParam List<String> ids) {
+        return ResponseEntity.ok(clientService.getClientsByIds(ids));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<ClientDto> getClientById(@PathVariable String id) {
         return ResponseEntity.ok(clientService.getClientById(id));
@@ -35,6 +48,13 @@ public class ClientController {
         return ResponseEntity.ok(clientService.searchClientsByName(name));
     }
 
+    @GetMapping("/autocomplete")
+    public ResponseEntity<List<ClientSuggestionDto>> autocompleteClients(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(clientService.autocompleteClients(query, limit));
+    }
+
     @PostMapping
     public ResponseEntity<ClientDto> createClient(@Valid @RequestBody CreateClientCommand command) {
         return new ResponseEntity<>(clientService.createClient(command), HttpStatus.CREATED);
@@ -0,0 +1,50 @@
+package com.invoicingsystem.api.infrastructure.web.controller;
+
+import com.invoicingsystem.api.application.service.InvoiceService;
+import com.invoicingsystem.api.domain.exception.ResourceNotFoundException;
+import com.invoicingsystem.api.infrastructure.bulkhead.Workload;
+import com.invoicingsystem.api.infrastructure.bulkhead.WorkloadClass;
+import com.invoicingsystem.api.infrastructure.push.EventStreamRegistry;
+import com.invoicingsystem.api.infrastructure.push.InvoiceEventStreamPublisher;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/events")
+@RequiredArgsConstructor
+@Workload(WorkloadClass.INTERACTIVE)
+public class EventStreamController {
+
+    private final EventStreamRegistry eventStreamRegistry;
+    private final InvoiceService invoiceService;
+
+    @GetMapping(value = "/invoices/{id}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamInvoice(@PathVariable String id) {
+        // Same read as GET /invoices/{id}: callers only subscribe to invoices they may read
+        invoiceService.getInvoiceById(id);
+        return eventStreamRegistry.subscribe(List.of(InvoiceEventStreamPublisher.INVOICE_TOPIC + id));
+    }
+
+    @GetMapping(value = "/me", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamCurrentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return eventStreamRegistry.subscribe(List.of(InvoiceEventStreamPublisher.USER_TOPIC + authentication.getName()));
+    }
+
+    // The JSON error body cannot be written as text/event-stream, so answer with the status alone
+    @ExceptionHandler(ResourceNotFoundException.class)
+    public ResponseEntity<Void> handleResourceNotFoundException(ResourceNotFoundException e) {
+        return ResponseEntity.notFound().build();
+    }
+}
@@ -3,58 +3,170 @@ package com.invoicingsystem.api.infrastructure.web.controller;
 import com.invoicingsystem.api.application.command.CreateInvoiceCommand;
 import com.invoicingsystem.api.application.command.UpdateInvoiceCommand;
 import com.invoicingsystem.api.application.command.UpdateInvoiceStatusCommand;
+import com.invoicingsystem.api.application.query.FieldSet;
+import com.invoicingsystem.api.application.query.InvoiceBalanceDto;
+import com.invoicingsystem.api.application.query.InvoiceDetailDto;
 import com.invoicingsystem.api.application.query.InvoiceDto;
+import com.invoicingsystem.api.application.query.LedgerAuditDto;
+import com.invoicingsystem.api.application.query.LedgerEntryDto;
+import com.invoicingsystem.api.application.query.MultiGetResultDto;
 import com.invoicingsystem.api.application.service.InvoiceService;
+import com.invoicingsystem.api.application.service.LedgerService;
 import com.invoicingsystem.api.domain.model.User;
+import com.invoicingsystem.api.domain.repository.InvoiceListFilter;
 import com.invoicingsystem.api.domain.repository.UserRepository;
 import com.invoicingsystem.api.domain.model.Invoice.InvoiceStatus;
 import javax.validation.Valid;
+import com.invoicingsystem.api.infrastructure.bulkhead.Workload;
+import com.invoicingsystem.api.infrastructure.bulkhead.WorkloadClass;
+import com.invoicingsystem.api.infrastructure.observability.SqlBudget;
+import com.invoicingsystem.api.infrastructure.pdf.InvoicePdf;
+import com.invoicingsystem.api.infrastructure.pdf.InvoicePdfService;
+import com.invoicingsystem.api.infrastructure.web.FileDownloads;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
 @RequestMapping("/invoices")
 @RequiredArgsConstructor
+@Workload(WorkloadClass.INTERACTIVE)
 public class InvoiceController {
 
     private final InvoiceService invoiceService;
+    private final LedgerService ledgerService;
     private final UserRepository userRepository;
+    private final InvoicePdfService invoicePdfService;
 
     @GetMapping
-    public ResponseEntity<List<InvoiceDto>> getAllInvoices() {
+    @Workload(WorkloadClass.REPORTING)
+    public ResponseEntity<List<?>> getAllInvoices(
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String view) {
+        if (FieldSet.isRequested(fields, view)) {
+            return ResponseEntity.ok(invoiceService.getInvoiceFields(InvoiceListFilter.all(), fields, view));
+        }
         return ResponseEntity.ok(invoiceService.getAllInvoices());
     }
 
+    @GetMapping(params = "ids")
+    @SqlBudget(maxStatements = 5)
+    public ResponseEntity<MultiGetResultDto<InvoiceDto>> getInvoicesByIds(@RequestParam List<String> ids) {
+        return ResponseEntity.ok(invoiceService.getInvoicesByIds(ids));
+    }
+
     @GetMapping("/{id}")
+    @SqlBudget(maxStatements = 10)
     public ResponseEntity<InvoiceDto> getInvoiceById(@PathVariable String id) {
         return ResponseEntity.ok(invoiceService.getInvoiceById(id));
     }
 
+    @GetMapping("/{id}/full")
+    @SqlBudget(maxStatements = 5)
+    public ResponseEntity<InvoiceDetailDto> getInvoiceDetail(@PathVariable String id, WebRequest request) {
+        // Answer revalidations from the stamps query alone, without loading the invoice
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            String etag = invoiceService.getInvoiceDetailEtag(id);
+            if (request.checkNotModified(etag)) {
+                // checkNotModified has already set the 304 status and ETag header
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .cacheControl(CacheControl.noCache().cachePrivate())
+                        .build();
+            }
+        }
+
+        InvoiceDetailDto detail = invoiceService.getInvoiceDetail(id);
+        return ResponseEntity.ok()
+                .eTag(detail.getEtag())
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(detail);
+    }
+
+    @GetMapping("/{id}/pdf")
+    @Workload(WorkloadClass.REPORTING)
+    public void getInvoicePdf(@PathVariable String id, HttpServletRequest request,
+                              HttpServletResponse response) throws IOException {
+        InvoicePdf pdf = invoicePdfService.getDocument(id);
+        // Strong validator for this node's bytes: a re-render of the same version is a new file
+        String etag = "\"" + pdf.getVersion() + '-'
+                + Long.toHexString(Files.getLastModifiedTime(pdf.getFile()).toMillis()) + "\"";
+        FileDownloads.send(request, response, pdf.getFile(), MediaType.APPLICATION_PDF_VALUE,
+                pdf.getFilename(), etag);
+    }
+
+    @GetMapping("/{id}/balance")
+    @SqlBudget(maxStatements = 5)
+    public ResponseEntity<InvoiceBalanceDto> getInvoiceBalance(@PathVariable String id) {
+        return ResponseEntity.ok(ledgerService.getBalance(id));
+    }
+
+    @GetMapping("/{id}/ledger")
+    public ResponseEntity<List<LedgerEntryDto>> getLedgerEntries(@PathVariable String id) {
+        return ResponseEntity.ok(ledgerService.getEntries(id));
+    }
+
+    @GetMapping("/{id}/ledger/audit")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<LedgerAuditDto> auditLedger(@PathVariable String id) {
+        return ResponseEntity.ok(ledgerService.audit(id));
+    }
+
+    @PostMapping("/{id}/ledger/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<LedgerAuditDto> rebuildLedger(@PathVariable String id) {
+        return ResponseEntity.ok(ledgerService.rebuild(id));
+    }
+
     @GetMapping("/number/{number}")
     public ResponseEntity<InvoiceDto> getInvoiceByNumber(@PathVariable String number) {
         return ResponseEntity.ok(invoiceService.getInvoiceByNumber(number));
     }
 
     @GetMapping("/client/{clientId}")
-    public ResponseEntity<List<InvoiceDto>> getInvoicesByClientId(@PathVariable String clientId) {
+    public ResponseEntity<List<?>> getInvoicesByClientId(
+            @PathVariable String clientId,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String view) {
+        if (FieldSet.isRequested(fields, view)) {
+            return ResponseEntity.ok(invoiceService.getInvoiceFields(InvoiceListFilter.byClient(clientId), fields, view));
+        }
         return ResponseEntity.ok(invoiceService.getInvoicesByClientId(clientId));
     }
 
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<InvoiceDto>> getInvoicesByStatus(@PathVariable InvoiceStatus status) {
+    public ResponseEntity<List<?>> getInvoicesByStatus(
+            @PathVariable InvoiceStatus status,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String view) {
+        if (FieldSet.isRequested(fields, view)) {
+            return ResponseEntity.ok(invoiceService.getInvoiceFields(InvoiceListFilter.byStatus(status), fields, view));
+        }
         return ResponseEntity.ok(invoiceService.getInvoicesByStatus(status));
     }
 
     @GetMapping("/overdue")
-    public ResponseEntity<List<InvoiceDto>> getOverdueInvoices() {
+    public ResponseEntity<List<?>> getOverdueInvoices(
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String view) {
+        if (FieldSet.isRequested(fields, view)) {
+            return ResponseEntity.ok(invoiceService.getInvoiceFields(InvoiceListFilter.overdue(LocalDate.now()), fields, view));
+        }
         return ResponseEntity.ok(invoiceService.getOverdueInvoices());
     }
 
@@ -1,10 +1,15 @@
 package com.invoicingsystem.api.infrastructure.web.controller;
 
 import com.invoicingsystem.api.application.command.RecordPaymentCommand;
+import com.invoicingsystem.api.application.query.FieldSet;
+import com.invoicingsystem.api.application.query.MultiGetResultDto;
 import com.invoicingsystem.api.application.query.PaymentDto;
 import com.invoicingsystem.api.application.service.PaymentService;
 import com.invoicingsystem.api.domain.model.Payment;
 import javax.validation.Valid;
+import com.invoicingsystem.api.infrastructure.bulkhead.Workload;
+import com.invoicingsystem.api.infrastructure.bulkhead.WorkloadClass;
+import com.invoicingsystem.api.infrastructure.observability.SqlBudget;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -16,22 +21,42 @@ import java.util.List;
 @RestController
 @RequestMapping("/payments")
 @RequiredArgsConstructor
+@Workload(WorkloadClass.INTERACTIVE)
 public class PaymentController {
 
     private final PaymentService paymentService;
 
     @GetMapping
-    public ResponseEntity<List<PaymentDto>> getAllPayments() {
+    @Workload(WorkloadClass.REPORTING)
+    public ResponseEntity<List<?>> getAllPayments(
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String view) {
+        if (FieldSet.isRequested(fields, view)) {
+            return ResponseEntity.ok(paymentService.getPaymentFields(null, fields, view));
+        }
         return ResponseEntity.ok(paymentService.getAllPayments());
     }
 
+    @GetMapping(params = "ids")
+    @SqlBudget(maxStatements = 5)
+    public ResponseEntity<MultiGetResultDto<PaymentDto>> getPaymentsByIds(@RequestParam List<String> ids) {
+        return ResponseEntity.ok(paymentService.getPaymentsByIds(ids));
+    }
+
     @PostMapping
+    @SqlBudget(maxStatements = 15)
     public ResponseEntity<PaymentDto> recordPayment(@Valid @RequestBody RecordPaymentCommand command) {
         return new ResponseEntity<>(paymentService.recordPayment(command), HttpStatus.CREATED);
     }
 
     @GetMapping("/invoice/{invoiceId}")
-    public ResponseEntity<List<PaymentDto>> getPaymentsByInvoiceId(@PathVariable String invoiceId) {
+    public ResponseEntity<List<?>> getPaymentsByInvoiceId(
+            @PathVariable String invoiceId,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String view) {
+        if (FieldSet.isRequested(fields, view)) {
+            return ResponseEntity.ok(paymentService.getPaymentFields(invoiceId, fields, view));
+        }
         return ResponseEntity.ok(paymentService.getPaymentsByInvoiceId(invoiceId));
     }
 
@@ -0,0 +1,63 @@
+package com.invoicingsystem.api.infrastructure.web.controller;
+
+import com.invoicingsystem.api.application.command.CreateRecurringInvoiceCommand;
+import com.invoicingsystem.api.application.query.RecurringInvoiceTemplateDto;
+import com.invoicingsystem.api.application.service.RecurringInvoiceService;
+import com.invoicingsystem.api.domain.exception.ResourceNotFoundException;
+import com.invoicingsystem.api.domain.model.User;
+import com.invoicingsystem.api.domain.repository.UserRepository;
+import com.invoicingsystem.api.infrastructure.bulkhead.Workload;
+import com.invoicingsystem.api.infrastructure.bulkhead.WorkloadClass;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+
+import javax.validation.Valid;
+import java.util.List;
+
+@RestController
+@RequestMapping("/recurring-invoices")
+@RequiredArgsConstructor
+@Workload(WorkloadClass.INTERACTIVE)
+public class RecurringInvoiceController {
+
+    private final RecurringInvoiceService recurringInvoiceService;
+    private final UserRepository userRepository;
+
+    @GetMapping
+    public ResponseEntity<List<RecurringInvoiceTemplateDto>> getTemplates() {
+        return ResponseEntity.ok(recurringInvoiceService.getTemplates());
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<RecurringInvoiceTemplateDto> getTemplate(@PathVariable String id) {
+        return ResponseEntity.ok(recurringInvoiceService.getTemplate(id));
+    }
+
+    @PostMapping
+    public ResponseEntity<RecurringInvoiceTemplateDto> createTemplate(
+            @Valid @RequestBody CreateRecurringInvoiceCommand command) {
+        String userId = getCurrentUserId();
+        return new ResponseEntity<>(recurringInvoiceService.createTemplate(command, userId), HttpStatus.CREATED);
+    }
+
+    // Stops generation; invoices already issued are kept
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deactivateTemplate(@PathVariable String id) {
+        recurringInvoiceService.deactivateTemplate(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    private String getCurrentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
+        String email = userDetails.getUsername();
+        return userRepository.findByEmail(email)
+                .map(User::getId)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "email", email));
+    }
+}
@@ -0,0 +1,35 @@
+package com.invoicingsystem.api.infrastructure.web.controller;
+
+import com.invoicingsystem.api.application.query.SearchResultDto;
+import com.invoicingsystem.api.application.service.SearchService;
+import com.invoicingsystem.api.infrastructure.bulkhead.Workload;
+import com.invoicingsystem.api.infrastructure.bulkhead.WorkloadClass;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/search")
+@RequiredArgsConstructor
+@Workload(WorkloadClass.INTERACTIVE)
+public class SearchController {
+
+    private final SearchService searchService;
+
+    @GetMapping
+    public ResponseEntity<SearchResultDto> search(
+            @RequestParam("q") String query,
+            @RequestParam(required = false) String type,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(searchService.search(query, type, page, size));
+    }
+
+    @PostMapping("/reindex")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> reindex() {
+        return new ResponseEntity<>(searchService.reindex() ? HttpStatus.ACCEPTED : HttpStatus.CONFLICT);
+    }
+}
@@ -0,0 +1,37 @@
+package com.invoicingsystem.api.infrastructure.web.controller;
+
+import com.invoicingsystem.api.application.command.SettlementBatchCommand;
+import com.invoicingsystem.api.application.query.SettlementReceiptDto;
+import com.invoicingsystem.api.infrastructure.bulkhead.Workload;
+import com.invoicingsystem.api.infrastructure.bulkhead.WorkloadClass;
+import com.invoicingsystem.api.infrastructure.settlement.SettlementInbox;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.validation.Valid;
+
+@RestController
+@RequestMapping("/settlements")
+@RequiredArgsConstructor
+@Workload(WorkloadClass.INTERACTIVE)
+@ConditionalOnProperty(prefix = "app.settlement.http", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SettlementController {
+
+    private final SettlementInbox settlementInbox;
+
+    // Returns once the confirmations are queued; they are applied by the settlement worker
+    @PostMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<SettlementReceiptDto> receive(@Valid @RequestBody SettlementBatchCommand command) {
+        int backlog = settlementInbox.offer(command.getConfirmations());
+        return new ResponseEntity<>(new SettlementReceiptDto(command.getConfirmations().size(), backlog),
+                HttpStatus.ACCEPTED);
+    }
+}
@@ -0,0 +1,71 @@
+package com.invoicingsystem.api.infrastructure.web.controller;
+
+import com.invoicingsystem.api.application.command.MatchStatementExceptionCommand;
+import com.invoicingsystem.api.application.query.StatementExceptionDto;
+import com.invoicingsystem.api.application.query.StatementImportDto;
+import com.invoicingsystem.api.application.service.StatementImportService;
+import com.invoicingsystem.api.infrastructure.bulkhead.Workload;
+import com.invoicingsystem.api.infrastructure.bulkhead.WorkloadClass;
+import com.invoicingsystem.api.infrastructure.statements.StatementImporter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.validation.Valid;
+import java.io.IOException;
+import java.util.List;
+
+@RestController
+@RequestMapping("/bank-statements")
+@RequiredArgsConstructor
+@Workload(WorkloadClass.INTERACTIVE)
+public class StatementImportController {
+
+    private final StatementImporter statementImporter;
+    private final StatementImportService statementImportService;
+
+    // Returns once the file is spooled; poll the import for its progress and counts
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Workload(WorkloadClass.BATCH)
+    public ResponseEntity<StatementImportDto> importStatement(@RequestParam("file") MultipartFile file)
+            throws IOException {
+        String startedBy = SecurityContextHolder.getContext().getAuthentication().getName();
+        return new ResponseEntity<>(statementImporter.submit(file, startedBy), HttpStatus.ACCEPTED);
+    }
+
+    @GetMapping
+    public ResponseEntity<List<StatementImportDto>> getImports(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(statementImportService.getImports(page, size));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<StatementImportDto> getImport(@PathVariable String id) {
+        return ResponseEntity.ok(statementImportService.getImport(id));
+    }
+
+    @GetMapping("/exceptions")
+    public ResponseEntity<List<StatementExceptionDto>> getExceptions(
+            @RequestParam(required = false) String importId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(statementImportService.getExceptions(importId, page, size));
+    }
+
+    @PostMapping("/exceptions/{id}/match")
+    public ResponseEntity<StatementExceptionDto> matchException(
+            @PathVariable String id,
+            @Valid @RequestBody MatchStatementExceptionCommand command) {
+        return ResponseEntity.ok(statementImportService.matchException(id, command.getInvoiceId()));
+    }
+
+    @PostMapping("/exceptions/{id}/dismiss")
+    public ResponseEntity<StatementExceptionDto> dismissException(@PathVariable String id) {
+        return ResponseEntity.ok(statementImportService.dismissException(id));
+    }
+}
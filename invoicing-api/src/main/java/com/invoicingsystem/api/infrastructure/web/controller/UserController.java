@@ -2,6 +2,8 @@ package com.invoicingsystem.api.infrastructure.web.controller;
 
 import com.invoicingsystem.api.application.query.UserDto;
 import com.invoicingsystem.api.application.service.UserService;
+import com.invoicingsystem.api.infrastructure.bulkhead.Workload;
+import com.invoicingsystem.api.infrastructure.bulkhead.WorkloadClass;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -12,6 +14,7 @@ import java.util.List;
 @RestController
 @RequestMapping("/users")
 @RequiredArgsConstructor
+@Workload(WorkloadClass.INTERACTIVE)
 public class UserController {
 
     private final UserService userService;
@@ -39,4 +42,11 @@ public class UserController {
         userService.deleteUser(id);
         return ResponseEntity.noContent().build();
     }
+
+    @DeleteMapping("/{id}/sessions")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> revokeSessions(@PathVariable String id) {
+        userService.revokeSessions(id);
+        return ResponseEntity.noContent().build();
+    }
 }
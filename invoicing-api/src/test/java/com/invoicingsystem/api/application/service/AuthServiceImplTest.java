@@ -0,0 +1,140 @@
+package com.invoicingsystem.api.application.service;
+
+import com.invoicingsystem.api.application.command.LoginCommand;
+import com.invoicingsystem.api.application.mapper.UserMapper;
+import com.invoicingsystem.api.application.query.JwtResponse;
+import com.invoicingsystem.api.application.service.impl.AuthServiceImpl;
+import com.invoicingsystem.api.domain.exception.ServiceUnavailableException;
+import com.invoicingsystem.api.domain.exception.UnauthorizedException;
+import com.invoicingsystem.api.domain.model.User;
+import com.invoicingsystem.api.domain.repository.UserRepository;
+import com.invoicingsystem.api.infrastructure.security.PasswordHasher;
+import com.invoicingsystem.api.infrastructure.security.PasswordHashingProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class AuthServiceImplTest {
+
+    private static final String EMAIL = "user@example.com";
+
+    private UserRepository userRepository;
+    private SessionService sessionService;
+    private UserMapper userMapper;
+    private PasswordHashingProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private PasswordHasher passwordHasher;
+    private AuthServiceImpl authService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        sessionService = mock(SessionService.class);
+        userMapper = mock(UserMapper.class);
+        properties = new PasswordHashingProperties();
+        properties.setBcryptStrength(4);
+        properties.setThreads(1);
+        meterRegistry = new SimpleMeterRegistry();
+        passwordHasher = new PasswordHasher(new BCryptPasswordEncoder(4), properties, meterRegistry);
+        authService = new AuthServiceImpl(userRepository, passwordHasher, properties, sessionService, userMapper);
+
+        user = new User();
+        user.setId("user-1");
+        user.setEmail(EMAIL);
+        user.setRole(User.Role.USER);
+        user.setPassword(new BCryptPasswordEncoder(4).encode("secret"));
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user));
+        when(sessionService.open(user)).thenReturn(new JwtResponse());
+    }
+
+    @AfterEach
+    void tearDown() {
+        passwordHasher.destroy();
+    }
+
+    @Test
+    void login_ShouldLoadUserOnceAndOpenSession() {
+        // When
+        JwtResponse response = authService.login(new LoginCommand(EMAIL, "secret"));
+
+        // Then
+        assertNotNull(response);
+        verify(userRepository, times(1)).findByEmail(EMAIL);
+        verify(sessionService).open(user);
+        verify(userRepository, never()).save(any());
+        assertEquals(1, meterRegistry.get("auth.password.hash").tag("operation", "verify").timer().count());
+        assertEquals(1, meterRegistry.get("auth.password.cpu").tag("operation", "verify").timer().count());
+    }
+
+    @Test
+    void login_WithOutdatedCost_ShouldRehashPassword() {
+        // Given
+        user.setPassword(new BCryptPasswordEncoder(5).encode("secret"));
+
+        // When
+        authService.login(new LoginCommand(EMAIL, "secret"));
+
+        // Then
+        verify(userRepository).save(user);
+        assertTrue(user.getPassword().startsWith("$2a$04$"));
+        assertFalse(passwordHasher.needsRehash(user.getPassword()));
+    }
+
+    @Test
+    void login_WithWrongPasswordOrUnknownUser_ShouldBeUnauthorized() {
+        assertThrows(UnauthorizedException.class, () -> authService.login(new LoginCommand(EMAIL, "wrong")));
+        assertThrows(UnauthorizedException.class,
+                () -> authService.login(new LoginCommand("nobody@example.com", "secret")));
+
+        verify(sessionService, never()).open(any());
+        // The unknown user still paid for a full verification
+        assertEquals(2, meterRegistry.get("auth.password.hash").tag("operation", "verify").timer().count());
+    }
+
+    @Test
+    void login_WhenHashingIsSaturated_ShouldBeRejected() throws Exception {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder blocking = mock(PasswordEncoder.class);
+        when(blocking.matches(any(), any())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return true;
+        });
+        properties.setQueueCapacity(1);
+        properties.setMaxWait(Duration.ofMillis(200));
+        PasswordHasher saturated = new PasswordHasher(blocking, properties, meterRegistry);
+        AuthServiceImpl service = new AuthServiceImpl(userRepository, saturated, properties, sessionService, userMapper);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+
+        try {
+            callers.submit(() -> saturated.matches("a", "b"));
+            callers.submit(() -> saturated.matches("a", "b"));
+            Thread.sleep(50);
+
+            // When / Then
+            ServiceUnavailableException e = assertThrows(ServiceUnavailableException.class,
+                    () -> service.login(new LoginCommand(EMAIL, "secret")));
+            assertEquals(1, e.getRetryAfterSeconds());
+            assertTrue(meterRegistry.get("auth.password.rejected").counter().count() >= 1);
+        } finally {
+            release.countDown();
+            callers.shutdownNow();
+            saturated.destroy();
+        }
+    }
+}
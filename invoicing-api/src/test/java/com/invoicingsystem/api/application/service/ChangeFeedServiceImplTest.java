@@ -0,0 +1,109 @@
+package com.invoicingsystem.api.application.service;
+
+import com.invoicingsystem.api.application.query.ChangeFeedDto;
+import com.invoicingsystem.api.application.service.impl.ChangeFeedServiceImpl;
+import com.invoicingsystem.api.domain.exception.BadRequestException;
+import com.invoicingsystem.api.domain.exception.ResourceGoneException;
+import com.invoicingsystem.api.domain.model.ChangeLogEntry;
+import com.invoicingsystem.api.domain.repository.ChangeLogRepository;
+import com.invoicingsystem.api.infrastructure.changefeed.ChangeFeedProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ChangeFeedServiceImplTest {
+
+    @Mock
+    private ChangeLogRepository changeLogRepository;
+
+    private ChangeFeedServiceImpl changeFeedService;
+
+    @BeforeEach
+    void setUp() {
+        ChangeFeedProperties properties = new ChangeFeedProperties();
+        properties.setDefaultLimit(2);
+        changeFeedService = new ChangeFeedServiceImpl(changeLogRepository, properties);
+    }
+
+    @Test
+    void getChanges_WithoutCursor_ShouldReturnHeadCursorOnly() {
+        // Given
+        when(changeLogRepository.findTopByRecordedAtLessThanEqualOrderByIdDesc(any()))
+                .thenReturn(Optional.of(entry(41L)));
+
+        // When
+        ChangeFeedDto head = changeFeedService.getChanges(null, null, null);
+        when(changeLogRepository.findByIdGreaterThanAndRecordedAtLessThanEqualOrderByIdAsc(eq(41L), any(), any()))
+                .thenReturn(List.of());
+        ChangeFeedDto next = changeFeedService.getChanges(head.getNextCursor(), null, null);
+
+        // Then
+        assertTrue(head.getChanges().isEmpty());
+        assertFalse(next.isHasMore());
+    }
+
+    @Test
+    void getChanges_ShouldPageWithNextCursor() {
+        // Given
+        String start = cursor(0L, System.currentTimeMillis());
+        when(changeLogRepository.findByIdGreaterThanAndRecordedAtLessThanEqualOrderByIdAsc(eq(0L), any(), any()))
+                .thenReturn(List.of(entry(1L), entry(2L), entry(3L)));
+        when(changeLogRepository.findByIdGreaterThanAndRecordedAtLessThanEqualOrderByIdAsc(eq(2L), any(), any()))
+                .thenReturn(List.of(entry(3L)));
+
+        // When
+        ChangeFeedDto first = changeFeedService.getChanges(start, null, null);
+        ChangeFeedDto second = changeFeedService.getChanges(first.getNextCursor(), null, null);
+
+        // Then
+        assertTrue(first.isHasMore());
+        assertEquals(2, first.getChanges().size());
+        assertEquals("invoice", first.getChanges().get(0).getEntityType());
+        assertFalse(second.isHasMore());
+        assertEquals(3L, second.getChanges().get(0).getSequence());
+    }
+
+    @Test
+    void getChanges_WithCursorOlderThanRetention_ShouldThrowGone() {
+        String expired = cursor(5L, System.currentTimeMillis() - 31L * 24 * 3600 * 1000);
+
+        assertThrows(ResourceGoneException.class, () -> changeFeedService.getChanges(expired, null, null));
+    }
+
+    @Test
+    void getChanges_WithInvalidCursorOrType_ShouldThrowBadRequest() {
+        String valid = cursor(0L, System.currentTimeMillis());
+
+        assertThrows(BadRequestException.class, () -> changeFeedService.getChanges("not-a-cursor", null, null));
+        assertThrows(BadRequestException.class, () -> changeFeedService.getChanges(valid, "user", null));
+    }
+
+    private static String cursor(long id, long millis) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((id + ":" + millis).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static ChangeLogEntry entry(long id) {
+        return ChangeLogEntry.builder()
+                .id(id)
+                .entityType(ChangeLogEntry.EntityType.INVOICE)
+                .entityId("inv-" + id)
+                .operation(ChangeLogEntry.Operation.UPDATED)
+                .recordedAt(LocalDateTime.now().minusSeconds(10))
+                .build();
+    }
+}
@@ -3,8 +3,14 @@ package com.invoicingsystem.api.application.service;
 import com.invoicingsystem.api.application.command.CreateInvoiceCommand;
 import com.invoicingsystem.api.application.command.CreateInvoiceCommand.InvoiceItemDto;
 import com.invoicingsystem.api.application.command.UpdateInvoiceCommand;
+import com.invoicingsystem.api.application.query.ClientDto;
+import com.invoicingsystem.api.application.query.InvoiceDetailDto;
 import com.invoicingsystem.api.application.query.InvoiceDto;
+import com.invoicingsystem.api.application.query.MultiGetResultDto;
+import com.invoicingsystem.api.application.mapper.ClientMapper;
 import com.invoicingsystem.api.application.mapper.InvoiceMapper;
+import com.invoicingsystem.api.application.mapper.PaymentMapper;
+import com.invoicingsystem.api.application.service.impl.InvoiceNumberAllocator;
 import com.invoicingsystem.api.application.service.impl.InvoiceServiceImpl;
 import com.invoicingsystem.api.application.command.UpdateInvoiceStatusCommand;
 import com.invoicingsystem.api.domain.exception.BadRequestException;
@@ -12,9 +18,12 @@ import com.invoicingsystem.api.domain.exception.ResourceNotFoundException;
 import com.invoicingsystem.api.domain.model.Client;
 import com.invoicingsystem.api.domain.model.Invoice;
 import com.invoicingsystem.api.domain.model.InvoiceItem;
+import com.invoicingsystem.api.domain.model.Payment;
 import com.invoicingsystem.api.domain.model.Invoice.InvoiceStatus;
 import com.invoicingsystem.api.domain.repository.ClientRepository;
+import com.invoicingsystem.api.domain.repository.InvoiceDetailVersion;
 import com.invoicingsystem.api.domain.repository.InvoiceRepository;
+import com.invoicingsystem.api.domain.repository.PaymentRepository;
 import com.invoicingsystem.api.domain.repository.UserRepository;
 import com.invoicingsystem.api.domain.model.User;
 import org.junit.jupiter.api.BeforeEach;
@@ -54,6 +63,18 @@ class InvoiceServiceImplTest {
     @Mock
     private ApplicationEventPublisher eventPublisher;
 
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    @Mock
+    private PaymentMapper paymentMapper;
+
+    @Mock
+    private ClientMapper clientMapper;
+
+    @Mock
+    private InvoiceNumberAllocator invoiceNumberAllocator;
+
     @InjectMocks
     private InvoiceServiceImpl invoiceService;
 
@@ -170,6 +191,97 @@ class InvoiceServiceImplTest {
         verifyNoInteractions(invoiceMapper);
     }
 
+    @Test
+    void getInvoicesByIds_ShouldPreserveRequestOrderAndReportMissingIds() {
+        // Given
+        Invoice other = new Invoice();
+        other.setId("other-invoice-id");
+        InvoiceDto otherDto = new InvoiceDto();
+        otherDto.setId("other-invoice-id");
+        when(invoiceRepository.findAllWithDetailsByIdIn(List.of("other-invoice-id", "missing-id", "test-invoice-id")))
+                .thenReturn(List.of(testInvoice, other));
+        when(invoiceMapper.invoiceToInvoiceDto(testInvoice)).thenReturn(testInvoiceDto);
+        when(invoiceMapper.invoiceToInvoiceDto(other)).thenReturn(otherDto);
+
+        // When
+        MultiGetResultDto<InvoiceDto> result = invoiceService.getInvoicesByIds(
+                List.of("other-invoice-id", "missing-id", " test-invoice-id", "other-invoice-id"));
+
+        // Then
+        assertEquals(List.of(otherDto, testInvoiceDto), result.getItems());
+        assertEquals(List.of("missing-id"), result.getMissingIds());
+        verify(invoiceRepository, never()).findById(anyString());
+    }
+
+    @Test
+    void getInvoicesByIds_WhenTooManyIds_ShouldThrowException() {
+        // Given
+        List<String> ids = new java.util.ArrayList<>();
+        for (int i = 0; i <= 100; i++) {
+            ids.add("invoice-" + i);
+        }
+
+        // When & Then
+        assertThrows(BadRequestException.class, () -> invoiceService.getInvoicesByIds(ids));
+        assertThrows(BadRequestException.class, () -> invoiceService.getInvoicesByIds(List.of(" ")));
+        verifyNoInteractions(invoiceRepository);
+    }
+
+    @Test
+    void getInvoiceDetail_ShouldCarryTheSameEtagAsTheStampsQuery() {
+        // Given
+        LocalDateTime invoiceUpdatedAt = LocalDateTime.of(2024, 1, 2, 3, 4, 5);
+        LocalDateTime clientUpdatedAt = invoiceUpdatedAt.minusDays(1);
+        LocalDateTime paymentUpdatedAt = invoiceUpdatedAt.plusHours(1);
+        testInvoice.setUpdatedAt(invoiceUpdatedAt);
+        testClient.setUpdatedAt(clientUpdatedAt);
+        testInvoice.getItems().get(0).setUpdatedAt(invoiceUpdatedAt);
+        Payment payment = new Payment();
+        payment.setUpdatedAt(paymentUpdatedAt);
+        when(invoiceRepository.findWithDetailsById("test-invoice-id")).thenReturn(Optional.of(testInvoice));
+        when(paymentRepository.findByInvoiceIdOrderByReceivedAtAsc("test-invoice-id")).thenReturn(List.of(payment));
+        when(invoiceMapper.invoiceToInvoiceDto(testInvoice)).thenReturn(testInvoiceDto);
+        when(clientMapper.clientToClientDto(testClient)).thenReturn(new ClientDto());
+        InvoiceDetailVersion version = version(invoiceUpdatedAt, clientUpdatedAt, 1L, invoiceUpdatedAt, 1L, paymentUpdatedAt);
+        when(invoiceRepository.findDetailVersionById("test-invoice-id")).thenReturn(Optional.of(version));
+
+        // When
+        InvoiceDetailDto detail = invoiceService.getInvoiceDetail("test-invoice-id");
+        String etag = invoiceService.getInvoiceDetailEtag("test-invoice-id");
+
+        // Then
+        assertEquals(testInvoiceDto, detail.getInvoice());
+        assertNotNull(detail.getClient());
+        assertTrue(etag.startsWith("W/\""));
+        assertEquals(etag, detail.getEtag());
+
+        InvoiceDetailVersion withNewPayment = version(invoiceUpdatedAt, clientUpdatedAt, 1L, invoiceUpdatedAt, 2L, paymentUpdatedAt);
+        when(invoiceRepository.findDetailVersionById("test-invoice-id")).thenReturn(Optional.of(withNewPayment));
+        assertNotEquals(etag, invoiceService.getInvoiceDetailEtag("test-invoice-id"));
+    }
+
+    @Test
+    void getInvoiceDetailEtag_WhenInvoiceDoesNotExist_ShouldThrowException() {
+        // Given
+        when(invoiceRepository.findDetailVersionById("non-existent")).thenReturn(Optional.empty());
+
+        // When & Then
+        assertThrows(ResourceNotFoundException.class, () -> invoiceService.getInvoiceDetailEtag("non-existent"));
+    }
+
+    private static InvoiceDetailVersion version(LocalDateTime invoiceUpdatedAt, LocalDateTime clientUpdatedAt,
+                                                Long itemCount, LocalDateTime itemsUpdatedAt,
+                                                Long paymentCount, LocalDateTime paymentsUpdatedAt) {
+        InvoiceDetailVersion version = mock(InvoiceDetailVersion.class);
+        when(version.getInvoiceUpdatedAt()).thenReturn(invoiceUpdatedAt);
+        when(version.getClientUpdatedAt()).thenReturn(clientUpdatedAt);
+        when(version.getItemCount()).thenReturn(itemCount);
+        when(version.getItemsUpdatedAt()).thenReturn(itemsUpdatedAt);
+        when(version.getPaymentCount()).thenReturn(paymentCount);
+        when(version.getPaymentsUpdatedAt()).thenReturn(paymentsUpdatedAt);
+        return version;
+    }
+
     @Test
     void createInvoice_WithValidData_ShouldCreateInvoice() {
         // Given
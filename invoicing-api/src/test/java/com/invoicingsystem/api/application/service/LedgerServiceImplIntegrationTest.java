@@ -0,0 +1,173 @@
+package com.invoicingsystem.api.application.service;
+
+import com.invoicingsystem.api.application.query.InvoiceBalanceDto;
+import com.invoicingsystem.api.application.query.LedgerAuditDto;
+import com.invoicingsystem.api.application.query.LedgerEntryDto;
+import com.invoicingsystem.api.application.service.impl.LedgerServiceImpl;
+import com.invoicingsystem.api.domain.model.Client;
+import com.invoicingsystem.api.domain.model.Invoice;
+import com.invoicingsystem.api.domain.model.LedgerEntry;
+import com.invoicingsystem.api.domain.model.User;
+import com.invoicingsystem.api.domain.repository.LedgerEntryRepository;
+import com.invoicingsystem.api.infrastructure.ledger.LedgerProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({LedgerServiceImpl.class, LedgerProperties.class})
+class LedgerServiceImplIntegrationTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    private Invoice invoice;
+
+    @BeforeEach
+    void setUp() {
+        Client client = new Client();
+        client.setId(UUID.randomUUID().toString());
+        client.setName("Ledger Client");
+        client.setEmail(UUID.randomUUID() + "@example.com");
+        client.setPhone("+1-555-000-0000");
+        client.setAddress("1 Ledger Way");
+        client.setCreatedAt(LocalDateTime.now());
+        client.setUpdatedAt(LocalDateTime.now());
+        entityManager.persist(client);
+
+        User user = new User();
+        user.setId(UUID.randomUUID().toString());
+        user.setName("Ledger User");
+        user.setEmail(UUID.randomUUID() + "@example.com");
+        user.setPassword("secret");
+        user.setRole(User.Role.USER);
+        user.setCreatedAt(LocalDateTime.now());
+        user.setUpdatedAt(LocalDateTime.now());
+        entityManager.persist(user);
+
+        invoice = new Invoice();
+        invoice.setNumber("INV-L-" + UUID.randomUUID());
+        invoice.setClient(client);
+        invoice.setCreatedBy(user);
+        invoice.setIssueDate(LocalDate.now());
+        invoice.setDueDate(LocalDate.now().plusDays(30));
+        invoice.setStatus(Invoice.InvoiceStatus.SENT);
+        invoice.setSubtotal(new BigDecimal("100.00"));
+        invoice.setTaxAmount(BigDecimal.ZERO);
+        invoice.setTotal(new BigDecimal("100.00"));
+        invoice.setBalance(new BigDecimal("100.00"));
+        invoice.setCreatedAt(LocalDateTime.now());
+        invoice.setUpdatedAt(LocalDateTime.now());
+        entityManager.persistAndFlush(invoice);
+    }
+
+    @Test
+    void getAmountPaid_ShouldAddUnfoldedTailToSnapshot() {
+        // Given
+        recordSettled(LedgerEntry.applied(invoice.getId(), "p1", new BigDecimal("30.00")));
+        recordSettled(LedgerEntry.applied(invoice.getId(), "p2", new BigDecimal("20.00")));
+        recordSettled(LedgerEntry.reversed(invoice.getId(), "p2", new BigDecimal("20.00")));
+
+        // When
+        assertEquals(List.of(invoice.getId()), ledgerService.findCompactionCandidates());
+        assertTrue(ledgerService.compact(invoice.getId()));
+        ledgerService.record(LedgerEntry.applied(invoice.getId(), "p3", new BigDecimal("10.00")));
+
+        // Then
+        InvoiceBalanceDto balance = ledgerService.getBalance(invoice.getId());
+        assertEquals(new BigDecimal("40.00"), balance.getAmountPaid());
+        assertEquals(new BigDecimal("60.00"), balance.getBalance());
+        assertNotNull(balance.getSnapshotThroughEntry());
+        assertEquals(1, balance.getTailEntries());
+        // The fresh entry has not settled yet, so there is nothing more to fold
+        assertFalse(ledgerService.compact(invoice.getId()));
+        assertTrue(ledgerService.findCompactionCandidates().isEmpty());
+    }
+
+    @Test
+    void getEntries_ShouldListSignedEntriesInOrder() {
+        // Given
+        ledgerService.record(LedgerEntry.applied(invoice.getId(), "p1", new BigDecimal("30.00")));
+        ledgerService.record(LedgerEntry.reversed(invoice.getId(), "p1", new BigDecimal("30.00")));
+
+        // When
+        List<LedgerEntryDto> entries = ledgerService.getEntries(invoice.getId());
+
+        // Then
+        assertEquals(2, entries.size());
+        assertEquals(LedgerEntry.EntryType.APPLIED, entries.get(0).getType());
+        assertEquals(0, new BigDecimal("-30").compareTo(entries.get(1).getAmount()));
+        assertTrue(entries.get(0).getSequence() < entries.get(1).getSequence());
+    }
+
+    @Test
+    void rebuild_ShouldRepairDriftedProjection() {
+        // Given
+        recordSettled(LedgerEntry.applied(invoice.getId(), "p1", new BigDecimal("100.00")));
+        assertFalse(ledgerService.audit(invoice.getId()).isConsistent());
+
+        // When
+        LedgerAuditDto audit = ledgerService.rebuild(invoice.getId());
+
+        // Then
+        assertTrue(audit.isConsistent());
+        assertEquals(1, audit.getEntryCount());
+        assertEquals(new BigDecimal("100.00"), audit.getInvoiceAmountPaid());
+        assertEquals(Invoice.InvoiceStatus.PAID, invoice.getStatus());
+        assertEquals(0, BigDecimal.ZERO.compareTo(invoice.getBalance()));
+    }
+
+    @Test
+    void openBalances_ShouldRecordOpeningAdjustmentOnce() {
+        // Given
+        invoice.setAmountPaid(new BigDecimal("40.00"));
+        entityManager.persistAndFlush(invoice);
+
+        // When
+        int opened = ledgerService.openBalances();
+
+        // Then
+        assertEquals(1, opened);
+        assertEquals(0, ledgerService.openBalances());
+        assertEquals(new BigDecimal("40.00"), ledgerService.getAmountPaid(invoice.getId()));
+        assertEquals(LedgerEntry.EntryType.ADJUSTED, ledgerService.getEntries(invoice.getId()).get(0).getType());
+        assertTrue(ledgerService.audit(invoice.getId()).isConsistent());
+    }
+
+    @Test
+    void openBalances_ShouldRejectSecondOpeningEntryForInvoice() {
+        // Given
+        invoice.setAmountPaid(new BigDecimal("40.00"));
+        entityManager.persistAndFlush(invoice);
+        ledgerService.openBalances();
+
+        // When & Then: what a second node starting at the same time would insert
+        assertThrows(DataIntegrityViolationException.class, () -> ledgerEntryRepository.saveAndFlush(
+                LedgerEntry.opening(invoice.getId(), new BigDecimal("40.00"))));
+    }
+
+    private void recordSettled(LedgerEntry entry) {
+        entry.setRecordedAt(LocalDateTime.now().minusMinutes(10));
+        ledgerService.record(entry);
+    }
+}
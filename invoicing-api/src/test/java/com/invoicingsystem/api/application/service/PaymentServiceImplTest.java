@@ -8,6 +8,7 @@ import com.invoicingsystem.api.domain.exception.BadRequestException;
 import com.invoicingsystem.api.domain.exception.ResourceNotFoundException;
 import com.invoicingsystem.api.domain.model.Client;
 import com.invoicingsystem.api.domain.model.Invoice;
+import com.invoicingsystem.api.domain.model.LedgerEntry;
 import com.invoicingsystem.api.domain.model.Payment;
 import com.invoicingsystem.api.domain.model.Payment.PaymentMethod;
 import com.invoicingsystem.api.domain.model.Payment.PaymentStatus;
@@ -43,6 +44,9 @@ class PaymentServiceImplTest {
     @Mock
     private PaymentMapper paymentMapper;
 
+    @Mock
+    private LedgerService ledgerService;
+
     @InjectMocks
     private PaymentServiceImpl paymentService;
 
@@ -106,6 +110,7 @@ class PaymentServiceImplTest {
     void recordPayment_WithValidData_ShouldCreatePayment() {
         // Given
         when(invoiceRepository.findById("test-invoice-id")).thenReturn(Optional.of(testInvoice));
+        when(ledgerService.getAmountPaid("test-invoice-id")).thenReturn(BigDecimal.ZERO);
         when(paymentMapper.recordPaymentCommandToPayment(recordCommand)).thenReturn(testPayment);
         when(paymentRepository.save(any(Payment.class))).thenReturn(testPayment);
         when(paymentMapper.paymentToPaymentDto(testPayment)).thenReturn(testPaymentDto);
@@ -115,11 +120,14 @@ class PaymentServiceImplTest {
 
         // Then
         assertEquals(testPaymentDto, result);
-        assertEquals(new BigDecimal("500.00"), testInvoice.getBalance()); // Balance should be reduced
+        assertEquals(new BigDecimal("1000.00"), testInvoice.getBalance()); // Projected after commit, not here
         verify(invoiceRepository).findById("test-invoice-id");
         verify(paymentMapper).recordPaymentCommandToPayment(recordCommand);
         verify(paymentRepository).save(any(Payment.class));
-        verify(invoiceRepository).save(testInvoice);
+        verify(ledgerService).record(argThat(entry -> entry.getType() == LedgerEntry.EntryType.APPLIED
+                && "test-payment-id".equals(entry.getPaymentId())
+                && new BigDecimal("500.00").equals(entry.getAmount())));
+        verify(invoiceRepository, never()).save(any(Invoice.class));
         verify(paymentMapper).paymentToPaymentDto(testPayment);
     }
 
@@ -139,6 +147,7 @@ class PaymentServiceImplTest {
         // Given
         recordCommand.setAmount(new BigDecimal("1500.00")); // More than invoice total
         when(invoiceRepository.findById("test-invoice-id")).thenReturn(Optional.of(testInvoice));
+        when(ledgerService.getAmountPaid("test-invoice-id")).thenReturn(BigDecimal.ZERO);
 
         // When & Then
         assertThrows(BadRequestException.class, () -> paymentService.recordPayment(recordCommand));
@@ -146,6 +155,18 @@ class PaymentServiceImplTest {
         verifyNoInteractions(paymentMapper, paymentRepository);
     }
 
+    @Test
+    void recordPayment_WhenLedgerShowsEarlierPayments_ShouldRejectOverpayment() {
+        // Given: the invoice row still shows nothing paid, but the ledger has 800.00 applied
+        when(invoiceRepository.findById("test-invoice-id")).thenReturn(Optional.of(testInvoice));
+        when(ledgerService.getAmountPaid("test-invoice-id")).thenReturn(new BigDecimal("800.00"));
+
+        // When & Then
+        assertThrows(BadRequestException.class, () -> paymentService.recordPayment(recordCommand));
+        verifyNoInteractions(paymentMapper, paymentRepository);
+        verify(ledgerService, never()).record(any());
+    }
+
     @Test
     void recordPayment_WhenInvoiceIsPaid_ShouldThrowException() {
         // Given
@@ -171,12 +192,14 @@ class PaymentServiceImplTest {
     }
 
     @Test
-    void recordPayment_WithExactAmount_ShouldMarkInvoiceAsPaid() {
+    void recordPayment_WithExactAmount_ShouldAppendToLedgerOnly() {
         // Given
         recordCommand.setAmount(new BigDecimal("1000.00")); // Exact invoice total
         testInvoice.setBalance(new BigDecimal("1000.00"));
-        
+        testPayment.setAmount(new BigDecimal("1000.00"));
+
         when(invoiceRepository.findById("test-invoice-id")).thenReturn(Optional.of(testInvoice));
+        when(ledgerService.getAmountPaid("test-invoice-id")).thenReturn(BigDecimal.ZERO);
         when(paymentMapper.recordPaymentCommandToPayment(recordCommand)).thenReturn(testPayment);
         when(paymentRepository.save(any(Payment.class))).thenReturn(testPayment);
         
@@ -190,9 +213,10 @@ class PaymentServiceImplTest {
 
         // Then
         assertEquals(PaymentStatus.COMPLETED, result.getStatus());
-        assertEquals(InvoiceStatus.PAID, testInvoice.getStatus()); // Invoice should be marked as PAID
-        assertEquals(BigDecimal.ZERO, testInvoice.getBalance());
-        verify(invoiceRepository).save(testInvoice);
+        assertEquals(InvoiceStatus.SENT, testInvoice.getStatus()); // LedgerProjector marks it PAID after commit
+        verify(ledgerService).record(argThat(entry -> entry.getType() == LedgerEntry.EntryType.APPLIED
+                && new BigDecimal("1000.00").equals(entry.getAmount())));
+        verify(invoiceRepository, never()).save(any(Invoice.class));
     }
 
     @Test
@@ -258,6 +282,8 @@ class PaymentServiceImplTest {
         assertEquals(PaymentStatus.REVERSED, testPayment.getStatus());
         verify(paymentRepository).findById("test-payment-id");
         verify(paymentRepository).save(testPayment);
+        verify(ledgerService).record(argThat(entry -> entry.getType() == LedgerEntry.EntryType.REVERSED
+                && new BigDecimal("-500.00").equals(entry.getAmount())));
         verify(paymentMapper).paymentToPaymentDto(testPayment);
     }
 
@@ -295,12 +321,13 @@ class PaymentServiceImplTest {
         // When
         paymentService.deletePayment("test-payment-id");
 
-        // Then
-        assertEquals(new BigDecimal("1000.00"), testInvoice.getBalanceDue()); // Balance should be restored
-        assertEquals(InvoiceStatus.SENT, testInvoice.getStatus()); // Status should be restored
+        // Then: the completed payment is compensated in the ledger, the invoice is projected after commit
         verify(paymentRepository).findById("test-payment-id");
         verify(paymentRepository).delete(testPayment);
-        verify(invoiceRepository).save(testInvoice);
+        verify(ledgerService).record(argThat(entry -> entry.getType() == LedgerEntry.EntryType.REVERSED
+                && "test-payment-id".equals(entry.getPaymentId())
+                && new BigDecimal("-500.00").equals(entry.getAmount())));
+        verify(invoiceRepository, never()).save(any(Invoice.class));
     }
 
     @Test
@@ -0,0 +1,272 @@
+package com.invoicingsystem.api.application.service;
+
+import com.invoicingsystem.api.application.command.CreateInvoiceCommand;
+import com.invoicingsystem.api.application.command.CreateRecurringInvoiceCommand;
+import com.invoicingsystem.api.application.mapper.RecurringInvoiceMapperImpl;
+import com.invoicingsystem.api.application.query.RecurringInvoiceTemplateDto;
+import com.invoicingsystem.api.application.service.impl.InvoiceNumberAllocator;
+import com.invoicingsystem.api.application.service.impl.RecurringInvoiceServiceImpl;
+import com.invoicingsystem.api.domain.exception.BadRequestException;
+import com.invoicingsystem.api.domain.model.Client;
+import com.invoicingsystem.api.domain.model.Invoice;
+import com.invoicingsystem.api.domain.model.RecurringInvoiceTemplate;
+import com.invoicingsystem.api.domain.model.User;
+import com.invoicingsystem.api.domain.repository.ClientRepository;
+import com.invoicingsystem.api.domain.repository.InvoiceNumberSequenceRepository;
+import com.invoicingsystem.api.domain.repository.InvoiceRepository;
+import com.invoicingsystem.api.domain.repository.RecurringInvoiceTemplateRepository;
+import com.invoicingsystem.api.domain.repository.UserRepository;
+import com.invoicingsystem.api.infrastructure.recurring.RecurringInvoiceProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs without a test transaction so generation commits per chunk, as it does in the job.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({RecurringInvoiceServiceImpl.class, RecurringInvoiceMapperImpl.class, RecurringInvoiceProperties.class,
+        InvoiceNumberAllocator.class})
+class RecurringInvoiceServiceImplIntegrationTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 5, 20);
+
+    @Autowired
+    private RecurringInvoiceService recurringInvoiceService;
+
+    @Autowired
+    private InvoiceNumberAllocator invoiceNumberAllocator;
+
+    @Autowired
+    private RecurringInvoiceTemplateRepository templateRepository;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Autowired
+    private InvoiceNumberSequenceRepository sequenceRepository;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Client client;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        client = new Client();
+        client.setId(UUID.randomUUID().toString());
+        client.setName("Retainer Client");
+        client.setEmail(UUID.randomUUID() + "@example.com");
+        client.setPhone("+1-555-000-0000");
+        client.setAddress("1 Retainer Way");
+        client.setCreatedAt(LocalDateTime.now());
+        client.setUpdatedAt(LocalDateTime.now());
+        client = clientRepository.save(client);
+
+        user = new User();
+        user.setId(UUID.randomUUID().toString());
+        user.setName("Recurring User");
+        user.setEmail(UUID.randomUUID() + "@example.com");
+        user.setPassword("secret");
+        user.setRole(User.Role.USER);
+        user.setCreatedAt(LocalDateTime.now());
+        user.setUpdatedAt(LocalDateTime.now());
+        user = userRepository.save(user);
+    }
+
+    @AfterEach
+    void tearDown() {
+        invoiceRepository.deleteAll();
+        templateRepository.deleteAll();
+        sequenceRepository.deleteAll();
+        clientRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void generate_ShouldIssueEveryMissedPeriodAndAdvanceTemplate() {
+        // Given
+        String id = monthly(LocalDate.of(2024, 3, 1)).getId();
+        List<String> ids = Collections.singletonList(id);
+
+        // When
+        int due = recurringInvoiceService.countDueInvoices(ids, TODAY);
+        int generated = recurringInvoiceService.generate(ids, TODAY, invoiceNumberAllocator.allocate(TODAY, due));
+
+        // Then
+        assertEquals(3, due);
+        assertEquals(3, generated);
+        List<Invoice> invoices = invoices();
+        assertEquals(List.of(LocalDate.of(2024, 3, 1), LocalDate.of(2024, 4, 1), LocalDate.of(2024, 5, 1)),
+                invoices.stream().map(Invoice::getRecurringPeriod).collect(Collectors.toList()));
+        assertEquals(List.of("INV-2024-0001", "INV-2024-0002", "INV-2024-0003"),
+                invoices.stream().map(Invoice::getNumber).collect(Collectors.toList()));
+        Invoice first = invoices.get(0);
+        assertEquals(LocalDate.of(2024, 3, 31), first.getDueDate());
+        assertEquals(Invoice.InvoiceStatus.DRAFT, first.getStatus());
+        assertEquals(0, new BigDecimal("252.00").compareTo(first.getTotal()));
+        assertEquals(0, first.getTotal().compareTo(first.getBalance()));
+
+        RecurringInvoiceTemplateDto template = recurringInvoiceService.getTemplate(id);
+        assertEquals(LocalDate.of(2024, 6, 1), template.getNextIssueDate());
+        assertEquals(0, recurringInvoiceService.countDueInvoices(ids, TODAY));
+        assertTrue(recurringInvoiceService.findDueTemplateIds(TODAY, "", 10).isEmpty());
+    }
+
+    @Test
+    void generate_AfterCrashBeforeTemplateAdvanced_ShouldNotIssuePeriodTwice() {
+        // Given a period invoiced by a run whose template update was lost
+        String id = monthly(LocalDate.of(2024, 5, 1)).getId();
+        List<String> ids = Collections.singletonList(id);
+        recurringInvoiceService.generate(ids, TODAY, invoiceNumberAllocator.allocate(TODAY, 1));
+        RecurringInvoiceTemplate template = templateRepository.findById(id).orElseThrow();
+        template.setNextIssueDate(LocalDate.of(2024, 5, 1));
+        templateRepository.save(template);
+
+        // When
+        assertEquals(0, recurringInvoiceService.countDueInvoices(ids, TODAY));
+        int generated = recurringInvoiceService.generate(ids, TODAY, Collections.emptyList());
+
+        // Then
+        assertEquals(0, generated);
+        assertEquals(1, invoiceRepository.count());
+        assertEquals(LocalDate.of(2024, 6, 1), templateRepository.findById(id).orElseThrow().getNextIssueDate());
+    }
+
+    @Test
+    void generate_WhenNumbersRunOut_ShouldLeaveRemainingPeriodsDue() {
+        // Given
+        String id = monthly(LocalDate.of(2024, 3, 1)).getId();
+        List<String> ids = Collections.singletonList(id);
+
+        // When
+        int generated = recurringInvoiceService.generate(ids, TODAY, invoiceNumberAllocator.allocate(TODAY, 2));
+
+        // Then
+        assertEquals(2, generated);
+        assertEquals(LocalDate.of(2024, 5, 1), templateRepository.findById(id).orElseThrow().getNextIssueDate());
+        assertEquals(List.of(id), recurringInvoiceService.findDueTemplateIds(TODAY, "", 10));
+    }
+
+    @Test
+    void generate_InParallelChunks_ShouldIssueOneInvoicePerPeriodWithUniqueNumbers() throws Exception {
+        // Given
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 24; i++) {
+            ids.add(monthly(LocalDate.of(2024, 4, 1)).getId());
+        }
+        // Every chunk is generated twice, as after a crash or an overlapping node
+        List<List<String>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += 4) {
+            chunks.add(ids.subList(from, from + 4));
+            chunks.add(ids.subList(from, from + 4));
+        }
+        ExecutorService workers = Executors.newFixedThreadPool(4);
+
+        // When
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (List<String> chunk : chunks) {
+                results.add(workers.submit(() -> {
+                    int due = recurringInvoiceService.countDueInvoices(chunk, TODAY);
+                    return recurringInvoiceService.generate(chunk, TODAY, invoiceNumberAllocator.allocate(TODAY, due));
+                }));
+            }
+            for (Future<Integer> result : results) {
+                try {
+                    result.get();
+                } catch (Exception e) {
+                    // A duplicate chunk losing the race on the period constraint is rolled back
+                }
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+
+        // Then
+        List<Invoice> invoices = invoices();
+        assertEquals(48, invoices.size());
+        Set<String> numbers = invoices.stream().map(Invoice::getNumber).collect(Collectors.toSet());
+        assertEquals(48, numbers.size());
+        Set<String> periods = new HashSet<>();
+        for (Invoice invoice : invoices) {
+            assertTrue(periods.add(invoice.getRecurringTemplateId() + "|" + invoice.getRecurringPeriod()));
+        }
+        assertTrue(recurringInvoiceService.findDueTemplateIds(TODAY, "", 100).isEmpty());
+    }
+
+    @Test
+    void allocate_ShouldContinueAfterNumbersIssuedBeforeTheSequence() {
+        // Given
+        recurringInvoiceService.generate(Collections.singletonList(monthly(LocalDate.of(2024, 5, 1)).getId()),
+                TODAY, List.of("INV-2024-0041"));
+        sequenceRepository.deleteAll();
+
+        // When / Then
+        assertEquals(List.of("INV-2024-0042", "INV-2024-0043"), invoiceNumberAllocator.allocate(TODAY, 2));
+        assertEquals("INV-2024-0044", invoiceNumberAllocator.next(TODAY));
+        assertEquals("INV-2025-0001", invoiceNumberAllocator.next(TODAY.plusYears(1)));
+    }
+
+    @Test
+    void createTemplate_ShouldRejectStatusesOtherThanDraftOrSent() {
+        CreateRecurringInvoiceCommand command = command(LocalDate.of(2024, 3, 1));
+        command.setStatus("PAID");
+
+        assertThrows(BadRequestException.class, () -> recurringInvoiceService.createTemplate(command, user.getId()));
+    }
+
+    private RecurringInvoiceTemplateDto monthly(LocalDate start) {
+        return recurringInvoiceService.createTemplate(command(start), user.getId());
+    }
+
+    private CreateRecurringInvoiceCommand command(LocalDate start) {
+        return CreateRecurringInvoiceCommand.builder()
+                .name("Maintenance retainer")
+                .clientId(client.getId())
+                .frequency(RecurringInvoiceTemplate.Frequency.MONTHLY)
+                .startDate(start)
+                .dueInDays(30)
+                .taxRate(new BigDecimal("5.00"))
+                .items(List.of(CreateInvoiceCommand.InvoiceItemDto.builder()
+                        .description("Monthly support")
+                        .quantity(2)
+                        .unitPrice(new BigDecimal("120.00"))
+                        .build()))
+                .build();
+    }
+
+    private List<Invoice> invoices() {
+        return invoiceRepository.findAll().stream()
+                .sorted((a, b) -> a.getNumber().compareTo(b.getNumber()))
+                .collect(Collectors.toList());
+    }
+}
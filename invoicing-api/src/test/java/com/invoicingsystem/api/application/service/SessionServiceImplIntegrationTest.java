@@ -0,0 +1,175 @@
+package com.invoicingsystem.api.application.service;
+
+import com.invoicingsystem.api.application.mapper.UserMapperImpl;
+import com.invoicingsystem.api.application.query.JwtResponse;
+import com.invoicingsystem.api.application.service.impl.SessionServiceImpl;
+import com.invoicingsystem.api.domain.exception.UnauthorizedException;
+import com.invoicingsystem.api.domain.model.User;
+import com.invoicingsystem.api.domain.repository.RefreshTokenRepository;
+import com.invoicingsystem.api.infrastructure.security.JwtAuthenticationFilter;
+import com.invoicingsystem.api.infrastructure.security.JwtUtils;
+import com.invoicingsystem.api.infrastructure.security.RevokedSessions;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({SessionServiceImpl.class, RevokedSessions.class, JwtUtils.class, UserMapperImpl.class,
+        SimpleMeterRegistry.class})
+class SessionServiceImplIntegrationTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private SessionService sessionService;
+
+    @Autowired
+    private RevokedSessions revokedSessions;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setId(UUID.randomUUID().toString());
+        user.setName("Session User");
+        user.setEmail(UUID.randomUUID() + "@example.com");
+        user.setPassword("secret");
+        user.setRole(User.Role.ADMIN);
+        user.setCreatedAt(LocalDateTime.now());
+        user.setUpdatedAt(LocalDateTime.now());
+        entityManager.persistAndFlush(user);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void open_ShouldIssueAccessTokenCarryingRoleAndSession() {
+        // When
+        JwtResponse response = sessionService.open(user);
+
+        // Then
+        Claims claims = jwtUtils.parseClaims(response.getToken());
+        assertEquals(user.getEmail(), claims.getSubject());
+        assertEquals("ADMIN", claims.get(JwtUtils.ROLE_CLAIM, String.class));
+        assertNotNull(claims.get(JwtUtils.SESSION_CLAIM, String.class));
+        assertNotNull(claims.getId());
+        assertNotNull(response.getRefreshToken());
+        assertEquals(jwtUtils.getExpiration() / 1000, response.getExpiresIn());
+    }
+
+    @Test
+    void refresh_ShouldRotateAndRevokeSessionWhenOldTokenIsReused() {
+        // Given
+        JwtResponse first = sessionService.open(user);
+        String sessionId = sessionOf(first);
+
+        // When
+        JwtResponse second = sessionService.refresh(first.getRefreshToken());
+
+        // Then
+        assertNotEquals(first.getRefreshToken(), second.getRefreshToken());
+        assertEquals(sessionId, sessionOf(second));
+        assertFalse(revokedSessions.isRevoked(sessionId));
+
+        assertThrows(UnauthorizedException.class, () -> sessionService.refresh(first.getRefreshToken()));
+        assertTrue(revokedSessions.isRevoked(sessionId));
+        assertThrows(UnauthorizedException.class, () -> sessionService.refresh(second.getRefreshToken()));
+    }
+
+    @Test
+    void close_ShouldRevokeSessionEverywhere() {
+        // Given
+        JwtResponse session = sessionService.open(user);
+        String sessionId = sessionOf(session);
+        JwtResponse other = sessionService.open(user);
+
+        // When
+        sessionService.close(session.getRefreshToken());
+
+        // Then
+        assertTrue(revokedSessions.isRevoked(sessionId));
+        assertFalse(revokedSessions.isRevoked(sessionOf(other)));
+
+        // Another instance learns about it from the table
+        RevokedSessions elsewhere = new RevokedSessions(refreshTokenRepository, jwtUtils,
+                Duration.ofSeconds(5), new SimpleMeterRegistry());
+        assertFalse(elsewhere.isRevoked(sessionId));
+        elsewhere.sync();
+        assertTrue(elsewhere.isRevoked(sessionId));
+        assertFalse(elsewhere.isRevoked(sessionOf(other)));
+    }
+
+    @Test
+    void closeAll_ShouldRevokeEverySessionOfTheUser() {
+        // Given
+        String first = sessionOf(sessionService.open(user));
+        String second = sessionOf(sessionService.open(user));
+
+        // When
+        int closed = sessionService.closeAll(user.getId());
+
+        // Then
+        assertEquals(2, closed);
+        assertTrue(revokedSessions.isRevoked(first));
+        assertTrue(revokedSessions.isRevoked(second));
+    }
+
+    @Test
+    void filter_ShouldAuthenticateFromClaimsUntilSessionIsRevoked() throws Exception {
+        // Given
+        JwtResponse session = sessionService.open(user);
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter(jwtUtils, revokedSessions, null);
+
+        // When / Then
+        Authentication authentication = authenticate(filter, session.getToken());
+        assertNotNull(authentication);
+        assertEquals(user.getEmail(), authentication.getName());
+        assertTrue(authentication.getAuthorities().stream()
+                .anyMatch(authority -> authority.getAuthority().equals("ROLE_ADMIN")));
+
+        sessionService.close(session.getRefreshToken());
+        assertNull(authenticate(filter, session.getToken()));
+    }
+
+    private Authentication authenticate(JwtAuthenticationFilter filter, String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/invoices");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    private String sessionOf(JwtResponse response) {
+        return jwtUtils.parseClaims(response.getToken()).get(JwtUtils.SESSION_CLAIM, String.class);
+    }
+}
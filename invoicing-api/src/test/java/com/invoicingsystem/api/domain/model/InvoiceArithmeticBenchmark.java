@@ -0,0 +1,94 @@
+package com.invoicingsystem.api.domain.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Invoice arithmetic in long minor units vs. the previous BigDecimal code.
+ * Not part of the test suite; run with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.invoicingsystem.api.domain.model.InvoiceArithmeticBenchmark}
+ * or from the IDE. The gc profiler reports allocation per operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InvoiceArithmeticBenchmark {
+
+    @Param({"5", "50"})
+    int items;
+
+    private Invoice invoice;
+    private BigDecimal payment;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(1);
+        invoice = new Invoice();
+        invoice.setItems(new ArrayList<>());
+        for (int i = 0; i < items; i++) {
+            InvoiceItem item = new InvoiceItem();
+            item.setQuantity(1 + random.nextInt(10));
+            item.setUnitPrice(BigDecimal.valueOf(100 + random.nextInt(100_000), 2));
+            item.calculateAmount();
+            invoice.addItem(item);
+        }
+        invoice.setTaxRate(new BigDecimal("8.25"));
+        invoice.setStatus(Invoice.InvoiceStatus.SENT);
+        invoice.calculateTotals();
+        payment = new BigDecimal("12.34");
+    }
+
+    @Benchmark
+    public BigDecimal calculateTotals() {
+        invoice.calculateTotals();
+        return invoice.getBalance();
+    }
+
+    @Benchmark
+    public BigDecimal calculateTotalsLegacy() {
+        LegacyInvoiceArithmetic.calculateTotals(invoice);
+        return invoice.getBalance();
+    }
+
+    @Benchmark
+    public BigDecimal applyAndReversePayment() {
+        invoice.applyPayment(payment);
+        invoice.reversePayment(payment);
+        return invoice.getBalance();
+    }
+
+    @Benchmark
+    public BigDecimal applyAndReversePaymentLegacy() {
+        LegacyInvoiceArithmetic.applyPayment(invoice, payment);
+        LegacyInvoiceArithmetic.reversePayment(invoice, payment);
+        return invoice.getBalance();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(InvoiceArithmeticBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()).run();
+    }
+}
@@ -92,4 +92,26 @@ class InvoiceTest {
         assertEquals(0, invoice.getItems().size());
         assertNull(item.getInvoice());
     }
+
+    @Test
+    void testApplyLedgerBalanceAboveTotalMarksPaidAndOverpaid() {
+        // Setup
+        Invoice invoice = new Invoice();
+        invoice.setTotal(new BigDecimal("100.00"));
+        invoice.setAmountPaid(new BigDecimal("40.00"));
+        invoice.setStatus(Invoice.InvoiceStatus.PARTIALLY_PAID);
+
+        // Apply a ledger that holds more than the total
+        assertTrue(invoice.applyLedgerBalance(new BigDecimal("120.00")));
+
+        // Verify
+        assertEquals(Invoice.InvoiceStatus.PAID, invoice.getStatus());
+        assertEquals(new BigDecimal("-20.00"), invoice.getBalance());
+        assertTrue(invoice.isOverpaid());
+
+        // Back within the total
+        assertTrue(invoice.applyLedgerBalance(new BigDecimal("60.00")));
+        assertEquals(Invoice.InvoiceStatus.PARTIALLY_PAID, invoice.getStatus());
+        assertFalse(invoice.isOverpaid());
+    }
 }
@@ -0,0 +1,82 @@
+package com.invoicingsystem.api.domain.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * The BigDecimal arithmetic {@link Invoice} used before it switched to long minor units,
+ * kept verbatim as the reference for {@link MoneyTest} and {@link InvoiceArithmeticBenchmark}.
+ */
+final class LegacyInvoiceArithmetic {
+
+    private LegacyInvoiceArithmetic() {
+    }
+
+    static void calculateAmount(InvoiceItem item) {
+        item.setAmount(item.getUnitPrice().multiply(new BigDecimal(item.getQuantity())));
+    }
+
+    static void calculateTotals(Invoice invoice) {
+        invoice.setSubtotal(invoice.getItems().stream()
+                .map(InvoiceItem::getAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add)
+                .setScale(2, RoundingMode.HALF_UP));
+
+        if (invoice.getTaxRate() != null) {
+            invoice.setTaxAmount(invoice.getSubtotal()
+                    .multiply(invoice.getTaxRate().divide(new BigDecimal("100")))
+                    .setScale(2, RoundingMode.HALF_UP));
+        } else {
+            invoice.setTaxAmount(BigDecimal.ZERO);
+        }
+
+        invoice.setTotal(invoice.getSubtotal().add(invoice.getTaxAmount()).setScale(2, RoundingMode.HALF_UP));
+        recalculateBalance(invoice);
+    }
+
+    static void recalculateBalance(Invoice invoice) {
+        if (invoice.getAmountPaid() == null) {
+            invoice.setAmountPaid(BigDecimal.ZERO);
+        }
+        invoice.setBalance(invoice.getTotal().subtract(invoice.getAmountPaid()).setScale(2, RoundingMode.HALF_UP));
+    }
+
+    static void applyPayment(Invoice invoice, BigDecimal paymentAmount) {
+        if (paymentAmount == null || paymentAmount.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("Payment amount must be positive");
+        }
+
+        BigDecimal newAmountPaid = invoice.getAmountPaid().add(paymentAmount);
+        if (newAmountPaid.compareTo(invoice.getTotal()) > 0) {
+            throw new IllegalArgumentException("Payment amount would exceed invoice total");
+        }
+
+        invoice.setAmountPaid(newAmountPaid);
+        recalculateBalance(invoice);
+
+        if (invoice.getBalance().compareTo(BigDecimal.ZERO) == 0) {
+            invoice.setStatus(Invoice.InvoiceStatus.PAID);
+        } else if (invoice.getAmountPaid().compareTo(BigDecimal.ZERO) > 0) {
+            invoice.setStatus(Invoice.InvoiceStatus.PARTIALLY_PAID);
+        }
+    }
+
+    static void reversePayment(Invoice invoice, BigDecimal paymentAmount) {
+        if (paymentAmount == null || paymentAmount.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("Reversal amount must be positive");
+        }
+
+        if (paymentAmount.compareTo(invoice.getAmountPaid()) > 0) {
+            throw new IllegalArgumentException("Reversal amount cannot exceed amount paid");
+        }
+
+        invoice.setAmountPaid(invoice.getAmountPaid().subtract(paymentAmount));
+        recalculateBalance(invoice);
+
+        if (invoice.getAmountPaid().compareTo(BigDecimal.ZERO) == 0) {
+            invoice.setStatus(Invoice.InvoiceStatus.SENT);
+        } else if (invoice.getBalance().compareTo(BigDecimal.ZERO) > 0) {
+            invoice.setStatus(Invoice.InvoiceStatus.PARTIALLY_PAID);
+        }
+    }
+}
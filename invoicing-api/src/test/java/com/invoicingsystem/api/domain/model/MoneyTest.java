@@ -0,0 +1,203 @@
+package com.invoicingsystem.api.domain.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    private static final int CASES = 20_000;
+
+    @Test
+    void arithmetic_ShouldBeExactInMinorUnits() {
+        Money price = Money.of(new BigDecimal("19.99"));
+
+        assertEquals(1999L, price.getMinorUnits());
+        assertEquals(Money.ofMinor(5997), price.times(3));
+        assertEquals(new BigDecimal("39.98"), price.plus(price).toBigDecimal());
+        assertEquals(Money.ofMinor(-1), Money.ofMinor(1999).minus(Money.ofMinor(2000)));
+        assertEquals(Money.ofMinor(200), price.percent(new BigDecimal("10")));
+        assertEquals("19.99 USD", price.toString());
+        assertTrue(price.compareTo(Money.ofMinor(2000)) < 0);
+    }
+
+    @Test
+    void of_ShouldRejectAmountsThatNeedRounding() {
+        assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal("0.125")));
+        assertEquals(Money.ofMinor(12), Money.of(new BigDecimal("0.1200")));
+        assertEquals(Money.ofMinor(5, Currency.getInstance("JPY")), Money.of(new BigDecimal("5"), Currency.getInstance("JPY")));
+        assertThrows(ArithmeticException.class, () -> Money.ofMinor(Long.MAX_VALUE).plus(Money.ofMinor(1)));
+        assertThrows(IllegalArgumentException.class,
+                () -> Money.ofMinor(1).plus(Money.ofMinor(1, Currency.getInstance("EUR"))));
+    }
+
+    @Test
+    void divideHalfUp_ShouldRoundTiesAwayFromZero() {
+        assertEquals(3L, Money.divideHalfUp(25, 10));
+        assertEquals(-3L, Money.divideHalfUp(-25, 10));
+        assertEquals(2L, Money.divideHalfUp(24, 10));
+        assertEquals(-2L, Money.divideHalfUp(-24, 10));
+        assertEquals(0L, Money.divideHalfUp(4, 10));
+    }
+
+    @Test
+    void toMinorUnits_ShouldMatchBigDecimalForRandomAmounts() {
+        Random random = new Random(37);
+        for (int i = 0; i < CASES; i++) {
+            BigDecimal value = randomAmount(random);
+            assertOutcomeEquals(
+                    () -> value.movePointRight(2).longValueExact(),
+                    () -> Money.toMinorUnits(value, 2),
+                    value.toString());
+        }
+    }
+
+    @Test
+    void calculateTotals_ShouldBeBitIdenticalToBigDecimalArithmetic() {
+        Random random = new Random(42);
+        for (int i = 0; i < CASES; i++) {
+            Invoice invoice = new Invoice();
+            invoice.setItems(new ArrayList<>());
+            int itemCount = random.nextInt(8);
+            for (int j = 0; j < itemCount; j++) {
+                InvoiceItem item = new InvoiceItem();
+                item.setQuantity(1 + random.nextInt(20));
+                item.setUnitPrice(randomAmount(random));
+                item.calculateAmount();
+                invoice.addItem(item);
+            }
+            invoice.setTaxRate(random.nextInt(5) == 0 ? null : randomRate(random));
+            invoice.setAmountPaid(random.nextBoolean() ? BigDecimal.ZERO : randomAmount(random).abs());
+
+            Invoice reference = copyOf(invoice);
+            LegacyInvoiceArithmetic.calculateTotals(reference);
+            invoice.calculateTotals();
+
+            assertEquals(state(reference), state(invoice), "case " + i);
+        }
+    }
+
+    @Test
+    void calculateAmount_ShouldKeepTheScaleOfTheUnitPrice() {
+        Random random = new Random(7);
+        for (int i = 0; i < CASES; i++) {
+            InvoiceItem item = new InvoiceItem();
+            item.setQuantity(random.nextInt(1000));
+            item.setUnitPrice(randomAmount(random));
+            item.calculateAmount();
+
+            InvoiceItem reference = new InvoiceItem();
+            reference.setQuantity(item.getQuantity());
+            reference.setUnitPrice(item.getUnitPrice());
+            LegacyInvoiceArithmetic.calculateAmount(reference);
+            assertEquals(reference.getAmount().toString(), item.getAmount().toString());
+        }
+    }
+
+    @Test
+    void applyAndReversePayment_ShouldBeBitIdenticalToBigDecimalArithmetic() {
+        Random random = new Random(99);
+        for (int i = 0; i < CASES; i++) {
+            BigDecimal total = randomAmount(random).abs();
+            BigDecimal paid = random.nextBoolean() ? BigDecimal.ZERO : randomAmount(random).abs().min(total);
+            BigDecimal payment = randomAmount(random);
+            boolean reverse = random.nextBoolean();
+
+            Invoice actual = invoiceWith(total, paid);
+            Invoice reference = invoiceWith(total, paid);
+            assertOutcomeEquals(
+                    () -> {
+                        if (reverse) {
+                            LegacyInvoiceArithmetic.reversePayment(reference, payment);
+                        } else {
+                            LegacyInvoiceArithmetic.applyPayment(reference, payment);
+                        }
+                        return state(reference);
+                    },
+                    () -> {
+                        if (reverse) {
+                            actual.reversePayment(payment);
+                        } else {
+                            actual.applyPayment(payment);
+                        }
+                        return state(actual);
+                    },
+                    "total=" + total + " paid=" + paid + " payment=" + payment + " reverse=" + reverse);
+        }
+    }
+
+    // Mix of whole cents at scales 0..2, sub-cent values and values beyond a long of cents
+    private static BigDecimal randomAmount(Random random) {
+        switch (random.nextInt(10)) {
+            case 0:
+                return BigDecimal.valueOf(random.nextInt(100_000), 3);
+            case 1:
+                return new BigDecimal("1E+" + (17 + random.nextInt(3)));
+            case 2:
+                return BigDecimal.valueOf(random.nextInt(100_000));
+            case 3:
+                return BigDecimal.valueOf(random.nextInt(10_000), 1);
+            case 4:
+                return BigDecimal.valueOf(-random.nextInt(100_000), 2);
+            case 5:
+                return BigDecimal.valueOf(random.nextLong() % 1_000_000_000_000_000L, 2);
+            default:
+                return BigDecimal.valueOf(random.nextInt(10_000_000), 2);
+        }
+    }
+
+    private static BigDecimal randomRate(Random random) {
+        switch (random.nextInt(4)) {
+            case 0:
+                return BigDecimal.valueOf(random.nextInt(30));
+            case 1:
+                return BigDecimal.valueOf(random.nextInt(100_000), 3);
+            default:
+                return BigDecimal.valueOf(random.nextInt(3_000), 2);
+        }
+    }
+
+    private static Invoice copyOf(Invoice invoice) {
+        Invoice copy = new Invoice();
+        copy.setItems(new ArrayList<>(invoice.getItems()));
+        copy.setTaxRate(invoice.getTaxRate());
+        copy.setAmountPaid(invoice.getAmountPaid());
+        return copy;
+    }
+
+    private static Invoice invoiceWith(BigDecimal total, BigDecimal amountPaid) {
+        Invoice invoice = new Invoice();
+        invoice.setStatus(Invoice.InvoiceStatus.SENT);
+        invoice.setTotal(total);
+        invoice.setAmountPaid(amountPaid);
+        LegacyInvoiceArithmetic.recalculateBalance(invoice);
+        return invoice;
+    }
+
+    private static List<Object> state(Invoice invoice) {
+        // String form pins the scale of each amount
+        return List.of(String.valueOf(invoice.getSubtotal()), String.valueOf(invoice.getTaxAmount()),
+                String.valueOf(invoice.getTotal()), String.valueOf(invoice.getAmountPaid()),
+                String.valueOf(invoice.getBalance()), String.valueOf(invoice.getStatus()));
+    }
+
+    private static void assertOutcomeEquals(Supplier<Object> expected, Supplier<Object> actual, String input) {
+        Object expectedValue;
+        try {
+            expectedValue = expected.get();
+        } catch (RuntimeException e) {
+            RuntimeException thrown = assertThrows(RuntimeException.class, actual::get, input);
+            assertEquals(e.getClass(), thrown.getClass(), input);
+            assertEquals(e.getMessage(), thrown.getMessage(), input);
+            return;
+        }
+        assertEquals(expectedValue, actual.get(), input);
+    }
+}
@@ -0,0 +1,75 @@
+package com.invoicingsystem.api.domain.repository;
+
+import com.invoicingsystem.api.domain.model.ChangeLogEntry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class ChangeLogRepositoryIntegrationTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ChangeLogRepository changeLogRepository;
+
+    @Test
+    void deleteSupersededBefore_ShouldKeepLatestEntryPerEntity() {
+        // Given
+        LocalDateTime old = LocalDateTime.now().minusDays(2);
+        ChangeLogEntry first = persist(ChangeLogEntry.EntityType.INVOICE, "inv-1", old);
+        ChangeLogEntry second = persist(ChangeLogEntry.EntityType.INVOICE, "inv-1", old.plusMinutes(1));
+        ChangeLogEntry payment = persist(ChangeLogEntry.EntityType.PAYMENT, "inv-1", old);
+        ChangeLogEntry recent = persist(ChangeLogEntry.EntityType.INVOICE, "inv-2", LocalDateTime.now());
+        ChangeLogEntry recentSuperseding = persist(ChangeLogEntry.EntityType.INVOICE, "inv-2", LocalDateTime.now());
+
+        // When
+        int deleted = changeLogRepository.deleteSupersededBefore(LocalDateTime.now().minusDays(1));
+        entityManager.clear();
+
+        // Then
+        assertEquals(1, deleted);
+        List<Long> remaining = changeLogRepository.findAll().stream()
+                .map(ChangeLogEntry::getId)
+                .sorted()
+                .collect(Collectors.toList());
+        assertEquals(List.of(second.getId(), payment.getId(), recent.getId(), recentSuperseding.getId()), remaining);
+        assertFalse(remaining.contains(first.getId()));
+    }
+
+    @Test
+    void findByIdGreaterThan_ShouldHoldBackEntriesInsideVisibilityLag() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        ChangeLogEntry visible = persist(ChangeLogEntry.EntityType.CLIENT, "client-1", now.minusSeconds(5));
+        persist(ChangeLogEntry.EntityType.CLIENT, "client-2", now);
+
+        // When
+        List<ChangeLogEntry> entries = changeLogRepository.findByIdGreaterThanAndRecordedAtLessThanEqualOrderByIdAsc(
+                0L, now.minusSeconds(1), PageRequest.of(0, 10));
+
+        // Then
+        assertEquals(1, entries.size());
+        assertEquals(visible.getId(), entries.get(0).getId());
+    }
+
+    private ChangeLogEntry persist(ChangeLogEntry.EntityType type, String entityId, LocalDateTime recordedAt) {
+        return entityManager.persistAndFlush(ChangeLogEntry.builder()
+                .entityType(type)
+                .entityId(entityId)
+                .operation(ChangeLogEntry.Operation.UPDATED)
+                .recordedAt(recordedAt)
+                .build());
+    }
+}
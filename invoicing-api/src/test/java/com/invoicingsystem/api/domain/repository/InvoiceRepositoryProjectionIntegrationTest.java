@@ -0,0 +1,157 @@
+package com.invoicingsystem.api.domain.repository;
+
+import com.invoicingsystem.api.domain.model.Client;
+import com.invoicingsystem.api.domain.model.Invoice;
+import com.invoicingsystem.api.domain.model.Payment;
+import com.invoicingsystem.api.domain.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.persistence.Tuple;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class InvoiceRepositoryProjectionIntegrationTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    private Client client;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        client = new Client();
+        client.setId(UUID.randomUUID().toString());
+        client.setName("Projection Client");
+        client.setEmail(UUID.randomUUID() + "@example.com");
+        client.setPhone("+1-555-000-0000");
+        client.setAddress("1 Projection Way");
+        client.setCreatedAt(LocalDateTime.now());
+        client.setUpdatedAt(LocalDateTime.now());
+        entityManager.persist(client);
+
+        user = new User();
+        user.setId(UUID.randomUUID().toString());
+        user.setName("Projection User");
+        user.setEmail(UUID.randomUUID() + "@example.com");
+        user.setPassword("secret");
+        user.setRole(User.Role.USER);
+        user.setCreatedAt(LocalDateTime.now());
+        user.setUpdatedAt(LocalDateTime.now());
+        entityManager.persist(user);
+    }
+
+    @Test
+    void findColumns_ShouldSelectRequestedPathsInOrder() {
+        // Given
+        Invoice invoice = persistInvoice("INV-P-1", Invoice.InvoiceStatus.SENT, LocalDate.now().plusDays(10));
+        entityManager.clear();
+
+        // When
+        List<Tuple> rows = invoiceRepository.findColumns(
+                List.of("id", "number", "client.name", "createdBy.name", "balance"), InvoiceListFilter.all());
+
+        // Then
+        assertEquals(1, rows.size());
+        Tuple row = rows.get(0);
+        assertEquals(5, row.getElements().size());
+        assertEquals(invoice.getId(), row.get(0));
+        assertEquals("INV-P-1", row.get(1));
+        assertEquals("Projection Client", row.get(2));
+        assertEquals("Projection User", row.get(3));
+        assertEquals(0, new BigDecimal("100.00").compareTo((BigDecimal) row.get(4)));
+    }
+
+    @Test
+    void findColumns_ShouldApplyFilters() {
+        // Given
+        persistInvoice("INV-P-OVERDUE", Invoice.InvoiceStatus.SENT, LocalDate.now().minusDays(3));
+        persistInvoice("INV-P-SENT", Invoice.InvoiceStatus.SENT, LocalDate.now().plusDays(3));
+        persistInvoice("INV-P-DRAFT", Invoice.InvoiceStatus.DRAFT, LocalDate.now().minusDays(3));
+
+        // When
+        List<Tuple> overdue = invoiceRepository.findColumns(
+                List.of("number"), InvoiceListFilter.overdue(LocalDate.now()));
+        List<Tuple> drafts = invoiceRepository.findColumns(
+                List.of("number"), InvoiceListFilter.byStatus(Invoice.InvoiceStatus.DRAFT));
+        List<Tuple> byClient = invoiceRepository.findColumns(
+                List.of("number"), InvoiceListFilter.byClient(client.getId()));
+
+        // Then
+        assertEquals(List.of("INV-P-OVERDUE"), numbers(overdue));
+        assertEquals(List.of("INV-P-DRAFT"), numbers(drafts));
+        assertEquals(3, byClient.size());
+    }
+
+    @Test
+    void findPaymentColumns_ShouldJoinInvoiceAndFilterByInvoice() {
+        // Given
+        Invoice first = persistInvoice("INV-P-PAY-1", Invoice.InvoiceStatus.SENT, LocalDate.now());
+        Invoice second = persistInvoice("INV-P-PAY-2", Invoice.InvoiceStatus.SENT, LocalDate.now());
+        persistPayment(first, "40.00");
+        persistPayment(second, "25.00");
+        entityManager.clear();
+
+        // When
+        List<Tuple> all = paymentRepository.findColumns(List.of("id", "invoice.number", "amount"), null);
+        List<Tuple> forFirst = paymentRepository.findColumns(List.of("invoice.number", "amount"), first.getId());
+
+        // Then
+        assertEquals(2, all.size());
+        assertEquals(1, forFirst.size());
+        assertEquals("INV-P-PAY-1", forFirst.get(0).get(0));
+        assertEquals(0, new BigDecimal("40.00").compareTo((BigDecimal) forFirst.get(0).get(1)));
+    }
+
+    private static List<Object> numbers(List<Tuple> rows) {
+        return rows.stream().map(row -> row.get(0)).collect(Collectors.toList());
+    }
+
+    private Invoice persistInvoice(String number, Invoice.InvoiceStatus status, LocalDate dueDate) {
+        Invoice invoice = new Invoice();
+        invoice.setNumber(number);
+        invoice.setClient(client);
+        invoice.setCreatedBy(user);
+        invoice.setIssueDate(dueDate.minusDays(30));
+        invoice.setDueDate(dueDate);
+        invoice.setStatus(status);
+        invoice.setSubtotal(new BigDecimal("100.00"));
+        invoice.setTaxAmount(BigDecimal.ZERO);
+        invoice.setTotal(new BigDecimal("100.00"));
+        invoice.setBalance(new BigDecimal("100.00"));
+        invoice.setCreatedAt(LocalDateTime.now());
+        invoice.setUpdatedAt(LocalDateTime.now());
+        return entityManager.persistAndFlush(invoice);
+    }
+
+    private void persistPayment(Invoice invoice, String amount) {
+        Payment payment = new Payment();
+        payment.setInvoice(invoice);
+        payment.setAmount(new BigDecimal(amount));
+        payment.setMethod(Payment.PaymentMethod.BANK_TRANSFER);
+        payment.setStatus(Payment.PaymentStatus.COMPLETED);
+        payment.setReceivedAt(LocalDateTime.now());
+        payment.setCreatedAt(LocalDateTime.now());
+        payment.setUpdatedAt(LocalDateTime.now());
+        entityManager.persistAndFlush(payment);
+    }
+}
@@ -0,0 +1,81 @@
+package com.invoicingsystem.api.infrastructure.bulkhead;
+
+import com.invoicingsystem.api.domain.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkheadRegistryTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private BulkheadRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        BulkheadProperties properties = new BulkheadProperties();
+        properties.setRetryAfterSeconds(5);
+        properties.getClasses().put(WorkloadClass.REPORTING,
+                new BulkheadProperties.ClassSettings(1, Duration.ZERO, 1, 1, 1));
+        meterRegistry = new SimpleMeterRegistry();
+        registry = new BulkheadRegistry(properties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        registry.destroy();
+    }
+
+    @Test
+    void acquire_WhenBulkheadIsFull_ShouldRejectWithRetryAfter() {
+        Bulkhead bulkhead = registry.bulkhead(WorkloadClass.REPORTING);
+        bulkhead.acquire();
+
+        ServiceUnavailableException exception = assertThrows(ServiceUnavailableException.class, bulkhead::acquire);
+        assertEquals(5, exception.getRetryAfterSeconds());
+        assertEquals(1.0, meterRegistry.get("bulkhead.calls.rejected").tag("workload", "reporting").counter().count());
+
+        bulkhead.release();
+        bulkhead.acquire();
+        assertEquals(1, bulkhead.active());
+    }
+
+    @Test
+    void acquire_ShouldNotAffectOtherWorkloadClasses() {
+        registry.bulkhead(WorkloadClass.REPORTING).acquire();
+
+        assertDoesNotThrow(() -> registry.bulkhead(WorkloadClass.INTERACTIVE).acquire());
+    }
+
+    @Test
+    void submit_ShouldRunTaskWithWorkloadClassSet() throws Exception {
+        Future<WorkloadClass> result = registry.submit(WorkloadClass.BATCH, WorkloadContext::current);
+
+        assertEquals(WorkloadClass.BATCH, result.get(5, TimeUnit.SECONDS));
+        assertNull(WorkloadContext.current());
+    }
+
+    @Test
+    void submit_WhenQueueIsFull_ShouldRejectWithServiceUnavailable() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        registry.submit(WorkloadClass.REPORTING, () -> {
+            started.countDown();
+            release.await();
+            return null;
+        });
+        started.await(5, TimeUnit.SECONDS);
+        registry.submit(WorkloadClass.REPORTING, () -> null);
+
+        assertThrows(ServiceUnavailableException.class,
+                () -> registry.submit(WorkloadClass.REPORTING, () -> null));
+        release.countDown();
+    }
+}
@@ -0,0 +1,171 @@
+package com.invoicingsystem.api.infrastructure.coalescing;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestCoalescerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private CoalescingProperties properties;
+    private RequestCoalescer coalescer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new CoalescingProperties();
+        coalescer = new RequestCoalescer(meterRegistry, properties);
+    }
+
+    @Test
+    void execute_ShouldShareOneComputationBetweenConcurrentCallers() throws Exception {
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Object>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> {
+                    try {
+                        return coalescer.execute("q", "key", Duration.ZERO, () -> {
+                            executions.incrementAndGet();
+                            release.await(5, TimeUnit.SECONDS);
+                            return "result";
+                        });
+                    } catch (Throwable ex) {
+                        throw new IllegalStateException(ex);
+                    }
+                }));
+            }
+            // Wait until every caller is either leading or joined before releasing the leader
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (meterRegistry.find("coalescing.calls").counters().stream()
+                    .mapToDouble(c -> c.count()).sum() < 8 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            for (Future<Object> result : results) {
+                assertEquals("result", result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, executions.get());
+        assertEquals(7.0, meterRegistry.get("coalescing.calls").tag("outcome", "joined").counter().count());
+        assertEquals(0, coalescer.size());
+    }
+
+    @Test
+    void execute_ShouldReuseCompletedResultWithinTtlUntilInvalidated() throws Throwable {
+        AtomicInteger executions = new AtomicInteger();
+        RequestCoalescer.Computation computation = executions::incrementAndGet;
+
+        assertEquals(1, coalescer.execute("q", "key", Duration.ofMinutes(1), computation));
+        assertEquals(1, coalescer.execute("q", "key", Duration.ofMinutes(1), computation));
+        assertEquals(2, coalescer.execute("q", "other", Duration.ofMinutes(1), computation));
+
+        assertEquals(2, coalescer.size());
+        coalescer.invalidateAll();
+
+        assertEquals(3, coalescer.execute("q", "key", Duration.ofMinutes(1), computation));
+    }
+
+    @Test
+    void execute_ShouldNotJoinAFlightStartedBeforeInvalidation() throws Exception {
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Object> leader = executor.submit(() -> {
+                try {
+                    return coalescer.execute("q", "key", Duration.ofMinutes(1), () -> {
+                        leaderStarted.countDown();
+                        release.await(5, TimeUnit.SECONDS);
+                        return "before write";
+                    });
+                } catch (Throwable ex) {
+                    throw new IllegalStateException(ex);
+                }
+            });
+            assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+
+            // A write commits while the leader is still reading
+            coalescer.invalidateAll();
+            try {
+                assertEquals("after write", coalescer.execute("q", "key", Duration.ofMinutes(1), () -> "after write"));
+            } catch (Throwable ex) {
+                fail(ex);
+            }
+
+            release.countDown();
+            assertEquals("before write", leader.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(0.0, meterRegistry.find("coalescing.calls").tag("outcome", "joined").counters().stream()
+                .mapToDouble(counter -> counter.count()).sum());
+    }
+
+    @Test
+    void execute_ShouldNotCacheFailures() throws Throwable {
+        AtomicInteger executions = new AtomicInteger();
+
+        assertThrows(IllegalArgumentException.class, () -> coalescer.execute("q", "key", Duration.ofMinutes(1), () -> {
+            executions.incrementAndGet();
+            throw new IllegalArgumentException("boom");
+        }));
+
+        assertEquals("ok", coalescer.execute("q", "key", Duration.ofMinutes(1), () -> "ok"));
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void execute_ShouldRunOwnComputationWhenLeaderExceedsJoinTimeout() throws Exception {
+        properties.setJoinTimeout(Duration.ofMillis(50));
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Object> leader = executor.submit(() -> {
+                try {
+                    return coalescer.execute("q", "key", Duration.ZERO, () -> {
+                        leaderStarted.countDown();
+                        release.await(5, TimeUnit.SECONDS);
+                        return "leader";
+                    });
+                } catch (Throwable ex) {
+                    throw new IllegalStateException(ex);
+                }
+            });
+            assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+
+            try {
+                assertEquals("direct", coalescer.execute("q", "key", Duration.ZERO, () -> "direct"));
+            } catch (Throwable ex) {
+                fail(ex);
+            }
+
+            release.countDown();
+            assertEquals("leader", leader.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1.0, meterRegistry.get("coalescing.calls").tag("outcome", "timeout").counter().count());
+    }
+}
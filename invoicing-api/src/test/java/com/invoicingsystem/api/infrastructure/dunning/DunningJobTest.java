@@ -0,0 +1,267 @@
+package com.invoicingsystem.api.infrastructure.dunning;
+
+import com.invoicingsystem.api.domain.model.Client;
+import com.invoicingsystem.api.domain.model.Invoice;
+import com.invoicingsystem.api.domain.model.InvoiceReminder;
+import com.invoicingsystem.api.domain.model.User;
+import com.invoicingsystem.api.domain.repository.ClientRepository;
+import com.invoicingsystem.api.domain.repository.InvoiceReminderRepository;
+import com.invoicingsystem.api.domain.repository.InvoiceRepository;
+import com.invoicingsystem.api.domain.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs without a test transaction so claims and outcomes commit as they do in the job.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DunningJobTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 6, 30);
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Autowired
+    private InvoiceReminderRepository reminderRepository;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final List<ReminderMessage> outbox = new CopyOnWriteArrayList<>();
+    private final AtomicInteger failuresLeft = new AtomicInteger();
+    private DunningProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private DunningJob job;
+    private Client client;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        client = clientRepository.save(Client.builder()
+                .id(UUID.randomUUID().toString())
+                .name("Overdue Client")
+                .email("accounts@overdue.test")
+                .phone("+1-555-000-0000")
+                .address("1 Late Lane")
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build());
+        user = new User();
+        user.setId(UUID.randomUUID().toString());
+        user.setName("Dunning User");
+        user.setEmail(UUID.randomUUID() + "@example.com");
+        user.setPassword("secret");
+        user.setRole(User.Role.USER);
+        user.setCreatedAt(LocalDateTime.now());
+        user.setUpdatedAt(LocalDateTime.now());
+        user = userRepository.save(user);
+
+        properties = new DunningProperties();
+        properties.setWorkers(2);
+        properties.getThrottle().setMaxDelay(Duration.ZERO);
+        meterRegistry = new SimpleMeterRegistry();
+        job = newJob();
+    }
+
+    @AfterEach
+    void tearDown() {
+        job.destroy();
+        reminderRepository.deleteAll();
+        invoiceRepository.deleteAll();
+        clientRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void remind_ShouldSendLatestDueStageOnceToUnpaidInvoices() throws Exception {
+        // Given
+        Invoice twentyDays = invoice("INV-1", TODAY.minusDays(20), Invoice.InvoiceStatus.SENT, "150.00");
+        invoice("INV-2", TODAY.minusDays(3), Invoice.InvoiceStatus.SENT, "150.00");
+        invoice("INV-3", TODAY.minusDays(40), Invoice.InvoiceStatus.PAID, "0.00");
+        invoice("INV-4", TODAY.minusDays(40), Invoice.InvoiceStatus.DRAFT, "150.00");
+
+        // When
+        Map<DunningJob.Outcome, Integer> first = remind();
+        Map<DunningJob.Outcome, Integer> second = remind();
+
+        // Then
+        assertEquals(1, first.get(DunningJob.Outcome.SENT));
+        assertEquals(0, second.get(DunningJob.Outcome.SENT));
+        assertEquals(1, outbox.size());
+        ReminderMessage message = outbox.get(0);
+        assertEquals(twentyDays.getId(), message.getInvoiceId());
+        assertEquals(14, message.getStage());
+        assertEquals("accounts@overdue.test", message.getTo());
+        assertTrue(message.getSubject().contains("INV-1"));
+        assertTrue(message.getBody().contains("150.00"));
+
+        InvoiceReminder reminder = reminderRepository.findByInvoiceIdAndStage(twentyDays.getId(), 14).orElseThrow();
+        assertEquals(InvoiceReminder.Status.SENT, reminder.getStatus());
+        assertNotNull(reminder.getSentAt());
+        assertEquals(1.0, meterRegistry.get("dunning.reminders").tags("stage", "14", "outcome", "sent")
+                .counter().count());
+    }
+
+    @Test
+    void remind_ShouldMoveThroughStagesAsInvoiceAges() throws Exception {
+        // Given
+        Invoice invoice = invoice("INV-1", TODAY.minusDays(31), Invoice.InvoiceStatus.OVERDUE, "80.00");
+
+        // When
+        remind(TODAY.minusDays(23));
+        remind(TODAY.minusDays(16));
+        remind(TODAY.minusDays(15));
+        remind(TODAY);
+        remind(TODAY.plusDays(30));
+
+        // Then
+        assertEquals(3, outbox.size());
+        assertEquals(List.of(7, 14, 30), reminderRepository.findByInvoiceIdOrderByStageAsc(invoice.getId())
+                .stream().map(InvoiceReminder::getStage).collect(java.util.stream.Collectors.toList()));
+        assertTrue(outbox.get(2).getSubject().startsWith("Final notice"));
+    }
+
+    @Test
+    void remind_ShouldRetryFailedSendsUntilAttemptsRunOut() throws Exception {
+        // Given
+        Invoice retried = invoice("INV-1", TODAY.minusDays(8), Invoice.InvoiceStatus.SENT, "10.00");
+        failuresLeft.set(1);
+
+        // When
+        Map<DunningJob.Outcome, Integer> failed = remind();
+        Map<DunningJob.Outcome, Integer> succeeded = remind();
+
+        // Then
+        assertEquals(1, failed.get(DunningJob.Outcome.FAILED));
+        assertEquals(1, succeeded.get(DunningJob.Outcome.SENT));
+        InvoiceReminder reminder = reminderRepository.findByInvoiceIdAndStage(retried.getId(), 7).orElseThrow();
+        assertEquals(InvoiceReminder.Status.SENT, reminder.getStatus());
+        assertEquals(2, reminder.getAttempts());
+        assertNull(reminder.getError());
+
+        // A stage that keeps failing is given up on
+        properties.setMaxAttempts(1);
+        Invoice abandoned = invoice("INV-2", TODAY.minusDays(8), Invoice.InvoiceStatus.SENT, "10.00");
+        failuresLeft.set(1);
+        remind();
+        assertEquals(0, remind().get(DunningJob.Outcome.SENT));
+        InvoiceReminder gaveUp = reminderRepository.findByInvoiceIdAndStage(abandoned.getId(), 7).orElseThrow();
+        assertEquals(InvoiceReminder.Status.FAILED, gaveUp.getStatus());
+        assertTrue(gaveUp.getError().contains("SMTP down"));
+    }
+
+    @Test
+    void remind_ShouldThrottlePerRecipientDomainAndLeaveTheRestForLater() throws Exception {
+        // Given
+        properties.getThrottle().setBurst(2);
+        properties.getThrottle().setPerDomainPerMinute(0.001);
+        job.destroy();
+        meterRegistry = new SimpleMeterRegistry();
+        job = newJob();
+        for (int i = 1; i <= 3; i++) {
+            invoice("INV-" + i, TODAY.minusDays(10), Invoice.InvoiceStatus.SENT, "10.00");
+        }
+
+        // When
+        Map<DunningJob.Outcome, Integer> outcomes = remind();
+
+        // Then
+        assertEquals(2, outcomes.get(DunningJob.Outcome.SENT));
+        assertEquals(1, outcomes.get(DunningJob.Outcome.DEFERRED));
+        assertEquals(1.0, meterRegistry.get("dunning.backlog").gauge().value());
+        // Deferred reminders are not claimed, so the next run picks them up
+        assertEquals(2, reminderRepository.count());
+    }
+
+    @Test
+    void overlappingRuns_ShouldSendEachReminderOnce() throws Exception {
+        // Given
+        for (int i = 1; i <= 20; i++) {
+            invoice("INV-" + i, TODAY.minusDays(10), Invoice.InvoiceStatus.SENT, "10.00");
+        }
+        properties.getThrottle().setBurst(100);
+        DunningJob other = newJob();
+        ExecutorService runs = Executors.newFixedThreadPool(2);
+
+        try {
+            // When
+            Future<Map<DunningJob.Outcome, Integer>> first = runs.submit(() -> job.remind(TODAY, id -> true, () -> true));
+            Future<Map<DunningJob.Outcome, Integer>> second = runs.submit(() -> other.remind(TODAY, id -> true, () -> true));
+
+            // Then
+            assertEquals(20, first.get().get(DunningJob.Outcome.SENT) + second.get().get(DunningJob.Outcome.SENT));
+            assertEquals(20, outbox.size());
+            assertEquals(20, outbox.stream().map(ReminderMessage::getInvoiceId).distinct().count());
+        } finally {
+            runs.shutdownNow();
+            other.destroy();
+        }
+    }
+
+    private DunningJob newJob() {
+        ReminderTransport transport = message -> {
+            if (failuresLeft.getAndUpdate(left -> Math.max(0, left - 1)) > 0) {
+                throw new IllegalStateException("SMTP down");
+            }
+            outbox.add(message);
+        };
+        return new DunningJob(invoiceRepository, reminderRepository, new ReminderTemplates(), transport,
+                properties, meterRegistry);
+    }
+
+    private Map<DunningJob.Outcome, Integer> remind() throws InterruptedException {
+        return remind(TODAY);
+    }
+
+    private Map<DunningJob.Outcome, Integer> remind(LocalDate today) throws InterruptedException {
+        return job.remind(today, id -> true, () -> true);
+    }
+
+    private Invoice invoice(String number, LocalDate dueDate, Invoice.InvoiceStatus status, String balance) {
+        BigDecimal amount = new BigDecimal("150.00");
+        return invoiceRepository.save(Invoice.builder()
+                .id(UUID.randomUUID().toString())
+                .number(number)
+                .client(client)
+                .createdBy(user)
+                .issueDate(dueDate.minusDays(30))
+                .dueDate(dueDate)
+                .status(status)
+                .subtotal(amount)
+                .taxAmount(BigDecimal.ZERO)
+                .total(amount)
+                .amountPaid(amount.subtract(new BigDecimal(balance)))
+                .balance(new BigDecimal(balance))
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build());
+    }
+}
@@ -0,0 +1,187 @@
+package com.invoicingsystem.api.infrastructure.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.invoicingsystem.api.domain.model.IdempotencyRecord;
+import com.invoicingsystem.api.domain.repository.IdempotencyRecordRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.StreamUtils;
+
+import javax.servlet.FilterChain;
+import javax.servlet.http.HttpServletResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class IdempotencyFilterTest {
+
+    private IdempotencyRecordRepository repository;
+    private IdempotencyProperties properties;
+    private IdempotencyFilter filter;
+    private AtomicInteger executions;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(IdempotencyRecordRepository.class);
+        when(repository.findByIdAndExpiresAtAfter(anyString(), any())).thenReturn(Optional.empty());
+        properties = new IdempotencyProperties();
+        IdempotencyStore store = new IdempotencyStore(repository, properties, new SimpleMeterRegistry());
+        filter = new IdempotencyFilter(store, properties, new ObjectMapper().registerModule(new JavaTimeModule()));
+        executions = new AtomicInteger();
+    }
+
+    @Test
+    void retry_ShouldReplayStoredResponseWithoutRunningTheHandler() throws Exception {
+        MockHttpServletResponse first = post("key-1", "{\"amount\":10}", created());
+        MockHttpServletResponse retry = post("key-1", "{\"amount\":10}", created());
+
+        assertEquals(1, executions.get());
+        assertEquals(201, retry.getStatus());
+        assertEquals(first.getContentAsString(), retry.getContentAsString());
+        assertEquals("true", retry.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertNull(first.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        verify(repository).save(argThat(record -> record.getStatusCode() == 201));
+    }
+
+    @Test
+    void reuseWithDifferentBody_ShouldBeRejected() throws Exception {
+        post("key-1", "{\"amount\":10}", created());
+        MockHttpServletResponse reused = post("key-1", "{\"amount\":99}", created());
+
+        assertEquals(422, reused.getStatus());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void concurrentDuplicates_ShouldWaitForTheOriginal() throws Exception {
+        CountDownLatch originalStarted = new CountDownLatch(1);
+        CountDownLatch releaseOriginal = new CountDownLatch(1);
+        FilterChain slow = (request, response) -> {
+            originalStarted.countDown();
+            try {
+                releaseOriginal.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            created().doFilter(request, response);
+        };
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<MockHttpServletResponse> original = executor.submit(() -> post("key-1", "{}", slow));
+            assertTrue(originalStarted.await(5, TimeUnit.SECONDS));
+            Thread duplicateReleaser = new Thread(() -> {
+                sleep(100);
+                releaseOriginal.countDown();
+            });
+            duplicateReleaser.start();
+
+            MockHttpServletResponse duplicate = post("key-1", "{}", created());
+
+            assertEquals(201, original.get(5, TimeUnit.SECONDS).getStatus());
+            assertEquals(201, duplicate.getStatus());
+            assertEquals("true", duplicate.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+            assertEquals(1, executions.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void serverErrors_ShouldNotBeStored() throws Exception {
+        FilterChain failing = (request, response) -> {
+            executions.incrementAndGet();
+            ((HttpServletResponse) response).setStatus(503);
+        };
+
+        post("key-1", "{}", failing);
+        MockHttpServletResponse retry = post("key-1", "{}", created());
+
+        assertEquals(201, retry.getStatus());
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void responseStoredByAnotherInstance_ShouldBeReplayedFromTheTable() throws Exception {
+        MockHttpServletResponse first = post("key-1", "{}", created());
+        IdempotencyRecord stored = IdempotencyRecord.builder()
+                .requestHash(requestHashOf("{}"))
+                .statusCode(201)
+                .contentType("application/json")
+                .body(first.getContentAsString())
+                .expiresAt(LocalDateTime.now().plusHours(1))
+                .build();
+        when(repository.findByIdAndExpiresAtAfter(anyString(), any())).thenReturn(Optional.of(stored));
+
+        MockHttpServletResponse retry = post("key-2", "{}", created());
+
+        assertEquals(201, retry.getStatus());
+        assertEquals("true", retry.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void requestsWithoutKey_ShouldPassThrough() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/payments");
+        request.setServletPath("/payments");
+
+        filter.doFilter(request, new MockHttpServletResponse(), created());
+        filter.doFilter(request, new MockHttpServletResponse(), created());
+
+        assertEquals(2, executions.get());
+        verifyNoInteractions(repository);
+    }
+
+    private MockHttpServletResponse post(String key, String body, FilterChain chain) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/payments");
+        request.setServletPath("/payments");
+        request.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, key);
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    // Echoes the request body with a per-execution id, as a create endpoint would
+    private FilterChain created() {
+        return (request, response) -> {
+            int execution = executions.incrementAndGet();
+            String body = StreamUtils.copyToString(request.getInputStream(), StandardCharsets.UTF_8);
+            response.setContentType("application/json");
+            ((HttpServletResponse) response).setStatus(201);
+            response.getWriter().write("{\"id\":" + execution + ",\"request\":" + body + "}");
+        };
+    }
+
+    private String requestHashOf(String body) throws Exception {
+        StringBuilder hex = new StringBuilder();
+        for (byte b : MessageDigest.getInstance("SHA-256").digest(body.getBytes(StandardCharsets.UTF_8))) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,315 @@
+package com.invoicingsystem.api.infrastructure.jobs;
+
+import com.invoicingsystem.api.domain.model.JobRun;
+import com.invoicingsystem.api.domain.repository.JobLeaseRepository;
+import com.invoicingsystem.api.domain.repository.JobNodeRepository;
+import com.invoicingsystem.api.domain.repository.JobRunRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two scheduler instances sharing one database, ticked by hand against a shared clock.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class JobSchedulerTest {
+
+    private static final Duration RATE = Duration.ofMinutes(1);
+
+    @Autowired
+    private JobLeaseRepository leaseRepository;
+
+    @Autowired
+    private JobNodeRepository nodeRepository;
+
+    @Autowired
+    private JobRunRepository runRepository;
+
+    private MutableClock clock;
+    private RecordingJob job;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2024-03-01T10:00:00Z"));
+        job = new RecordingJob("sharded", 4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        runRepository.deleteAll();
+        leaseRepository.deleteAll();
+        nodeRepository.deleteAll();
+    }
+
+    @Test
+    void shards_ShouldBeSplitAcrossLiveNodesAndRunOncePerPeriod() {
+        // Given
+        JobScheduler a = scheduler("node-a", job);
+        JobScheduler b = scheduler("node-b", job);
+
+        // Node A starts alone and takes every shard
+        a.tick();
+        assertEquals(4, job.runs.size());
+        b.tick();
+        assertEquals(4, job.runs.size());
+
+        // A hands back the shards now assigned to B, and B picks them up
+        a.tick();
+        b.tick();
+        assertEquals(4, job.runs.size());
+        assertEquals(2, owners().get("node-a").intValue());
+        assertEquals(2, owners().get("node-b").intValue());
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            step(Duration.ofSeconds(20), a, b);
+        }
+
+        // Then
+        assertEquals(8, job.runs.size());
+        Map<String, Long> perNode = job.runs.subList(4, 8).stream()
+                .collect(Collectors.groupingBy(run -> run.split("@")[1], Collectors.counting()));
+        assertEquals(2L, perNode.get("node-a"));
+        assertEquals(2L, perNode.get("node-b"));
+        for (int shard = 0; shard < 4; shard++) {
+            String prefix = shard + "@";
+            assertEquals(2, job.runs.stream().filter(run -> run.startsWith(prefix)).count(),
+                    "shard " + shard + " should run once per period");
+        }
+        assertEquals(8, runRepository.count());
+    }
+
+    @Test
+    void crashedNode_ShouldHaveItsShardsTakenOverOnceLeasesExpire() {
+        // Given
+        JobScheduler a = scheduler("node-a", job);
+        JobScheduler b = scheduler("node-b", job);
+        a.tick();
+        b.tick();
+        a.tick();
+        b.tick();
+
+        // When A stops renewing, B keeps polling
+        clock.advance(Duration.ofSeconds(20));
+        b.tick();
+        assertEquals(2, owners().get("node-a").intValue());
+        clock.advance(Duration.ofSeconds(20));
+        b.tick();
+        clock.advance(Duration.ofSeconds(20));
+        b.tick();
+
+        // Then
+        assertEquals(4, owners().get("node-b").intValue());
+        assertNull(owners().get("node-a"));
+        assertEquals(8, job.runs.size());
+        assertTrue(job.runs.subList(4, 8).stream().allMatch(run -> run.endsWith("@node-b")));
+    }
+
+    @Test
+    void reassignedShard_ShouldKeepItsLeaseUntilTheRunFinishes() {
+        // Given: node A starts every shard and the runs are still going
+        List<Runnable> started = new ArrayList<>();
+        JobScheduler a = scheduler("node-a", new SimpleMeterRegistry(), started::add, job);
+        JobScheduler b = scheduler("node-b", job);
+        a.tick();
+        assertEquals(4, started.size());
+
+        // When B joins and the runs outlast the lease duration
+        for (int i = 0; i < 3; i++) {
+            step(Duration.ofSeconds(20), b, a);
+        }
+
+        // Then A keeps every lease and B starts nothing alongside
+        assertEquals(4, owners().get("node-a").intValue());
+        assertTrue(job.runs.isEmpty());
+
+        // Once the runs finish A hands B its shards
+        started.forEach(Runnable::run);
+        step(Duration.ofSeconds(1), a, b);
+        assertEquals(2, owners().get("node-a").intValue());
+        assertEquals(2, owners().get("node-b").intValue());
+        assertEquals(4, job.runs.size());
+    }
+
+    @Test
+    void failedRun_ShouldBeRecordedAndRescheduled() {
+        // Given
+        RecordingJob failing = new RecordingJob("failing", 1);
+        failing.failure = new IllegalStateException("boom");
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        JobScheduler a = scheduler("node-a", meterRegistry, failing);
+
+        // When
+        a.tick();
+        a.tick();
+
+        // Then
+        List<JobRun> runs = runRepository.findByJobNameOrderByIdDesc("failing", PageRequest.of(0, 10));
+        assertEquals(1, runs.size());
+        assertEquals(JobRun.Outcome.FAILED, runs.get(0).getOutcome());
+        assertEquals("IllegalStateException: boom", runs.get(0).getError());
+        assertEquals("node-a", runs.get(0).getNode());
+        assertEquals(LocalDateTime.now(clock).plus(RATE), leaseRepository.findById("failing#0").orElseThrow().getNextRunAt());
+        assertEquals(1, meterRegistry.get("jobs.run").tags("job", "failing", "outcome", "failed").timer().count());
+    }
+
+    @Test
+    void shutdown_ShouldReleaseLeasesForImmediateTakeover() {
+        // Given
+        JobScheduler a = scheduler("node-a", job);
+        JobScheduler b = scheduler("node-b", job);
+        a.tick();
+
+        // When
+        a.shutdown();
+        b.tick();
+
+        // Then
+        assertEquals(4, owners().get("node-b").intValue());
+        assertFalse(nodeRepository.existsById("node-a"));
+    }
+
+    @Test
+    void schedule_ShouldKeepFixedRateRhythmAndFollowCron() {
+        LocalDateTime start = LocalDateTime.of(2024, 3, 1, 10, 0);
+        JobSchedule rate = JobSchedule.fixedRate(RATE);
+        assertEquals(start, rate.first(start));
+        assertEquals(start.plusMinutes(1), rate.next(start, start.plusSeconds(5)));
+        // A run that overran its period does not queue up catch-up runs
+        assertEquals(start.plusMinutes(4), rate.next(start, start.plusMinutes(3)));
+
+        JobSchedule hourly = JobSchedule.cron("0 0 * * * *");
+        assertEquals(start.plusHours(1), hourly.first(start));
+        assertEquals(start.plusHours(2), hourly.next(start.plusHours(1), start.plusHours(1).plusSeconds(3)));
+    }
+
+    @Test
+    void owns_ShouldPartitionKeysAcrossShards() {
+        int owners = 0;
+        for (int shard = 0; shard < 4; shard++) {
+            if (new JobContext("sharded", shard, 4, "node-a", () -> true).owns("invoice-42")) {
+                owners++;
+            }
+        }
+        assertEquals(1, owners);
+    }
+
+    private void step(Duration duration, JobScheduler... schedulers) {
+        clock.advance(duration);
+        for (JobScheduler scheduler : schedulers) {
+            scheduler.tick();
+        }
+    }
+
+    private Map<String, Integer> owners() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        Map<String, Integer> owners = new ConcurrentHashMap<>();
+        leaseRepository.findByJobNameOrderByShardAsc(job.name()).stream()
+                .filter(lease -> lease.getOwner() != null && lease.getLeaseUntil().isAfter(now))
+                .forEach(lease -> owners.merge(lease.getOwner(), 1, Integer::sum));
+        return owners;
+    }
+
+    private JobScheduler scheduler(String node, ClusterJob... jobs) {
+        return scheduler(node, new SimpleMeterRegistry(), jobs);
+    }
+
+    private JobScheduler scheduler(String node, SimpleMeterRegistry meterRegistry, ClusterJob... jobs) {
+        return scheduler(node, meterRegistry, Runnable::run, jobs);
+    }
+
+    private JobScheduler scheduler(String node, SimpleMeterRegistry meterRegistry, Executor executor,
+                                   ClusterJob... jobs) {
+        JobSchedulerProperties properties = new JobSchedulerProperties();
+        properties.setNodeId(node);
+        return new JobScheduler(List.of(jobs), leaseRepository, nodeRepository, runRepository, properties,
+                meterRegistry, clock, executor);
+    }
+
+    private static final class RecordingJob implements ClusterJob {
+        private final String name;
+        private final int shards;
+        private final List<String> runs = Collections.synchronizedList(new ArrayList<>());
+        private RuntimeException failure;
+
+        RecordingJob(String name, int shards) {
+            this.name = name;
+            this.shards = shards;
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public JobSchedule schedule() {
+            return JobSchedule.fixedRate(RATE);
+        }
+
+        @Override
+        public int shards() {
+            return shards;
+        }
+
+        @Override
+        public void run(JobContext context) {
+            if (failure != null) {
+                throw failure;
+            }
+            runs.add(context.getShard() + "@" + context.getNode());
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
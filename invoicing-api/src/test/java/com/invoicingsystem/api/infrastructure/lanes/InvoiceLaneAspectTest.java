@@ -0,0 +1,186 @@
+package com.invoicingsystem.api.infrastructure.lanes;
+
+import com.invoicingsystem.api.domain.exception.ServiceUnavailableException;
+import com.invoicingsystem.api.domain.repository.InvoiceRepository;
+import com.invoicingsystem.api.domain.repository.PaymentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class InvoiceLaneAspectTest {
+
+    private InvoiceLaneProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private StripedLanes lanes;
+    private PaymentRepository paymentRepository;
+    private SampleService service;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        properties = new InvoiceLaneProperties();
+        properties.setLanes(8);
+        properties.setMaxQueued(1);
+        properties.setMaxWait(Duration.ofSeconds(2));
+        meterRegistry = new SimpleMeterRegistry();
+        lanes = new StripedLanes(properties, meterRegistry);
+        paymentRepository = mock(PaymentRepository.class);
+
+        AspectJProxyFactory factory = new AspectJProxyFactory(new SampleService());
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new InvoiceLaneAspect(lanes, properties, paymentRepository,
+                mock(InvoiceRepository.class), mock(PlatformTransactionManager.class)));
+        service = factory.getProxy();
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void callsForTheSameInvoice_ShouldNeverOverlap() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        Runnable work = () -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            sleep(20);
+            running.decrementAndGet();
+        };
+
+        List<Future<?>> calls = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            calls.add(executor.submit(() -> service.mutate("invoice-1", work)));
+        }
+        for (Future<?> call : calls) {
+            call.get(5, TimeUnit.SECONDS);
+        }
+
+        assertEquals(1, maxRunning.get());
+        assertEquals(2, meterRegistry.get("invoice.lane.latency")
+                .tag("lane", String.valueOf(lanes.laneFor("invoice-1").getIndex())).timer().count());
+    }
+
+    @Test
+    void callsForDifferentLanes_ShouldRunInParallel() throws Exception {
+        String other = idOnAnotherLane("invoice-1");
+        CountDownLatch bothInside = new CountDownLatch(2);
+        Runnable work = () -> {
+            bothInside.countDown();
+            try {
+                assertTrue(bothInside.await(2, TimeUnit.SECONDS), "calls were serialized");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        Future<?> first = executor.submit(() -> service.mutate("invoice-1", work));
+        Future<?> second = executor.submit(() -> service.mutate(other, work));
+
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void whenLaneQueueIsFull_ShouldRejectWithServiceUnavailable() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Runnable blocked = () -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        Lane lane = lanes.laneFor("invoice-1");
+        Future<?> running = executor.submit(() -> service.mutate("invoice-1", blocked));
+        awaitDepth(lane, 1);
+        Future<?> queued = executor.submit(() -> service.mutate("invoice-1", () -> { }));
+        awaitDepth(lane, 2);
+
+        assertThrows(ServiceUnavailableException.class, () -> service.mutate("invoice-1", () -> { }));
+        assertEquals(1.0, meterRegistry.get("invoice.lane.rejected")
+                .tag("lane", String.valueOf(lane.getIndex())).counter().count());
+
+        release.countDown();
+        running.get(5, TimeUnit.SECONDS);
+        queued.get(5, TimeUnit.SECONDS);
+        assertEquals(0, lane.depth());
+    }
+
+    @Test
+    void paymentKeys_ShouldUseTheLaneOfTheirInvoice() {
+        when(paymentRepository.findInvoiceIdById("payment-1")).thenReturn(Optional.of("invoice-1"));
+
+        boolean[] held = new boolean[1];
+        service.mutatePayment("payment-1", () -> held[0] = lanes.laneFor("invoice-1").isHeldByCurrentThread());
+
+        assertTrue(held[0]);
+    }
+
+    @Test
+    void nestedCalls_ShouldStayInTheOuterLane() {
+        String other = idOnAnotherLane("invoice-1");
+        boolean[] otherHeld = new boolean[1];
+
+        service.mutate("invoice-1", () -> service.mutate(other,
+                () -> otherHeld[0] = lanes.laneFor(other).isHeldByCurrentThread()));
+
+        assertFalse(otherHeld[0]);
+    }
+
+    private String idOnAnotherLane(String id) {
+        Lane lane = lanes.laneFor(id);
+        for (int i = 0; ; i++) {
+            String candidate = "invoice-" + i;
+            if (lanes.laneFor(candidate) != lane) {
+                return candidate;
+            }
+        }
+    }
+
+    private static void awaitDepth(Lane lane, int depth) throws InterruptedException {
+        for (int i = 0; i < 200 && lane.depth() < depth; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(depth, lane.depth());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    static class SampleService {
+
+        @InvoiceLane("#invoiceId")
+        public void mutate(String invoiceId, Runnable work) {
+            work.run();
+        }
+
+        @InvoiceLane(value = "#paymentId", source = InvoiceLane.KeySource.PAYMENT)
+        public void mutatePayment(String paymentId, Runnable work) {
+            work.run();
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.invoicingsystem.api.infrastructure.ledger;
+
+import com.invoicingsystem.api.application.query.BalanceAuditReport;
+import com.invoicingsystem.api.application.query.BalanceDiscrepancyDto;
+import com.invoicingsystem.api.application.service.BalanceAuditService;
+import com.invoicingsystem.api.application.service.impl.BalanceAuditServiceImpl;
+import com.invoicingsystem.api.application.service.impl.LedgerServiceImpl;
+import com.invoicingsystem.api.domain.model.Client;
+import com.invoicingsystem.api.domain.model.Invoice;
+import com.invoicingsystem.api.domain.model.LedgerEntry;
+import com.invoicingsystem.api.domain.model.Payment;
+import com.invoicingsystem.api.domain.model.User;
+import com.invoicingsystem.api.domain.repository.BalanceSnapshotRepository;
+import com.invoicingsystem.api.domain.repository.ClientRepository;
+import com.invoicingsystem.api.domain.repository.InvoiceRepository;
+import com.invoicingsystem.api.domain.repository.LedgerEntryRepository;
+import com.invoicingsystem.api.domain.repository.PaymentRepository;
+import com.invoicingsystem.api.domain.repository.UserRepository;
+import com.invoicingsystem.api.infrastructure.lanes.InvoiceLaneProperties;
+import com.invoicingsystem.api.infrastructure.lanes.StripedLanes;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs without a test transaction so each range is read, and each repair committed, on its own.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({BalanceAuditServiceImpl.class, LedgerServiceImpl.class, LedgerProperties.class, InvoiceLaneProperties.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BalanceAuditJobTest {
+
+    @Autowired
+    private BalanceAuditService balanceAuditService;
+
+    @Autowired
+    private InvoiceLaneProperties laneProperties;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private BalanceSnapshotRepository balanceSnapshotRepository;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private BalanceAuditProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private BalanceAuditJob job;
+    private User user;
+    private Client client;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setId(UUID.randomUUID().toString());
+        user.setName("Audit User");
+        user.setEmail(UUID.randomUUID() + "@example.com");
+        user.setPassword("secret");
+        user.setRole(User.Role.USER);
+        user.setCreatedAt(LocalDateTime.now());
+        user.setUpdatedAt(LocalDateTime.now());
+        user = userRepository.save(user);
+        client = clientRepository.save(Client.builder()
+                .id(UUID.randomUUID().toString())
+                .name("Acme")
+                .email(UUID.randomUUID() + "@example.com")
+                .phone("+1-555-000-0000")
+                .address("1 Audit Street")
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build());
+
+        properties = new BalanceAuditProperties();
+        properties.setChunkSize(2);
+        properties.setParallelism(2);
+        meterRegistry = new SimpleMeterRegistry();
+        job = new BalanceAuditJob(balanceAuditService, new StripedLanes(laneProperties, meterRegistry),
+                laneProperties, properties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        job.destroy();
+        balanceSnapshotRepository.deleteAll();
+        ledgerEntryRepository.deleteAll();
+        paymentRepository.deleteAll();
+        invoiceRepository.deleteAll();
+        clientRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void audit_ShouldReportThenRepairDriftAcrossRanges() {
+        // Given
+        Invoice consistent = invoice("30.00");
+        ledger(LedgerEntry.applied(consistent.getId(), completed(consistent, "30.00").getId(), new BigDecimal("30.00")));
+        // Projection never ran
+        Invoice unprojected = invoice("0.00");
+        ledger(LedgerEntry.applied(unprojected.getId(), completed(unprojected, "30.00").getId(), new BigDecimal("30.00")));
+        // Completed without its ledger entry
+        Invoice unrecorded = invoice("0.00");
+        completed(unrecorded, "40.00");
+        // Reversed without its compensating entry
+        Invoice unreversed = invoice("20.00");
+        Payment reversed = payment(unreversed, "20.00", Payment.PaymentStatus.REVERSED);
+        ledger(LedgerEntry.applied(unreversed.getId(), reversed.getId(), new BigDecimal("20.00")));
+        // Deleted while completed without its compensating entry
+        Invoice orphaned = invoice("15.00");
+        ledger(LedgerEntry.applied(orphaned.getId(), "deleted-payment", new BigDecimal("15.00")));
+        // Paid before the ledger existed: no payments to compare with
+        Invoice opened = invoice("50.00");
+        ledger(LedgerEntry.adjusted(opened.getId(), new BigDecimal("50.00")));
+        Invoice unpaid = invoice("0.00");
+
+        // When
+        BalanceAuditReport report = job.audit(false, () -> true);
+
+        // Then
+        assertEquals(7, report.getInvoices());
+        assertEquals(4, report.getRanges());
+        assertEquals(0, report.getFailedRanges());
+        assertEquals(4, report.getDiscrepancies());
+        assertEquals(0, report.getRepaired());
+        Map<String, BalanceDiscrepancyDto> found = report.getReported().stream()
+                .collect(Collectors.toMap(BalanceDiscrepancyDto::getInvoiceId, discrepancy -> discrepancy));
+        assertEquals(4, found.size());
+        assertTrue(found.get(unprojected.getId()).isStoredDrift());
+        assertFalse(found.get(unprojected.getId()).isPaymentDrift());
+        assertTrue(found.get(unrecorded.getId()).isPaymentDrift());
+        assertEquals(0, new BigDecimal("40.00").compareTo(found.get(unrecorded.getId()).getCompletedPayments()));
+        assertEquals(0, found.get(unrecorded.getId()).getLedgerPayments().signum());
+        assertTrue(found.get(unreversed.getId()).isPaymentDrift());
+        assertTrue(found.get(orphaned.getId()).isPaymentDrift());
+        assertFalse(found.containsKey(consistent.getId()));
+        assertFalse(found.containsKey(opened.getId()));
+        assertFalse(found.containsKey(unpaid.getId()));
+        assertEquals(1.0, meterRegistry.get("balance.audit.discrepancies").tag("kind", "stored").counter().count());
+        assertEquals(3.0, meterRegistry.get("balance.audit.discrepancies").tag("kind", "payments").counter().count());
+        // Reporting changed nothing
+        assertEquals(0, amountPaid(unprojected).signum());
+        assertEquals(5, ledgerEntryRepository.count());
+
+        // When
+        BalanceAuditReport repair = job.audit(true, () -> true);
+
+        // Then
+        assertEquals(4, repair.getDiscrepancies());
+        assertEquals(4, repair.getRepaired());
+        assertTrue(repair.getReported().stream().allMatch(BalanceDiscrepancyDto::isRepaired));
+        assertEquals(0, new BigDecimal("30.00").compareTo(amountPaid(unprojected)));
+        assertEquals(0, new BigDecimal("40.00").compareTo(amountPaid(unrecorded)));
+        assertEquals(Invoice.InvoiceStatus.PARTIALLY_PAID,
+                invoiceRepository.findById(unrecorded.getId()).orElseThrow().getStatus());
+        assertEquals(0, amountPaid(unreversed).signum());
+        assertEquals(0, amountPaid(orphaned).signum());
+        assertEquals(0, new BigDecimal("50.00").compareTo(amountPaid(opened)));
+        assertEquals(LedgerEntry.EntryType.REVERSED, ledgerEntryRepository
+                .findByInvoiceIdOrderByIdAsc(unreversed.getId()).get(1).getType());
+        assertEquals(4.0, meterRegistry.get("balance.audit.repaired").counter().count());
+
+        // When
+        BalanceAuditReport clean = job.audit(false, () -> true);
+
+        // Then
+        assertEquals(7, clean.getInvoices());
+        assertEquals(0, clean.getDiscrepancies());
+        assertSame(clean, job.getLastReport());
+        assertEquals(21.0, meterRegistry.get("balance.audit.invoices").counter().count());
+        assertEquals(3, meterRegistry.get("balance.audit.throughput").summary().count());
+        assertEquals(12, meterRegistry.get("balance.audit.range").tag("outcome", "succeeded").timer().count());
+    }
+
+    @Test
+    void audit_ShouldStopWhenTheLeaseIsLost() {
+        // Given
+        invoice("0.00");
+
+        // When
+        BalanceAuditReport report = job.audit(false, () -> false);
+
+        // Then
+        assertEquals(0, report.getInvoices());
+        assertEquals(0, report.getRanges());
+    }
+
+    private BigDecimal amountPaid(Invoice invoice) {
+        return invoiceRepository.findById(invoice.getId()).orElseThrow().getAmountPaid();
+    }
+
+    private void ledger(LedgerEntry entry) {
+        ledgerEntryRepository.save(entry);
+    }
+
+    private Payment completed(Invoice invoice, String amount) {
+        return payment(invoice, amount, Payment.PaymentStatus.COMPLETED);
+    }
+
+    private Payment payment(Invoice invoice, String amount, Payment.PaymentStatus status) {
+        return paymentRepository.save(Payment.builder()
+                .invoice(invoice)
+                .amount(new BigDecimal(amount))
+                .method(Payment.PaymentMethod.BANK_TRANSFER)
+                .status(status)
+                .receivedAt(LocalDateTime.now())
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build());
+    }
+
+    // Total 100.00 with the given amount paid stored on the row
+    private Invoice invoice(String amountPaid) {
+        BigDecimal total = new BigDecimal("100.00");
+        BigDecimal paid = new BigDecimal(amountPaid);
+        return invoiceRepository.save(Invoice.builder()
+                .id(UUID.randomUUID().toString())
+                .number("INV-2024-" + UUID.randomUUID().toString().substring(0, 8))
+                .client(client)
+                .createdBy(user)
+                .issueDate(LocalDate.of(2024, 5, 1))
+                .dueDate(LocalDate.of(2024, 5, 31))
+                .status(paid.signum() > 0 ? Invoice.InvoiceStatus.PARTIALLY_PAID : Invoice.InvoiceStatus.SENT)
+                .subtotal(total)
+                .taxAmount(BigDecimal.ZERO)
+                .total(total)
+                .amountPaid(paid)
+                .balance(total.subtract(paid))
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build());
+    }
+}
@@ -0,0 +1,53 @@
+package com.invoicingsystem.api.infrastructure.observability;
+
+import com.invoicingsystem.api.domain.event.InvoiceCreatedEvent;
+import com.invoicingsystem.api.domain.event.PaymentRecordedEvent;
+import com.invoicingsystem.api.domain.model.Invoice;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BusinessMetricsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private BusinessMetrics businessMetrics;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        businessMetrics = new BusinessMetrics(meterRegistry);
+    }
+
+    @Test
+    void onInvoiceCreated_ShouldCountByStatusAndRecordTotal() {
+        businessMetrics.onInvoiceCreated(new InvoiceCreatedEvent(
+                "inv-1", "client-1", Invoice.InvoiceStatus.DRAFT, new BigDecimal("150.00"), null));
+        businessMetrics.onInvoiceCreated(new InvoiceCreatedEvent(
+                "inv-2", "client-1", Invoice.InvoiceStatus.DRAFT, new BigDecimal("50.00"), null));
+
+        assertEquals(2.0, meterRegistry.get("invoicing.invoices.created").tag("status", "DRAFT").counter().count());
+        assertEquals(200.0, meterRegistry.get("invoicing.invoices.created.amount").summary().totalAmount());
+    }
+
+    @Test
+    void onPaymentRecorded_ShouldSplitAppliedAndReversedAmounts() {
+        businessMetrics.onPaymentRecorded(new PaymentRecordedEvent(
+                "pay-1", "inv-1", new BigDecimal("40.00"), "CREDIT_CARD", "COMPLETED", null));
+        businessMetrics.onPaymentRecorded(new PaymentRecordedEvent(
+                "pay-1", "inv-1", new BigDecimal("40.00"), "CREDIT_CARD", "REVERSED", null));
+        businessMetrics.onPaymentRecorded(new PaymentRecordedEvent(
+                "pay-2", "inv-1", new BigDecimal("10.00"), null, "PENDING", null));
+
+        assertEquals(1.0, meterRegistry.get("invoicing.payments")
+                .tags("method", "CREDIT_CARD", "status", "COMPLETED").counter().count());
+        assertEquals(1.0, meterRegistry.get("invoicing.payments")
+                .tags("method", "UNKNOWN", "status", "PENDING").counter().count());
+        assertEquals(40.0, meterRegistry.get("invoicing.payments.applied.amount")
+                .tag("method", "CREDIT_CARD").summary().totalAmount());
+        assertEquals(40.0, meterRegistry.get("invoicing.payments.reversed.amount").summary().totalAmount());
+    }
+}
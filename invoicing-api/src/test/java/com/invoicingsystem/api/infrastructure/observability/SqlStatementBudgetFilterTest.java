@@ -0,0 +1,117 @@
+package com.invoicingsystem.api.infrastructure.observability;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlStatementBudgetFilterTest {
+
+    private SqlBudgetProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private SqlStatementBudgetFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        properties = new SqlBudgetProperties();
+        properties.setDefaultMaxStatements(3);
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new SqlStatementBudgetFilter(properties, meterRegistry);
+    }
+
+    @Test
+    void trackingDataSource_ShouldCountAndTimeExecutedStatements() throws Exception {
+        StatementTrackingDataSource dataSource = new StatementTrackingDataSource(
+                new DriverManagerDataSource("jdbc:h2:mem:sql-budget;DB_CLOSE_DELAY=-1", "sa", ""));
+
+        SqlStatementStats stats = SqlStatementRecorder.begin();
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS t (id INT)");
+            try (PreparedStatement insert = connection.prepareStatement("INSERT INTO t VALUES (?)")) {
+                insert.setInt(1, 1);
+                insert.executeUpdate();
+                insert.setInt(1, 2);
+                insert.executeUpdate();
+            }
+        } finally {
+            SqlStatementRecorder.end();
+        }
+
+        assertEquals(3, stats.getStatementCount());
+        assertTrue(stats.getTotalNanos() > 0);
+        assertEquals("INSERT INTO t VALUES (?)", stats.mostRepeated().getKey());
+        assertEquals(2, stats.mostRepeated().getValue());
+    }
+
+    @Test
+    void filter_ShouldRecordPerHandlerMeters() throws Exception {
+        filter.doFilter(requestFor("listInvoices"), new MockHttpServletResponse(), chainExecuting(2));
+
+        assertEquals(2.0, meterRegistry.get("sql.request.statements")
+                .tag("handler", "SampleController.listInvoices").summary().totalAmount());
+        assertEquals(1, meterRegistry.get("sql.request.time")
+                .tag("handler", "SampleController.listInvoices").timer().count());
+    }
+
+    @Test
+    void filter_WhenBudgetExceededAndFailOnExceed_ShouldThrow() {
+        properties.setFailOnExceed(true);
+
+        assertThrows(SqlBudgetExceededException.class,
+                () -> filter.doFilter(requestFor("listInvoices"), new MockHttpServletResponse(), chainExecuting(4)));
+    }
+
+    @Test
+    void filter_ShouldUseAnnotatedBudget() throws Exception {
+        properties.setFailOnExceed(true);
+
+        filter.doFilter(requestFor("annotated"), new MockHttpServletResponse(), chainExecuting(5));
+        assertThrows(SqlBudgetExceededException.class,
+                () -> filter.doFilter(requestFor("annotated"), new MockHttpServletResponse(), chainExecuting(6)));
+    }
+
+    @Test
+    void filter_WhenBudgetExceeded_ShouldOnlyCountByDefault() throws Exception {
+        filter.doFilter(requestFor("listInvoices"), new MockHttpServletResponse(), chainExecuting(4));
+
+        assertEquals(1.0, meterRegistry.get("sql.request.budget_exceeded")
+                .tag("handler", "SampleController.listInvoices").counter().count());
+    }
+
+    private static MockHttpServletRequest requestFor(String methodName) throws NoSuchMethodException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/invoices");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE,
+                new HandlerMethod(new SampleController(), SampleController.class.getMethod(methodName)));
+        return request;
+    }
+
+    private static FilterChain chainExecuting(int statements) {
+        return (request, response) -> {
+            for (int i = 0; i < statements; i++) {
+                SqlStatementRecorder.record("select * from invoice_items where invoice_id=?", 1_000);
+            }
+        };
+    }
+
+    static class SampleController {
+
+        public void listInvoices() {
+        }
+
+        @SqlBudget(maxStatements = 5)
+        public void annotated() {
+        }
+    }
+}
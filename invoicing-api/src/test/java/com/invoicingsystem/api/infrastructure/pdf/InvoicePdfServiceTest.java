@@ -0,0 +1,247 @@
+package com.invoicingsystem.api.infrastructure.pdf;
+
+import com.invoicingsystem.api.application.query.ClientDto;
+import com.invoicingsystem.api.application.query.InvoiceDetailDto;
+import com.invoicingsystem.api.application.query.InvoiceDto;
+import com.invoicingsystem.api.application.query.InvoiceItemDto;
+import com.invoicingsystem.api.application.service.InvoiceService;
+import com.invoicingsystem.api.domain.event.InvoiceChangedEvent;
+import com.invoicingsystem.api.domain.event.InvoiceStatusChangedEvent;
+import com.invoicingsystem.api.domain.exception.ServiceUnavailableException;
+import com.invoicingsystem.api.domain.model.Invoice.InvoiceStatus;
+import com.invoicingsystem.api.infrastructure.web.FileDownloads;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class InvoicePdfServiceTest {
+
+    private static final String INVOICE_ID = "invoice-1";
+
+    @TempDir
+    Path cacheDirectory;
+
+    private InvoiceService invoiceService;
+    private PdfProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private InvoicePdfService pdfService;
+    private String etag;
+
+    @BeforeEach
+    void setUp() {
+        invoiceService = mock(InvoiceService.class);
+        properties = new PdfProperties();
+        properties.setCacheDirectory(cacheDirectory.toString());
+        properties.setThreads(1);
+        meterRegistry = new SimpleMeterRegistry();
+        etag = "W/\"0a1b2c\"";
+        when(invoiceService.getInvoiceDetailEtag(INVOICE_ID)).thenAnswer(invocation -> etag);
+        when(invoiceService.getInvoiceDetail(INVOICE_ID)).thenAnswer(invocation -> detail(etag));
+        pdfService = new InvoicePdfService(invoiceService, new InvoicePdfRenderer(), properties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pdfService.destroy();
+    }
+
+    @Test
+    void getDocument_ShouldRenderOnceAndServeTheCachedVersion() throws Exception {
+        // When
+        InvoicePdf first = pdfService.getDocument(INVOICE_ID);
+        InvoicePdf second = pdfService.getDocument(INVOICE_ID);
+
+        // Then
+        assertEquals("0a1b2c", first.getVersion());
+        assertEquals(cacheDirectory.resolve(INVOICE_ID).resolve("0a1b2c.pdf"), first.getFile());
+        assertEquals(first.getFile(), second.getFile());
+        assertTrue(new String(Files.readAllBytes(first.getFile()), StandardCharsets.ISO_8859_1).startsWith("%PDF"));
+        verify(invoiceService, times(1)).getInvoiceDetail(INVOICE_ID);
+        assertEquals(1.0, meterRegistry.get("pdf.cache").tag("result", "hit").counter().count());
+        assertEquals(1, meterRegistry.get("pdf.render").tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    void getDocument_WhenInvoiceChanged_ShouldReplaceTheOldVersion() throws Exception {
+        // Given
+        Path old = pdfService.getDocument(INVOICE_ID).getFile();
+
+        // When
+        etag = "W/\"3d4e5f\"";
+        InvoicePdf current = pdfService.getDocument(INVOICE_ID);
+
+        // Then
+        assertEquals("3d4e5f", current.getVersion());
+        assertFalse(Files.exists(old));
+        try (java.util.stream.Stream<Path> files = Files.list(cacheDirectory.resolve(INVOICE_ID))) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    void getDocument_WhenRenderIsSlow_ShouldAskClientToRetryAndFinishInBackground() throws Exception {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        InvoicePdfRenderer slow = spy(new InvoicePdfRenderer());
+        doAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return invocation.callRealMethod();
+        }).when(slow).render(any(), any());
+        properties.setRenderTimeout(Duration.ofMillis(100));
+        pdfService.destroy();
+        pdfService = new InvoicePdfService(invoiceService, slow, properties, meterRegistry);
+
+        // When / Then
+        ServiceUnavailableException e = assertThrows(ServiceUnavailableException.class,
+                () -> pdfService.getDocument(INVOICE_ID));
+        assertEquals(2, e.getRetryAfterSeconds());
+        // The second request joins the render already under way
+        assertThrows(ServiceUnavailableException.class, () -> pdfService.getDocument(INVOICE_ID));
+
+        release.countDown();
+        properties.setRenderTimeout(Duration.ofSeconds(5));
+        assertNotNull(pdfService.getDocument(INVOICE_ID).getFile());
+        verify(slow, times(1)).render(any(), any());
+    }
+
+    @Test
+    void statusChangeToSent_ShouldPrerenderAndDeleteShouldEvict() throws Exception {
+        // When
+        pdfService.onInvoiceStatusChanged(new InvoiceStatusChangedEvent(INVOICE_ID, InvoiceStatus.DRAFT,
+                InvoiceStatus.SENT, LocalDateTime.now()));
+
+        // Then
+        Path file = cacheDirectory.resolve(INVOICE_ID).resolve("0a1b2c.pdf");
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!Files.exists(file) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertTrue(Files.exists(file));
+        pdfService.getDocument(INVOICE_ID);
+        assertEquals(1.0, meterRegistry.get("pdf.cache").tag("result", "hit").counter().count());
+
+        pdfService.onInvoiceChanged(new InvoiceChangedEvent(INVOICE_ID, InvoiceChangedEvent.ChangeType.DELETED,
+                LocalDateTime.now()));
+        assertFalse(Files.exists(cacheDirectory.resolve(INVOICE_ID)));
+    }
+
+    @Test
+    void download_ShouldServeSingleRangesAndConditionalRequests() throws Exception {
+        // Given
+        Path file = cacheDirectory.resolve("document.pdf");
+        byte[] content = new byte[1000];
+        Arrays.fill(content, (byte) 'x');
+        content[100] = 'a';
+        Files.write(file, content);
+        String fileEtag = "\"v1\"";
+
+        // Full body
+        MockHttpServletResponse full = download(file, fileEtag, Collections.emptyMap());
+        assertEquals(200, full.getStatus());
+        assertEquals(1000, full.getContentAsByteArray().length);
+        assertEquals("bytes", full.getHeader("Accept-Ranges"));
+        assertEquals("inline; filename=\"invoice.pdf\"", full.getHeader("Content-Disposition"));
+
+        // Single range
+        MockHttpServletResponse partial = download(file, fileEtag, Collections.singletonMap("Range", "bytes=100-199"));
+        assertEquals(206, partial.getStatus());
+        assertEquals("bytes 100-199/1000", partial.getHeader("Content-Range"));
+        assertEquals(100, partial.getContentAsByteArray().length);
+        assertEquals('a', partial.getContentAsByteArray()[0]);
+
+        // Outside the file
+        MockHttpServletResponse unsatisfiable = download(file, fileEtag, Collections.singletonMap("Range", "bytes=5000-"));
+        assertEquals(416, unsatisfiable.getStatus());
+        assertEquals("bytes */1000", unsatisfiable.getHeader("Content-Range"));
+
+        // Range against a different version is ignored
+        MockHttpServletRequest stale = new MockHttpServletRequest("GET", "/api/invoices/x/pdf");
+        stale.addHeader("Range", "bytes=0-9");
+        stale.addHeader("If-Range", "\"v0\"");
+        MockHttpServletResponse whole = new MockHttpServletResponse();
+        FileDownloads.send(stale, whole, file, "application/pdf", "invoice.pdf", fileEtag);
+        assertEquals(200, whole.getStatus());
+        assertEquals(1000, whole.getContentAsByteArray().length);
+
+        // Revalidation
+        MockHttpServletResponse notModified = download(file, fileEtag, Collections.singletonMap("If-None-Match", fileEtag));
+        assertEquals(304, notModified.getStatus());
+        assertEquals(0, notModified.getContentAsByteArray().length);
+    }
+
+    @Test
+    void download_OnSendfileCapableConnector_ShouldLeaveTheCopyToTheContainer() throws Exception {
+        // Given
+        Path file = cacheDirectory.resolve("document.pdf");
+        Files.write(file, new byte[1000]);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/invoices/x/pdf");
+        request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+        request.addHeader("Range", "bytes=-100");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        FileDownloads.send(request, response, file, "application/pdf", "invoice.pdf", "\"v1\"");
+
+        // Then
+        assertEquals(206, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+        assertEquals(100, response.getContentLengthLong());
+        assertEquals(file.toAbsolutePath().toString(), request.getAttribute("org.apache.tomcat.sendfile.filename"));
+        assertEquals(900L, request.getAttribute("org.apache.tomcat.sendfile.start"));
+        assertEquals(1000L, request.getAttribute("org.apache.tomcat.sendfile.end"));
+    }
+
+    private static MockHttpServletResponse download(Path file, String etag, java.util.Map<String, String> headers)
+            throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/invoices/x/pdf");
+        headers.forEach(request::addHeader);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FileDownloads.send(request, response, file, "application/pdf", "invoice.pdf", etag);
+        return response;
+    }
+
+    private static InvoiceDetailDto detail(String etag) {
+        InvoiceDto invoice = InvoiceDto.builder()
+                .id(INVOICE_ID)
+                .number("INV-2026-0001")
+                .issueDate(LocalDate.of(2026, 1, 1))
+                .dueDate(LocalDate.of(2026, 1, 31))
+                .status(InvoiceStatus.SENT)
+                .subtotal(new BigDecimal("200.00"))
+                .taxRate(new BigDecimal("10"))
+                .taxAmount(new BigDecimal("20.00"))
+                .total(new BigDecimal("220.00"))
+                .amountPaid(BigDecimal.ZERO)
+                .balance(new BigDecimal("220.00"))
+                .notes("Thanks")
+                .items(Collections.singletonList(InvoiceItemDto.builder()
+                        .description("Consulting")
+                        .quantity(2)
+                        .unitPrice(new BigDecimal("100.00"))
+                        .amount(new BigDecimal("200.00"))
+                        .build()))
+                .build();
+        ClientDto client = ClientDto.builder().name("Acme").email("billing@acme.test").address("1 Main St").build();
+        return InvoiceDetailDto.builder().invoice(invoice).client(client).etag(etag).build();
+    }
+}
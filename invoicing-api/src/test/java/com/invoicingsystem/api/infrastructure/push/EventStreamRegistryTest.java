@@ -0,0 +1,86 @@
+package com.invoicingsystem.api.infrastructure.push;
+
+import com.invoicingsystem.api.domain.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventStreamRegistryTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private EventStreamRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        PushProperties properties = new PushProperties();
+        properties.setMaxConnections(2);
+        properties.setBufferSize(3);
+        properties.setSenderThreads(1);
+        meterRegistry = new SimpleMeterRegistry();
+        registry = new EventStreamRegistry(properties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        registry.destroy();
+    }
+
+    @Test
+    void publish_ShouldDeliverOnceToEachSubscribedStream() throws Exception {
+        registry.subscribe(List.of("invoice:1"));
+        registry.subscribe(List.of("invoice:2", "user:a@example.com"));
+
+        registry.publish(List.of("invoice:2", "user:a@example.com"), "payment.recorded", "{}");
+        registry.publish(List.of("invoice:3"), "payment.recorded", "{}");
+        awaitSenders();
+
+        // Two "connected" comments plus one message for the second stream
+        assertEquals(3.0, meterRegistry.get("push.messages.sent").counter().count());
+        assertEquals(2.0, meterRegistry.get("push.connections").gauge().value());
+    }
+
+    @Test
+    void subscribe_BeyondMaxConnections_ShouldBeRejected() {
+        registry.subscribe(List.of("invoice:1"));
+        registry.subscribe(List.of("invoice:1"));
+
+        assertThrows(ServiceUnavailableException.class, () -> registry.subscribe(List.of("invoice:1")));
+        assertEquals(2, registry.connectionCount());
+    }
+
+    @Test
+    void publish_ToSlowConsumer_ShouldEvictWhenBufferOverflows() throws Exception {
+        CountDownLatch blocked = new CountDownLatch(1);
+        // Occupy the only sender thread so nothing drains
+        registry.execute(() -> {
+            try {
+                blocked.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        registry.subscribe(List.of("invoice:1"));
+        for (int i = 0; i < 5; i++) {
+            registry.publish(List.of("invoice:1"), "invoice.status_changed", "{}");
+        }
+        blocked.countDown();
+        awaitSenders();
+
+        assertEquals(0, registry.connectionCount());
+        assertTrue(registry.isEmpty());
+        assertEquals(1.0, meterRegistry.get("push.connections.closed").tag("reason", "slow_consumer").counter().count());
+    }
+
+    private void awaitSenders() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        registry.execute(done::countDown);
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+    }
+}
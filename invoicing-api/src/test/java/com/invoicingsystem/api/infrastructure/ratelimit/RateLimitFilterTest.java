@@ -0,0 +1,213 @@
+package com.invoicingsystem.api.infrastructure.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.invoicingsystem.api.domain.model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.catalina.filters.RemoteIpFilter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockFilterConfig;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitFilterTest {
+
+    private RateLimitProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private RateLimiter rateLimiter;
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RateLimitProperties();
+        properties.getRoles().put(User.Role.USER, new RateLimitProperties.Limit(10, 1));
+        properties.getRoles().put(User.Role.ADMIN, new RateLimitProperties.Limit(100, 1));
+        meterRegistry = new SimpleMeterRegistry();
+        rateLimiter = new RateLimiter(properties, meterRegistry);
+        filter = new RateLimitFilter(rateLimiter, properties, new ObjectMapper().registerModule(new JavaTimeModule()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void tokenBucket_ShouldAllowBurstThenRefillAtRate() {
+        long second = TimeUnit.SECONDS.toNanos(1);
+        TokenBucket bucket = new TokenBucket(10, 2, 0);
+
+        assertEquals(0, bucket.tryAcquire(5, 0));
+        assertEquals(0, bucket.tryAcquire(5, 0));
+        assertEquals(0, bucket.available(0));
+        // One unit refills every half second
+        assertEquals(second / 2, bucket.tryAcquire(1, 0));
+        assertEquals(0, bucket.tryAcquire(1, second / 2));
+        assertEquals(2, bucket.available(second * 3 / 2));
+        assertTrue(bucket.isFull(second * 10));
+    }
+
+    @Test
+    void tokenBucket_ShouldRejectNonPositiveCapacityOrRefill() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(0, 2, 0));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(10, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(10, -1, 0));
+    }
+
+    @Test
+    void listCalls_ShouldCostMoreThanDetailCalls() throws Exception {
+        authenticate("alice", "ROLE_USER");
+
+        // Capacity 10 at cost 5 admits two list calls
+        assertEquals(200, get("/invoices").getStatus());
+        assertEquals(200, get("/invoices").getStatus());
+        MockHttpServletResponse rejected = get("/invoices");
+
+        assertEquals(429, rejected.getStatus());
+        assertEquals("5", rejected.getHeader("Retry-After"));
+        assertTrue(rejected.getContentAsString().contains("list"));
+        // Detail calls have their own bucket and are unaffected
+        for (int i = 0; i < 10; i++) {
+            assertEquals(200, get("/invoices/invoice-" + i).getStatus());
+        }
+        assertEquals(429, get("/invoices/invoice-x").getStatus());
+
+        assertEquals(12.0, meterRegistry.get("ratelimit.requests").tag("outcome", "admitted").counters()
+                .stream().mapToDouble(c -> c.count()).sum());
+        assertEquals(1.0, meterRegistry.get("ratelimit.requests")
+                .tags("outcome", "rejected", "class", "list", "role", "user").counter().count());
+    }
+
+    @Test
+    void buckets_ShouldBePerUserAndSizedByRole() throws Exception {
+        authenticate("alice", "ROLE_USER");
+        get("/invoices");
+        get("/invoices");
+        assertEquals(429, get("/invoices").getStatus());
+
+        authenticate("bob", "ROLE_USER");
+        assertEquals(200, get("/invoices").getStatus());
+
+        authenticate("root", "ROLE_ADMIN");
+        for (int i = 0; i < 20; i++) {
+            assertEquals(200, get("/invoices").getStatus());
+        }
+    }
+
+    @Test
+    void anonymousRequests_ShouldBeLimitedPerAddress() throws Exception {
+        properties.setAnonymous(new RateLimitProperties.Limit(2, 1));
+
+        MockHttpServletRequest login = new MockHttpServletRequest("POST", "/api/auth/login");
+        login.setServletPath("/auth/login");
+        assertEquals(EndpointClass.AUTH, filter.classify(login));
+        assertEquals(200, send(login).getStatus());
+        assertEquals(200, send(login).getStatus());
+        assertEquals(429, send(login).getStatus());
+
+        login.setRemoteAddr("10.0.0.2");
+        assertEquals(200, send(login).getStatus());
+    }
+
+    @Test
+    void anonymousRequests_ShouldUseForwardedAddressOnlyFromTrustedProxies() throws Exception {
+        properties.setAnonymous(new RateLimitProperties.Limit(1, 1));
+        // What server.forward-headers-strategy=native installs, with the default trusted proxies
+        RemoteIpFilter remoteIp = new RemoteIpFilter();
+        MockFilterConfig config = new MockFilterConfig();
+        config.addInitParameter("internalProxies", new ServerProperties().getTomcat().getRemoteip().getInternalProxies());
+        remoteIp.init(config);
+
+        // Behind the load balancer each forwarded client has its own bucket
+        assertEquals(200, sendVia(remoteIp, login("10.0.0.1", "203.0.113.7")).getStatus());
+        assertEquals(200, sendVia(remoteIp, login("10.0.0.1", "203.0.113.8")).getStatus());
+        assertEquals(429, sendVia(remoteIp, login("10.0.0.1", "203.0.113.7")).getStatus());
+
+        // A direct caller cannot pick its bucket by sending the header itself
+        assertEquals(200, sendVia(remoteIp, login("198.51.100.9", "203.0.113.20")).getStatus());
+        assertEquals(429, sendVia(remoteIp, login("198.51.100.9", "203.0.113.21")).getStatus());
+    }
+
+    @Test
+    void classify_ShouldMapRequestsToEndpointClasses() {
+        assertEquals(EndpointClass.LIST, filter.classify(request("GET", "/payments/invoice/abc")));
+        assertEquals(EndpointClass.LIST, filter.classify(request("GET", "/invoices/abc/ledger")));
+        assertEquals(EndpointClass.DETAIL, filter.classify(request("GET", "/invoices/abc/full")));
+        assertEquals(EndpointClass.SEARCH, filter.classify(request("GET", "/clients/autocomplete")));
+        assertEquals(EndpointClass.STREAM, filter.classify(request("GET", "/events/me")));
+        assertEquals(EndpointClass.WRITE, filter.classify(request("POST", "/invoices")));
+
+        MockHttpServletRequest multiGet = request("GET", "/clients");
+        multiGet.setParameter("ids", "a,b");
+        assertEquals(EndpointClass.LIST, filter.classify(multiGet));
+    }
+
+    @Test
+    void idleBuckets_ShouldBeEvictedOnceRefilled() throws Exception {
+        authenticate("alice", "ROLE_USER");
+        get("/invoices/one");
+        assertEquals(1, rateLimiter.size());
+
+        // The bucket is still refilling the unit just taken
+        rateLimiter.evictIdle();
+        assertEquals(1, rateLimiter.size());
+
+        Thread.sleep(1100);
+        rateLimiter.evictIdle();
+        assertEquals(0, rateLimiter.size());
+    }
+
+    private void authenticate(String name, String authority) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                name, null, Collections.singletonList(new SimpleGrantedAuthority(authority))));
+    }
+
+    private MockHttpServletResponse get(String path) throws Exception {
+        return send(request("GET", path));
+    }
+
+    private MockHttpServletResponse send(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private MockHttpServletResponse sendVia(RemoteIpFilter remoteIp, MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        HttpServlet admitted = new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) {
+            }
+        };
+        new MockFilterChain(admitted, remoteIp, filter).doFilter(request, response);
+        return response;
+    }
+
+    private static MockHttpServletRequest login(String remoteAddr, String forwardedFor) {
+        MockHttpServletRequest request = request("POST", "/auth/login");
+        request.setRemoteAddr(remoteAddr);
+        request.addHeader("X-Forwarded-For", forwardedFor);
+        return request;
+    }
+
+    private static MockHttpServletRequest request(String method, String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/api" + path);
+        request.setServletPath(path);
+        return request;
+    }
+}
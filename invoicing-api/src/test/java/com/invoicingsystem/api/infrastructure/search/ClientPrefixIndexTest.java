@@ -0,0 +1,79 @@
+package com.invoicingsystem.api.infrastructure.search;
+
+import com.invoicingsystem.api.application.query.ClientSuggestionDto;
+import com.invoicingsystem.api.domain.event.ClientChangedEvent;
+import com.invoicingsystem.api.domain.model.Client;
+import com.invoicingsystem.api.domain.repository.ClientRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ClientPrefixIndexTest {
+
+    @Mock
+    private ClientRepository clientRepository;
+
+    private ClientPrefixIndex index;
+
+    @BeforeEach
+    void setUp() {
+        when(clientRepository.findAll()).thenReturn(Arrays.asList(
+                client("1", "Acme Corporation", "billing@acme.com"),
+                client("2", "Globex Inc.", "accounts@globex.com"),
+                client("3", "Café Crème", "hello@creme.fr"),
+                client("4", "Initech", "ap@acmeholdings.com")));
+        index = new ClientPrefixIndex(clientRepository, new SimpleMeterRegistry());
+        index.rebuild();
+    }
+
+    @Test
+    void complete_ShouldMatchNameAndEmailPrefixesRankingNameMatchesFirst() {
+        assertEquals(List.of("1", "4"), ids(index.complete("acme", 10)));
+        assertEquals(List.of("2"), ids(index.complete("accounts@glob", 10)));
+        assertEquals(List.of("3"), ids(index.complete("CREME", 10)));
+        assertEquals(List.of("2"), ids(index.complete("inc glo", 10)));
+        assertTrue(index.complete("  ", 10).isEmpty());
+        // "accounts@globex.com" sorts before "acme" in the key set; ranking still puts Acme first
+        assertEquals(List.of("1"), ids(index.complete("a", 1)));
+        assertEquals(List.of("1", "2", "4"), ids(index.complete("a", 10)));
+    }
+
+    @Test
+    void onClientChanged_ShouldKeepIndexCurrent() {
+        index.onClientChanged(new ClientChangedEvent("5", ClientChangedEvent.ChangeType.CREATED,
+                "Umbrella Corp", "info@umbrella.com", null));
+        assertEquals(List.of("5"), ids(index.complete("umb", 10)));
+
+        index.onClientChanged(new ClientChangedEvent("1", ClientChangedEvent.ChangeType.UPDATED,
+                "Wayne Enterprises", "billing@wayne.com", null));
+        assertEquals(List.of("4"), ids(index.complete("acme", 10)));
+        assertEquals(List.of("1"), ids(index.complete("wayne", 10)));
+
+        index.onClientChanged(new ClientChangedEvent("5", ClientChangedEvent.ChangeType.DELETED, null, null, null));
+        assertTrue(index.complete("umb", 10).isEmpty());
+        assertEquals(4, index.size());
+    }
+
+    private static List<String> ids(List<ClientSuggestionDto> suggestions) {
+        return suggestions.stream().map(ClientSuggestionDto::getId).collect(Collectors.toList());
+    }
+
+    private static Client client(String id, String name, String email) {
+        Client client = new Client();
+        client.setId(id);
+        client.setName(name);
+        client.setEmail(email);
+        return client;
+    }
+}
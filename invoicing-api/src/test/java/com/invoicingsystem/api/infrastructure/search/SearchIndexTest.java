@@ -0,0 +1,108 @@
+package com.invoicingsystem.api.infrastructure.search;
+
+import com.invoicingsystem.api.application.query.SearchHitDto;
+import com.invoicingsystem.api.application.query.SearchResultDto;
+import com.invoicingsystem.api.domain.model.Client;
+import com.invoicingsystem.api.domain.model.Invoice;
+import com.invoicingsystem.api.domain.model.InvoiceItem;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchIndexTest {
+
+    private SearchIndex index;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        SearchProperties properties = new SearchProperties();
+        properties.setInMemory(true);
+        index = new SearchIndex(properties, new SimpleMeterRegistry());
+
+        Client acme = client("c1", "Acme Corporation", "billing@acme.com");
+        Client globex = client("c2", "Globex Inc", "accounts@globex.com");
+        index.upsert(SearchIndex.TYPE_CLIENT, "c1", SearchIndexer.clientDocument(acme));
+        index.upsert(SearchIndex.TYPE_CLIENT, "c2", SearchIndexer.clientDocument(globex));
+        index.upsert(SearchIndex.TYPE_INVOICE, "i1", SearchIndexer.invoiceDocument(
+                invoice("i1", "INV-2024-0042", acme, "Rush delivery requested", "Website redesign", "Hosting")));
+        index.upsert(SearchIndex.TYPE_INVOICE, "i2", SearchIndexer.invoiceDocument(
+                invoice("i2", "INV-2024-0043", globex, null, "Consulting hours")));
+        index.refresh();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        index.destroy();
+    }
+
+    @Test
+    void search_ShouldFindInvoicesByNotesItemsClientAndPartialNumber() {
+        assertEquals(List.of("i1"), ids(index.search("rush", SearchIndex.TYPE_INVOICE, 0, 10)));
+        assertEquals(List.of("i1"), ids(index.search("redesi", SearchIndex.TYPE_INVOICE, 0, 10)));
+        assertEquals(List.of("i2"), ids(index.search("globex consult", SearchIndex.TYPE_INVOICE, 0, 10)));
+        assertEquals(List.of("i2"), ids(index.search("0043", null, 0, 10)));
+        assertEquals(List.of("i2"), ids(index.search("2024-0043", null, 0, 10)));
+    }
+
+    @Test
+    void search_ShouldRankAndPaginate() {
+        SearchResultDto first = index.search("acme", null, 0, 1);
+        SearchResultDto second = index.search("acme", null, 1, 1);
+
+        assertEquals(2, first.getTotalHits());
+        assertEquals(1, first.getHits().size());
+        // The client document matches on name and email and outranks the invoice
+        assertEquals(SearchIndex.TYPE_CLIENT, first.getHits().get(0).getType());
+        assertEquals(SearchIndex.TYPE_INVOICE, second.getHits().get(0).getType());
+    }
+
+    @Test
+    void deleteInvoicesOfClient_ShouldRemoveOnlyThatClientsInvoices() throws Exception {
+        index.delete(SearchIndex.TYPE_CLIENT, "c1");
+        index.deleteInvoicesOfClient("c1");
+        index.refresh();
+
+        assertTrue(index.search("acme", null, 0, 10).getHits().isEmpty());
+        assertEquals(List.of("i2"), ids(index.search("inv", SearchIndex.TYPE_INVOICE, 0, 10)));
+        assertEquals(2, index.documentCount());
+    }
+
+    private static List<String> ids(SearchResultDto result) {
+        return result.getHits().stream().map(SearchHitDto::getId).collect(Collectors.toList());
+    }
+
+    private static Client client(String id, String name, String email) {
+        Client client = new Client();
+        client.setId(id);
+        client.setName(name);
+        client.setEmail(email);
+        client.setAddress("1 Main Street");
+        return client;
+    }
+
+    private static Invoice invoice(String id, String number, Client client, String notes, String... descriptions) {
+        Invoice invoice = new Invoice();
+        invoice.setId(id);
+        invoice.setNumber(number);
+        invoice.setClient(client);
+        invoice.setNotes(notes);
+        invoice.setStatus(Invoice.InvoiceStatus.SENT);
+        invoice.setTotal(new BigDecimal("100.00"));
+        List<InvoiceItem> items = new ArrayList<>();
+        for (String description : descriptions) {
+            InvoiceItem item = new InvoiceItem();
+            item.setDescription(description);
+            items.add(item);
+        }
+        invoice.setItems(items);
+        return invoice;
+    }
+}
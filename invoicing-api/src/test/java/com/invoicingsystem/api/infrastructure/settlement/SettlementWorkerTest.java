@@ -0,0 +1,355 @@
+package com.invoicingsystem.api.infrastructure.settlement;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.invoicingsystem.api.application.command.SettlePaymentCommand;
+import com.invoicingsystem.api.application.service.LedgerService;
+import com.invoicingsystem.api.application.service.SettlementService;
+import com.invoicingsystem.api.application.service.impl.LedgerServiceImpl;
+import com.invoicingsystem.api.application.service.impl.SettlementServiceImpl;
+import com.invoicingsystem.api.domain.event.PaymentRecordedEvent;
+import com.invoicingsystem.api.domain.exception.ServiceUnavailableException;
+import com.invoicingsystem.api.domain.model.Client;
+import com.invoicingsystem.api.domain.model.Invoice;
+import com.invoicingsystem.api.domain.model.Payment;
+import com.invoicingsystem.api.domain.model.User;
+import com.invoicingsystem.api.domain.repository.ClientRepository;
+import com.invoicingsystem.api.domain.repository.InvoiceRepository;
+import com.invoicingsystem.api.domain.repository.LedgerEntryRepository;
+import com.invoicingsystem.api.domain.repository.PaymentRepository;
+import com.invoicingsystem.api.domain.repository.UserRepository;
+import com.invoicingsystem.api.infrastructure.lanes.InvoiceLaneProperties;
+import com.invoicingsystem.api.infrastructure.lanes.Lane;
+import com.invoicingsystem.api.infrastructure.lanes.StripedLanes;
+import com.invoicingsystem.api.infrastructure.ledger.LedgerProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs without a test transaction so each lane's share commits as it does in the worker.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({SettlementServiceImpl.class, LedgerServiceImpl.class, LedgerProperties.class, InvoiceLaneProperties.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@RecordApplicationEvents
+class SettlementWorkerTest {
+
+    @Autowired
+    private SettlementService settlementService;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private InvoiceLaneProperties laneProperties;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @TempDir
+    Path directory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private SettlementProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private StripedLanes stripedLanes;
+    private FileSettlementSource fileSource;
+    private SettlementInbox inbox;
+    private SettlementWorker worker;
+    private User user;
+    private Client client;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setId(UUID.randomUUID().toString());
+        user.setName("Settlement User");
+        user.setEmail(UUID.randomUUID() + "@example.com");
+        user.setPassword("secret");
+        user.setRole(User.Role.USER);
+        user.setCreatedAt(LocalDateTime.now());
+        user.setUpdatedAt(LocalDateTime.now());
+        user = userRepository.save(user);
+        client = clientRepository.save(Client.builder()
+                .id(UUID.randomUUID().toString())
+                .name("Acme")
+                .email(UUID.randomUUID() + "@example.com")
+                .phone("+1-555-000-0000")
+                .address("1 Settlement Street")
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build());
+
+        properties = new SettlementProperties();
+        properties.setBatchSize(3);
+        laneProperties.setMaxWait(Duration.ofMillis(50));
+        meterRegistry = new SimpleMeterRegistry();
+        stripedLanes = new StripedLanes(laneProperties, meterRegistry);
+        fileSource = new FileSettlementSource(directory.toString(), objectMapper, meterRegistry);
+        inbox = new SettlementInbox(5, 3);
+        worker = new SettlementWorker(Arrays.asList(fileSource, inbox), settlementService, stripedLanes,
+                laneProperties, properties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ledgerEntryRepository.deleteAll();
+        paymentRepository.deleteAll();
+        invoiceRepository.deleteAll();
+        clientRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void drain_ShouldSettlePendingPaymentsFromDroppedFiles() throws Exception {
+        // Given
+        Invoice first = invoice("INV-2024-1", "100.00");
+        Invoice second = invoice("INV-2024-2", "50.00");
+        Payment byId = payment(first, "40.00", Payment.PaymentStatus.PENDING, "PSP-1");
+        Payment byReference = payment(first, "60.00", Payment.PaymentStatus.PENDING, "PSP-2");
+        Payment mismatched = payment(second, "30.00", Payment.PaymentStatus.PENDING, "PSP-3");
+        Payment completed = payment(second, "10.00", Payment.PaymentStatus.COMPLETED, "PSP-4");
+        LocalDateTime settledAt = LocalDateTime.now().minusMinutes(5);
+        // Spans three batches; the repeated confirmation of the first payment lands in a later one
+        drop("2024-06-03-a.jsonl",
+                json(SettlePaymentCommand.builder().paymentId(byId.getId()).amount(new BigDecimal("40.00"))
+                        .settledAt(settledAt).build()),
+                json(SettlePaymentCommand.builder().reference("PSP-2").settledAt(settledAt).build()),
+                "{not json",
+                json(SettlePaymentCommand.builder().reference("PSP-3").amount(new BigDecimal("31.00")).build()),
+                "",
+                json(SettlePaymentCommand.builder().paymentId(completed.getId()).build()),
+                json(SettlePaymentCommand.builder().paymentId("missing").build()),
+                json(SettlePaymentCommand.builder().paymentId(byId.getId()).build()));
+
+        // When
+        worker.drain();
+
+        // Then
+        assertEquals(Payment.PaymentStatus.COMPLETED, status(byId));
+        assertEquals(Payment.PaymentStatus.COMPLETED, status(byReference));
+        assertEquals(Payment.PaymentStatus.PENDING, status(mismatched));
+        assertEquals(0, new BigDecimal("100.00").compareTo(ledgerService.getAmountPaid(first.getId())));
+        assertEquals(0, ledgerService.getAmountPaid(second.getId()).signum());
+        assertEquals(2, events.stream(PaymentRecordedEvent.class)
+                .filter(event -> event.getStatus().equals("COMPLETED"))
+                .count());
+
+        assertEquals(2.0, confirmations("file", "settled"));
+        assertEquals(2.0, confirmations("file", "duplicate"));
+        assertEquals(1.0, confirmations("file", "amount_mismatch"));
+        assertEquals(1.0, confirmations("file", "unknown_payment"));
+        assertEquals(1.0, meterRegistry.get("settlement.malformed").counter().count());
+        assertEquals(2, meterRegistry.get("settlement.lag").tag("stage", "pending").timer().count());
+        assertTrue(meterRegistry.get("settlement.lag").tag("stage", "delivery").timer()
+                .totalTime(TimeUnit.MINUTES) >= 10);
+
+        assertTrue(Files.exists(directory.resolve("processed").resolve("2024-06-03-a.jsonl")));
+        assertEquals(0, fileSource.backlog());
+        assertEquals(0.0, meterRegistry.get("settlement.backlog").tag("source", "file").gauge().value());
+    }
+
+    @Test
+    void drain_ShouldLeaveBatchesBeyondThePerPollLimitForTheNextPoll() throws Exception {
+        // Given
+        properties.setMaxBatchesPerPoll(1);
+        Invoice invoice = invoice("INV-2024-5", "100.00");
+        List<Payment> payments = new ArrayList<>();
+        String[] lines = new String[4];
+        for (int i = 0; i < lines.length; i++) {
+            payments.add(payment(invoice, "10.00", Payment.PaymentStatus.PENDING, "PSP-B" + i));
+            lines[i] = json(SettlePaymentCommand.builder().paymentId(payments.get(i).getId()).build());
+        }
+        drop("2024-06-03-b.jsonl", lines);
+
+        // When
+        worker.drain();
+
+        // Then
+        assertEquals(3, payments.stream().filter(payment -> status(payment) == Payment.PaymentStatus.COMPLETED).count());
+        worker.drain();
+        assertEquals(4, payments.stream().filter(payment -> status(payment) == Payment.PaymentStatus.COMPLETED).count());
+        assertEquals(0, fileSource.backlog());
+    }
+
+    @Test
+    void drain_ShouldRejectSettlementsBeyondTheBalanceOrOfPaymentsNoLongerPending() {
+        // Given
+        Invoice invoice = invoice("INV-2024-3", "50.00");
+        Payment fits = payment(invoice, "40.00", Payment.PaymentStatus.PENDING, "PSP-5");
+        Payment overpays = payment(invoice, "20.00", Payment.PaymentStatus.PENDING, "PSP-6");
+        Payment reversed = payment(invoice, "5.00", Payment.PaymentStatus.REVERSED, "PSP-7");
+        List<SettlePaymentCommand> confirmations = Arrays.asList(
+                SettlePaymentCommand.builder().paymentId(fits.getId()).build(),
+                SettlePaymentCommand.builder().paymentId(overpays.getId()).build(),
+                SettlePaymentCommand.builder().reference("PSP-7").build());
+
+        // When
+        assertEquals(3, inbox.offer(confirmations));
+        ServiceUnavailableException full = assertThrows(ServiceUnavailableException.class,
+                () -> inbox.offer(Collections.nCopies(3, SettlePaymentCommand.builder().reference("X").build())));
+        worker.drain();
+
+        // Then
+        assertEquals(3, full.getRetryAfterSeconds());
+        assertEquals(Payment.PaymentStatus.COMPLETED, status(fits));
+        assertEquals(Payment.PaymentStatus.PENDING, status(overpays));
+        assertEquals(Payment.PaymentStatus.REVERSED, status(reversed));
+        assertEquals(0, new BigDecimal("40.00").compareTo(ledgerService.getAmountPaid(invoice.getId())));
+        assertEquals(1.0, confirmations("http", "settled"));
+        assertEquals(1.0, confirmations("http", "exceeds_balance"));
+        assertEquals(1.0, confirmations("http", "not_pending"));
+        assertEquals(0, inbox.backlog());
+    }
+
+    @Test
+    void drain_ShouldPutBackBatchesWhoseLaneIsBusyAndApplyThemLater() throws Exception {
+        // Given
+        Invoice invoice = invoice("INV-2024-4", "100.00");
+        Payment fromFile = payment(invoice, "25.00", Payment.PaymentStatus.PENDING, "PSP-8");
+        Payment posted = payment(invoice, "35.00", Payment.PaymentStatus.PENDING, "PSP-9");
+        drop("2024-06-03-b.jsonl", json(SettlePaymentCommand.builder().reference("PSP-8").build()));
+        inbox.offer(Collections.singletonList(SettlePaymentCommand.builder().reference("PSP-9").build()));
+        Lane lane = stripedLanes.laneFor(invoice.getId());
+        CountDownLatch held = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService holder = Executors.newSingleThreadExecutor();
+
+        try {
+            holder.submit(() -> {
+                long start = lane.acquire();
+                held.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } finally {
+                    lane.release(start);
+                }
+                return null;
+            });
+            assertTrue(held.await(5, TimeUnit.SECONDS));
+
+            // When: the lane stays busy past its wait
+            worker.drain();
+
+            // Then
+            assertEquals(Payment.PaymentStatus.PENDING, status(fromFile));
+            assertEquals(Payment.PaymentStatus.PENDING, status(posted));
+            assertTrue(Files.exists(directory.resolve("2024-06-03-b.jsonl")));
+            assertEquals(1, fileSource.backlog());
+            assertEquals(1, inbox.backlog());
+        } finally {
+            release.countDown();
+            holder.shutdown();
+            assertTrue(holder.awaitTermination(5, TimeUnit.SECONDS));
+        }
+
+        // When: the next poll finds the lane free
+        worker.drain();
+
+        // Then
+        assertEquals(Payment.PaymentStatus.COMPLETED, status(fromFile));
+        assertEquals(Payment.PaymentStatus.COMPLETED, status(posted));
+        assertEquals(0, new BigDecimal("60.00").compareTo(ledgerService.getAmountPaid(invoice.getId())));
+        assertEquals(0, fileSource.backlog());
+        assertEquals(0, inbox.backlog());
+    }
+
+    private double confirmations(String source, String outcome) {
+        return meterRegistry.get("settlement.confirmations").tags("source", source, "outcome", outcome)
+                .counter().count();
+    }
+
+    private Payment.PaymentStatus status(Payment payment) {
+        return paymentRepository.findById(payment.getId()).orElseThrow().getStatus();
+    }
+
+    private String json(SettlePaymentCommand confirmation) throws IOException {
+        return objectMapper.writeValueAsString(confirmation);
+    }
+
+    private void drop(String name, String... lines) throws IOException {
+        Path temp = Files.write(directory.resolve(name + ".tmp"),
+                String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+        Files.move(temp, directory.resolve(name));
+    }
+
+    private Payment payment(Invoice invoice, String amount, Payment.PaymentStatus status, String reference) {
+        return paymentRepository.save(Payment.builder()
+                .invoice(invoice)
+                .amount(new BigDecimal(amount))
+                .method(Payment.PaymentMethod.CREDIT_CARD)
+                .status(status)
+                .reference(reference)
+                .receivedAt(LocalDateTime.now().minusHours(1))
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build());
+    }
+
+    private Invoice invoice(String number, String total) {
+        BigDecimal amount = new BigDecimal(total);
+        return invoiceRepository.save(Invoice.builder()
+                .id(UUID.randomUUID().toString())
+                .number(number)
+                .client(client)
+                .createdBy(user)
+                .issueDate(LocalDate.of(2024, 5, 1))
+                .dueDate(LocalDate.of(2024, 5, 31))
+                .status(Invoice.InvoiceStatus.SENT)
+                .subtotal(amount)
+                .taxAmount(BigDecimal.ZERO)
+                .total(amount)
+                .amountPaid(BigDecimal.ZERO)
+                .balance(amount)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build());
+    }
+}
@@ -0,0 +1,499 @@
+package com.invoicingsystem.api.infrastructure.statements;
+
+import com.invoicingsystem.api.application.command.RecordPaymentCommand;
+import com.invoicingsystem.api.application.command.StatementEntry;
+import com.invoicingsystem.api.application.mapper.StatementImportMapperImpl;
+import com.invoicingsystem.api.application.query.PaymentDto;
+import com.invoicingsystem.api.application.query.StatementExceptionDto;
+import com.invoicingsystem.api.application.query.StatementImportDto;
+import com.invoicingsystem.api.application.service.LedgerService;
+import com.invoicingsystem.api.application.service.PaymentService;
+import com.invoicingsystem.api.application.service.StatementImportService;
+import com.invoicingsystem.api.application.service.impl.LedgerServiceImpl;
+import com.invoicingsystem.api.application.service.impl.StatementImportServiceImpl;
+import com.invoicingsystem.api.domain.exception.BadRequestException;
+import com.invoicingsystem.api.domain.exception.ServiceUnavailableException;
+import com.invoicingsystem.api.domain.model.Client;
+import com.invoicingsystem.api.domain.model.Invoice;
+import com.invoicingsystem.api.domain.model.Payment;
+import com.invoicingsystem.api.domain.model.StatementException;
+import com.invoicingsystem.api.domain.model.StatementImport;
+import com.invoicingsystem.api.domain.model.User;
+import com.invoicingsystem.api.domain.repository.ClientRepository;
+import com.invoicingsystem.api.domain.repository.InvoiceRepository;
+import com.invoicingsystem.api.domain.repository.LedgerEntryRepository;
+import com.invoicingsystem.api.domain.repository.OpenInvoiceBalance;
+import com.invoicingsystem.api.domain.repository.PaymentRepository;
+import com.invoicingsystem.api.domain.repository.PendingPaymentReference;
+import com.invoicingsystem.api.domain.repository.StatementExceptionRepository;
+import com.invoicingsystem.api.domain.repository.StatementImportRepository;
+import com.invoicingsystem.api.domain.repository.UserRepository;
+import com.invoicingsystem.api.infrastructure.bulkhead.BulkheadProperties;
+import com.invoicingsystem.api.infrastructure.bulkhead.BulkheadRegistry;
+import com.invoicingsystem.api.infrastructure.lanes.InvoiceLaneProperties;
+import com.invoicingsystem.api.infrastructure.lanes.Lane;
+import com.invoicingsystem.api.infrastructure.lanes.StripedLanes;
+import com.invoicingsystem.api.infrastructure.ledger.LedgerProjector;
+import com.invoicingsystem.api.infrastructure.ledger.LedgerProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs without a test transaction so each batch commits as it does in a real import.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({StatementImportServiceImpl.class, LedgerServiceImpl.class, LedgerProperties.class,
+        StatementImportMapperImpl.class, InvoiceLaneProperties.class, LedgerProjector.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StatementImporterTest {
+
+    private static final String HEADER = "Booking Date,Amount,Reference,Description,Counterparty\n";
+
+    @Autowired
+    private StatementImportService statementImportService;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private InvoiceLaneProperties laneProperties;
+
+    @Autowired
+    private StatementImportRepository importRepository;
+
+    @Autowired
+    private StatementExceptionRepository exceptionRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @MockBean
+    private PaymentService paymentService;
+
+    @TempDir
+    Path directory;
+
+    private StatementImportProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private BulkheadRegistry bulkheadRegistry;
+    private StripedLanes stripedLanes;
+    private StatementImporter importer;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setId(UUID.randomUUID().toString());
+        user.setName("Statement User");
+        user.setEmail(UUID.randomUUID() + "@example.com");
+        user.setPassword("secret");
+        user.setRole(User.Role.USER);
+        user.setCreatedAt(LocalDateTime.now());
+        user.setUpdatedAt(LocalDateTime.now());
+        user = userRepository.save(user);
+
+        properties = new StatementImportProperties();
+        properties.setBatchSize(3);
+        properties.setUploadDirectory(directory.toString());
+        meterRegistry = new SimpleMeterRegistry();
+        bulkheadRegistry = new BulkheadRegistry(new BulkheadProperties(), meterRegistry);
+        laneProperties.setMaxWait(Duration.ofMillis(50));
+        stripedLanes = new StripedLanes(laneProperties, meterRegistry);
+        importer = new StatementImporter(statementImportService, properties, bulkheadRegistry, stripedLanes, laneProperties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        laneProperties.setDbGuard(false);
+        bulkheadRegistry.destroy();
+        exceptionRepository.deleteAll();
+        importRepository.deleteAll();
+        ledgerEntryRepository.deleteAll();
+        paymentRepository.deleteAll();
+        invoiceRepository.deleteAll();
+        clientRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void parser_ShouldReadQuotedFieldsLineEndsAndAmountFormatsAcrossWindows() throws Exception {
+        // Given: a BOM, CRLF line ends, quoted delimiters, escaped quotes and a quoted line break
+        String csv = "\uFEFFValue Date;Amount (EUR);End To End Id;Remittance Information\r\n"
+                + "2024-06-03;\"1,234.50\";A1;plain\r\n"
+                + "03.06.2024;1.234,50;A2;\"says \"\"hi\"\"; twice\"\r\n"
+                + "\r\n"
+                + "03/06/24;(12.00);A3;\"two\nlines\"\r\n"
+                + "20240603;EUR 7,5;A4;x\r\n"
+                + "junk;n/a;A5;\n"
+                + "2024-06-31;-5;A6;last";
+        Path file = write("parse.csv", csv);
+        Map<StatementField, List<String>> headers = new EnumMap<>(StatementField.class);
+        StatementParser parser = new StatementParser(headers, ';', 80);
+        List<String> seen = new ArrayList<>();
+
+        // When
+        long records = parser.parse(file, line -> seen.add(line.number() + "|" + line.bookingDate() + "|"
+                + line.amountCents() + "|" + line.text(StatementField.REFERENCE) + "|" + line.text(StatementField.MEMO)));
+
+        // Then
+        assertEquals(6, records);
+        assertEquals("2|2024-06-03|123450|A1|plain", seen.get(0));
+        assertEquals("3|2024-06-03|123450|A2|says \"hi\"; twice", seen.get(1));
+        assertEquals("5|2024-06-03|-1200|A3|two\nlines", seen.get(2));
+        assertEquals("6|2024-06-03|750|A4|x", seen.get(3));
+        assertEquals("7|null|" + StatementLine.NO_AMOUNT + "|A5|null", seen.get(4));
+        assertEquals("8|null|-500|A6|last", seen.get(5));
+
+        // A record longer than the window cannot be read
+        Path wide = write("wide.csv", HEADER + "2024-06-03,10.00,R1," + String.join("", Collections.nCopies(80, "x")) + ",Acme\n");
+        StatementFormatException tooLong = assertThrows(StatementFormatException.class,
+                () -> new StatementParser(headers, ',', 64).parse(wide, line -> { }));
+        assertTrue(tooLong.getMessage().contains("longer than 64 bytes"));
+
+        Path noAmount = write("no-amount.csv", "Date,Reference\n2024-06-03,R1\n");
+        assertThrows(StatementFormatException.class, () -> parser.parse(noAmount, line -> { }));
+    }
+
+    @Test
+    void run_ShouldMatchOnPendingReferenceInvoiceNumberAndClientAmount() throws Exception {
+        // Given
+        Client acme = client("Acme Corp.");
+        Client globex = client("Globex");
+        Invoice first = invoice("INV-2024-1", acme, Invoice.InvoiceStatus.SENT, "150.00");
+        Invoice second = invoice("INV-2024-2", globex, Invoice.InvoiceStatus.OVERDUE, "80.00");
+        Invoice third = invoice("INV-2024-3", acme, Invoice.InvoiceStatus.PARTIALLY_PAID, "100.00");
+        // Drafts are left out of the matching indexes
+        invoice("INV-2024-4", acme, Invoice.InvoiceStatus.DRAFT, "100.00");
+        Payment pending = paymentRepository.save(Payment.builder()
+                .invoice(third)
+                .amount(new BigDecimal("40.00"))
+                .method(Payment.PaymentMethod.BANK_TRANSFER)
+                .status(Payment.PaymentStatus.PENDING)
+                .reference("TRX-9")
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build());
+        Path file = write("statement.csv", HEADER
+                + "2024-06-03,40.00,TRX-9,Transfer,Acme\n"
+                + "2024-06-03,50.00,,\"Payment for inv-2024-1, thanks\",Someone Else\n"
+                + "2024-06-04,80.00,,Invoice payment,GLOBEX\n"
+                + "2024-06-04,79.99,,Invoice payment,Globex\n"
+                + "2024-06-05,500.00,,INV-2024-1,Acme Corp\n"
+                + "2024-06-05,20.00,,INV-2024-1 and INV-2024-2,Acme Corp\n"
+                + "2024-06-05,25.00,,INV-2024-4,Acme Corp\n"
+                + "2024-06-05,-20.00,,Card fee,Bank\n"
+                + "2024-06-06,n/a,,INV-2024-1,Acme Corp\n");
+
+        // When
+        StatementImportDto result = run(file);
+
+        // Then
+        assertEquals(StatementImport.Status.COMPLETED, result.getStatus());
+        assertEquals(9, result.getLineCount());
+        assertEquals(3, result.getMatchedCount());
+        assertEquals(5, result.getExceptionCount());
+        assertEquals(1, result.getIgnoredCount());
+        assertEquals(0, result.getDuplicateCount());
+
+        assertEquals(Payment.PaymentStatus.COMPLETED, paymentRepository.findById(pending.getId()).orElseThrow().getStatus());
+        assertEquals(0, new BigDecimal("50.00").compareTo(ledgerService.getAmountPaid(first.getId())));
+        assertEquals(0, new BigDecimal("80.00").compareTo(ledgerService.getAmountPaid(second.getId())));
+        assertEquals(0, new BigDecimal("40.00").compareTo(ledgerService.getAmountPaid(third.getId())));
+        Payment byNumber = paymentRepository.findByInvoiceId(first.getId()).get(0);
+        assertEquals(Payment.PaymentMethod.BANK_TRANSFER, byNumber.getMethod());
+        assertEquals(LocalDate.of(2024, 6, 3).atStartOfDay(), byNumber.getReceivedAt());
+        assertTrue(byNumber.getReference().startsWith("STMT-"));
+
+        List<StatementExceptionDto> exceptions = statementImportService.getExceptions(result.getId(), 0, 50);
+        assertEquals(List.of("NO_MATCH", "EXCEEDS_BALANCE", "AMBIGUOUS_MATCH", "NO_MATCH", "INVALID_AMOUNT"),
+                exceptions.stream().map(StatementExceptionDto::getReason).collect(Collectors.toList()));
+        assertEquals(5, exceptions.get(0).getLineNumber());
+        assertEquals("Globex", exceptions.get(0).getCounterparty());
+        assertEquals(first.getId(), exceptions.get(1).getSuggestedInvoiceId());
+        assertNull(exceptions.get(4).getAmount());
+        assertEquals(3.0, meterRegistry.get("statements.lines").tag("result", "matched").counter().count());
+
+        // Importing the same file again applies nothing twice
+        StatementImportDto again = run(file);
+        assertEquals(0, again.getMatchedCount());
+        assertEquals(0, again.getExceptionCount());
+        assertEquals(8, again.getDuplicateCount());
+        assertEquals(1, again.getIgnoredCount());
+        assertEquals(5, exceptionRepository.count());
+        assertEquals(0, new BigDecimal("50.00").compareTo(ledgerService.getAmountPaid(first.getId())));
+    }
+
+    @Test
+    void run_ShouldApplyMatchesUnderTheInvoiceLaneAndRowLock() throws Exception {
+        // Given
+        laneProperties.setDbGuard(true);
+        Client client = client("Umbrella");
+        Invoice invoice = invoice("INV-2024-8", client, Invoice.InvoiceStatus.SENT, "100.00");
+        Path file = write("laned.csv", HEADER
+                + "2024-06-03,30.00,L-1,INV-2024-8,Umbrella\n"
+                + "2024-06-03,20.00,L-2,Transfer,Nobody\n");
+        Lane lane = stripedLanes.laneFor(invoice.getId());
+        CountDownLatch held = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService writer = Executors.newSingleThreadExecutor();
+
+        // When: another write holds the invoice's lane past the lane's max wait
+        StatementImportDto blocked;
+        try {
+            writer.submit(() -> {
+                long start = lane.acquire();
+                held.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } finally {
+                    lane.release(start);
+                }
+                return null;
+            });
+            assertTrue(held.await(5, TimeUnit.SECONDS));
+            blocked = run(file);
+        } finally {
+            release.countDown();
+            writer.shutdown();
+            writer.awaitTermination(5, TimeUnit.SECONDS);
+        }
+
+        // Then: the unmatched line is queued, the payment waits for the lane
+        assertEquals(StatementImport.Status.FAILED, blocked.getStatus());
+        assertTrue(blocked.getError().contains("ServiceUnavailableException"));
+        assertEquals(1, blocked.getExceptionCount());
+        assertEquals(0, blocked.getMatchedCount());
+        assertEquals(0, ledgerService.getAmountPaid(invoice.getId()).signum());
+
+        // Once the lane is free the same file applies the payment and skips the queued line
+        StatementImportDto again = run(file);
+        assertEquals(StatementImport.Status.COMPLETED, again.getStatus());
+        assertEquals(1, again.getMatchedCount());
+        assertEquals(1, again.getDuplicateCount());
+        assertEquals(0, new BigDecimal("30.00").compareTo(ledgerService.getAmountPaid(invoice.getId())));
+        assertEquals(0, new BigDecimal("30.00").compareTo(invoiceRepository.findById(invoice.getId()).orElseThrow().getAmountPaid()));
+    }
+
+    @Test
+    void run_WithUnreadableStatement_ShouldFailTheImport() throws Exception {
+        // Given
+        Path file = write("bad.csv", "Date,Note\n2024-06-03,hello\n");
+
+        // When
+        StatementImportDto result = run(file);
+
+        // Then
+        assertEquals(StatementImport.Status.FAILED, result.getStatus());
+        assertTrue(result.getError().contains("no amount column"));
+        assertNotNull(result.getFinishedAt());
+        assertEquals(1, meterRegistry.get("statements.import").tag("outcome", "failed").timer().count());
+    }
+
+    @Test
+    void exceptions_ShouldBeMatchedOrDismissedByHand() throws Exception {
+        // Given
+        Client client = client("Initech");
+        Invoice invoice = invoice("INV-2024-7", client, Invoice.InvoiceStatus.SENT, "300.00");
+        StatementImportDto result = run(write("manual.csv", HEADER
+                + "2024-06-07,120.00,BANK-1,Monthly,Someone\n"
+                + "2024-06-07,5.00,BANK-2,Monthly,Someone\n"));
+        List<StatementExceptionDto> open = statementImportService.getExceptions(result.getId(), 0, 50);
+        assertEquals(2, open.size());
+        when(paymentService.recordPayment(any())).thenReturn(PaymentDto.builder().id("payment-1").build());
+
+        // When
+        StatementExceptionDto matched = statementImportService.matchException(open.get(0).getId(), invoice.getId());
+        StatementExceptionDto dismissed = statementImportService.dismissException(open.get(1).getId());
+
+        // Then
+        ArgumentCaptor<RecordPaymentCommand> command = ArgumentCaptor.forClass(RecordPaymentCommand.class);
+        verify(paymentService).recordPayment(command.capture());
+        assertEquals(invoice.getId(), command.getValue().getInvoiceId());
+        assertEquals(0, new BigDecimal("120.00").compareTo(command.getValue().getAmount()));
+        assertEquals("BANK-1", command.getValue().getReference());
+        assertEquals(Payment.PaymentStatus.COMPLETED, command.getValue().getStatus());
+
+        assertEquals(StatementException.Status.MATCHED, matched.getStatus());
+        assertEquals("payment-1", matched.getPaymentId());
+        assertEquals(StatementException.Status.DISMISSED, dismissed.getStatus());
+        assertTrue(statementImportService.getExceptions(null, 0, 50).isEmpty());
+        assertThrows(BadRequestException.class, () -> statementImportService.dismissException(matched.getId()));
+    }
+
+    @Test
+    void parseAndMatch_ShouldKeepUpWithAMillionLines() throws Exception {
+        // Given: 10,000 open invoices and a statement paying each a hundred times over
+        List<OpenInvoiceBalance> invoices = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            invoices.add(openInvoice("id-" + i, "INV-2024-" + i, "Client " + i, new BigDecimal("100.00")));
+        }
+        StatementMatcher matcher = new StatementMatcher(invoices, Collections.<PendingPaymentReference>emptyList());
+        Path file = directory.resolve("large.csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write(HEADER);
+            for (int i = 0; i < 1_000_000; i++) {
+                int invoice = i % 10_000;
+                if (i % 3 == 0) {
+                    writer.write("2024-06-03,\"1,000.00\",R" + i + ",\"Payment INV-2024-" + invoice + " thanks\",Payer\n");
+                } else if (i % 3 == 1) {
+                    writer.write("03.06.2024,100.00,R" + i + ",Transfer,Client " + invoice + "\n");
+                } else {
+                    writer.write("2024-06-03,12.34,R" + i + ",Unknown transfer,Nobody\n");
+                }
+            }
+        }
+        long[] results = new long[3];
+
+        // When
+        long start = System.nanoTime();
+        long records = importer.parser().parse(file, line -> {
+            long cents = line.amountCents();
+            line.bookingDate();
+            if (matcher.match(line, cents)) {
+                results[matcher.matchType() == StatementEntry.MatchType.INVOICE_NUMBER ? 0 : 1]++;
+            } else {
+                results[2]++;
+            }
+        });
+        long seconds = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start);
+
+        // Then
+        assertEquals(1_000_000, records);
+        assertEquals(333_334, results[0]);
+        assertEquals(333_333, results[1]);
+        assertEquals(333_333, results[2]);
+        assertTrue(seconds < 20, "Parsing and matching took " + seconds + "s");
+    }
+
+    @Test
+    void submit_ShouldTurnAwayUploadsBeyondTheConcurrentImportLimit() {
+        // Given
+        properties.setMaxConcurrentImports(0);
+        StatementImporter full = new StatementImporter(statementImportService, properties, bulkheadRegistry, stripedLanes, laneProperties, meterRegistry);
+        MockMultipartFile upload = new MockMultipartFile("file", "statement.csv", "text/csv",
+                (HEADER + "2024-06-03,10.00,R1,Memo,Acme\n").getBytes(StandardCharsets.UTF_8));
+
+        // When / Then
+        ServiceUnavailableException e = assertThrows(ServiceUnavailableException.class,
+                () -> full.submit(upload, "someone"));
+        assertEquals(30, e.getRetryAfterSeconds());
+        assertThrows(BadRequestException.class,
+                () -> importer.submit(new MockMultipartFile("file", new byte[0]), "someone"));
+        assertEquals(0, importRepository.count());
+    }
+
+    private StatementImportDto run(Path file) {
+        StatementImportDto started = statementImportService.startImport(file.getFileName().toString(), "tester");
+        return importer.run(started.getId(), file);
+    }
+
+    private Path write(String name, String content) throws IOException {
+        return Files.write(directory.resolve(name), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Client client(String name) {
+        return clientRepository.save(Client.builder()
+                .id(UUID.randomUUID().toString())
+                .name(name)
+                .email(UUID.randomUUID() + "@example.com")
+                .phone("+1-555-000-0000")
+                .address("1 Statement Street")
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build());
+    }
+
+    private Invoice invoice(String number, Client client, Invoice.InvoiceStatus status, String total) {
+        BigDecimal amount = new BigDecimal(total);
+        return invoiceRepository.save(Invoice.builder()
+                .id(UUID.randomUUID().toString())
+                .number(number)
+                .client(client)
+                .createdBy(user)
+                .issueDate(LocalDate.of(2024, 5, 1))
+                .dueDate(LocalDate.of(2024, 5, 31))
+                .status(status)
+                .subtotal(amount)
+                .taxAmount(BigDecimal.ZERO)
+                .total(amount)
+                .amountPaid(BigDecimal.ZERO)
+                .balance(amount)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build());
+    }
+
+    private static OpenInvoiceBalance openInvoice(String id, String number, String clientName, BigDecimal balance) {
+        return new OpenInvoiceBalance() {
+            @Override
+            public String getId() {
+                return id;
+            }
+
+            @Override
+            public String getNumber() {
+                return number;
+            }
+
+            @Override
+            public String getClientName() {
+                return clientName;
+            }
+
+            @Override
+            public BigDecimal getBalance() {
+                return balance;
+            }
+        };
+    }
+}